@@ -0,0 +1,100 @@
+-- Compares the old OR-across-columns "linked projects" query with the UNION ALL query used by
+-- DatabasePersonRepository.findProjectAssignments on a 1M-project dataset.
+--
+-- Runs in its own scratch schema and leaves the application's tables alone:
+--   psql "$SPRING_DATASOURCE_URL" -f benchmarks/sql/project_assignments.sql
+-- Compare the "Execution Time" and buffer counts of the two EXPLAIN ANALYZE plans.
+
+\set people_count 100000
+\set project_count 1000000
+\set sample_person 4242
+
+DROP SCHEMA IF EXISTS poise_bench CASCADE;
+CREATE SCHEMA poise_bench;
+SET search_path = poise_bench;
+
+CREATE TABLE people (
+    person_id SERIAL PRIMARY KEY,
+    person_name VARCHAR(255) NOT NULL,
+    phone VARCHAR(50) NOT NULL,
+    email VARCHAR(255),
+    address TEXT,
+    role VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE projects (
+    project_id SERIAL PRIMARY KEY,
+    project_name VARCHAR(255) NOT NULL,
+    building_type VARCHAR(100) NOT NULL,
+    project_address TEXT,
+    erf_number INTEGER,
+    total_fee DECIMAL(10, 2) DEFAULT 0,
+    amount_paid_to_date DECIMAL(10, 2) DEFAULT 0,
+    project_deadline DATE,
+    architect_id INTEGER REFERENCES people(person_id),
+    contractor_id INTEGER REFERENCES people(person_id),
+    customer_id INTEGER NOT NULL REFERENCES people(person_id),
+    engineer_id INTEGER REFERENCES people(person_id),
+    manager_id INTEGER REFERENCES people(person_id),
+    project_finalised BOOLEAN DEFAULT FALSE,
+    completion_date DATE
+);
+
+INSERT INTO people (person_name, phone, email, address, role)
+SELECT 'Person ' || n,
+       '0' || (100000000 + n),
+       'person' || n || '@example.com',
+       n || ' Bench Street',
+       (ARRAY['architect', 'contractor', 'customer', 'engineer', 'manager'])[1 + n % 5]
+FROM generate_series(1, :people_count) AS n;
+
+INSERT INTO projects (project_name, building_type, project_address, erf_number, total_fee,
+                      amount_paid_to_date, project_deadline, architect_id, contractor_id,
+                      customer_id, engineer_id, manager_id, project_finalised)
+SELECT 'Project ' || n,
+       (ARRAY['House', 'Apartment', 'Office', 'Warehouse'])[1 + n % 4],
+       n || ' Site Road',
+       n,
+       100000 + n % 900000,
+       n % 100000,
+       DATE '2020-01-01' + (n % 3650),
+       1 + (random() * (:people_count - 1))::int,
+       1 + (random() * (:people_count - 1))::int,
+       1 + (random() * (:people_count - 1))::int,
+       1 + (random() * (:people_count - 1))::int,
+       1 + (random() * (:people_count - 1))::int,
+       n % 3 = 0
+FROM generate_series(1, :project_count) AS n;
+
+-- same foreign-key indexes as db/migration/V2__query_indexes.sql
+CREATE INDEX ON projects (architect_id);
+CREATE INDEX ON projects (contractor_id);
+CREATE INDEX ON projects (customer_id);
+CREATE INDEX ON projects (engineer_id);
+CREATE INDEX ON projects (manager_id);
+ANALYZE people;
+ANALYZE projects;
+
+-- warm the cache so both plans are measured from the same starting point
+SELECT count(*) FROM projects;
+
+\echo '--- before: OR across the role columns'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT project_name FROM projects
+WHERE architect_id = :sample_person OR contractor_id = :sample_person
+   OR engineer_id = :sample_person OR manager_id = :sample_person;
+
+\echo '--- after: UNION ALL of per-column lookups'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT project_id, project_name, 'architect' AS role_on_project FROM projects WHERE architect_id = :sample_person
+UNION ALL
+SELECT project_id, project_name, 'contractor' AS role_on_project FROM projects WHERE contractor_id = :sample_person
+UNION ALL
+SELECT project_id, project_name, 'customer' AS role_on_project FROM projects WHERE customer_id = :sample_person
+UNION ALL
+SELECT project_id, project_name, 'engineer' AS role_on_project FROM projects WHERE engineer_id = :sample_person
+UNION ALL
+SELECT project_id, project_name, 'manager' AS role_on_project FROM projects WHERE manager_id = :sample_person
+ORDER BY project_id, role_on_project;
+
+DROP SCHEMA poise_bench CASCADE;
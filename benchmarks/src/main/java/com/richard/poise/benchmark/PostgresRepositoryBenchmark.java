@@ -0,0 +1,92 @@
+package com.richard.poise.benchmark;
+
+import com.richard.poise.config.DatabaseInitialiser;
+import com.richard.poise.model.ProjectDetails;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.DatabaseProjectRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatabaseProjectRepository against a real PostgreSQL database loaded with synthetic data. Point
+ * BENCH_DATASOURCE_URL (plus BENCH_DATASOURCE_USERNAME / BENCH_DATASOURCE_PASSWORD) at a scratch
+ * database, e.g. a local or throwaway Docker Postgres: the benchmark migrates it and replaces the
+ * contents of the people and projects tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PostgresRepositoryBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  public int projectCount;
+
+  private HikariDataSource dataSource;
+  private DatabaseProjectRepository projectRepository;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    String url = System.getenv("BENCH_DATASOURCE_URL");
+    if (url == null || url.isBlank()) {
+      throw new IllegalStateException(
+          "Set BENCH_DATASOURCE_URL to a scratch PostgreSQL database to run this benchmark");
+    }
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("PoiseBenchmarkPool");
+    config.setJdbcUrl(url);
+    config.setUsername(System.getenv("BENCH_DATASOURCE_USERNAME"));
+    config.setPassword(System.getenv("BENCH_DATASOURCE_PASSWORD"));
+    config.setMaximumPoolSize(4);
+    config.addDataSourceProperty("reWriteBatchedInserts", "true");
+    dataSource = new HikariDataSource(config);
+
+    // registers the pool with DatabaseConnection and brings the schema up to date
+    new DatabaseInitialiser(dataSource).run();
+    SyntheticData.load(dataSource, projectCount);
+    projectRepository = new DatabaseProjectRepository();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    dataSource.close();
+  }
+
+  @Benchmark
+  public Optional<Projects> findByID() {
+    return projectRepository.findByID(1 + ThreadLocalRandom.current().nextInt(projectCount));
+  }
+
+  @Benchmark
+  public Optional<ProjectDetails> findDetailsByID() {
+    return projectRepository.findDetailsByID(
+        1 + ThreadLocalRandom.current().nextInt(projectCount));
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public List<Projects> getAllProjectsSummary() {
+    return projectRepository.getAllProjectsSummary();
+  }
+}
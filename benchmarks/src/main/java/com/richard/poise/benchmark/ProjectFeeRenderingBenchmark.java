@@ -0,0 +1,76 @@
+package com.richard.poise.benchmark;
+
+import com.richard.poise.model.Projects;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a page of projects with their formatted fees through Thymeleaf, the way the project
+ * pages call getFormattedTotalFee and getFormattedAmountPaidToDate. Runs on several threads, as
+ * concurrent page renders do, so contention on a shared formatter would show up in the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ProjectFeeRenderingBenchmark {
+
+  private static final String TEMPLATE =
+      "<table><tr th:each=\"project : ${projects}\">"
+          + "<td th:text=\"${project.projectName}\"></td>"
+          + "<td th:text=\"${project.formattedTotalFee}\"></td>"
+          + "<td th:text=\"${project.formattedAmountPaidToDate}\"></td>"
+          + "</tr></table>";
+
+  // projects rendered per page
+  @Param({"50", "200"})
+  public int rowCount;
+
+  private SpringTemplateEngine templateEngine;
+  private List<Projects> projects;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    StringTemplateResolver resolver = new StringTemplateResolver();
+    resolver.setTemplateMode(TemplateMode.HTML);
+    resolver.setCacheable(true);
+    // the Spring (SpEL) engine, as configured for the web pages
+    templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+
+    int peopleCount = SyntheticData.peopleCountFor(rowCount);
+    projects = new ArrayList<>(rowCount);
+    for (int projectID = 1; projectID <= rowCount; projectID++) {
+      projects.add(SyntheticData.project(projectID, peopleCount));
+    }
+  }
+
+  @Benchmark
+  public String renderFees() {
+    Context context = new Context();
+    context.setVariable("projects", projects);
+    return templateEngine.process(TEMPLATE, context);
+  }
+}
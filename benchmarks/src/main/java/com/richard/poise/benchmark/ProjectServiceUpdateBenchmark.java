@@ -0,0 +1,88 @@
+package com.richard.poise.benchmark;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.InMemoryPersonRepository;
+import com.richard.poise.repository.InMemoryProjectRepository;
+import com.richard.poise.repository.InMemoryStore;
+import com.richard.poise.service.ProjectEventPublisher;
+import com.richard.poise.service.ProjectService;
+import com.richard.poise.service.ProjectUpdateRequest;
+import com.richard.poise.service.ProjectUpdateResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProjectService.updateProject against the in-memory repositories, so the numbers cover the
+ * service's partial update and the store's copy-on-write write without database time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectServiceUpdateBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  public int projectCount;
+
+  private ProjectService projectService;
+  private ProjectUpdateRequest renameRequest;
+  private ProjectUpdateRequest paymentRequest;
+  private SplittableRandom random;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    int peopleCount = SyntheticData.peopleCountFor(projectCount);
+    List<People> people = new ArrayList<>(peopleCount);
+    for (int personID = 1; personID <= peopleCount; personID++) {
+      people.add(SyntheticData.person(personID));
+    }
+    List<Projects> projects = new ArrayList<>(projectCount);
+    for (int projectID = 1; projectID <= projectCount; projectID++) {
+      projects.add(SyntheticData.project(projectID, peopleCount));
+    }
+    InMemoryStore store = new InMemoryStore();
+    store.replaceAll(people, projects);
+    projectService =
+        new ProjectService(
+            new InMemoryProjectRepository(store),
+            new InMemoryPersonRepository(store),
+            new ProjectEventPublisher(List.of()));
+
+    renameRequest = new ProjectUpdateRequest();
+    renameRequest.setProjectName("Renamed project");
+    paymentRequest = new ProjectUpdateRequest();
+    paymentRequest.setAmountPaidToDate(new BigDecimal("12345.67"));
+    paymentRequest.setCompletionDate(Date.valueOf("2025-06-30"));
+    random = new SplittableRandom(42);
+  }
+
+  @Benchmark
+  public ProjectUpdateResult updateOneField() {
+    return projectService.updateProject(1 + random.nextInt(projectCount), renameRequest);
+  }
+
+  @Benchmark
+  public ProjectUpdateResult updateTwoFields() {
+    return projectService.updateProject(1 + random.nextInt(projectCount), paymentRequest);
+  }
+}
@@ -0,0 +1,160 @@
+package com.richard.poise.benchmark;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic people and projects for the benchmarks. Every row is derived from its ID
+ * alone, so datasets of 10k, 100k or 1M projects can be generated (or regenerated) without holding
+ * them in memory.
+ */
+public final class SyntheticData {
+
+  private static final List<String> ROLES =
+      List.of("architect", "contractor", "customer", "engineer", "manager");
+  private static final List<String> BUILDING_TYPES =
+      List.of("House", "Apartment", "Office", "Warehouse", "Retail");
+  private static final long EPOCH_DAY_2020 = java.time.LocalDate.of(2020, 1, 1).toEpochDay();
+
+  // rows per JDBC batch when loading Postgres
+  private static final int BATCH_SIZE = 1000;
+
+  private SyntheticData() {}
+
+  /** One person per ten projects, with at least a hundred people. */
+  public static int peopleCountFor(int projectCount) {
+    return Math.max(100, projectCount / 10);
+  }
+
+  public static People person(int personID) {
+    return new People(
+        personID,
+        "Person " + personID,
+        "0" + (100000000 + personID),
+        "person" + personID + "@example.com",
+        personID + " Bench Street",
+        ROLES.get(personID % ROLES.size()));
+  }
+
+  public static Projects project(int projectID, int peopleCount) {
+    SplittableRandom random = new SplittableRandom(projectID);
+    boolean finalised = projectID % 3 == 0;
+    java.sql.Date deadline =
+        java.sql.Date.valueOf(
+            java.time.LocalDate.ofEpochDay(EPOCH_DAY_2020 + random.nextInt(3650)));
+    return new Projects(
+        projectID,
+        "Project " + projectID,
+        BUILDING_TYPES.get(projectID % BUILDING_TYPES.size()),
+        projectID + " Site Road",
+        projectID,
+        BigDecimal.valueOf(100000 + random.nextInt(900000)),
+        BigDecimal.valueOf(random.nextInt(100000)),
+        deadline,
+        1 + random.nextInt(peopleCount),
+        1 + random.nextInt(peopleCount),
+        1 + random.nextInt(peopleCount),
+        1 + random.nextInt(peopleCount),
+        1 + random.nextInt(peopleCount),
+        finalised,
+        finalised ? deadline : null);
+  }
+
+  /**
+   * Replaces the contents of the people and projects tables with a synthetic dataset. The schema
+   * must already exist (run DatabaseInitialiser first).
+   *
+   * @param dataSource the database to load
+   * @param projectCount number of projects to generate
+   */
+  public static void load(DataSource dataSource, int projectCount) throws SQLException {
+    int peopleCount = peopleCountFor(projectCount);
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("TRUNCATE projects, people RESTART IDENTITY CASCADE");
+      }
+
+      try (PreparedStatement insert =
+          connection.prepareStatement(
+              "INSERT INTO people (person_id, person_name, phone, email, address, role)"
+                  + " VALUES (?, ?, ?, ?, ?, ?)")) {
+        for (int personID = 1; personID <= peopleCount; personID++) {
+          People person = person(personID);
+          insert.setInt(1, person.getPersonID());
+          insert.setString(2, person.getPersonName());
+          insert.setString(3, person.getPhone());
+          insert.setString(4, person.getEmail());
+          insert.setString(5, person.getAddress());
+          insert.setString(6, person.getRole());
+          insert.addBatch();
+          if (personID % BATCH_SIZE == 0) {
+            insert.executeBatch();
+          }
+        }
+        insert.executeBatch();
+      }
+
+      try (PreparedStatement insert =
+          connection.prepareStatement(
+              "INSERT INTO projects (project_id, project_name, building_type, project_address,"
+                  + " erf_number, total_fee, amount_paid_to_date, project_deadline, architect_id,"
+                  + " contractor_id, customer_id, engineer_id, manager_id, project_finalised,"
+                  + " completion_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+        for (int projectID = 1; projectID <= projectCount; projectID++) {
+          Projects project = project(projectID, peopleCount);
+          insert.setInt(1, project.getProjectID());
+          insert.setString(2, project.getProjectName());
+          insert.setString(3, project.getBuildingType());
+          insert.setString(4, project.getProjectAddress());
+          insert.setInt(5, project.getERFNumber());
+          insert.setBigDecimal(6, project.getTotalFee());
+          insert.setBigDecimal(7, project.getAmountPaidToDate());
+          insert.setDate(8, project.getProjectDeadline());
+          insert.setInt(9, project.getArchitectID());
+          insert.setInt(10, project.getContractorID());
+          insert.setInt(11, project.getCustomerID());
+          insert.setInt(12, project.getEngineerID());
+          insert.setInt(13, project.getManagerID());
+          insert.setBoolean(14, project.getIsProjectFinalised());
+          if (project.getCompletionDate() != null) {
+            insert.setDate(15, project.getCompletionDate());
+          } else {
+            insert.setNull(15, Types.DATE);
+          }
+          insert.addBatch();
+          if (projectID % BATCH_SIZE == 0) {
+            insert.executeBatch();
+          }
+        }
+        insert.executeBatch();
+      }
+
+      try (Statement statement = connection.createStatement()) {
+        statement.execute(
+            "SELECT setval(pg_get_serial_sequence('people', 'person_id'), " + peopleCount + ")");
+        statement.execute(
+            "SELECT setval(pg_get_serial_sequence('projects', 'project_id'), "
+                + projectCount
+                + ")");
+      }
+      connection.commit();
+
+      connection.setAutoCommit(true);
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("ANALYZE people");
+        statement.execute("ANALYZE projects");
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.richard.poise.benchmark;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.InMemoryPersonRepository;
+import com.richard.poise.repository.InMemoryProjectRepository;
+import com.richard.poise.repository.InMemoryStore;
+import com.richard.poise.service.ProjectEvent;
+import com.richard.poise.service.Suggestion;
+import com.richard.poise.service.TypeaheadIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TypeaheadIndex lookups and writes over a large number of project names: what one keystroke in
+ * the search box costs the suggest endpoint, without the HTTP and JSON around it. Names are made
+ * of random syllables rather than SyntheticData's "Project N", so prefixes spread the way real
+ * names do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx3g"})
+public class TypeaheadSuggestBenchmark {
+
+  private static final String[] SYLLABLES = {
+    "ka", "lo", "mi", "ra", "ten", "vel", "dor", "sha", "win", "bel", "tor", "an", "es", "ri",
+    "mon", "ga", "pe", "lu", "ster", "ford", "ham", "ton", "wick", "by"
+  };
+  private static final int QUERY_COUNT = 4096;
+
+  @Param({"100000", "1000000"})
+  public int projectCount;
+
+  private TypeaheadIndex typeaheadIndex;
+  private String[] names;
+  private String[] oneLetterQueries;
+  private String[] wordPrefixQueries;
+  private SplittableRandom random;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    SplittableRandom nameRandom = new SplittableRandom(7);
+    int peopleCount = SyntheticData.peopleCountFor(projectCount);
+    List<People> people = new ArrayList<>(peopleCount);
+    for (int personID = 1; personID <= peopleCount; personID++) {
+      people.add(SyntheticData.person(personID));
+    }
+    names = new String[projectCount];
+    List<Projects> projects = new ArrayList<>(projectCount);
+    for (int projectID = 1; projectID <= projectCount; projectID++) {
+      Projects project = SyntheticData.project(projectID, peopleCount);
+      names[projectID - 1] = name(nameRandom);
+      project.setProjectName(names[projectID - 1]);
+      projects.add(project);
+    }
+    InMemoryStore store = new InMemoryStore();
+    store.replaceAll(people, projects);
+    typeaheadIndex =
+        new TypeaheadIndex(
+            new InMemoryProjectRepository(store), new InMemoryPersonRepository(store));
+    typeaheadIndex.reload();
+
+    // what someone has typed: the first letter of a name, or the first few letters of a word
+    SplittableRandom queryRandom = new SplittableRandom(42);
+    oneLetterQueries = new String[QUERY_COUNT];
+    wordPrefixQueries = new String[QUERY_COUNT];
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      String name = names[queryRandom.nextInt(projectCount)];
+      oneLetterQueries[i] = name.substring(0, 1);
+      String[] words = name.split(" ");
+      String word = words[queryRandom.nextInt(words.length)];
+      wordPrefixQueries[i] = word.substring(0, Math.min(word.length(), 3 + queryRandom.nextInt(3)));
+    }
+    random = new SplittableRandom(1);
+  }
+
+  private static String name(SplittableRandom random) {
+    StringBuilder name = new StringBuilder();
+    int words = 2 + random.nextInt(2);
+    for (int w = 0; w < words; w++) {
+      if (w > 0) {
+        name.append(' ');
+      }
+      int start = name.length();
+      int syllables = 2 + random.nextInt(3);
+      for (int s = 0; s < syllables; s++) {
+        name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+      name.setCharAt(start, Character.toUpperCase(name.charAt(start)));
+    }
+    return name.toString();
+  }
+
+  @Benchmark
+  public List<Suggestion> suggestOneLetter() {
+    return typeaheadIndex.suggestProjects(oneLetterQueries[random.nextInt(QUERY_COUNT)], 10);
+  }
+
+  @Benchmark
+  public List<Suggestion> suggestWordPrefix() {
+    return typeaheadIndex.suggestProjects(wordPrefixQueries[random.nextInt(QUERY_COUNT)], 10);
+  }
+
+  /** A project renamed by ProjectService: the event that keeps the index current. */
+  @Benchmark
+  public void renameProject() {
+    int projectID = 1 + random.nextInt(projectCount);
+    typeaheadIndex.onProjectEvents(
+        List.of(
+            new ProjectEvent(
+                ProjectEvent.Type.UPDATED, projectID, names[random.nextInt(projectCount)])));
+  }
+}
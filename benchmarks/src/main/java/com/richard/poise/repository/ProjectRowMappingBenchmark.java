@@ -0,0 +1,100 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.benchmark.SyntheticData;
+import com.richard.poise.model.Projects;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning "SELECT * FROM projects" rows into Projects objects (DatabaseProjectRepository's
+ * mapProject), measured over an in-memory result set so driver and network time are excluded.
+ * Lives in the repository package because mapProject is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectRowMappingBenchmark {
+
+  private static final String[] COLUMNS = {
+    "project_id", "project_name", "building_type", "project_address", "ERF_number", "total_fee",
+    "amount_paid_to_date", "project_deadline", "architect_id", "contractor_id", "customer_id",
+    "engineer_id", "manager_id", "project_finalised", "completion_date", "version"
+  };
+  private static final int[] TYPES = {
+    Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.DECIMAL,
+    Types.DECIMAL, Types.DATE, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER,
+    Types.INTEGER, Types.BOOLEAN, Types.DATE, Types.INTEGER
+  };
+
+  // rows mapped per benchmark invocation, i.e. one page or result batch
+  @Param({"50", "500"})
+  public int rowCount;
+
+  private CachedRowSet rows;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+    metaData.setColumnCount(COLUMNS.length);
+    for (int i = 0; i < COLUMNS.length; i++) {
+      metaData.setColumnName(i + 1, COLUMNS[i]);
+      metaData.setColumnLabel(i + 1, COLUMNS[i]);
+      metaData.setColumnType(i + 1, TYPES[i]);
+    }
+    rows = RowSetProvider.newFactory().createCachedRowSet();
+    rows.setMetaData(metaData);
+
+    int peopleCount = SyntheticData.peopleCountFor(rowCount);
+    for (int projectID = 1; projectID <= rowCount; projectID++) {
+      Projects project = SyntheticData.project(projectID, peopleCount);
+      rows.moveToInsertRow();
+      rows.updateInt(1, project.getProjectID());
+      rows.updateString(2, project.getProjectName());
+      rows.updateString(3, project.getBuildingType());
+      rows.updateString(4, project.getProjectAddress());
+      rows.updateInt(5, project.getERFNumber());
+      rows.updateBigDecimal(6, project.getTotalFee());
+      rows.updateBigDecimal(7, project.getAmountPaidToDate());
+      rows.updateDate(8, project.getProjectDeadline());
+      rows.updateInt(9, project.getArchitectID());
+      rows.updateInt(10, project.getContractorID());
+      rows.updateInt(11, project.getCustomerID());
+      rows.updateInt(12, project.getEngineerID());
+      rows.updateInt(13, project.getManagerID());
+      rows.updateBoolean(14, project.getIsProjectFinalised());
+      rows.updateDate(15, project.getCompletionDate());
+      rows.updateInt(16, project.getVersion());
+      rows.insertRow();
+      rows.moveToCurrentRow();
+    }
+  }
+
+  @Benchmark
+  public void mapRows(Blackhole blackhole) throws SQLException {
+    rows.beforeFirst();
+    while (rows.next()) {
+      blackhole.consume(DatabaseProjectRepository.mapProject(rows));
+    }
+  }
+}
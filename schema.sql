@@ -30,4 +30,173 @@ CREATE TABLE IF NOT EXISTS projects (
     FOREIGN KEY (customer_id) REFERENCES people(person_id) ON DELETE RESTRICT,
     FOREIGN KEY (engineer_id) REFERENCES people(person_id) ON DELETE SET NULL,
     FOREIGN KEY (manager_id) REFERENCES people(person_id) ON DELETE SET NULL
-);
\ No newline at end of file
+);
+
+
+-- Open projects by deadline (overdue page); the incomplete list filters on the same predicate
+CREATE INDEX IF NOT EXISTS idx_projects_open_deadline
+    ON projects (project_deadline) WHERE NOT project_finalised;
+CREATE INDEX IF NOT EXISTS idx_projects_open_id
+    ON projects (project_id) WHERE NOT project_finalised;
+
+-- Case-insensitive name and role lookups
+CREATE INDEX IF NOT EXISTS idx_projects_lower_name ON projects (LOWER(project_name));
+CREATE INDEX IF NOT EXISTS idx_people_lower_name ON people (LOWER(person_name));
+CREATE INDEX IF NOT EXISTS idx_people_lower_role ON people (LOWER(role));
+
+-- Foreign keys: linked-project lookups, customer checks and person deletes
+CREATE INDEX IF NOT EXISTS idx_projects_architect_id ON projects (architect_id);
+CREATE INDEX IF NOT EXISTS idx_projects_contractor_id ON projects (contractor_id);
+CREATE INDEX IF NOT EXISTS idx_projects_customer_id ON projects (customer_id);
+CREATE INDEX IF NOT EXISTS idx_projects_engineer_id ON projects (engineer_id);
+CREATE INDEX IF NOT EXISTS idx_projects_manager_id ON projects (manager_id);
+
+-- Row versions for optimistic concurrency: every update bumps the version, and edits made from
+-- a version that has since moved on are rejected instead of overwriting the newer row
+ALTER TABLE people ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+
+-- Fee totals per customer, building type and manager for the finance dashboards, so they read a
+-- handful of summary rows instead of summing every project. group_key is the customer or manager
+-- ID as text (0 for no manager) or the building type; outstanding is total_fee - amount_paid.
+CREATE TABLE IF NOT EXISTS project_financial_summary (
+    dimension VARCHAR(20) NOT NULL,
+    group_key VARCHAR(100) NOT NULL,
+    project_count BIGINT NOT NULL DEFAULT 0,
+    total_fee NUMERIC(16, 2) NOT NULL DEFAULT 0,
+    amount_paid NUMERIC(16, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimension, group_key)
+);
+
+INSERT INTO project_financial_summary (dimension, group_key, project_count, total_fee, amount_paid)
+SELECT g.dimension, g.group_key, COUNT(*),
+       SUM(COALESCE(p.total_fee, 0)), SUM(COALESCE(p.amount_paid_to_date, 0))
+FROM projects p
+CROSS JOIN LATERAL (VALUES ('customer', p.customer_id::text),
+                           ('building_type', p.building_type),
+                           ('manager', COALESCE(p.manager_id, 0)::text)) AS g (dimension, group_key)
+GROUP BY g.dimension, g.group_key
+ON CONFLICT (dimension, group_key) DO NOTHING;
+
+-- Applies each statement's changes to the summary in the same transaction, one upsert per
+-- affected group however many rows the statement touched (a bulk COPY import included). Updates
+-- that leave the grouping columns and fees alone, such as finalising, don't touch the summary.
+-- Groups are upserted in key order so concurrent statements lock them in the same order.
+-- The body is a quoted string rather than $$-quoted because the migration runner splits
+-- scripts on semicolons outside single quotes.
+CREATE OR REPLACE FUNCTION project_financial_summary_apply() RETURNS trigger
+LANGUAGE plpgsql AS '
+BEGIN
+    IF TG_OP = ''INSERT'' THEN
+        INSERT INTO project_financial_summary AS s
+            (dimension, group_key, project_count, total_fee, amount_paid)
+        SELECT g.dimension, g.group_key, COUNT(*),
+               SUM(COALESCE(d.total_fee, 0)), SUM(COALESCE(d.amount_paid_to_date, 0))
+        FROM new_rows d
+        CROSS JOIN LATERAL (VALUES (''customer'', d.customer_id::text),
+                                   (''building_type'', d.building_type),
+                                   (''manager'', COALESCE(d.manager_id, 0)::text))
+            AS g (dimension, group_key)
+        GROUP BY g.dimension, g.group_key
+        ORDER BY g.dimension, g.group_key
+        ON CONFLICT (dimension, group_key) DO UPDATE
+            SET project_count = s.project_count + EXCLUDED.project_count,
+                total_fee = s.total_fee + EXCLUDED.total_fee,
+                amount_paid = s.amount_paid + EXCLUDED.amount_paid;
+    ELSIF TG_OP = ''DELETE'' THEN
+        INSERT INTO project_financial_summary AS s
+            (dimension, group_key, project_count, total_fee, amount_paid)
+        SELECT g.dimension, g.group_key, -COUNT(*),
+               -SUM(COALESCE(d.total_fee, 0)), -SUM(COALESCE(d.amount_paid_to_date, 0))
+        FROM old_rows d
+        CROSS JOIN LATERAL (VALUES (''customer'', d.customer_id::text),
+                                   (''building_type'', d.building_type),
+                                   (''manager'', COALESCE(d.manager_id, 0)::text))
+            AS g (dimension, group_key)
+        GROUP BY g.dimension, g.group_key
+        ORDER BY g.dimension, g.group_key
+        ON CONFLICT (dimension, group_key) DO UPDATE
+            SET project_count = s.project_count + EXCLUDED.project_count,
+                total_fee = s.total_fee + EXCLUDED.total_fee,
+                amount_paid = s.amount_paid + EXCLUDED.amount_paid;
+    ELSE
+        INSERT INTO project_financial_summary AS s
+            (dimension, group_key, project_count, total_fee, amount_paid)
+        SELECT g.dimension, g.group_key, SUM(d.sign),
+               SUM(d.sign * COALESCE(d.total_fee, 0)),
+               SUM(d.sign * COALESCE(d.amount_paid_to_date, 0))
+        FROM (SELECT c.sign, c.customer_id, c.building_type, c.manager_id, c.total_fee,
+                     c.amount_paid_to_date
+              FROM old_rows o
+              JOIN new_rows n ON n.project_id = o.project_id
+              CROSS JOIN LATERAL (VALUES (-1, o.customer_id, o.building_type, o.manager_id,
+                                          o.total_fee, o.amount_paid_to_date),
+                                         (1, n.customer_id, n.building_type, n.manager_id,
+                                          n.total_fee, n.amount_paid_to_date))
+                  AS c (sign, customer_id, building_type, manager_id, total_fee,
+                        amount_paid_to_date)
+              WHERE (o.customer_id, o.building_type, o.manager_id, o.total_fee,
+                     o.amount_paid_to_date)
+                  IS DISTINCT FROM (n.customer_id, n.building_type, n.manager_id, n.total_fee,
+                                    n.amount_paid_to_date)) d
+        CROSS JOIN LATERAL (VALUES (''customer'', d.customer_id::text),
+                                   (''building_type'', d.building_type),
+                                   (''manager'', COALESCE(d.manager_id, 0)::text))
+            AS g (dimension, group_key)
+        GROUP BY g.dimension, g.group_key
+        ORDER BY g.dimension, g.group_key
+        ON CONFLICT (dimension, group_key) DO UPDATE
+            SET project_count = s.project_count + EXCLUDED.project_count,
+                total_fee = s.total_fee + EXCLUDED.total_fee,
+                amount_paid = s.amount_paid + EXCLUDED.amount_paid;
+    END IF;
+    RETURN NULL;
+END
+';
+
+-- Transition tables need one trigger per event
+DROP TRIGGER IF EXISTS projects_financial_summary_insert ON projects;
+CREATE TRIGGER projects_financial_summary_insert
+    AFTER INSERT ON projects REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION project_financial_summary_apply();
+
+DROP TRIGGER IF EXISTS projects_financial_summary_update ON projects;
+CREATE TRIGGER projects_financial_summary_update
+    AFTER UPDATE ON projects REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION project_financial_summary_apply();
+
+DROP TRIGGER IF EXISTS projects_financial_summary_delete ON projects;
+CREATE TRIGGER projects_financial_summary_delete
+    AFTER DELETE ON projects REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION project_financial_summary_apply();
+
+-- Fees are exact fixed-point amounts (BigDecimal in the application). Widen them to the
+-- DECIMAL(15, 2) the documented schema has always declared, and the summary sums to match.
+ALTER TABLE projects ALTER COLUMN total_fee TYPE DECIMAL(15, 2);
+ALTER TABLE projects ALTER COLUMN amount_paid_to_date TYPE DECIMAL(15, 2);
+
+ALTER TABLE project_financial_summary ALTER COLUMN total_fee TYPE NUMERIC(20, 2);
+ALTER TABLE project_financial_summary ALTER COLUMN amount_paid TYPE NUMERIC(20, 2);
+
+-- Ranked partial and fuzzy search over projects and people. The trigram (pg_trgm) indexes serve
+-- substring matches (LIKE '%term%') and similarity matches (% and %>); the tsvector indexes
+-- serve word-prefix matches in any order. The indexed expressions must stay identical to the
+-- ones in the repositories' search queries. pg_trgm ships with PostgreSQL; creating the
+-- extension needs a role allowed to do so (or an administrator to create it first).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_projects_name_trgm
+    ON projects USING GIN (LOWER(project_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_projects_address_trgm
+    ON projects USING GIN (LOWER(project_address) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_projects_search_tsv
+    ON projects USING GIN (to_tsvector('simple', COALESCE(project_name, '') || ' ' || COALESCE(project_address, '')));
+
+CREATE INDEX IF NOT EXISTS idx_people_name_trgm
+    ON people USING GIN (LOWER(person_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_people_email_trgm
+    ON people USING GIN (LOWER(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_people_phone_trgm
+    ON people USING GIN (LOWER(phone) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_people_search_tsv
+    ON people USING GIN (to_tsvector('simple', COALESCE(person_name, '')));
@@ -2,12 +2,14 @@ package com.richard.poise;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application entry point for PoisePMS. Launches the web application and
  * configures component scanning. Deployed on Render with PostgreSQL database integration.
  */
 @SpringBootApplication
+@EnableScheduling
 public class PoisePmsApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package com.richard.poise.config;
+
+import com.richard.poise.repository.DatabaseConnection;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool configuration. Pool sizing, acquisition timeout, idle eviction and validation are
+ * set through the spring.datasource.hikari.* properties; this class attaches the pool metrics
+ * tracker to Spring's HikariDataSource before the pool starts.
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPoolMetricsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikariDataSource
+                        && hikariDataSource.getMetricsTrackerFactory() == null) {
+                    hikariDataSource.setMetricsTrackerFactory(DatabaseConnection.getPoolMetrics());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,31 +1,187 @@
 package com.richard.poise.config;
 
+import com.richard.poise.repository.DatabaseConnection;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Brings the database schema up to date at start-up. Migrations are the versioned scripts in
+ * db/migration (V1__baseline_schema.sql, V2__query_indexes.sql, ...); each one runs once, in
+ * version order, in its own transaction, and is recorded in the schema_version table.
+ */
 @Component
 public class DatabaseInitialiser implements CommandLineRunner {
 
+    static final String MIGRATION_LOCATION = "classpath:db/migration/V*__*.sql";
+
+    // arbitrary key for the advisory lock that stops two instances migrating at once
+    private static final long MIGRATION_LOCK_KEY = 0x506f697365L;
+
+    private static final Pattern MIGRATION_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
     private final DataSource dataSource;
 
     public DatabaseInitialiser(DataSource dataSource) {
         this.dataSource = dataSource;
+        // repositories borrow connections from the Spring-managed pool
+        DatabaseConnection.useDataSource(dataSource);
     }
 
     @Override
     public void run(String... args) {
         try {
-            ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
-            populator.addScript(new ClassPathResource("schema.sql"));
-            populator.execute(dataSource);
-            System.out.println("Database schema initialized successfully");
+            int applied = migrate(findMigrations());
+            System.out.println("Database schema up to date (" + applied + " migration(s) applied)");
         } catch (Exception e) {
-            System.err.println("Failed to initialize database schema: " + e.getMessage());
+            System.err.println("Failed to migrate database schema: " + e.getMessage());
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies every migration that hasn't been recorded in schema_version yet.
+     *
+     * @param migrations all known migrations, in version order
+     * @return the number of migrations applied
+     */
+    int migrate(List<Migration> migrations) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(
+                        "CREATE TABLE IF NOT EXISTS schema_version ("
+                                + "version INTEGER PRIMARY KEY, "
+                                + "description VARCHAR(255) NOT NULL, "
+                                + "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+                statement.execute("SELECT pg_advisory_lock(" + MIGRATION_LOCK_KEY + ")");
+            }
+            try {
+                Set<Integer> appliedVersions = appliedVersions(connection);
+                int applied = 0;
+                for (Migration migration : migrations) {
+                    if (!appliedVersions.contains(migration.version)) {
+                        apply(connection, migration);
+                        applied++;
+                    }
+                }
+                return applied;
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT pg_advisory_unlock(" + MIGRATION_LOCK_KEY + ")");
+                }
+            }
+        }
+    }
+
+    private Set<Integer> appliedVersions(Connection connection) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet results = statement.executeQuery("SELECT version FROM schema_version")) {
+            while (results.next()) {
+                versions.add(results.getInt("version"));
+            }
+        }
+        return versions;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, migration.script);
+            try (PreparedStatement insert =
+                    connection.prepareStatement(
+                            "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                insert.setInt(1, migration.version);
+                insert.setString(2, migration.description);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            System.out.println(
+                    "Applied migration V" + migration.version + " " + migration.description);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Finds the migration scripts on the classpath, sorted by version.
+     *
+     * @return the migrations in the order they should run
+     * @throws IllegalStateException if two scripts share a version number
+     */
+    static List<Migration> findMigrations() throws IOException {
+        Resource[] resources =
+                new PathMatchingResourcePatternResolver().getResources(MIGRATION_LOCATION);
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : resources) {
+            Migration migration = Migration.from(resource);
+            if (migration != null) {
+                migrations.add(migration);
+            }
+        }
+        return sorted(migrations);
+    }
+
+    static List<Migration> sorted(List<Migration> migrations) {
+        List<Migration> ordered = new ArrayList<>(migrations);
+        ordered.sort(Comparator.comparingInt(migration -> migration.version));
+        for (int i = 1; i < ordered.size(); i++) {
+            if (ordered.get(i).version == ordered.get(i - 1).version) {
+                throw new IllegalStateException(
+                        "Duplicate migration version V" + ordered.get(i).version);
+            }
+        }
+        return ordered;
+    }
+
+    /** A single versioned migration script. */
+    static final class Migration {
+        final int version;
+        final String description;
+        final Resource script;
+
+        Migration(int version, String description, Resource script) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+        }
+
+        /**
+         * Reads the version and description from a script named like V2__query_indexes.sql.
+         *
+         * @return the migration, or null if the file name doesn't follow the naming scheme
+         */
+        static Migration from(Resource resource) {
+            String fileName = resource.getFilename();
+            Matcher matcher = MIGRATION_NAME.matcher(fileName != null ? fileName : "");
+            if (!matcher.matches()) {
+                return null;
+            }
+            return new Migration(
+                    Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '),
+                    resource);
+        }
+    }
+}
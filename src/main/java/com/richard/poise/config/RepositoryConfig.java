@@ -0,0 +1,45 @@
+package com.richard.poise.config;
+
+import com.richard.poise.repository.CachingPersonRepository;
+import com.richard.poise.repository.CachingProjectRepository;
+import com.richard.poise.repository.DatabasePersonRepository;
+import com.richard.poise.repository.DatabaseProjectRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers the repository layer as singleton beans. Controllers and services receive these shared
+ * instances through constructor injection instead of constructing repositories per request.
+ */
+@Configuration
+public class RepositoryConfig {
+
+    /** Person repository with a bounded, expiring cache keyed by person ID. */
+    @Bean
+    public CachingPersonRepository personRepository(
+            @Value("${poise.cache.people.max-size:10000}") int maxSize,
+            @Value("${poise.cache.people.ttl-seconds:300}") long ttlSeconds,
+            @Value("${poise.search.timeout-ms:300}") int searchTimeoutMillis) {
+        return new CachingPersonRepository(
+                new DatabasePersonRepository(searchTimeoutMillis),
+                maxSize,
+                ttlSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /** Project repository with a bounded, expiring read-through cache in front of findByID. */
+    @Bean
+    public CachingProjectRepository projectRepository(
+            @Value("${poise.cache.projects.max-size:10000}") int maxSize,
+            @Value("${poise.cache.projects.ttl-seconds:300}") long ttlSeconds,
+            @Value("${poise.search.timeout-ms:300}") int searchTimeoutMillis) {
+        return new CachingProjectRepository(
+                new DatabaseProjectRepository(searchTimeoutMillis),
+                maxSize,
+                ttlSeconds,
+                TimeUnit.SECONDS);
+    }
+}
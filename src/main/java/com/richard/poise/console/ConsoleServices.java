@@ -0,0 +1,66 @@
+package com.richard.poise.console;
+
+import com.richard.poise.repository.CachingPersonRepository;
+import com.richard.poise.repository.CachingProjectRepository;
+import com.richard.poise.repository.DatabasePersonRepository;
+import com.richard.poise.repository.DatabaseProjectRepository;
+import com.richard.poise.repository.PersonRepository;
+import com.richard.poise.repository.ProjectRepository;
+import com.richard.poise.service.ImportService;
+import com.richard.poise.service.OverdueProjectTracker;
+import com.richard.poise.service.PersonService;
+import com.richard.poise.service.ProjectEventPublisher;
+import com.richard.poise.service.ProjectService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the single repository and service instances shared by the console menus. Mirrors the
+ * singleton beans the web application gets from Spring, so state kept at the repository and
+ * service layer lives for the whole console session rather than one menu action.
+ */
+public final class ConsoleServices {
+
+  private static final PersonRepository PERSON_REPOSITORY =
+      new CachingPersonRepository(new DatabasePersonRepository(), 10000, 300, TimeUnit.SECONDS);
+  private static final ProjectRepository PROJECT_REPOSITORY =
+      new CachingProjectRepository(new DatabaseProjectRepository(), 10000, 300, TimeUnit.SECONDS);
+  private static final PersonService PERSON_SERVICE = new PersonService(PERSON_REPOSITORY);
+  // loaded on first use; without a scheduler it sweeps only when read, which is all it needs
+  private static final OverdueProjectTracker OVERDUE_PROJECT_TRACKER =
+      new OverdueProjectTracker(PROJECT_REPOSITORY);
+  private static final ProjectService PROJECT_SERVICE =
+      new ProjectService(
+          PROJECT_REPOSITORY,
+          PERSON_REPOSITORY,
+          new ProjectEventPublisher(List.of(OVERDUE_PROJECT_TRACKER)));
+  private static final ImportService IMPORT_SERVICE =
+      new ImportService(PROJECT_REPOSITORY, PERSON_REPOSITORY, OVERDUE_PROJECT_TRACKER, null);
+
+  private ConsoleServices() {}
+
+  public static PersonRepository personRepository() {
+    return PERSON_REPOSITORY;
+  }
+
+  public static ProjectRepository projectRepository() {
+    return PROJECT_REPOSITORY;
+  }
+
+  public static PersonService personService() {
+    return PERSON_SERVICE;
+  }
+
+  public static ProjectService projectService() {
+    return PROJECT_SERVICE;
+  }
+
+  public static OverdueProjectTracker overdueProjectTracker() {
+    return OVERDUE_PROJECT_TRACKER;
+  }
+
+  public static ImportService importService() {
+    return IMPORT_SERVICE;
+  }
+}
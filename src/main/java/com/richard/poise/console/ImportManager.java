@@ -0,0 +1,92 @@
+package com.richard.poise.console;
+
+import com.richard.poise.service.ExportFormat;
+import com.richard.poise.service.ImportReport;
+import com.richard.poise.service.ImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Scanner;
+
+public class ImportManager {
+
+  // rejected rows listed on the console; the rest are only counted
+  private static final int ERRORS_SHOWN = 20;
+
+  /**
+   * Imports projects or people from a file. The format is taken from the file extension (.csv,
+   * otherwise JSON Lines), and a summary with the throughput and the first rejected rows is
+   * printed afterwards.
+   *
+   * @param scanner used for reading user input
+   */
+  public static void importFromFile(Scanner scanner) {
+    String option = "";
+    while (!option.matches("[0-2]")) {
+      System.out.println("What would you like to import?");
+      System.out.println("1: Projects");
+      System.out.println("2: People");
+      System.out.println("0: Return to main menu");
+      option = scanner.nextLine().trim();
+    }
+    if (option.equals("0")) {
+      return;
+    }
+
+    System.out.println("Please enter the path of the file to import:");
+    Path path = Paths.get(scanner.nextLine().trim());
+    if (!Files.isRegularFile(path)) {
+      System.out.println("File could not be found: " + path);
+      return;
+    }
+    ExportFormat format =
+        path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+            ? ExportFormat.CSV
+            : ExportFormat.JSONL;
+
+    ImportService service = ConsoleServices.importService();
+    ImportReport report;
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      report =
+          option.equals("1")
+              ? service.importProjects(inputStream, format)
+              : service.importPeople(inputStream, format);
+    } catch (IOException e) {
+      System.out.println("Error: could not read " + path + ": " + e.getMessage());
+      return;
+    }
+    displayReport(report);
+  }
+
+  private static void displayReport(ImportReport report) {
+    System.out.println(
+        "Imported "
+            + report.getRowsImported()
+            + " of "
+            + report.getRowsRead()
+            + " rows in "
+            + report.getElapsedMillis()
+            + " ms ("
+            + report.getRowsPerSecond()
+            + " rows per second)");
+    if (report.getFailure() != null) {
+      System.out.println("Import stopped early: " + report.getFailure());
+    }
+    if (report.getRowsRejected() > 0) {
+      System.out.println(report.getRowsRejected() + " rows were rejected:");
+      List<ImportReport.RowError> errors = report.getErrors();
+      for (int i = 0; i < errors.size() && i < ERRORS_SHOWN; i++) {
+        System.out.println("- row " + errors.get(i).getRow() + ": " + errors.get(i).getMessage());
+      }
+      if (report.getRowsRejected() > ERRORS_SHOWN) {
+        System.out.println("... and " + (report.getRowsRejected() - ERRORS_SHOWN) + " more");
+      }
+    }
+    System.out.println();
+  }
+}
@@ -92,8 +92,8 @@ public class Main {
               results.getString("building_type"),
               results.getString("project_address"),
               results.getInt("ERF_number"),
-              results.getDouble("total_fee"),
-              results.getDouble("amount_paid_to_date"),
+              results.getBigDecimal("total_fee"),
+              results.getBigDecimal("amount_paid_to_date"),
               results.getDate("project_deadline"),
               results.getInt("architect_id"),
               results.getInt("contractor_id"),
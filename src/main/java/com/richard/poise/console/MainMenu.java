@@ -30,6 +30,9 @@ public class MainMenu {
         case "6":
           handlePeopleManagement(scanner);
           break;
+        case "7":
+          ImportManager.importFromFile(scanner);
+          break;
 
         case "0":
           // breaks out of loop if user selects option 0, exit
@@ -37,7 +40,7 @@ public class MainMenu {
           System.out.println("Goodbye!");
           break;
         default:
-          System.out.println("Please enter a valid option (0-4)");
+          System.out.println("Please enter a valid option (0-7)");
       }
     }
     scanner.close();
@@ -58,16 +61,17 @@ public class MainMenu {
           "Option 4: Search and filter projects by ID number or name for detailed project information");
       System.out.println("Option 5: Look up people by ID number or name");
       System.out.println("Option 6: Add, update or delete people from the database");
+      System.out.println("Option 7: Import projects or people from a CSV or JSON Lines file");
       System.out.println("Option 0: Exit");
       optionNumber = scanner.nextLine();
       // Remove spaces and dashes for option input validation
       String cleanOption = optionNumber.replaceAll("[\\s-()]", "");
-      if (cleanOption.matches("[0-6]")) {
+      if (cleanOption.matches("[0-7]")) {
         validOption = true;
         return optionNumber; // Return the original format
       } else {
         // message if option number not valid
-        System.out.println("Invalid option number. Please enter a number between 0-6");
+        System.out.println("Invalid option number. Please enter a number between 0-7");
       }
     }
     return "";
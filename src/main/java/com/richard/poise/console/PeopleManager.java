@@ -1,7 +1,7 @@
 package com.richard.poise.console;
 
 import com.richard.poise.model.People;
-import com.richard.poise.repository.DatabasePersonRepository;
+import com.richard.poise.model.ProjectAssignment;
 import com.richard.poise.repository.PersonRepository;
 import com.richard.poise.service.PeopleCreateRequest;
 import com.richard.poise.service.PersonService;
@@ -14,6 +14,9 @@ import java.util.Scanner;
 
 public class PeopleManager {
 
+  // matches listed by a name search
+  private static final int SEARCH_RESULTS = 20;
+
   // simple helper method to help with display of people details in searchPeople method
   public static void displayPeopleDetails(People person) {
     System.out.println("Found person:");
@@ -29,6 +32,39 @@ public class PeopleManager {
     System.out.println(); // Empty line for spacing between people
   }
 
+  // lets the user pick one of several search matches; a single match is picked automatically
+  private static Optional<People> choosePerson(Scanner scanner, List<People> matches) {
+    if (matches.size() <= 1) {
+      return matches.stream().findFirst();
+    }
+    System.out.println("Matching people, best match first:");
+    for (int i = 0; i < matches.size(); i++) {
+      People match = matches.get(i);
+      System.out.println(
+          (i + 1)
+              + ": "
+              + match.getPersonName()
+              + " (ID "
+              + match.getPersonID()
+              + ", "
+              + match.getEmail()
+              + ", "
+              + match.getPhone()
+              + ")");
+    }
+    while (true) {
+      System.out.println("Enter the number of the person you want (0 to cancel):");
+      int choice = scanner.nextInt();
+      scanner.nextLine();
+      if (choice == 0) {
+        return Optional.empty();
+      } else if (choice >= 1 && choice <= matches.size()) {
+        return Optional.of(matches.get(choice - 1));
+      }
+      System.out.println("Invalid choice. Please try again.");
+    }
+  }
+
   /**
    * Provides an interactive search interface for finding people Allows users to search for a person
    * either by ID or name
@@ -40,13 +76,13 @@ public class PeopleManager {
     int option = 0;
     boolean validOption = false;
     int ID = 0;
-    String person_name = null;
+    String query = null;
 
     while (!validOption) { // while loop to go through searchPeople menu options
       System.out.println("How would you like to search?");
       // options on how to search for an individual
       System.out.println("1: Search by ID");
-      System.out.println("2: Search by person name");
+      System.out.println("2: Search by name, email or phone number");
       System.out.println("0: Return to main menu");
 
       option = scanner.nextInt();
@@ -60,7 +96,7 @@ public class PeopleManager {
           ID = scanner.nextInt();
           scanner.nextLine();
 
-          PersonRepository personRepository = new DatabasePersonRepository();
+          PersonRepository personRepository = ConsoleServices.personRepository();
           Optional<People> foundPerson = personRepository.findByID(ID);
 
           if (foundPerson.isPresent()) {
@@ -71,11 +107,11 @@ public class PeopleManager {
           return foundPerson;
 
         } else if (option == 2) {
-          System.out.print("Enter the name of the person: ");
-          person_name = scanner.nextLine();
-          //  Call DatabaseManager with the persons name
-          PersonRepository personRepository = new DatabasePersonRepository();
-          Optional<People> foundPerson = personRepository.findByName(person_name);
+          System.out.print("Enter part of the person's name, email address or phone number: ");
+          query = scanner.nextLine();
+          PersonRepository personRepository = ConsoleServices.personRepository();
+          Optional<People> foundPerson =
+              choosePerson(scanner, personRepository.searchPeople(query, SEARCH_RESULTS));
           if (foundPerson.isPresent()) {
             displayPeopleDetails(foundPerson.get());
           } else {
@@ -179,7 +215,9 @@ public class PeopleManager {
               request.setRole(input);
             }
           } else if (option == 6) {
-            PersonService service = new PersonService(new DatabasePersonRepository());
+            PersonService service = ConsoleServices.personService();
+            // don't overwrite changes someone else saved while these edits were being entered
+            request.setVersion(personToUpdate.getVersion());
             PersonUpdateResult result = service.updatePerson(personToUpdate.getPersonID(), request);
 
             if (result.getSuccess()) {
@@ -201,9 +239,10 @@ public class PeopleManager {
    * @param scanner used for reading user input
    */
   public static Optional<People> displayPeopleByRole(Scanner scanner, String role) {
-    // Call DatabaseManager to get the people list
-    PersonRepository personRepository = new DatabasePersonRepository();
-    List<People> peopleList = personRepository.findByRole(role);
+    // Get the people list from the grouped role lookup (one query for all roles)
+    PersonRepository personRepository = ConsoleServices.personRepository();
+    List<People> peopleList =
+        personRepository.findAllGroupedByRole().getOrDefault(role, List.of());
 
     // Check if the list is empty
     if (peopleList.isEmpty()) {
@@ -323,7 +362,7 @@ public class PeopleManager {
         validRole = true;
       }
 
-      PersonService service = new PersonService(new DatabasePersonRepository());
+      PersonService service = ConsoleServices.personService();
       PersonUpdateResult result = service.createPerson(request);
 
       if (result.getSuccess()) {
@@ -346,7 +385,7 @@ public class PeopleManager {
     People personToDelete = searchPeople(scanner).orElse(null);
 
     if (personToDelete != null) {
-      PersonRepository personRepository = new DatabasePersonRepository();
+      PersonRepository personRepository = ConsoleServices.personRepository();
 
       // Check if they're a customer in projects
       if (personToDelete.getRole().equalsIgnoreCase("customer")
@@ -357,14 +396,23 @@ public class PeopleManager {
       }
 
       // Check for linked projects
-      List<String> linkedProjects =
-          personRepository.getProjectsLinkedToPerson(personToDelete.getPersonID());
+      List<ProjectAssignment> linkedProjects =
+          personRepository.findProjectAssignments(personToDelete.getPersonID());
       if (!linkedProjects.isEmpty()) {
         System.out.println(
             "Warning: This "
                 + personToDelete.getRole()
                 + " is associated with the following projects:");
-        linkedProjects.forEach(projectName -> System.out.println("- " + projectName));
+        linkedProjects.forEach(
+            assignment ->
+                System.out.println(
+                    "- "
+                        + assignment.getProjectID()
+                        + ": "
+                        + assignment.getProjectName()
+                        + " ("
+                        + assignment.getRoleOnProject()
+                        + ")"));
         System.out.println("Deleting them will remove their assignment from these projects.");
       }
       // Confirm deletion
@@ -376,7 +424,7 @@ public class PeopleManager {
 
         if (input.equals("yes") || input.equals("y")) {
           validInput = true;
-          PersonService service = new PersonService(new DatabasePersonRepository());
+          PersonService service = ConsoleServices.personService();
           PersonUpdateResult result = service.deletePerson(personToDelete.getPersonID());
 
           if (result.getSuccess()) {
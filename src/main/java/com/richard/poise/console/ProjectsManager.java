@@ -1,15 +1,15 @@
 package com.richard.poise.console;
 
+import com.richard.poise.model.Money;
 import com.richard.poise.model.People;
 import com.richard.poise.model.Projects;
-import com.richard.poise.repository.DatabasePersonRepository;
-import com.richard.poise.repository.DatabaseProjectRepository;
 import com.richard.poise.repository.ProjectRepository;
 import com.richard.poise.service.ProjectCreateRequest;
 import com.richard.poise.service.ProjectService;
 import com.richard.poise.service.ProjectUpdateRequest;
 import com.richard.poise.service.ProjectUpdateResult;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.List;
@@ -19,6 +19,9 @@ import java.util.Scanner;
 // class to manage user inputs, and send information to DatabaseManager for processing requests
 public class ProjectsManager {
 
+  // matches listed by a name search
+  private static final int SEARCH_RESULTS = 20;
+
   // simple helper method to help with display of project details in searchProjects method
   public static void displayProjectDetails(Projects Project) {
     System.out.println("Found project:");
@@ -43,9 +46,9 @@ public class ProjectsManager {
   // method providing a summary of all projects in the database, used in MainMenu, option 1
 
   public static void displayAllProjectsSummary() {
-    DatabaseProjectRepository databaseProjectRepository = new DatabaseProjectRepository();
+    ProjectRepository projectRepository = ConsoleServices.projectRepository();
     // returns an ArrayList from the SQL query
-    List<Projects> projectsList = databaseProjectRepository.getAllProjectsSummary();
+    List<Projects> projectsList = projectRepository.getAllProjectsSummary();
 
     System.out.println("Here is a summary list of all projects:");
     System.out.println();
@@ -60,6 +63,37 @@ public class ProjectsManager {
     }
   }
 
+  // lets the user pick one of several search matches; a single match is picked automatically
+  private static Optional<Projects> chooseProject(Scanner scanner, List<Projects> matches) {
+    if (matches.size() <= 1) {
+      return matches.stream().findFirst();
+    }
+    System.out.println("Matching projects, best match first:");
+    for (int i = 0; i < matches.size(); i++) {
+      Projects match = matches.get(i);
+      System.out.println(
+          (i + 1)
+              + ": "
+              + match.getProjectName()
+              + " (ID "
+              + match.getProjectID()
+              + ", "
+              + match.getProjectAddress()
+              + ")");
+    }
+    while (true) {
+      System.out.println("Enter the number of the project you want (0 to cancel):");
+      int choice = scanner.nextInt();
+      scanner.nextLine();
+      if (choice == 0) {
+        return Optional.empty();
+      } else if (choice >= 1 && choice <= matches.size()) {
+        return Optional.of(matches.get(choice - 1));
+      }
+      System.out.println("Invalid choice. Please try again.");
+    }
+  }
+
   /**
    * Provides an interactive search interface for finding projects Allows users to search for a
    * project either by project ID or name
@@ -70,12 +104,12 @@ public class ProjectsManager {
     int option = 0;
     boolean validOption = false;
     int projectID = 0;
-    String projectName = null;
+    String query = null;
 
     while (!validOption) {
       System.out.println("How would you like to search?");
       System.out.println("1: Search by ID");
-      System.out.println("2: Search by project name");
+      System.out.println("2: Search by project name or address");
       System.out.println("0: Return to main menu");
 
       option = scanner.nextInt();
@@ -90,7 +124,7 @@ public class ProjectsManager {
           projectID = scanner.nextInt();
           scanner.nextLine();
 
-          ProjectRepository projectRepository = new DatabaseProjectRepository();
+          ProjectRepository projectRepository = ConsoleServices.projectRepository();
           Optional<Projects> foundProject = projectRepository.findByID(projectID);
 
           if (foundProject.isPresent()) {
@@ -101,11 +135,12 @@ public class ProjectsManager {
           return foundProject;
 
         } else if (option == 2) {
-          System.out.print("Enter the name of the project: ");
-          projectName = scanner.nextLine();
+          System.out.print("Enter part of the project's name or address: ");
+          query = scanner.nextLine();
 
-          ProjectRepository projectRepository = new DatabaseProjectRepository();
-          Optional<Projects> foundProject = projectRepository.findByName(projectName);
+          ProjectRepository projectRepository = ConsoleServices.projectRepository();
+          Optional<Projects> foundProject =
+              chooseProject(scanner, projectRepository.searchProjects(query, SEARCH_RESULTS));
 
           if (foundProject.isPresent()) {
             displayProjectDetails(foundProject.get());
@@ -200,18 +235,18 @@ public class ProjectsManager {
           } else if (option == 5) {
             System.out.println("Current total fee: " + projectToUpdate.getTotalFee());
             System.out.println("Enter the new total fee (0 to keep current):");
-            double input = scanner.nextDouble();
+            BigDecimal input = scanner.nextBigDecimal();
             scanner.nextLine();
-            if (input != 0) {
+            if (input.signum() != 0) {
               request.setTotalFee(input);
             }
           } else if (option == 6) {
             System.out.println(
                 "Current amount paid to date: " + projectToUpdate.getAmountPaidToDate());
             System.out.println("Enter the new amount paid to date (0 to keep current):");
-            double input = scanner.nextDouble();
+            BigDecimal input = scanner.nextBigDecimal();
             scanner.nextLine();
-            if (input != 0) {
+            if (input.signum() != 0) {
               request.setAmountPaidToDate(input);
             }
           } else if (option == 7) {
@@ -299,8 +334,9 @@ public class ProjectsManager {
               }
             }
           } else if (option == 15) {
-            ProjectService service =
-                new ProjectService(new DatabaseProjectRepository(), new DatabasePersonRepository());
+            ProjectService service = ConsoleServices.projectService();
+            // don't overwrite changes someone else saved while these edits were being entered
+            request.setVersion(projectToUpdate.getVersion());
             ProjectUpdateResult result =
                 service.updateProject(projectToUpdate.getProjectID(), request);
 
@@ -412,7 +448,7 @@ public class ProjectsManager {
         } else {
           try {
             String cleanOption = tempTotalFee.replaceAll("[\\s-()]", "");
-            double totalFee = Double.parseDouble(cleanOption);
+            BigDecimal totalFee = Money.parse(cleanOption);
             request.setTotalFee(totalFee);
             validTotalFee = true; // Success!
           } catch (NumberFormatException e) {
@@ -439,7 +475,7 @@ public class ProjectsManager {
         } else {
           try {
             String cleanOption = tempAmountPaidToDate.replaceAll("[\\s-()]", "");
-            double amountPaidToDate = Double.parseDouble(cleanOption);
+            BigDecimal amountPaidToDate = Money.parse(cleanOption);
             request.setAmountPaidToDate(amountPaidToDate);
             validAmountPaidToDate = true;
           } catch (NumberFormatException e) {
@@ -538,8 +574,7 @@ public class ProjectsManager {
       }
 
       validOption = true;
-      ProjectService service =
-          new ProjectService(new DatabaseProjectRepository(), new DatabasePersonRepository());
+      ProjectService service = ConsoleServices.projectService();
       ProjectUpdateResult result = service.createProject(request);
 
       if (result.getSuccess()) {
@@ -569,8 +604,7 @@ public class ProjectsManager {
         if (deletedProjectInput.equals("yes")
             || deletedProjectInput.equals("y")
             || deletedProjectInput.equals("true")) {
-          ProjectService service =
-              new ProjectService(new DatabaseProjectRepository(), new DatabasePersonRepository());
+          ProjectService service = ConsoleServices.projectService();
           ProjectUpdateResult result = service.deleteProject(projectToDelete.getProjectID());
           if (result.getSuccess()) {
             System.out.println(result.getMessage());
@@ -636,10 +670,10 @@ public class ProjectsManager {
             }
           }
           validFinalised = true;
-          ProjectService service =
-              new ProjectService(new DatabaseProjectRepository(), new DatabasePersonRepository());
+          ProjectService service = ConsoleServices.projectService();
           ProjectUpdateResult result =
-              service.finaliseProject(projectToFinalise.getProjectID(), finalisedDate);
+              service.finaliseProject(
+                  projectToFinalise.getProjectID(), finalisedDate, projectToFinalise.getVersion());
 
           if (result.getSuccess()) {
             System.out.println(result.getMessage());
@@ -662,13 +696,26 @@ public class ProjectsManager {
   // simple method calling getIncompleteProjects from DatabaseManager for display
   public static void showIncompleteProjects() {
 
-    ProjectRepository projectRepository = new DatabaseProjectRepository();
+    ProjectRepository projectRepository = ConsoleServices.projectRepository();
     projectRepository.getIncompleteProjects();
   }
 
-  // simple method calling getOverdueProjects from DatabaseManager for display
+  // lists overdue projects from the in-memory overdue tracking rather than querying for them
   public static void showOverdueProjects() {
-    ProjectRepository projectRepository = new DatabaseProjectRepository();
-    projectRepository.getOverdueProjects();
+    List<Projects> projectsList = ConsoleServices.overdueProjectTracker().getOverdueProjects();
+
+    if (projectsList.isEmpty()) {
+      System.out.println("There are no overdue projects.");
+      System.out.println();
+      return;
+    }
+    System.out.println("Here is a list of all overdue projects:");
+    System.out.println();
+
+    for (Projects project : projectsList) {
+      System.out.println("Project ID: " + project.getProjectID());
+      System.out.println("Project Name: " + project.getProjectName());
+      System.out.println();
+    }
   }
 }
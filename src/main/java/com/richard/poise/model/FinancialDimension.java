@@ -0,0 +1,54 @@
+package com.richard.poise.model;
+
+/** What the portfolio fee totals are grouped by. */
+public enum FinancialDimension {
+  CUSTOMER("customer", "Customer"),
+  BUILDING_TYPE("building_type", "Building type"),
+  MANAGER("manager", "Manager");
+
+  private final String key;
+  private final String label;
+
+  FinancialDimension(String key, String label) {
+    this.key = key;
+    this.label = label;
+  }
+
+  /** The value stored in project_financial_summary.dimension, also used as request parameter. */
+  public String getKey() {
+    return key;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  /**
+   * Names a group that has no person to be named after: the building type itself, "Unassigned"
+   * for projects without a manager (key 0), or the person ID if the person no longer exists.
+   */
+  public String defaultGroupName(String groupKey) {
+    if (this == BUILDING_TYPE) {
+      return groupKey;
+    }
+    return groupKey.equals("0") ? "Unassigned" : "Person " + groupKey;
+  }
+
+  /**
+   * Parses the grouping request parameter, e.g. "customer" or "building_type".
+   *
+   * @param value the parameter value (case-insensitive)
+   * @return the matching dimension, or null if not recognised
+   */
+  public static FinancialDimension fromParameter(String value) {
+    if (value == null) {
+      return null;
+    }
+    for (FinancialDimension dimension : values()) {
+      if (dimension.key.equalsIgnoreCase(value.trim())) {
+        return dimension;
+      }
+    }
+    return null;
+  }
+}
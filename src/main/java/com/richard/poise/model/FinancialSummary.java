@@ -0,0 +1,54 @@
+package com.richard.poise.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fee totals for one group of projects, e.g. all projects of one customer. The group is
+ * identified by its key (the person ID as text, or the building type) and labelled with the
+ * person's name where there is one.
+ */
+public class FinancialSummary {
+  private final String groupKey;
+  private final String groupName;
+  private final long projectCount;
+  private final BigDecimal totalFee;
+  private final BigDecimal amountPaid;
+
+  public FinancialSummary(
+      String groupKey,
+      String groupName,
+      long projectCount,
+      BigDecimal totalFee,
+      BigDecimal amountPaid) {
+    this.groupKey = groupKey;
+    this.groupName = groupName;
+    this.projectCount = projectCount;
+    this.totalFee = totalFee;
+    this.amountPaid = amountPaid;
+  }
+
+  public String getGroupKey() {
+    return groupKey;
+  }
+
+  public String getGroupName() {
+    return groupName;
+  }
+
+  public long getProjectCount() {
+    return projectCount;
+  }
+
+  public BigDecimal getTotalFee() {
+    return totalFee;
+  }
+
+  public BigDecimal getAmountPaid() {
+    return amountPaid;
+  }
+
+  /** Fees still owed: total fee minus the amount paid to date. */
+  public BigDecimal getOutstanding() {
+    return totalFee.subtract(amountPaid);
+  }
+}
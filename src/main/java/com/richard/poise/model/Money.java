@@ -0,0 +1,54 @@
+package com.richard.poise.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers. Amounts are BigDecimals with two decimal places, matching the
+ * DECIMAL(15, 2) fee columns, so they add up exactly and compare equal when they are equal.
+ */
+public final class Money {
+  public static final int SCALE = 2;
+  public static final BigDecimal ZERO = BigDecimal.ZERO.setScale(SCALE);
+  // largest amount a DECIMAL(15, 2) column holds
+  public static final BigDecimal MAX = new BigDecimal("9999999999999.99");
+
+  private Money() {}
+
+  /**
+   * Normalises an amount to two decimal places, rounding half up.
+   *
+   * @param amount the amount, or null for none
+   * @return the amount to 2dp; zero for null, and the same instance if it is already 2dp
+   */
+  public static BigDecimal of(BigDecimal amount) {
+    if (amount == null) {
+      return ZERO;
+    }
+    return amount.scale() == SCALE ? amount : amount.setScale(SCALE, RoundingMode.HALF_UP);
+  }
+
+  /**
+   * Parses an amount such as "1250" or "1250.5".
+   *
+   * @param text the amount, without grouping separators or currency symbol
+   * @return the amount to 2dp
+   * @throws NumberFormatException if the text is not a number
+   */
+  public static BigDecimal parse(String text) {
+    return of(new BigDecimal(text.trim()));
+  }
+
+  /**
+   * Formats an amount to 2dp, e.g. "1250.50", for display and export. Unlike a shared
+   * DecimalFormat this is safe to call from any number of threads. A 2dp BigDecimal never uses
+   * exponent notation and caches its string form, so formatting the same amount again (every
+   * render of a cached project) allocates nothing.
+   *
+   * @param amount the amount, or null for zero
+   * @return the amount to 2dp, with no grouping separators
+   */
+  public static String format(BigDecimal amount) {
+    return of(amount).toString();
+  }
+}
@@ -7,6 +7,8 @@ public class People {
   public String email;
   public String address;
   public String role;
+  // row version, bumped by every update and compared by optimistic (compare-and-set) updates
+  public int version;
 
   public People(
       int personID, String personName, String phone, String email, String address, String role) {
@@ -18,6 +20,18 @@ public class People {
     this.role = role;
   }
 
+  // copy constructor, used by the repository cache so callers can't modify cached people
+  public People(People other) {
+    this(
+        other.personID,
+        other.personName,
+        other.phone,
+        other.email,
+        other.address,
+        other.role);
+    this.version = other.version;
+  }
+
   public int getPersonID() {
 
     return personID;
@@ -48,6 +62,10 @@ public class People {
     return role;
   }
 
+  public int getVersion() {
+    return version;
+  }
+
   // people constructor
 
   public void setPersonID(int personID) {
@@ -75,6 +93,10 @@ public class People {
     this.role = role;
   }
 
+  public void setVersion(int version) {
+    this.version = version;
+  }
+
   // string builder for outputting infprmation
   public String toString() {
     return personID
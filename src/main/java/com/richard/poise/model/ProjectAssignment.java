@@ -0,0 +1,29 @@
+package com.richard.poise.model;
+
+/**
+ * One project a person is assigned to, together with the role they hold on it (architect,
+ * contractor, customer, engineer or manager).
+ */
+public class ProjectAssignment {
+  private final int projectID;
+  private final String projectName;
+  private final String roleOnProject;
+
+  public ProjectAssignment(int projectID, String projectName, String roleOnProject) {
+    this.projectID = projectID;
+    this.projectName = projectName;
+    this.roleOnProject = roleOnProject;
+  }
+
+  public int getProjectID() {
+    return projectID;
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public String getRoleOnProject() {
+    return roleOnProject;
+  }
+}
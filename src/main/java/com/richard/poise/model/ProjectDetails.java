@@ -0,0 +1,54 @@
+package com.richard.poise.model;
+
+/**
+ * View model for the project detail page. Carries a project together with its resolved team
+ * members, so the page can be rendered from a single database round trip. Team members that are
+ * not assigned are null.
+ */
+public class ProjectDetails {
+  private final Projects project;
+  private final People architect;
+  private final People contractor;
+  private final People customer;
+  private final People engineer;
+  private final People manager;
+
+  public ProjectDetails(
+      Projects project,
+      People architect,
+      People contractor,
+      People customer,
+      People engineer,
+      People manager) {
+    this.project = project;
+    this.architect = architect;
+    this.contractor = contractor;
+    this.customer = customer;
+    this.engineer = engineer;
+    this.manager = manager;
+  }
+
+  public Projects getProject() {
+    return project;
+  }
+
+  public People getArchitect() {
+    return architect;
+  }
+
+  public People getContractor() {
+    return contractor;
+  }
+
+  public People getCustomer() {
+    return customer;
+  }
+
+  public People getEngineer() {
+    return engineer;
+  }
+
+  public People getManager() {
+    return manager;
+  }
+}
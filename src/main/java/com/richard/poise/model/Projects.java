@@ -1,7 +1,7 @@
 package com.richard.poise.model;
 
+import java.math.BigDecimal;
 import java.sql.Date;
-import java.text.DecimalFormat;
 
 public class Projects {
   public int projectID;
@@ -9,8 +9,9 @@ public class Projects {
   public String buildingType;
   public String projectAddress;
   public int ERFNumber;
-  public double totalFee;
-  public double amountPaidToDate;
+  // fees to 2dp (see Money); zero rather than null when not known
+  public BigDecimal totalFee = Money.ZERO;
+  public BigDecimal amountPaidToDate = Money.ZERO;
   public java.sql.Date projectDeadline;
   public int architectID;
   public int contractorID;
@@ -19,8 +20,8 @@ public class Projects {
   public int managerID;
   public boolean projectFinalised;
   public java.sql.Date completionDate;
-  // allows for fee values to be given to 2dp in output
-  public static final DecimalFormat currencyFormat = new DecimalFormat("0.00");
+  // row version, bumped by every update and compared by optimistic (compare-and-set) updates
+  public int version;
 
   // summary projects constructor
   public Projects(int projectID, String projectName, boolean projectFinalised) {
@@ -36,8 +37,8 @@ public class Projects {
       String buildingType,
       String projectAddress,
       int ERFNumber,
-      double totalFee,
-      double amountPaidToDate,
+      BigDecimal totalFee,
+      BigDecimal amountPaidToDate,
       java.sql.Date projectDeadline,
       int architectID,
       int contractorID,
@@ -51,8 +52,8 @@ public class Projects {
     this.buildingType = buildingType;
     this.projectAddress = projectAddress;
     this.ERFNumber = ERFNumber;
-    this.totalFee = totalFee;
-    this.amountPaidToDate = amountPaidToDate;
+    this.totalFee = Money.of(totalFee);
+    this.amountPaidToDate = Money.of(amountPaidToDate);
     this.projectDeadline = projectDeadline;
     this.architectID = architectID;
     this.contractorID = contractorID;
@@ -63,6 +64,27 @@ public class Projects {
     this.completionDate = completionDate;
   }
 
+  // copy constructor, used by the repository cache so callers can't modify cached projects
+  public Projects(Projects other) {
+    this(
+        other.projectID,
+        other.projectName,
+        other.buildingType,
+        other.projectAddress,
+        other.ERFNumber,
+        other.totalFee,
+        other.amountPaidToDate,
+        other.projectDeadline,
+        other.architectID,
+        other.contractorID,
+        other.customerID,
+        other.engineerID,
+        other.managerID,
+        other.projectFinalised,
+        other.completionDate);
+    this.version = other.version;
+  }
+
   public int getProjectID() {
     return projectID;
   }
@@ -83,20 +105,20 @@ public class Projects {
     return ERFNumber;
   }
 
-  public double getTotalFee() {
+  public BigDecimal getTotalFee() {
     return totalFee;
   }
 
-  public double getAmountPaidToDate() {
+  public BigDecimal getAmountPaidToDate() {
     return amountPaidToDate;
   }
 
   public String getFormattedTotalFee() {
-    return currencyFormat.format(totalFee);
+    return Money.format(totalFee);
   }
 
   public String getFormattedAmountPaidToDate() {
-    return currencyFormat.format(amountPaidToDate);
+    return Money.format(amountPaidToDate);
   }
 
   public java.sql.Date getProjectDeadline() {
@@ -131,6 +153,10 @@ public class Projects {
     return completionDate;
   }
 
+  public int getVersion() {
+    return version;
+  }
+
   public void setProjectID(int projectID) {
     this.projectID = projectID;
   }
@@ -151,12 +177,12 @@ public class Projects {
     this.ERFNumber = ERFNumber;
   }
 
-  public void setTotalFee(double totalFee) {
-    this.totalFee = totalFee;
+  public void setTotalFee(BigDecimal totalFee) {
+    this.totalFee = Money.of(totalFee);
   }
 
-  public void setAmountPaidToDate(double amountPaidToDate) {
-    this.amountPaidToDate = amountPaidToDate;
+  public void setAmountPaidToDate(BigDecimal amountPaidToDate) {
+    this.amountPaidToDate = Money.of(amountPaidToDate);
   }
 
   public void setProjectDeadline(Date projectDeadline) {
@@ -175,7 +201,7 @@ public class Projects {
     this.customerID = customerID;
   }
 
-  public void setEngineerID(int engineer_ID) {
+  public void setEngineerID(int engineerID) {
     this.engineerID = engineerID;
   }
 
@@ -191,6 +217,10 @@ public class Projects {
     this.completionDate = completionDate;
   }
 
+  public void setVersion(int version) {
+    this.version = version;
+  }
+
   // string builder to output information
   public String toString() {
     return projectID
@@ -0,0 +1,241 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.ProjectAssignment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * PersonRepository decorator that caches people by ID. Single lookups go through findByID and
+ * bulk lookups through findAllByIDs, which only queries the database for the IDs that aren't
+ * already cached. The cache is bounded (least recently used entries are evicted first), entries
+ * expire after a time-to-live, and updates and deletes invalidate the affected person. The role
+ * groups behind the project form dropdowns are cached under the same time-to-live and dropped on
+ * any person write, since a write can move someone between roles.
+ */
+public class CachingPersonRepository implements PersonRepository {
+
+  private static final String ROLE_GROUPS = "roleGroups";
+
+  private final PersonRepository delegate;
+  private final LruCache<Integer, People> cache;
+  // a single entry under ROLE_GROUPS: everyone holding a project role, grouped by role
+  private final LruCache<String, Map<String, List<People>>> roleGroups;
+
+  public CachingPersonRepository(
+      PersonRepository delegate, int maxSize, long ttl, TimeUnit ttlUnit) {
+    this.delegate = delegate;
+    this.cache = new LruCache<>(maxSize, ttl, ttlUnit);
+    this.roleGroups = new LruCache<>(1, ttl, ttlUnit);
+  }
+
+  /**
+   * Hit, miss and eviction counters for the person cache.
+   *
+   * @return ordered map of counter names to values
+   */
+  public Map<String, Object> getCacheStats() {
+    return cache.stats();
+  }
+
+  /**
+   * Finds a person by ID, serving them from the cache when possible. Callers always receive their
+   * own copy, so changes made by the service layer never leak into the cache.
+   *
+   * @param personID the person's database ID
+   * @return Optional containing the person if found, empty otherwise
+   */
+  @Override
+  public Optional<People> findByID(int personID) {
+    People cached = cache.get(personID);
+    if (cached != null) {
+      return Optional.of(new People(cached));
+    }
+    long generation = cache.generation();
+    Optional<People> loaded = delegate.findByID(personID);
+    loaded.ifPresent(person -> cache.put(personID, new People(person), generation));
+    return loaded;
+  }
+
+  /**
+   * Finds several people by ID. Cached people are returned directly and the rest are fetched from
+   * the database in a single query, then cached.
+   *
+   * @param personIDs the IDs to look up
+   * @return map of person ID to person for every ID that was found
+   */
+  @Override
+  public Map<Integer, People> findAllByIDs(Collection<Integer> personIDs) {
+    Map<Integer, People> found = new HashMap<>();
+    List<Integer> misses = new ArrayList<>();
+    for (Integer personID : personIDs) {
+      if (personID == null || personID <= 0 || found.containsKey(personID)) {
+        continue;
+      }
+      People cached = cache.get(personID);
+      if (cached != null) {
+        found.put(personID, new People(cached));
+      } else if (!misses.contains(personID)) {
+        misses.add(personID);
+      }
+    }
+    if (!misses.isEmpty()) {
+      long generation = cache.generation();
+      Map<Integer, People> loaded = delegate.findAllByIDs(misses);
+      for (Map.Entry<Integer, People> entry : loaded.entrySet()) {
+        cache.put(entry.getKey(), new People(entry.getValue()), generation);
+        found.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public boolean updatePersonData(
+      int personID,
+      String personName,
+      String phone,
+      String email,
+      String personAddress,
+      String role) {
+    try {
+      return delegate.updatePersonData(personID, personName, phone, email, personAddress, role);
+    } finally {
+      invalidate(personID);
+    }
+  }
+
+  @Override
+  public Optional<People> patchPersonData(int personID, PersonPatch patch) {
+    try {
+      return delegate.patchPersonData(personID, patch);
+    } finally {
+      invalidate(personID);
+    }
+  }
+
+  @Override
+  public int createPersonData(
+      String personName, String phone, String email, String personAddress, String role) {
+    int newPersonID = delegate.createPersonData(personName, phone, email, personAddress, role);
+    if (newPersonID > 0) {
+      invalidate(newPersonID);
+    }
+    return newPersonID;
+  }
+
+  @Override
+  public int[] createPeopleData(List<People> people) {
+    int[] newPersonIDs = delegate.createPeopleData(people);
+    for (int newPersonID : newPersonIDs) {
+      if (newPersonID > 0) {
+        invalidate(newPersonID);
+      }
+    }
+    return newPersonIDs;
+  }
+
+  @Override
+  public int[] importPeopleData(List<People> people) {
+    int[] newPersonIDs = delegate.importPeopleData(people);
+    for (int newPersonID : newPersonIDs) {
+      if (newPersonID > 0) {
+        invalidate(newPersonID);
+      }
+    }
+    return newPersonIDs;
+  }
+
+  @Override
+  public boolean[] updatePeopleData(List<People> people) {
+    try {
+      return delegate.updatePeopleData(people);
+    } finally {
+      for (People person : people) {
+        invalidate(person.getPersonID());
+      }
+    }
+  }
+
+  @Override
+  public boolean deletePersonData(int person_id) {
+    try {
+      return delegate.deletePersonData(person_id);
+    } finally {
+      invalidate(person_id);
+    }
+  }
+
+  @Override
+  public List<People> findAll() {
+    return delegate.findAll();
+  }
+
+  @Override
+  public KeysetPage<People> findPage(Integer afterID, Integer beforeID, int pageSize) {
+    return delegate.findPage(afterID, beforeID, pageSize);
+  }
+
+  @Override
+  public int forEachPerson(Consumer<People> action) {
+    return delegate.forEachPerson(action);
+  }
+
+  @Override
+  public List<People> searchPeople(String query, int limit) {
+    return delegate.searchPeople(query, limit);
+  }
+
+  @Override
+  public Optional<People> findByName(String personName) {
+    return delegate.findByName(personName);
+  }
+
+  @Override
+  public List<People> findByRole(String role) {
+    return delegate.findByRole(role);
+  }
+
+  /**
+   * Retrieves everyone holding a project role, grouped by lower-case role, serving the groups from
+   * the cache when possible.
+   *
+   * @return map of role name to the people with that role
+   */
+  @Override
+  public Map<String, List<People>> findAllGroupedByRole() {
+    Map<String, List<People>> cached = roleGroups.get(ROLE_GROUPS);
+    if (cached != null) {
+      return cached;
+    }
+    long generation = roleGroups.generation();
+    Map<String, List<People>> loaded = delegate.findAllGroupedByRole();
+    // a failed read also comes back with every group empty, so only cache what found someone
+    if (loaded.values().stream().anyMatch(group -> !group.isEmpty())) {
+      roleGroups.put(ROLE_GROUPS, loaded, generation);
+    }
+    return loaded;
+  }
+
+  @Override
+  public List<ProjectAssignment> findProjectAssignments(int personID) {
+    return delegate.findProjectAssignments(personID);
+  }
+
+  @Override
+  public boolean isCustomerInProjects(int personID) {
+    return delegate.isCustomerInProjects(personID);
+  }
+
+  private void invalidate(int personID) {
+    cache.invalidate(personID);
+    roleGroups.invalidateAll();
+  }
+}
@@ -0,0 +1,211 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.FinancialDimension;
+import com.richard.poise.model.FinancialSummary;
+import com.richard.poise.model.ProjectDetails;
+import com.richard.poise.model.Projects;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ProjectRepository decorator that adds a read-through cache in front of findByID. The cache is
+ * bounded (least recently used entries are evicted first), entries expire after a time-to-live,
+ * and every write through this repository invalidates the affected project. All other methods
+ * pass straight through to the wrapped repository.
+ */
+public class CachingProjectRepository implements ProjectRepository {
+
+  private final ProjectRepository delegate;
+  private final LruCache<Integer, Projects> cache;
+
+  public CachingProjectRepository(
+      ProjectRepository delegate, int maxSize, long ttl, TimeUnit ttlUnit) {
+    this.delegate = delegate;
+    this.cache = new LruCache<>(maxSize, ttl, ttlUnit);
+  }
+
+  /**
+   * Hit, miss and eviction counters for the findByID cache.
+   *
+   * @return ordered map of counter names to values
+   */
+  public Map<String, Object> getCacheStats() {
+    return cache.stats();
+  }
+
+  /**
+   * Finds a project by ID, serving it from the cache when possible. Callers always receive their
+   * own copy, so changes made by the service layer never leak into the cache.
+   *
+   * @param projectID the project's database ID
+   * @return Optional containing the project if found, empty otherwise
+   */
+  @Override
+  public Optional<Projects> findByID(int projectID) {
+    Projects cached = cache.get(projectID);
+    if (cached != null) {
+      return Optional.of(new Projects(cached));
+    }
+    long generation = cache.generation();
+    Optional<Projects> loaded = delegate.findByID(projectID);
+    loaded.ifPresent(project -> cache.put(projectID, new Projects(project), generation));
+    return loaded;
+  }
+
+  @Override
+  public Optional<Projects> patchProjectData(int projectID, ProjectPatch patch) {
+    try {
+      return delegate.patchProjectData(projectID, patch);
+    } finally {
+      cache.invalidate(projectID);
+    }
+  }
+
+  @Override
+  public int createProjectData(
+      String projectName,
+      String buildingType,
+      String projectAddress,
+      int ERFNumber,
+      BigDecimal totalFee,
+      BigDecimal amountPaidToDate,
+      java.sql.Date projectDeadline,
+      Integer architectID,
+      Integer contractorID,
+      int customerID,
+      Integer engineerID,
+      Integer managerID,
+      boolean projectFinalised,
+      java.sql.Date completionDate) {
+    int newProjectID =
+        delegate.createProjectData(
+            projectName,
+            buildingType,
+            projectAddress,
+            ERFNumber,
+            totalFee,
+            amountPaidToDate,
+            projectDeadline,
+            architectID,
+            contractorID,
+            customerID,
+            engineerID,
+            managerID,
+            projectFinalised,
+            completionDate);
+    if (newProjectID > 0) {
+      cache.invalidate(newProjectID);
+    }
+    return newProjectID;
+  }
+
+  @Override
+  public int[] createProjectsData(List<Projects> projects) {
+    int[] newProjectIDs = delegate.createProjectsData(projects);
+    for (int newProjectID : newProjectIDs) {
+      if (newProjectID > 0) {
+        cache.invalidate(newProjectID);
+      }
+    }
+    return newProjectIDs;
+  }
+
+  @Override
+  public int[] importProjectsData(List<Projects> projects) {
+    int[] newProjectIDs = delegate.importProjectsData(projects);
+    for (int newProjectID : newProjectIDs) {
+      if (newProjectID > 0) {
+        cache.invalidate(newProjectID);
+      }
+    }
+    return newProjectIDs;
+  }
+
+  @Override
+  public boolean deleteProjectData(int project_id) {
+    try {
+      return delegate.deleteProjectData(project_id);
+    } finally {
+      cache.invalidate(project_id);
+    }
+  }
+
+  @Override
+  public Optional<String> finaliseProjectData(
+      int projectID, Date finalisedDate, Integer expectedVersion) {
+    try {
+      return delegate.finaliseProjectData(projectID, finalisedDate, expectedVersion);
+    } finally {
+      cache.invalidate(projectID);
+    }
+  }
+
+  @Override
+  public List<Projects> getAllProjectsSummary() {
+    return delegate.getAllProjectsSummary();
+  }
+
+  @Override
+  public KeysetPage<Projects> getProjectsSummaryPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    return delegate.getProjectsSummaryPage(afterID, beforeID, pageSize);
+  }
+
+  @Override
+  public int forEachProject(Consumer<Projects> action) {
+    return delegate.forEachProject(action);
+  }
+
+  @Override
+  public Optional<ProjectDetails> findDetailsByID(int projectID) {
+    return delegate.findDetailsByID(projectID);
+  }
+
+  @Override
+  public List<Projects> searchProjects(String query, int limit) {
+    return delegate.searchProjects(query, limit);
+  }
+
+  @Override
+  public Optional<Projects> findByName(String projectName) {
+    return delegate.findByName(projectName);
+  }
+
+  @Override
+  public List<Projects> getIncompleteProjects() {
+    return delegate.getIncompleteProjects();
+  }
+
+  @Override
+  public KeysetPage<Projects> getIncompleteProjectsPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    return delegate.getIncompleteProjectsPage(afterID, beforeID, pageSize);
+  }
+
+  @Override
+  public List<Projects> getOverdueProjects() {
+    return delegate.getOverdueProjects();
+  }
+
+  @Override
+  public KeysetPage<Projects> getOverdueProjectsPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    return delegate.getOverdueProjectsPage(afterID, beforeID, pageSize);
+  }
+
+  @Override
+  public List<Projects> getOpenProjectDeadlines() {
+    return delegate.getOpenProjectDeadlines();
+  }
+
+  @Override
+  public List<FinancialSummary> getFinancialSummary(FinancialDimension dimension) {
+    return delegate.getFinancialSummary(dimension);
+  }
+}
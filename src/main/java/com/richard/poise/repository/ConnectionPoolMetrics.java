@@ -0,0 +1,118 @@
+package com.richard.poise.repository;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects connection pool metrics from HikariCP. Tracks the live pool state (active, idle,
+ * waiting threads) and a histogram of how long callers waited to acquire a connection.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+  // upper bounds (in milliseconds) of the acquire-time histogram buckets; the last bucket is open
+  static final long[] ACQUIRE_BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000};
+
+  private final AtomicLongArray acquireBuckets =
+      new AtomicLongArray(ACQUIRE_BUCKET_BOUNDS_MILLIS.length + 1);
+  private final LongAdder acquireCount = new LongAdder();
+  private final LongAdder acquireTotalNanos = new LongAdder();
+  private final LongAdder timeoutCount = new LongAdder();
+  private final LongAdder connectionsCreated = new LongAdder();
+
+  private volatile PoolStats poolStats;
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    this.poolStats = poolStats;
+    return new IMetricsTracker() {
+      @Override
+      public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        recordAcquire(elapsedAcquiredNanos);
+      }
+
+      @Override
+      public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        connectionsCreated.increment();
+      }
+
+      @Override
+      public void recordConnectionTimeout() {
+        timeoutCount.increment();
+      }
+    };
+  }
+
+  /**
+   * Records a single connection acquisition in the histogram.
+   *
+   * @param elapsedNanos time the caller waited for a connection
+   */
+  void recordAcquire(long elapsedNanos) {
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    int bucket = ACQUIRE_BUCKET_BOUNDS_MILLIS.length;
+    for (int i = 0; i < ACQUIRE_BUCKET_BOUNDS_MILLIS.length; i++) {
+      if (elapsedMillis < ACQUIRE_BUCKET_BOUNDS_MILLIS[i]) {
+        bucket = i;
+        break;
+      }
+    }
+    acquireBuckets.incrementAndGet(bucket);
+    acquireCount.increment();
+    acquireTotalNanos.add(elapsedNanos);
+  }
+
+  /**
+   * Number of acquisitions recorded in each histogram bucket.
+   *
+   * @return bucket counts, one more than the number of bounds (the last bucket is open-ended)
+   */
+  public long[] getAcquireHistogram() {
+    long[] counts = new long[acquireBuckets.length()];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = acquireBuckets.get(i);
+    }
+    return counts;
+  }
+
+  /**
+   * Builds a snapshot of the pool state and acquire-time histogram for reporting.
+   *
+   * @return ordered map of metric names to values
+   */
+  public Map<String, Object> snapshot() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    PoolStats stats = poolStats;
+    metrics.put("active", stats != null ? stats.getActiveConnections() : 0);
+    metrics.put("idle", stats != null ? stats.getIdleConnections() : 0);
+    metrics.put("total", stats != null ? stats.getTotalConnections() : 0);
+    metrics.put("waiters", stats != null ? stats.getPendingThreads() : 0);
+    metrics.put("maxConnections", stats != null ? stats.getMaxConnections() : 0);
+    metrics.put("minConnections", stats != null ? stats.getMinConnections() : 0);
+    metrics.put("connectionsCreated", connectionsCreated.sum());
+    metrics.put("acquireTimeouts", timeoutCount.sum());
+
+    long count = acquireCount.sum();
+    metrics.put("acquireCount", count);
+    metrics.put(
+        "acquireMeanMillis",
+        count == 0 ? 0.0 : acquireTotalNanos.sum() / (double) count / 1_000_000.0);
+
+    Map<String, Long> histogram = new LinkedHashMap<>();
+    long[] counts = getAcquireHistogram();
+    for (int i = 0; i < ACQUIRE_BUCKET_BOUNDS_MILLIS.length; i++) {
+      histogram.put("<" + ACQUIRE_BUCKET_BOUNDS_MILLIS[i] + "ms", counts[i]);
+    }
+    histogram.put(
+        ">=" + ACQUIRE_BUCKET_BOUNDS_MILLIS[ACQUIRE_BUCKET_BOUNDS_MILLIS.length - 1] + "ms",
+        counts[counts.length - 1]);
+    metrics.put("acquireHistogram", histogram);
+    return metrics;
+  }
+}
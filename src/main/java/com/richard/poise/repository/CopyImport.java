@@ -0,0 +1,85 @@
+package com.richard.poise.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Loads rows for a bulk import with PostgreSQL COPY. The rows are streamed as CSV into a temporary
+ * staging table, then one INSERT ... SELECT merges the valid ones into the real table, so the
+ * database does a single set-based write instead of one statement per row. Runs on a
+ * caller-managed transaction; the staging table is dropped when it commits.
+ */
+final class CopyImport {
+
+  private CopyImport() {}
+
+  /**
+   * Stages and merges the rows. The staging table's first column must be the row number (the
+   * row's index in the list), followed by the columns produced for each row; the merge query must
+   * return the row number and the generated ID of every row it inserted.
+   *
+   * @param createStagingSQL creates the temporary staging table
+   * @param copySQL COPY ... FROM STDIN WITH (FORMAT csv) into the staging table
+   * @param mergeSQL moves the valid staged rows into the real table
+   * @param columns the staging column values for a row, after the row number; null means NULL
+   * @return the generated ID for each row, in input order, or 0 for rows the merge skipped
+   * @throws SQLException if the connection isn't PostgreSQL or any step fails
+   */
+  static <T> int[] load(
+      Connection connection,
+      String createStagingSQL,
+      String copySQL,
+      String mergeSQL,
+      List<T> rows,
+      Function<T, String[]> columns)
+      throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(createStagingSQL);
+    }
+
+    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+    try (Writer writer =
+        new BufferedWriter(
+            new OutputStreamWriter(
+                new PGCopyOutputStream(pgConnection, copySQL), StandardCharsets.UTF_8))) {
+      for (int i = 0; i < rows.size(); i++) {
+        writer.write(Integer.toString(i));
+        for (String value : columns.apply(rows.get(i))) {
+          writer.write(',');
+          if (value != null) {
+            writer.write(csvValue(value));
+          }
+        }
+        writer.write('\n');
+      }
+    } catch (IOException e) {
+      throw new SQLException("COPY into the staging table failed", e);
+    }
+
+    int[] newIDs = new int[rows.size()];
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(mergeSQL)) {
+      while (resultSet.next()) {
+        newIDs[resultSet.getInt(1)] = resultSet.getInt(2);
+      }
+    }
+    return newIDs;
+  }
+
+  // always quoted, because COPY's CSV format reads an unquoted empty field as NULL
+  static String csvValue(String value) {
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
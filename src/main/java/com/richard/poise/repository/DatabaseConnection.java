@@ -1,12 +1,18 @@
 package com.richard.poise.repository;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
 import java.sql.*;
 
 /**
  * Manages database connections for the application.
  *
- * <p>Uses environment variable DATABASE_URL for Render deployment and falls back to local
- * PostgreSQL for development.
+ * <p>Connections are borrowed from a bounded HikariCP pool rather than opened through
+ * DriverManager on every call. When running under Spring Boot the application's DataSource is
+ * registered via {@link #useDataSource(DataSource)}; the console entry points fall back to a
+ * standalone pool built from the same environment variables.
  *
  * <p>Production: Render provides DATABASE_URL automatically Development: Connects to localhost
  * PostgreSQL with default credentials
@@ -19,7 +25,86 @@ public class DatabaseConnection {
     private static final String PASSWORD =
             System.getenv("SPRING_DATASOURCE_PASSWORD");
 
+    private static final ConnectionPoolMetrics POOL_METRICS = new ConnectionPoolMetrics();
+
+    private static volatile DataSource dataSource;
+
+    /**
+     * Registers the shared DataSource that all repositories borrow connections from.
+     *
+     * @param sharedDataSource the pooled DataSource managed by Spring
+     */
+    public static void useDataSource(DataSource sharedDataSource) {
+        dataSource = sharedDataSource;
+    }
+
+    /**
+     * Borrows a connection from the pool. Callers must close it to return it to the pool.
+     *
+     * @return a pooled connection
+     * @throws SQLException if no connection could be acquired within the acquisition timeout
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        return getDataSource().getConnection();
+    }
+
+    /**
+     * Returns the shared DataSource, creating a standalone pool if none has been registered.
+     *
+     * @return the pooled DataSource
+     */
+    public static DataSource getDataSource() {
+        DataSource current = dataSource;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = dataSource;
+                if (current == null) {
+                    current = createStandalonePool();
+                    dataSource = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Metrics collected from the connection pool (active, idle, waiters and acquire times).
+     *
+     * @return the process-wide pool metrics
+     */
+    public static ConnectionPoolMetrics getPoolMetrics() {
+        return POOL_METRICS;
+    }
+
+    // builds a pool for the console application using the same settings as application.properties
+    private static HikariDataSource createStandalonePool() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("PoisePMSPool");
+        config.setJdbcUrl(URL);
+        config.setUsername(USERNAME);
+        config.setPassword(PASSWORD);
+        config.setMinimumIdle(intFromEnv("DB_POOL_MIN_IDLE", 2));
+        config.setMaximumPoolSize(intFromEnv("DB_POOL_MAX_SIZE", 10));
+        config.setConnectionTimeout(intFromEnv("DB_POOL_ACQUIRE_TIMEOUT_MS", 5000));
+        config.setIdleTimeout(intFromEnv("DB_POOL_IDLE_TIMEOUT_MS", 300000));
+        config.setMaxLifetime(intFromEnv("DB_POOL_MAX_LIFETIME_MS", 1800000));
+        config.setKeepaliveTime(intFromEnv("DB_POOL_KEEPALIVE_MS", 120000));
+        config.setValidationTimeout(intFromEnv("DB_POOL_VALIDATION_TIMEOUT_MS", 3000));
+        config.setMetricsTrackerFactory(POOL_METRICS);
+        // don't fail at start-up if the database is unreachable; getConnection reports it instead
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
     }
 }
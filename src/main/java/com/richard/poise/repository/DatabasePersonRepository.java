@@ -1,9 +1,18 @@
 package com.richard.poise.repository;
 
 import com.richard.poise.model.People;
+import com.richard.poise.model.ProjectAssignment;
 
 import java.sql.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -12,6 +21,83 @@ import java.util.ArrayList;
  * entities using JDBC.
  */
 public class DatabasePersonRepository implements PersonRepository {
+
+  // rows fetched per round trip when streaming the whole table through a cursor
+  static final int STREAM_FETCH_SIZE = 500;
+
+  // one indexed lookup per role column, e.g. "SELECT ..., 'architect' ... WHERE architect_id = ?"
+  static final String PROJECT_ASSIGNMENTS_SQL =
+      PROJECT_ROLES.stream()
+              .map(
+                  role ->
+                      "SELECT project_id, project_name, '"
+                          + role
+                          + "' AS role_on_project FROM projects WHERE "
+                          + role
+                          + "_id = ?")
+              .collect(Collectors.joining(" UNION ALL "))
+          + " ORDER BY project_id, role_on_project";
+
+  private static final String INSERT_PERSON_SQL =
+      "INSERT INTO people (person_name, phone, email, address, role) VALUES (?, ?, ?, ?, ?)";
+
+  static final String CREATE_IMPORT_STAGING_SQL =
+      "CREATE TEMP TABLE import_people (row_no INTEGER, person_name VARCHAR(255),"
+          + " phone VARCHAR(50), email VARCHAR(255), address TEXT, role VARCHAR(50))"
+          + " ON COMMIT DROP";
+
+  static final String COPY_IMPORT_SQL =
+      "COPY import_people (row_no, person_name, phone, email, address, role)"
+          + " FROM STDIN WITH (FORMAT csv)";
+
+  // inserts the complete staged rows, numbering them in file order, and returns each inserted
+  // row's number with its new ID
+  static final String MERGE_IMPORT_SQL =
+      "WITH valid AS (SELECT s.*,"
+          + " nextval(pg_get_serial_sequence('people', 'person_id')) AS new_person_id"
+          + " FROM (SELECT * FROM import_people ORDER BY row_no) s"
+          + " WHERE s.person_name IS NOT NULL AND s.phone IS NOT NULL AND s.role IS NOT NULL),"
+          + " inserted AS (INSERT INTO people (person_id, person_name, phone, email, address, role)"
+          + " SELECT new_person_id, person_name, phone, email, address, role FROM valid)"
+          + " SELECT row_no, new_person_id FROM valid";
+
+  // the tsvector the word-prefix search matches; the same expression is indexed in V6
+  static final String SEARCH_VECTOR = "to_tsvector('simple', COALESCE(person_name, ''))";
+
+  // ranked name/email/phone search; every branch of the WHERE clause can use a V6 index
+  static final String SEARCH_PEOPLE_SQL =
+      SearchQuery.PARAMETERS_CTE
+          + " SELECT p.* FROM people p CROSS JOIN q WHERE "
+          + SearchQuery.matchSQL("LOWER(p.person_name)")
+          + " OR "
+          + SearchQuery.matchSQL("LOWER(p.email)")
+          + " OR "
+          + SearchQuery.matchSQL("LOWER(p.phone)")
+          + " OR "
+          + SEARCH_VECTOR
+          + " @@ q.words ORDER BY GREATEST("
+          + SearchQuery.rankSQL("LOWER(p.person_name)")
+          + ", "
+          + SearchQuery.rankSQL("LOWER(p.email)")
+          + ", "
+          + SearchQuery.rankSQL("LOWER(p.phone)")
+          + ") DESC, p.person_id LIMIT ?";
+
+  // statement_timeout for a search, in milliseconds
+  private final int searchTimeoutMillis;
+
+  public DatabasePersonRepository() {
+    this(SearchQuery.DEFAULT_TIMEOUT_MS);
+  }
+
+  /**
+   * @param searchTimeoutMillis how long a search may run before the database cancels it; a
+   *     cancelled search returns no results
+   */
+  public DatabasePersonRepository(int searchTimeoutMillis) {
+    this.searchTimeoutMillis = searchTimeoutMillis;
+  }
+
   /**
    * Finds a person by their unique ID.
    *
@@ -31,14 +117,7 @@ public class DatabasePersonRepository implements PersonRepository {
 
       ResultSet results = preparedStatement.executeQuery();
       if (results.next()) {
-        People foundPerson =
-            new People(
-                results.getInt("person_id"),
-                results.getString("person_name"),
-                results.getString("phone"),
-                results.getString("email"),
-                results.getString("address"),
-                results.getString("role"));
+        People foundPerson = mapPerson(results);
         return Optional.of(foundPerson);
       }
       return Optional.empty();
@@ -56,6 +135,49 @@ public class DatabasePersonRepository implements PersonRepository {
     }
   }
 
+  /**
+   * Finds several people in one round trip using person_id = ANY(array).
+   *
+   * @param personIDs the IDs to look up
+   * @return map of person ID to person, empty map if none found
+   */
+  @Override
+  public Map<Integer, People> findAllByIDs(Collection<Integer> personIDs) {
+    Map<Integer, People> found = new HashMap<>();
+    Integer[] ids =
+        personIDs.stream().filter(id -> id != null && id > 0).distinct().toArray(Integer[]::new);
+    if (ids.length == 0) {
+      return found;
+    }
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+
+    try {
+      connection = DatabaseConnection.getConnection();
+      String sql = "SELECT * FROM people WHERE person_id = ANY(?)";
+      preparedStatement = connection.prepareStatement(sql);
+      preparedStatement.setArray(1, connection.createArrayOf("integer", ids));
+
+      ResultSet results = preparedStatement.executeQuery();
+      while (results.next()) {
+        People person = mapPerson(results);
+        found.put(person.getPersonID(), person);
+      }
+      return found;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return found;
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) connection.close();
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
   /**
    * Retrieves all people from the database.
    *
@@ -75,14 +197,7 @@ public class DatabasePersonRepository implements PersonRepository {
       List<People> peopleList = new ArrayList<>();
 
       while (results.next()) {
-        People person =
-            new People(
-                results.getInt("person_id"),
-                results.getString("person_name"),
-                results.getString("phone"),
-                results.getString("email"),
-                results.getString("address"),
-                results.getString("role"));
+        People person = mapPerson(results);
         peopleList.add(person);
       }
       return peopleList;
@@ -100,6 +215,149 @@ public class DatabasePersonRepository implements PersonRepository {
     }
   }
 
+  /**
+   * Retrieves one page of people using keyset pagination on person_id. Fetches one extra row to
+   * find out whether another page exists.
+   *
+   * @return the page of people, empty page if none found
+   */
+  @Override
+  public KeysetPage<People> findPage(Integer afterID, Integer beforeID, int pageSize) {
+    boolean backward = afterID == null && beforeID != null;
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+
+    try {
+      connection = DatabaseConnection.getConnection();
+      String sql =
+          backward
+              ? "SELECT * FROM people WHERE person_id < ? ORDER BY person_id DESC LIMIT ?"
+              : "SELECT * FROM people WHERE person_id > ? ORDER BY person_id LIMIT ?";
+      preparedStatement = connection.prepareStatement(sql);
+      preparedStatement.setInt(1, backward ? beforeID : (afterID != null ? afterID : 0));
+      preparedStatement.setInt(2, pageSize + 1);
+
+      ResultSet results = preparedStatement.executeQuery();
+      List<People> peopleList = new ArrayList<>(pageSize + 1);
+
+      while (results.next()) {
+        People person = mapPerson(results);
+        peopleList.add(person);
+      }
+      return KeysetPage.fromRows(
+          peopleList,
+          pageSize,
+          backward,
+          afterID != null || beforeID != null,
+          People::getPersonID);
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return new KeysetPage<>(new ArrayList<>(), pageSize, null, null);
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) connection.close();
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Streams all people through a server-side cursor. PostgreSQL only honours the fetch size when
+   * autocommit is off, so the read runs in its own transaction.
+   *
+   * @param action called once per person
+   * @return the number of people streamed, or -1 if the query failed
+   */
+  @Override
+  public int forEachPerson(Consumer<People> action) {
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      String sql = "SELECT * FROM people ORDER BY person_id";
+      preparedStatement =
+          connection.prepareStatement(
+              sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      preparedStatement.setFetchSize(STREAM_FETCH_SIZE);
+
+      ResultSet results = preparedStatement.executeQuery();
+      int count = 0;
+      while (results.next()) {
+        People person = mapPerson(results);
+        action.accept(person);
+        count++;
+      }
+      connection.commit();
+      return count;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return -1;
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Ranked search over names, email addresses and phone numbers, within the search time budget.
+   *
+   * @return the best matches first; empty if nothing matched or the search timed out
+   */
+  @Override
+  public List<People> searchPeople(String query, int limit) {
+    List<People> peopleList = new ArrayList<>();
+    SearchQuery search = SearchQuery.of(query);
+    if (search == null) {
+      return peopleList;
+    }
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      SearchQuery.setTimeout(connection, searchTimeoutMillis);
+      preparedStatement = connection.prepareStatement(SEARCH_PEOPLE_SQL);
+      search.bind(preparedStatement, limit);
+
+      ResultSet results = preparedStatement.executeQuery();
+      while (results.next()) {
+        peopleList.add(mapPerson(results));
+      }
+      connection.commit();
+
+    } catch (SQLException e) {
+      SearchQuery.reportFailure(e, query);
+      peopleList.clear();
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+    return peopleList;
+  }
+
   /**
    * Finds a person by their exact name.
    *
@@ -113,20 +371,13 @@ public class DatabasePersonRepository implements PersonRepository {
 
     try {
       connection = DatabaseConnection.getConnection();
-      String sql = "SELECT * FROM people WHERE LOWER(role) = LOWER(?)";
+      String sql = "SELECT * FROM people WHERE LOWER(person_name) = LOWER(?)";
       preparedStatement = connection.prepareStatement(sql);
       preparedStatement.setString(1, personName);
 
       ResultSet results = preparedStatement.executeQuery();
       if (results.next()) {
-        People foundPerson =
-            new People(
-                results.getInt("person_id"),
-                results.getString("person_name"),
-                results.getString("phone"),
-                results.getString("email"),
-                results.getString("address"),
-                results.getString("role"));
+        People foundPerson = mapPerson(results);
         return Optional.of(foundPerson);
       }
       return Optional.empty();
@@ -164,14 +415,7 @@ public class DatabasePersonRepository implements PersonRepository {
 
       ArrayList<People> peopleList = new ArrayList<>();
       while (results.next()) {
-        People person =
-            new People(
-                results.getInt("person_id"),
-                results.getString("person_name"),
-                results.getString("phone"),
-                results.getString("email"),
-                results.getString("address"),
-                results.getString("role"));
+        People person = mapPerson(results);
         // add to the list
         peopleList.add(person);
       }
@@ -190,6 +434,71 @@ public class DatabasePersonRepository implements PersonRepository {
     }
   }
 
+  /**
+   * Retrieves everyone holding a project role in one query, grouped by lower-case role.
+   *
+   * @return map of role name to the people with that role, empty lists if none found
+   */
+  @Override
+  public Map<String, List<People>> findAllGroupedByRole() {
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      // matches the expression index on LOWER(role)
+      String sql = "SELECT * FROM people WHERE LOWER(role) IN (?, ?, ?, ?, ?) ORDER BY person_id";
+      preparedStatement = connection.prepareStatement(sql);
+      for (int i = 0; i < PROJECT_ROLES.size(); i++) {
+        preparedStatement.setString(i + 1, PROJECT_ROLES.get(i));
+      }
+
+      Map<String, List<People>> grouped = emptyRoleGroups();
+
+      ResultSet results = preparedStatement.executeQuery();
+      while (results.next()) {
+        People person = mapPerson(results);
+        grouped.get(person.getRole().toLowerCase(Locale.ROOT)).add(person);
+      }
+
+      for (Map.Entry<String, List<People>> entry : grouped.entrySet()) {
+        entry.setValue(Collections.unmodifiableList(entry.getValue()));
+      }
+      return Collections.unmodifiableMap(grouped);
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return emptyRoleGroups();
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) connection.close();
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  private static Map<String, List<People>> emptyRoleGroups() {
+    Map<String, List<People>> grouped = new LinkedHashMap<>();
+    for (String role : PROJECT_ROLES) {
+      grouped.put(role, new ArrayList<>());
+    }
+    return grouped;
+  }
+
+  // builds a person from the current row of a SELECT * (or RETURNING *) on people
+  static People mapPerson(ResultSet results) throws SQLException {
+    People person =
+        new People(
+            results.getInt("person_id"),
+            results.getString("person_name"),
+            results.getString("phone"),
+            results.getString("email"),
+            results.getString("address"),
+            results.getString("role"));
+    person.setVersion(results.getInt("version"));
+    return person;
+  }
+
   /**
    * Updates an existing person's details in the database.
    *
@@ -209,7 +518,7 @@ public class DatabasePersonRepository implements PersonRepository {
       connection = DatabaseConnection.getConnection();
 
       String sql =
-          "UPDATE people SET person_name = ?, phone = ?, email = ?, address = ?, role = ? WHERE person_id = ?";
+          "UPDATE people SET person_name = ?, phone = ?, email = ?, address = ?, role = ?, version = version + 1 WHERE person_id = ?";
 
       preparedStatement = connection.prepareStatement(sql);
 
@@ -235,6 +544,74 @@ public class DatabasePersonRepository implements PersonRepository {
     }
   }
 
+  /**
+   * Updates only the columns set in the patch with a single UPDATE ... RETURNING, so the caller
+   * doesn't have to read the person first and unchanged columns aren't rewritten. If the patch
+   * has an expected version, the row is only updated while it still has that version.
+   *
+   * @return the person as stored after the update, or empty if not found, changed since the
+   *     expected version, or the update failed
+   */
+  @Override
+  public Optional<People> patchPersonData(int personID, PersonPatch patch) {
+    Integer expectedVersion = patch.getExpectedVersion();
+    if (patch.isEmpty()) {
+      return findByID(personID)
+          .filter(person -> expectedVersion == null || person.getVersion() == expectedVersion);
+    }
+    List<String> columns = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    addPatchColumn(columns, values, "person_name", patch.getPersonName());
+    addPatchColumn(columns, values, "phone", patch.getPhone());
+    addPatchColumn(columns, values, "email", patch.getEmail());
+    addPatchColumn(columns, values, "address", patch.getAddress());
+    addPatchColumn(columns, values, "role", patch.getRole());
+
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      preparedStatement = connection.prepareStatement(patchSQL(columns, expectedVersion != null));
+      for (int i = 0; i < values.size(); i++) {
+        preparedStatement.setString(i + 1, values.get(i));
+      }
+      preparedStatement.setInt(values.size() + 1, personID);
+      if (expectedVersion != null) {
+        preparedStatement.setInt(values.size() + 2, expectedVersion);
+      }
+
+      ResultSet results = preparedStatement.executeQuery();
+      return results.next() ? Optional.of(mapPerson(results)) : Optional.empty();
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return Optional.empty();
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) connection.close();
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  private static void addPatchColumn(
+      List<String> columns, List<String> values, String column, String value) {
+    if (value != null) {
+      columns.add(column);
+      values.add(value);
+    }
+  }
+
+  static String patchSQL(List<String> columns, boolean checkVersion) {
+    return "UPDATE people SET "
+        + columns.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+        + ", version = version + 1 WHERE person_id = ?"
+        + (checkVersion ? " AND version = ?" : "")
+        + " RETURNING *";
+  }
+
   /**
    * Creates a new person in the database.
    *
@@ -287,6 +664,168 @@ public class DatabasePersonRepository implements PersonRepository {
     }
   }
 
+  /**
+   * Creates several people in one transaction. The inserts go to the database as one batch; if any
+   * row is rejected the rows are retried one at a time so the valid ones are still created.
+   *
+   * @param people the people to create
+   * @return the generated ID for each person, in input order, or 0 for people that failed
+   */
+  @Override
+  public int[] createPeopleData(List<People> people) {
+    if (people.isEmpty()) {
+      return new int[0];
+    }
+    Connection connection = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      int[] newPersonIDs =
+          JdbcBatch.insertAll(
+              connection,
+              INSERT_PERSON_SQL,
+              people,
+              DatabasePersonRepository::bindNewPerson);
+      connection.commit();
+      return newPersonIDs;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return new int[people.size()];
+    } finally {
+      try {
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Loads people for a bulk import. The people are streamed into a staging table with COPY and
+   * merged into people with one INSERT ... SELECT, in a single transaction. If COPY or the merge
+   * fails as a whole, the people are inserted as a batch instead, so the valid ones are still
+   * loaded.
+   *
+   * @param people the people to load
+   * @return the generated ID for each person, in input order, or 0 for people that were skipped
+   */
+  @Override
+  public int[] importPeopleData(List<People> people) {
+    if (people.isEmpty()) {
+      return new int[0];
+    }
+    Connection connection = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      int[] newPersonIDs;
+      try {
+        newPersonIDs =
+            CopyImport.load(
+                connection,
+                CREATE_IMPORT_STAGING_SQL,
+                COPY_IMPORT_SQL,
+                MERGE_IMPORT_SQL,
+                people,
+                person ->
+                    new String[] {
+                      person.getPersonName(),
+                      person.getPhone(),
+                      person.getEmail(),
+                      person.getAddress(),
+                      person.getRole()
+                    });
+      } catch (SQLException e) {
+        e.printStackTrace();
+        connection.rollback();
+        newPersonIDs =
+            JdbcBatch.insertAll(
+                connection, INSERT_PERSON_SQL, people, DatabasePersonRepository::bindNewPerson);
+      }
+      connection.commit();
+      return newPersonIDs;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return new int[people.size()];
+    } finally {
+      try {
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  private static void bindNewPerson(PreparedStatement statement, People person)
+      throws SQLException {
+    statement.setString(1, person.getPersonName());
+    statement.setString(2, person.getPhone());
+    statement.setString(3, person.getEmail());
+    statement.setString(4, person.getAddress());
+    statement.setString(5, person.getRole());
+  }
+
+  /**
+   * Updates several people in one transaction. The updates go to the database as one batch; if any
+   * row is rejected the rows are retried one at a time so the valid ones are still applied. A
+   * person changed by someone else since they were read (their version moved on) isn't updated.
+   *
+   * @param people the people to update, identified by their person ID
+   * @return for each person, in input order, true if their update succeeded
+   */
+  @Override
+  public boolean[] updatePeopleData(List<People> people) {
+    if (people.isEmpty()) {
+      return new boolean[0];
+    }
+    Connection connection = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      boolean[] updated =
+          JdbcBatch.updateAll(
+              connection,
+              "UPDATE people SET person_name = ?, phone = ?, email = ?, address = ?, role = ?,"
+                  + " version = version + 1 WHERE person_id = ? AND version = ?",
+              people,
+              (statement, person) -> {
+                statement.setString(1, person.getPersonName());
+                statement.setString(2, person.getPhone());
+                statement.setString(3, person.getEmail());
+                statement.setString(4, person.getAddress());
+                statement.setString(5, person.getRole());
+                statement.setInt(6, person.getPersonID());
+                statement.setInt(7, person.getVersion());
+              });
+      connection.commit();
+      return updated;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return new boolean[people.size()];
+    } finally {
+      try {
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
   /**
    * Deletes a person from the database.
    *
@@ -325,37 +864,37 @@ public class DatabasePersonRepository implements PersonRepository {
   }
 
   /**
-   * Finds all projects where this person is assigned (architect, contractor, engineer, or manager).
-   * Used to warn before deletion.
+   * Finds every project this person is assigned to, with the role they hold on each. Each role
+   * column is searched by its own branch of a UNION ALL, so every branch is a plain equality lookup
+   * on that column's foreign-key index instead of one OR across five columns.
    *
    * @param personID the person's ID
-   * @return List of project names they're assigned to
+   * @return assignments ordered by project ID, then role
    */
   @Override
-  public List<String> getProjectsLinkedToPerson(int personID) {
-    ArrayList<String> linkedProjects = new ArrayList<>();
-    Connection connection = null; // Declare outside try
+  public List<ProjectAssignment> findProjectAssignments(int personID) {
+    List<ProjectAssignment> assignments = new ArrayList<>();
+    Connection connection = null;
     PreparedStatement preparedStatement = null;
     try {
       connection = DatabaseConnection.getConnection();
-
-      String checkSQL =
-          "SELECT project_name FROM projects WHERE architect_id = ? OR contractor_id = ? OR engineer_id = ? OR manager_id = ?";
-
-      preparedStatement = connection.prepareStatement(checkSQL);
-      preparedStatement.setInt(1, personID);
-      preparedStatement.setInt(2, personID);
-      preparedStatement.setInt(3, personID);
-      preparedStatement.setInt(4, personID);
+      preparedStatement = connection.prepareStatement(PROJECT_ASSIGNMENTS_SQL);
+      for (int i = 1; i <= PROJECT_ROLES.size(); i++) {
+        preparedStatement.setInt(i, personID);
+      }
 
       ResultSet results = preparedStatement.executeQuery();
       while (results.next()) {
-        linkedProjects.add(results.getString("project_name"));
+        assignments.add(
+            new ProjectAssignment(
+                results.getInt("project_id"),
+                results.getString("project_name"),
+                results.getString("role_on_project")));
       }
 
     } catch (SQLException e) {
       e.printStackTrace();
-      return linkedProjects;
+      return assignments;
     } finally {
       try {
         if (preparedStatement != null) preparedStatement.close();
@@ -364,7 +903,7 @@ public class DatabasePersonRepository implements PersonRepository {
         e.printStackTrace();
       }
     }
-    return linkedProjects;
+    return assignments;
   }
 
   /**
@@ -1,11 +1,19 @@
 package com.richard.poise.repository;
 
+import com.richard.poise.model.FinancialDimension;
+import com.richard.poise.model.FinancialSummary;
+import com.richard.poise.model.Money;
+import com.richard.poise.model.People;
+import com.richard.poise.model.ProjectDetails;
 import com.richard.poise.model.Projects;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.stream.Collectors;
 
 /**
  * PostgreSQL implementation of ProjectRepository. Handles all database operations for Project
@@ -13,6 +21,97 @@ import java.util.ArrayList;
  */
 public class DatabaseProjectRepository implements ProjectRepository {
 
+  // reads the totals the projects triggers keep in project_financial_summary (migration V4), so
+  // the cost depends on the number of groups rather than the number of projects
+  static final String FINANCIAL_SUMMARY_SQL =
+      "SELECT s.group_key, p.person_name, s.project_count, s.total_fee, s.amount_paid"
+          + " FROM project_financial_summary s LEFT JOIN people p ON p.person_id ="
+          + " CASE WHEN s.dimension = 'building_type' THEN NULL ELSE s.group_key::integer END"
+          + " WHERE s.dimension = ? AND s.project_count > 0"
+          + " ORDER BY s.total_fee - s.amount_paid DESC, s.group_key";
+
+  // rows fetched per round trip when streaming the whole table through a cursor
+  static final int STREAM_FETCH_SIZE = 500;
+
+  private static final String INSERT_PROJECT_SQL =
+      "INSERT INTO projects (project_name, building_type, project_address, ERF_number, total_fee,"
+          + " amount_paid_to_date, project_deadline, architect_id, contractor_id, customer_id,"
+          + " engineer_id, manager_id, project_finalised, completion_date)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String IMPORT_COLUMNS =
+      "project_name, building_type, project_address, erf_number, total_fee, amount_paid_to_date,"
+          + " project_deadline, architect_id, contractor_id, customer_id, engineer_id, manager_id,"
+          + " project_finalised, completion_date";
+
+  // fee columns match the projects table (V5), so any amount that fits there stages too
+  static final String CREATE_IMPORT_STAGING_SQL =
+      "CREATE TEMP TABLE import_projects (row_no INTEGER, project_name VARCHAR(255),"
+          + " building_type VARCHAR(100), project_address TEXT, erf_number INTEGER,"
+          + " total_fee DECIMAL(15, 2), amount_paid_to_date DECIMAL(15, 2), project_deadline DATE,"
+          + " architect_id INTEGER, contractor_id INTEGER, customer_id INTEGER,"
+          + " engineer_id INTEGER, manager_id INTEGER, project_finalised BOOLEAN,"
+          + " completion_date DATE) ON COMMIT DROP";
+
+  static final String COPY_IMPORT_SQL =
+      "COPY import_projects (row_no, " + IMPORT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+  // inserts the staged rows whose team members all exist, numbering them in file order, and
+  // returns each inserted row's number with its new ID
+  static final String MERGE_IMPORT_SQL =
+      "WITH valid AS (SELECT s.*,"
+          + " nextval(pg_get_serial_sequence('projects', 'project_id')) AS new_project_id"
+          + " FROM (SELECT * FROM import_projects ORDER BY row_no) s"
+          + " WHERE s.project_name IS NOT NULL AND s.building_type IS NOT NULL AND "
+          + PersonRepository.PROJECT_ROLES.stream()
+              .map(
+                  role ->
+                      (role.equals("customer") ? "" : "(s." + role + "_id IS NULL OR ")
+                          + "EXISTS (SELECT 1 FROM people p WHERE p.person_id = s."
+                          + role
+                          + "_id)"
+                          + (role.equals("customer") ? "" : ")"))
+              .collect(Collectors.joining(" AND "))
+          + "), inserted AS (INSERT INTO projects (project_id, "
+          + IMPORT_COLUMNS
+          + ") SELECT new_project_id, "
+          + IMPORT_COLUMNS
+          + " FROM valid) SELECT row_no, new_project_id FROM valid";
+
+  // the tsvector the word-prefix search matches; the same expression is indexed in V6
+  static final String SEARCH_VECTOR =
+      "to_tsvector('simple', COALESCE(project_name, '') || ' ' || COALESCE(project_address, ''))";
+
+  // ranked name/address search; every branch of the WHERE clause can use a V6 index
+  static final String SEARCH_PROJECTS_SQL =
+      SearchQuery.PARAMETERS_CTE
+          + " SELECT p.* FROM projects p CROSS JOIN q WHERE "
+          + SearchQuery.matchSQL("LOWER(p.project_name)")
+          + " OR "
+          + SearchQuery.matchSQL("LOWER(p.project_address)")
+          + " OR "
+          + SEARCH_VECTOR
+          + " @@ q.words ORDER BY GREATEST("
+          + SearchQuery.rankSQL("LOWER(p.project_name)")
+          + ", "
+          + SearchQuery.rankSQL("LOWER(p.project_address)")
+          + ") DESC, p.project_id LIMIT ?";
+
+  // statement_timeout for a search, in milliseconds
+  private final int searchTimeoutMillis;
+
+  public DatabaseProjectRepository() {
+    this(SearchQuery.DEFAULT_TIMEOUT_MS);
+  }
+
+  /**
+   * @param searchTimeoutMillis how long a search may run before the database cancels it; a
+   *     cancelled search returns no results
+   */
+  public DatabaseProjectRepository(int searchTimeoutMillis) {
+    this.searchTimeoutMillis = searchTimeoutMillis;
+  }
+
   /**
    * Retrieves a summary of all projects (ID, name, and completion status). Used for list views
    * where full project details aren't needed.
@@ -55,6 +154,99 @@ public class DatabaseProjectRepository implements ProjectRepository {
     }
   }
 
+  /**
+   * Retrieves one page of the project summary list using keyset pagination on project_id.
+   *
+   * @return the page of projects, empty page if none found
+   */
+  @Override
+  public KeysetPage<Projects> getProjectsSummaryPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    return summaryPage(null, afterID, beforeID, pageSize);
+  }
+
+  /**
+   * Retrieves one page of incomplete projects using keyset pagination on project_id.
+   *
+   * @return the page of incomplete projects, empty page if none found
+   */
+  @Override
+  public KeysetPage<Projects> getIncompleteProjectsPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    return summaryPage("NOT project_finalised", afterID, beforeID, pageSize);
+  }
+
+  /**
+   * Retrieves one page of overdue projects using keyset pagination on project_id.
+   *
+   * @return the page of overdue projects, empty page if none found
+   */
+  @Override
+  public KeysetPage<Projects> getOverdueProjectsPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    return summaryPage(
+        "NOT project_finalised AND project_deadline < CURRENT_DATE",
+        afterID,
+        beforeID,
+        pageSize);
+  }
+
+  /**
+   * Shared keyset query for the summary list pages. Seeks past the cursor on the primary key and
+   * fetches one extra row to find out whether another page exists.
+   *
+   * @param filterSQL fixed SQL condition for the listing, or null for all projects
+   */
+  private KeysetPage<Projects> summaryPage(
+      String filterSQL, Integer afterID, Integer beforeID, int pageSize) {
+    boolean backward = afterID == null && beforeID != null;
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+
+    try {
+      connection = DatabaseConnection.getConnection();
+      String sql =
+          "SELECT project_id, project_name, project_finalised FROM projects WHERE "
+              + (filterSQL != null ? filterSQL + " AND " : "")
+              + (backward
+                  ? "project_id < ? ORDER BY project_id DESC"
+                  : "project_id > ? ORDER BY project_id")
+              + " LIMIT ?";
+      preparedStatement = connection.prepareStatement(sql);
+      preparedStatement.setInt(1, backward ? beforeID : (afterID != null ? afterID : 0));
+      preparedStatement.setInt(2, pageSize + 1);
+
+      ResultSet results = preparedStatement.executeQuery();
+      List<Projects> projectsList = new ArrayList<>(pageSize + 1);
+
+      while (results.next()) {
+        Projects project =
+            new Projects(
+                results.getInt("project_id"),
+                results.getString("project_name"),
+                results.getBoolean("project_finalised"));
+        projectsList.add(project);
+      }
+      return KeysetPage.fromRows(
+          projectsList,
+          pageSize,
+          backward,
+          afterID != null || beforeID != null,
+          Projects::getProjectID);
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return new KeysetPage<>(new ArrayList<>(), pageSize, null, null);
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) connection.close();
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
   /**
    * Finds a project by its unique ID. Returns complete project details including all relationships.
    *
@@ -74,23 +266,7 @@ public class DatabaseProjectRepository implements ProjectRepository {
 
       ResultSet results = preparedStatement.executeQuery();
       if (results.next()) {
-        Projects foundProject =
-            new Projects(
-                results.getInt("project_id"),
-                results.getString("project_name"),
-                results.getString("building_type"),
-                results.getString("project_address"),
-                results.getInt("ERF_number"),
-                results.getDouble("total_fee"),
-                results.getDouble("amount_paid_to_date"),
-                results.getDate("project_deadline"),
-                results.getInt("architect_id"),
-                results.getInt("contractor_id"),
-                results.getInt("customer_id"),
-                results.getInt("engineer_id"),
-                results.getInt("manager_id"),
-                results.getBoolean("project_finalised"),
-                results.getDate("completion_date"));
+        Projects foundProject = mapProject(results);
         return Optional.of(foundProject);
       }
       return Optional.empty();
@@ -108,6 +284,213 @@ public class DatabaseProjectRepository implements ProjectRepository {
     }
   }
 
+  /**
+   * Streams all projects through a server-side cursor. PostgreSQL only honours the fetch size
+   * when autocommit is off, so the read runs in its own transaction.
+   *
+   * @param action called once per project
+   * @return the number of projects streamed, or -1 if the query failed
+   */
+  @Override
+  public int forEachProject(Consumer<Projects> action) {
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      String sql = "SELECT * FROM projects ORDER BY project_id";
+      preparedStatement =
+          connection.prepareStatement(
+              sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      preparedStatement.setFetchSize(STREAM_FETCH_SIZE);
+
+      ResultSet results = preparedStatement.executeQuery();
+      int count = 0;
+      while (results.next()) {
+        Projects project = mapProject(results);
+        action.accept(project);
+        count++;
+      }
+      connection.commit();
+      return count;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return -1;
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Finds a project and its team members in one round trip. Each of the five person columns is
+   * LEFT JOINed to people, so unassigned roles come back as null.
+   *
+   * @param projectID the project's database ID
+   * @return Optional containing the project and its resolved team if found, empty otherwise
+   */
+  @Override
+  public Optional<ProjectDetails> findDetailsByID(int projectID) {
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+
+    try {
+      connection = DatabaseConnection.getConnection();
+      String sql =
+          "SELECT p.*, "
+              + teamColumns("a")
+              + ", "
+              + teamColumns("co")
+              + ", "
+              + teamColumns("cu")
+              + ", "
+              + teamColumns("e")
+              + ", "
+              + teamColumns("m")
+              + " FROM projects p"
+              + " LEFT JOIN people a ON a.person_id = p.architect_id"
+              + " LEFT JOIN people co ON co.person_id = p.contractor_id"
+              + " LEFT JOIN people cu ON cu.person_id = p.customer_id"
+              + " LEFT JOIN people e ON e.person_id = p.engineer_id"
+              + " LEFT JOIN people m ON m.person_id = p.manager_id"
+              + " WHERE p.project_id = ?";
+      preparedStatement = connection.prepareStatement(sql);
+      preparedStatement.setInt(1, projectID);
+
+      ResultSet results = preparedStatement.executeQuery();
+      if (results.next()) {
+        Projects foundProject = mapProject(results);
+        return Optional.of(
+            new ProjectDetails(
+                foundProject,
+                mapTeamMember(results, "a"),
+                mapTeamMember(results, "co"),
+                mapTeamMember(results, "cu"),
+                mapTeamMember(results, "e"),
+                mapTeamMember(results, "m")));
+      }
+      return Optional.empty();
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return Optional.empty();
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) connection.close();
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  // aliased people columns for one joined team member, e.g. a.person_name AS a_person_name
+  private static String teamColumns(String alias) {
+    return alias + ".person_id AS " + alias + "_person_id, "
+        + alias + ".person_name AS " + alias + "_person_name, "
+        + alias + ".phone AS " + alias + "_phone, "
+        + alias + ".email AS " + alias + "_email, "
+        + alias + ".address AS " + alias + "_address, "
+        + alias + ".role AS " + alias + "_role";
+  }
+
+  /**
+   * Maps the current row of a "SELECT * FROM projects" result to a project. Unassigned team members
+   * come back as 0.
+   */
+  static Projects mapProject(ResultSet results) throws SQLException {
+    Projects project =
+        new Projects(
+            results.getInt("project_id"),
+            results.getString("project_name"),
+            results.getString("building_type"),
+            results.getString("project_address"),
+            results.getInt("ERF_number"),
+            results.getBigDecimal("total_fee"),
+            results.getBigDecimal("amount_paid_to_date"),
+            results.getDate("project_deadline"),
+            results.getInt("architect_id"),
+            results.getInt("contractor_id"),
+            results.getInt("customer_id"),
+            results.getInt("engineer_id"),
+            results.getInt("manager_id"),
+            results.getBoolean("project_finalised"),
+            results.getDate("completion_date"));
+    project.setVersion(results.getInt("version"));
+    return project;
+  }
+
+  // builds a team member from the aliased columns, or null when the role is unassigned
+  private static People mapTeamMember(ResultSet results, String alias) throws SQLException {
+    int personID = results.getInt(alias + "_person_id");
+    if (results.wasNull()) {
+      return null;
+    }
+    return new People(
+        personID,
+        results.getString(alias + "_person_name"),
+        results.getString(alias + "_phone"),
+        results.getString(alias + "_email"),
+        results.getString(alias + "_address"),
+        results.getString(alias + "_role"));
+  }
+
+  /**
+   * Ranked search over project names and addresses, within the search time budget.
+   *
+   * @return the best matches first; empty if nothing matched or the search timed out
+   */
+  @Override
+  public List<Projects> searchProjects(String query, int limit) {
+    List<Projects> projectsList = new ArrayList<>();
+    SearchQuery search = SearchQuery.of(query);
+    if (search == null) {
+      return projectsList;
+    }
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      SearchQuery.setTimeout(connection, searchTimeoutMillis);
+      preparedStatement = connection.prepareStatement(SEARCH_PROJECTS_SQL);
+      search.bind(preparedStatement, limit);
+
+      ResultSet results = preparedStatement.executeQuery();
+      while (results.next()) {
+        projectsList.add(mapProject(results));
+      }
+      connection.commit();
+
+    } catch (SQLException e) {
+      SearchQuery.reportFailure(e, query);
+      projectsList.clear();
+    } finally {
+      try {
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+    return projectsList;
+  }
+
   /**
    * Finds a project by its exact name.
    *
@@ -127,23 +510,7 @@ public class DatabaseProjectRepository implements ProjectRepository {
 
       ResultSet results = preparedStatement.executeQuery();
       if (results.next()) {
-        Projects foundProject =
-            new Projects(
-                results.getInt("project_id"),
-                results.getString("project_name"),
-                results.getString("building_type"),
-                results.getString("project_address"),
-                results.getInt("ERF_number"),
-                results.getDouble("total_fee"),
-                results.getDouble("amount_paid_to_date"),
-                results.getDate("project_deadline"),
-                results.getInt("architect_id"),
-                results.getInt("contractor_id"),
-                results.getInt("customer_id"),
-                results.getInt("engineer_id"),
-                results.getInt("manager_id"),
-                results.getBoolean("project_finalised"),
-                results.getDate("completion_date"));
+        Projects foundProject = mapProject(results);
         return Optional.of(foundProject);
       }
       return Optional.empty();
@@ -162,59 +529,48 @@ public class DatabaseProjectRepository implements ProjectRepository {
   }
 
   /**
-   * Updates all fields of an existing project in the database.
+   * Updates only the columns set in the patch with a single UPDATE ... RETURNING, so the caller
+   * doesn't have to read the project first and unchanged columns aren't rewritten. If the patch
+   * has an expected version, the row is only updated while it still has that version.
    *
-   * @return true if update successful, false otherwise
+   * @return the project as stored after the update, or empty if not found, changed since the
+   *     expected version, or the update failed
    */
   @Override
-  public boolean updateProjectData(
-      int projectID,
-      String projectName,
-      String buildingType,
-      String projectAddress,
-      int ERFNumber,
-      double totalFee,
-      double amountPaidToDate,
-      java.sql.Date projectDeadline,
-      int architectID,
-      int contractorID,
-      int customerID,
-      int engineerID,
-      int managerID,
-      boolean projectFinalised,
-      java.sql.Date completionDate) {
+  public Optional<Projects> patchProjectData(int projectID, ProjectPatch patch) {
+    Integer expectedVersion = patch.getExpectedVersion();
+    if (patch.isEmpty()) {
+      return findByID(projectID)
+          .filter(project -> expectedVersion == null || project.getVersion() == expectedVersion);
+    }
+    List<String> columns = new ArrayList<>();
+    List<Object> values = new ArrayList<>();
+    patchColumns(patch, columns, values);
+
     Connection connection = null;
     PreparedStatement preparedStatement = null;
     try {
       connection = DatabaseConnection.getConnection();
+      preparedStatement = connection.prepareStatement(patchSQL(columns, expectedVersion != null));
+      for (int i = 0; i < values.size(); i++) {
+        // only unassigned team members are null
+        if (values.get(i) == null) {
+          preparedStatement.setNull(i + 1, Types.INTEGER);
+        } else {
+          preparedStatement.setObject(i + 1, values.get(i));
+        }
+      }
+      preparedStatement.setInt(values.size() + 1, projectID);
+      if (expectedVersion != null) {
+        preparedStatement.setInt(values.size() + 2, expectedVersion);
+      }
 
-      String sql =
-          "UPDATE projects SET project_name = ?, building_type = ?, project_address = ?, ERF_number = ?, total_fee = ?, amount_paid_to_date = ?, project_deadline = ?, architect_id = ?, contractor_id = ?, customer_id = ?, engineer_id = ?, manager_id = ?, project_finalised = ?, completion_date = ? WHERE project_id = ?";
-
-      preparedStatement = connection.prepareStatement(sql);
-
-      preparedStatement.setString(1, projectName);
-      preparedStatement.setString(2, buildingType);
-      preparedStatement.setString(3, projectAddress);
-      preparedStatement.setInt(4, ERFNumber);
-      preparedStatement.setDouble(5, totalFee);
-      preparedStatement.setDouble(6, amountPaidToDate);
-      preparedStatement.setDate(7, projectDeadline);
-      preparedStatement.setInt(8, architectID);
-      preparedStatement.setInt(9, contractorID);
-      preparedStatement.setInt(10, customerID);
-      preparedStatement.setInt(11, engineerID);
-      preparedStatement.setInt(12, managerID);
-      preparedStatement.setBoolean(13, projectFinalised);
-      preparedStatement.setDate(14, completionDate);
-      preparedStatement.setInt(15, projectID);
-
-      int rowsAffected = preparedStatement.executeUpdate();
+      ResultSet results = preparedStatement.executeQuery();
+      return results.next() ? Optional.of(mapProject(results)) : Optional.empty();
 
-      return rowsAffected > 0;
     } catch (SQLException e) {
       e.printStackTrace();
-      return false;
+      return Optional.empty();
     } finally {
       try {
         if (preparedStatement != null) preparedStatement.close();
@@ -225,6 +581,49 @@ public class DatabaseProjectRepository implements ProjectRepository {
     }
   }
 
+  // the column and value of every field set in the patch; team member IDs of 0 or less are null
+  static void patchColumns(ProjectPatch patch, List<String> columns, List<Object> values) {
+    addPatchColumn(columns, values, "project_name", patch.getProjectName());
+    addPatchColumn(columns, values, "building_type", patch.getBuildingType());
+    addPatchColumn(columns, values, "project_address", patch.getProjectAddress());
+    addPatchColumn(columns, values, "erf_number", patch.getERFNumber());
+    addPatchColumn(columns, values, "total_fee", patch.getTotalFee());
+    addPatchColumn(columns, values, "amount_paid_to_date", patch.getAmountPaidToDate());
+    addPatchColumn(columns, values, "project_deadline", patch.getProjectDeadline());
+    addPatchTeamMember(columns, values, "architect_id", patch.getArchitectID());
+    addPatchTeamMember(columns, values, "contractor_id", patch.getContractorID());
+    addPatchColumn(columns, values, "customer_id", patch.getCustomerID());
+    addPatchTeamMember(columns, values, "engineer_id", patch.getEngineerID());
+    addPatchTeamMember(columns, values, "manager_id", patch.getManagerID());
+    addPatchColumn(columns, values, "project_finalised", patch.isProjectFinalised());
+    addPatchColumn(columns, values, "completion_date", patch.getCompletionDate());
+  }
+
+  private static void addPatchColumn(
+      List<String> columns, List<Object> values, String column, Object value) {
+    if (value != null) {
+      columns.add(column);
+      values.add(value);
+    }
+  }
+
+  private static void addPatchTeamMember(
+      List<String> columns, List<Object> values, String column, Integer personID) {
+    if (personID != null) {
+      columns.add(column);
+      values.add(personID > 0 ? personID : null);
+    }
+  }
+
+  // every update bumps the version; a versioned one only matches a row still at the expected one
+  static String patchSQL(List<String> columns, boolean checkVersion) {
+    return "UPDATE projects SET "
+        + columns.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+        + ", version = version + 1 WHERE project_id = ?"
+        + (checkVersion ? " AND version = ?" : "")
+        + " RETURNING *";
+  }
+
   /**
    * Creates a new project in the database.
    *
@@ -236,8 +635,8 @@ public class DatabaseProjectRepository implements ProjectRepository {
       String buildingType,
       String projectAddress,
       int ERFNumber,
-      double totalFee,
-      double amountPaidToDate,
+      BigDecimal totalFee,
+      BigDecimal amountPaidToDate,
       java.sql.Date projectDeadline,
       Integer architectID,
       Integer contractorID,
@@ -263,8 +662,8 @@ public class DatabaseProjectRepository implements ProjectRepository {
       preparedStatement.setString(2, buildingType);
       preparedStatement.setString(3, projectAddress);
       preparedStatement.setInt(4, ERFNumber);
-      preparedStatement.setDouble(5, totalFee);
-      preparedStatement.setDouble(6, amountPaidToDate);
+      preparedStatement.setBigDecimal(5, Money.of(totalFee));
+      preparedStatement.setBigDecimal(6, Money.of(amountPaidToDate));
       preparedStatement.setDate(7, projectDeadline);
       if (architectID != null) {
         preparedStatement.setInt(8, architectID);
@@ -317,6 +716,161 @@ public class DatabaseProjectRepository implements ProjectRepository {
     }
   }
 
+  /**
+   * Creates several projects in one transaction. The inserts go to the database as one batch; if
+   * any row is rejected (e.g. an unknown customer) the rows are retried one at a time so the valid
+   * ones are still created.
+   *
+   * @param projects the projects to create
+   * @return the generated ID for each project, in input order, or 0 for projects that failed
+   */
+  @Override
+  public int[] createProjectsData(List<Projects> projects) {
+    if (projects.isEmpty()) {
+      return new int[0];
+    }
+    Connection connection = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      int[] newProjectIDs =
+          JdbcBatch.insertAll(
+              connection,
+              INSERT_PROJECT_SQL,
+              projects,
+              DatabaseProjectRepository::bindNewProject);
+      connection.commit();
+      return newProjectIDs;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return new int[projects.size()];
+    } finally {
+      try {
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Loads projects for a bulk import. The projects are streamed into a staging table with COPY and
+   * merged into projects with one INSERT ... SELECT, in a single transaction. Projects whose team
+   * members don't exist are skipped. If COPY or the merge fails as a whole, the projects are
+   * inserted as a batch instead, so the valid ones are still loaded.
+   *
+   * @param projects the projects to load
+   * @return the generated ID for each project, in input order, or 0 for projects that were skipped
+   */
+  @Override
+  public int[] importProjectsData(List<Projects> projects) {
+    if (projects.isEmpty()) {
+      return new int[0];
+    }
+    Connection connection = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      connection.setAutoCommit(false);
+      int[] newProjectIDs;
+      try {
+        newProjectIDs =
+            CopyImport.load(
+                connection,
+                CREATE_IMPORT_STAGING_SQL,
+                COPY_IMPORT_SQL,
+                MERGE_IMPORT_SQL,
+                projects,
+                DatabaseProjectRepository::importColumns);
+      } catch (SQLException e) {
+        e.printStackTrace();
+        connection.rollback();
+        newProjectIDs =
+            JdbcBatch.insertAll(
+                connection,
+                INSERT_PROJECT_SQL,
+                projects,
+                DatabaseProjectRepository::bindNewProject);
+      }
+      connection.commit();
+      return newProjectIDs;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return new int[projects.size()];
+    } finally {
+      try {
+        if (connection != null) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  // staging column values in IMPORT_COLUMNS order; team member IDs of 0 or less become NULL
+  static String[] importColumns(Projects project) {
+    return new String[] {
+      project.getProjectName(),
+      project.getBuildingType(),
+      project.getProjectAddress(),
+      String.valueOf(project.getERFNumber()),
+      Money.format(project.getTotalFee()),
+      Money.format(project.getAmountPaidToDate()),
+      dateColumn(project.getProjectDeadline()),
+      teamMemberColumn(project.getArchitectID()),
+      teamMemberColumn(project.getContractorID()),
+      String.valueOf(project.getCustomerID()),
+      teamMemberColumn(project.getEngineerID()),
+      teamMemberColumn(project.getManagerID()),
+      String.valueOf(project.getIsProjectFinalised()),
+      dateColumn(project.getCompletionDate())
+    };
+  }
+
+  private static String teamMemberColumn(int personID) {
+    return personID > 0 ? String.valueOf(personID) : null;
+  }
+
+  private static String dateColumn(java.sql.Date date) {
+    return date != null ? date.toString() : null;
+  }
+
+  // parameters for INSERT_PROJECT_SQL; team member IDs of 0 or less become NULL
+  private static void bindNewProject(PreparedStatement statement, Projects project)
+      throws SQLException {
+    statement.setString(1, project.getProjectName());
+    statement.setString(2, project.getBuildingType());
+    statement.setString(3, project.getProjectAddress());
+    statement.setInt(4, project.getERFNumber());
+    statement.setBigDecimal(5, project.getTotalFee());
+    statement.setBigDecimal(6, project.getAmountPaidToDate());
+    statement.setDate(7, project.getProjectDeadline());
+    setTeamMember(statement, 8, project.getArchitectID());
+    setTeamMember(statement, 9, project.getContractorID());
+    statement.setInt(10, project.getCustomerID());
+    setTeamMember(statement, 11, project.getEngineerID());
+    setTeamMember(statement, 12, project.getManagerID());
+    statement.setBoolean(13, project.getIsProjectFinalised());
+    statement.setDate(14, project.getCompletionDate());
+  }
+
+  private static void setTeamMember(PreparedStatement statement, int index, int personID)
+      throws SQLException {
+    if (personID > 0) {
+      statement.setInt(index, personID);
+    } else {
+      statement.setNull(index, java.sql.Types.INTEGER);
+    }
+  }
+
   /**
    * Deletes a project from the database.
    *
@@ -352,32 +906,36 @@ public class DatabaseProjectRepository implements ProjectRepository {
 
   /**
    * Marks a project as finalised and sets its completion date. Once finalised, projects are
-   * considered complete.
+   * considered complete. The check and the update are one statement, "UPDATE ... WHERE NOT
+   * project_finalised RETURNING project_name", so two concurrent finalisations can't both succeed
+   * and the caller gets the name for its notification without reading the project again.
    *
    * @param projectID the project to finalise
    * @param finalisedDate the date the project was completed
-   * @return true if finalisation successful, false otherwise
+   * @param expectedVersion the version the project was shown with, or null to skip that check
+   * @return the finalised project's name, or empty if it wasn't finalised by this call
    */
   @Override
-  public boolean finaliseProjectData(int projectID, Date finalisedDate) {
+  public Optional<String> finaliseProjectData(
+      int projectID, Date finalisedDate, Integer expectedVersion) {
     Connection connection = null;
     PreparedStatement preparedStatement = null;
     try {
       connection = DatabaseConnection.getConnection();
 
-      String updateSQL =
-          "UPDATE projects SET project_finalised = ?, completion_date = ? WHERE project_id = ?";
-      preparedStatement = connection.prepareStatement(updateSQL);
-      preparedStatement.setBoolean(1, true);
-      preparedStatement.setDate(2, finalisedDate);
-      preparedStatement.setInt(3, projectID);
+      preparedStatement = connection.prepareStatement(finaliseSQL(expectedVersion != null));
+      preparedStatement.setDate(1, finalisedDate);
+      preparedStatement.setInt(2, projectID);
+      if (expectedVersion != null) {
+        preparedStatement.setInt(3, expectedVersion);
+      }
 
-      int rowsAffected = preparedStatement.executeUpdate();
-      return rowsAffected > 0; // Simplified
+      ResultSet results = preparedStatement.executeQuery();
+      return results.next() ? Optional.of(results.getString("project_name")) : Optional.empty();
 
     } catch (SQLException e) {
       e.printStackTrace();
-      return false;
+      return Optional.empty();
     } finally {
       try {
         if (preparedStatement != null) preparedStatement.close();
@@ -388,6 +946,13 @@ public class DatabaseProjectRepository implements ProjectRepository {
     }
   }
 
+  static String finaliseSQL(boolean checkVersion) {
+    return "UPDATE projects SET project_finalised = TRUE, completion_date = ?,"
+        + " version = version + 1 WHERE project_id = ? AND NOT project_finalised"
+        + (checkVersion ? " AND version = ?" : "")
+        + " RETURNING project_name";
+  }
+
   /**
    * Retrieves all projects that are not yet finalised. Used to show ongoing work.
    *
@@ -403,9 +968,8 @@ public class DatabaseProjectRepository implements ProjectRepository {
       connection = DatabaseConnection.getConnection();
 
       String searchSQL =
-          "SELECT project_id, project_name, project_finalised FROM projects WHERE project_finalised = ?";
+          "SELECT project_id, project_name, project_finalised FROM projects WHERE NOT project_finalised";
       preparedStatement = connection.prepareStatement(searchSQL);
-      preparedStatement.setBoolean(1, false);
 
       results = preparedStatement.executeQuery();
       List<Projects> projectsList = new ArrayList<>(); // Assign to declared variable
@@ -450,9 +1014,10 @@ public class DatabaseProjectRepository implements ProjectRepository {
       connection = DatabaseConnection.getConnection();
 
       String searchSQL =
-          "SELECT project_id, project_name, project_finalised FROM projects WHERE project_deadline < CURDATE() AND project_finalised = ?";
+          "SELECT project_id, project_name, project_finalised FROM projects"
+              + " WHERE NOT project_finalised AND project_deadline < CURRENT_DATE"
+              + " ORDER BY project_id";
       preparedStatement = connection.prepareStatement(searchSQL);
-      preparedStatement.setBoolean(1, false);
       results = preparedStatement.executeQuery();
       List<Projects> projectsList = new ArrayList<>();
 
@@ -480,4 +1045,90 @@ public class DatabaseProjectRepository implements ProjectRepository {
       }
     }
   }
+
+  /**
+   * Retrieves every open project with a deadline. The filter matches the partial index on
+   * project_deadline, so this reads only unfinalised rows.
+   *
+   * @return List of open projects with ID, name and deadline
+   */
+  @Override
+  public List<Projects> getOpenProjectDeadlines() {
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+    ResultSet results = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      preparedStatement =
+          connection.prepareStatement(
+              "SELECT project_id, project_name, project_deadline FROM projects"
+                  + " WHERE NOT project_finalised AND project_deadline IS NOT NULL"
+                  + " ORDER BY project_id");
+      results = preparedStatement.executeQuery();
+      List<Projects> projectsList = new ArrayList<>();
+      while (results.next()) {
+        Projects project =
+            new Projects(results.getInt("project_id"), results.getString("project_name"), false);
+        project.setProjectDeadline(results.getDate("project_deadline"));
+        projectsList.add(project);
+      }
+      return projectsList;
+
+    } catch (SQLException e) {
+      // an empty list would read as "nothing is overdue" and wipe the tracker's state
+      throw new RepositoryException("Could not read open project deadlines", e);
+    } finally {
+      try {
+        if (results != null) results.close();
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) connection.close();
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Retrieves fee totals per group from the summary table.
+   *
+   * @param dimension what to group the projects by
+   * @return summaries largest outstanding balance first, empty list if none found
+   */
+  @Override
+  public List<FinancialSummary> getFinancialSummary(FinancialDimension dimension) {
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
+    ResultSet results = null;
+    try {
+      connection = DatabaseConnection.getConnection();
+      preparedStatement = connection.prepareStatement(FINANCIAL_SUMMARY_SQL);
+      preparedStatement.setString(1, dimension.getKey());
+      results = preparedStatement.executeQuery();
+      List<FinancialSummary> summaries = new ArrayList<>();
+      while (results.next()) {
+        String groupKey = results.getString("group_key");
+        String personName = results.getString("person_name");
+        summaries.add(
+            new FinancialSummary(
+                groupKey,
+                personName != null ? personName : dimension.defaultGroupName(groupKey),
+                results.getLong("project_count"),
+                results.getBigDecimal("total_fee"),
+                results.getBigDecimal("amount_paid")));
+      }
+      return summaries;
+
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return new ArrayList<>();
+    } finally {
+      try {
+        if (results != null) results.close();
+        if (preparedStatement != null) preparedStatement.close();
+        if (connection != null) connection.close();
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
 }
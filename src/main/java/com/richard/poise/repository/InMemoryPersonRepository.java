@@ -0,0 +1,333 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.ProjectAssignment;
+import com.richard.poise.model.Projects;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * PersonRepository backed by an {@link InMemoryStore}. Role lookups use the store's role index and
+ * project links use its per-role team member indexes; every person handed out is a copy, so callers
+ * can't change the stored data.
+ */
+public class InMemoryPersonRepository implements PersonRepository {
+
+  private final InMemoryStore store;
+
+  public InMemoryPersonRepository(InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public List<People> findAll() {
+    List<People> peopleList = new ArrayList<>();
+    store.snapshot().people.forEachValue(person -> peopleList.add(new People(person)));
+    return peopleList;
+  }
+
+  @Override
+  public KeysetPage<People> findPage(Integer afterID, Integer beforeID, int pageSize) {
+    PersistentIntMap<People> table = store.snapshot().people;
+    boolean backward = afterID == null && beforeID != null;
+    List<People> rows = new ArrayList<>(pageSize + 1);
+    boolean pastTheEnd =
+        backward ? beforeID == Integer.MIN_VALUE : afterID != null && afterID == Integer.MAX_VALUE;
+    if (pastTheEnd) {
+      // nothing lies beyond either end of the int range, and seeking past it would wrap around
+      return KeysetPage.fromRows(rows, pageSize, backward, true, People::getPersonID);
+    }
+    if (backward) {
+      for (int id = table.floorKey(beforeID - 1);
+          id >= 0 && rows.size() <= pageSize;
+          id = table.floorKey(id - 1)) {
+        rows.add(new People(table.get(id)));
+      }
+    } else {
+      for (int id = table.ceilingKey(afterID != null ? afterID + 1 : 0);
+          id >= 0 && rows.size() <= pageSize;
+          id = table.ceilingKey(id + 1)) {
+        rows.add(new People(table.get(id)));
+      }
+    }
+    return KeysetPage.fromRows(
+        rows, pageSize, backward, afterID != null || beforeID != null, People::getPersonID);
+  }
+
+  @Override
+  public int forEachPerson(Consumer<People> action) {
+    int[] count = {0};
+    store
+        .snapshot()
+        .people
+        .forEachValue(
+            person -> {
+              action.accept(new People(person));
+              count[0]++;
+            });
+    return count[0];
+  }
+
+  @Override
+  public Optional<People> findByID(int personID) {
+    People person = store.snapshot().people.get(personID);
+    return person != null ? Optional.of(new People(person)) : Optional.empty();
+  }
+
+  @Override
+  public Map<Integer, People> findAllByIDs(Collection<Integer> personIDs) {
+    PersistentIntMap<People> table = store.snapshot().people;
+    Map<Integer, People> found = new HashMap<>();
+    for (Integer personID : personIDs) {
+      if (personID != null && personID > 0) {
+        People person = table.get(personID);
+        if (person != null) {
+          found.put(personID, new People(person));
+        }
+      }
+    }
+    return found;
+  }
+
+  /** Ranks everyone in memory, the same way the SQL search ranks its matches. */
+  @Override
+  public List<People> searchPeople(String query, int limit) {
+    SearchQuery search = SearchQuery.of(query);
+    if (search == null) {
+      return new ArrayList<>();
+    }
+    List<People> matches = new ArrayList<>();
+    Map<Integer, Double> ranks = new HashMap<>();
+    store
+        .snapshot()
+        .people
+        .forEachValue(
+            person -> {
+              String name = person.getPersonName();
+              if (search.matches(name)
+                  || search.matches(person.getEmail())
+                  || search.matches(person.getPhone())) {
+                matches.add(new People(person));
+                ranks.put(
+                    person.getPersonID(),
+                    Math.max(
+                        search.rank(name),
+                        Math.max(search.rank(person.getEmail()), search.rank(person.getPhone()))));
+              }
+            });
+    matches.sort(
+        Comparator.comparing((People person) -> ranks.get(person.getPersonID()))
+            .reversed()
+            .thenComparing(People::getPersonID));
+    int count = Math.min(matches.size(), SearchQuery.clampLimit(limit));
+    return new ArrayList<>(matches.subList(0, count));
+  }
+
+  /** Case-insensitive match on the person's name. Not indexed, so this scans everyone. */
+  @Override
+  public Optional<People> findByName(String personName) {
+    if (personName == null) {
+      return Optional.empty();
+    }
+    String wanted = personName.toLowerCase(Locale.ROOT);
+    List<People> found = new ArrayList<>(1);
+    store
+        .snapshot()
+        .people
+        .forEachValue(
+            person -> {
+              if (found.isEmpty()
+                  && person.getPersonName() != null
+                  && person.getPersonName().toLowerCase(Locale.ROOT).equals(wanted)) {
+                found.add(new People(person));
+              }
+            });
+    return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+  }
+
+  @Override
+  public List<People> findByRole(String role) {
+    List<People> peopleList = new ArrayList<>();
+    store
+        .snapshot()
+        .peopleWithRole(role)
+        .forEachValue(person -> peopleList.add(new People(person)));
+    return peopleList;
+  }
+
+  @Override
+  public Map<String, List<People>> findAllGroupedByRole() {
+    InMemoryStore.Snapshot snapshot = store.snapshot();
+    Map<String, List<People>> grouped = new LinkedHashMap<>();
+    for (String role : PROJECT_ROLES) {
+      List<People> holders = new ArrayList<>();
+      snapshot.peopleWithRole(role).forEachValue(person -> holders.add(new People(person)));
+      grouped.put(role, holders);
+    }
+    return grouped;
+  }
+
+  @Override
+  public boolean updatePersonData(
+      int personID,
+      String personName,
+      String phone,
+      String email,
+      String personAddress,
+      String role) {
+    People person = new People(personID, personName, phone, email, personAddress, role);
+    return store.write(editor -> update(editor, person, false));
+  }
+
+  @Override
+  public Optional<People> patchPersonData(int personID, PersonPatch patch) {
+    return store.write(
+        editor -> {
+          People stored = editor.person(personID);
+          Integer expectedVersion = patch.getExpectedVersion();
+          if (stored == null
+              || (expectedVersion != null && stored.getVersion() != expectedVersion)) {
+            return Optional.empty();
+          }
+          if (patch.isEmpty()) {
+            return Optional.of(new People(stored));
+          }
+          People updated = new People(stored);
+          patch.applyTo(updated);
+          updated.setVersion(stored.getVersion() + 1);
+          editor.putPerson(updated);
+          return Optional.of(new People(updated));
+        });
+  }
+
+  @Override
+  public int createPersonData(
+      String personName, String phone, String email, String personAddress, String role) {
+    People person = new People(0, personName, phone, email, personAddress, role);
+    return store.write(editor -> insert(editor, person));
+  }
+
+  /** Creates every person in a single store write, so readers see all of them at once. */
+  @Override
+  public int[] createPeopleData(List<People> people) {
+    return store.write(
+        editor -> {
+          int[] newPersonIDs = new int[people.size()];
+          for (int i = 0; i < newPersonIDs.length; i++) {
+            newPersonIDs[i] = insert(editor, people.get(i));
+          }
+          return newPersonIDs;
+        });
+  }
+
+  /** There is nothing faster than the batch path in memory, so imports use it directly. */
+  @Override
+  public int[] importPeopleData(List<People> people) {
+    return createPeopleData(people);
+  }
+
+  /** Applies every update in a single store write, so readers see all of them at once. */
+  @Override
+  public boolean[] updatePeopleData(List<People> people) {
+    return store.write(
+        editor -> {
+          boolean[] updated = new boolean[people.size()];
+          for (int i = 0; i < updated.length; i++) {
+            updated[i] = update(editor, people.get(i), true);
+          }
+          return updated;
+        });
+  }
+
+  private static int insert(InMemoryStore.Editor editor, People person) {
+    People stored = new People(person);
+    stored.setPersonID(editor.nextPersonID());
+    editor.putPerson(stored);
+    return stored.getPersonID();
+  }
+
+  // replaces the stored person and bumps their version; if checkVersion, only while it matches
+  private static boolean update(InMemoryStore.Editor editor, People person, boolean checkVersion) {
+    People stored = editor.person(person.getPersonID());
+    if (stored == null || (checkVersion && stored.getVersion() != person.getVersion())) {
+      return false;
+    }
+    People updated = new People(person);
+    updated.setVersion(stored.getVersion() + 1);
+    editor.putPerson(updated);
+    return true;
+  }
+
+  /**
+   * Deletes a person, unassigning them from every project where they are not the customer. Fails
+   * without changing anything if they are a customer on any project.
+   */
+  @Override
+  public boolean deletePersonData(int person_id) {
+    return store.write(
+        editor -> {
+          if (editor.person(person_id) == null
+              || editor.projectIDsForMember(InMemoryStore.CUSTOMER, person_id).length > 0) {
+            return false;
+          }
+          for (int role = 0; role < PROJECT_ROLES.size(); role++) {
+            for (int projectID : editor.projectIDsForMember(role, person_id)) {
+              Projects unassigned = new Projects(editor.project(projectID));
+              unassign(unassigned, person_id);
+              editor.putProject(unassigned);
+            }
+          }
+          editor.removePerson(person_id);
+          return true;
+        });
+  }
+
+  @Override
+  public List<ProjectAssignment> findProjectAssignments(int personID) {
+    InMemoryStore.Snapshot snapshot = store.snapshot();
+    List<ProjectAssignment> assignments = new ArrayList<>();
+    for (int role = 0; role < PROJECT_ROLES.size(); role++) {
+      for (int projectID : snapshot.projectIDsForMember(role, personID)) {
+        assignments.add(
+            new ProjectAssignment(
+                projectID,
+                snapshot.projects.get(projectID).getProjectName(),
+                PROJECT_ROLES.get(role)));
+      }
+    }
+    assignments.sort(
+        Comparator.comparingInt(ProjectAssignment::getProjectID)
+            .thenComparing(ProjectAssignment::getRoleOnProject));
+    return assignments;
+  }
+
+  @Override
+  public boolean isCustomerInProjects(int personID) {
+    return store.snapshot().projectIDsForMember(InMemoryStore.CUSTOMER, personID).length > 0;
+  }
+
+  // clears every non-customer role the person holds on the project
+  private static void unassign(Projects project, int personID) {
+    if (project.getArchitectID() == personID) {
+      project.setArchitectID(0);
+    }
+    if (project.getContractorID() == personID) {
+      project.setContractorID(0);
+    }
+    if (project.getEngineerID() == personID) {
+      project.setEngineerID(0);
+    }
+    if (project.getManagerID() == personID) {
+      project.setManagerID(0);
+    }
+  }
+}
@@ -0,0 +1,461 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.FinancialDimension;
+import com.richard.poise.model.FinancialSummary;
+import com.richard.poise.model.Money;
+import com.richard.poise.model.ProjectDetails;
+import com.richard.poise.model.Projects;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * ProjectRepository backed by an {@link InMemoryStore}. Reads work on a lock-free snapshot and use
+ * the store's secondary indexes (open projects, deadlines, team members); every project handed out
+ * is a copy, so callers can't change the stored data.
+ */
+public class InMemoryProjectRepository implements ProjectRepository {
+
+  private final InMemoryStore store;
+
+  public InMemoryProjectRepository(InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public List<Projects> getAllProjectsSummary() {
+    List<Projects> projectsList = new ArrayList<>();
+    store.snapshot().projects.forEachValue(project -> projectsList.add(summary(project)));
+    return projectsList;
+  }
+
+  @Override
+  public KeysetPage<Projects> getProjectsSummaryPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    return summaryPage(store.snapshot().projects, project -> true, afterID, beforeID, pageSize);
+  }
+
+  @Override
+  public Optional<Projects> findByID(int projectID) {
+    Projects project = store.snapshot().projects.get(projectID);
+    return project != null ? Optional.of(new Projects(project)) : Optional.empty();
+  }
+
+  @Override
+  public int forEachProject(Consumer<Projects> action) {
+    int[] count = {0};
+    store
+        .snapshot()
+        .projects
+        .forEachValue(
+            project -> {
+              action.accept(new Projects(project));
+              count[0]++;
+            });
+    return count[0];
+  }
+
+  @Override
+  public Optional<ProjectDetails> findDetailsByID(int projectID) {
+    InMemoryStore.Snapshot snapshot = store.snapshot();
+    Projects project = snapshot.projects.get(projectID);
+    if (project == null) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new ProjectDetails(
+            new Projects(project),
+            teamMember(snapshot, project.getArchitectID()),
+            teamMember(snapshot, project.getContractorID()),
+            teamMember(snapshot, project.getCustomerID()),
+            teamMember(snapshot, project.getEngineerID()),
+            teamMember(snapshot, project.getManagerID())));
+  }
+
+  /** Case-insensitive match on the project name. Not indexed, so this scans every project. */
+  @Override
+  public Optional<Projects> findByName(String projectName) {
+    if (projectName == null) {
+      return Optional.empty();
+    }
+    String wanted = projectName.toLowerCase(Locale.ROOT);
+    List<Projects> found = new ArrayList<>(1);
+    store
+        .snapshot()
+        .projects
+        .forEachValue(
+            project -> {
+              if (found.isEmpty()
+                  && project.getProjectName() != null
+                  && project.getProjectName().toLowerCase(Locale.ROOT).equals(wanted)) {
+                found.add(new Projects(project));
+              }
+            });
+    return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+  }
+
+  /** Ranks every project in memory, the same way the SQL search ranks its matches. */
+  @Override
+  public List<Projects> searchProjects(String query, int limit) {
+    SearchQuery search = SearchQuery.of(query);
+    if (search == null) {
+      return new ArrayList<>();
+    }
+    List<Projects> matches = new ArrayList<>();
+    Map<Integer, Double> ranks = new HashMap<>();
+    store
+        .snapshot()
+        .projects
+        .forEachValue(
+            project -> {
+              String name = project.getProjectName();
+              String address = project.getProjectAddress();
+              if (search.matches(name)
+                  || search.matches(address)
+                  // as the SQL's COALESCE(..., ''): a missing field is empty, not "null"
+                  || search.matchesWords(
+                      Objects.toString(name, "") + " " + Objects.toString(address, ""))) {
+                matches.add(new Projects(project));
+                ranks.put(
+                    project.getProjectID(), Math.max(search.rank(name), search.rank(address)));
+              }
+            });
+    matches.sort(
+        Comparator.comparing((Projects project) -> ranks.get(project.getProjectID()))
+            .reversed()
+            .thenComparing(Projects::getProjectID));
+    int count = Math.min(matches.size(), SearchQuery.clampLimit(limit));
+    return new ArrayList<>(matches.subList(0, count));
+  }
+
+  @Override
+  public Optional<Projects> patchProjectData(int projectID, ProjectPatch patch) {
+    return store.write(
+        editor -> {
+          Projects stored = editor.project(projectID);
+          Integer expectedVersion = patch.getExpectedVersion();
+          if (stored == null
+              || (expectedVersion != null && stored.getVersion() != expectedVersion)) {
+            return Optional.empty();
+          }
+          if (patch.isEmpty()) {
+            return Optional.of(new Projects(stored));
+          }
+          Projects updated = new Projects(stored);
+          patch.applyTo(updated);
+          updated.setVersion(stored.getVersion() + 1);
+          if (!teamExists(
+              editor,
+              updated.getArchitectID(),
+              updated.getContractorID(),
+              updated.getCustomerID(),
+              updated.getEngineerID(),
+              updated.getManagerID())) {
+            return Optional.empty();
+          }
+          editor.putProject(updated);
+          return Optional.of(new Projects(updated));
+        });
+  }
+
+  @Override
+  public int createProjectData(
+      String projectName,
+      String buildingType,
+      String projectAddress,
+      int ERFNumber,
+      BigDecimal totalFee,
+      BigDecimal amountPaidToDate,
+      Date projectDeadline,
+      Integer architectID,
+      Integer contractorID,
+      int customerID,
+      Integer engineerID,
+      Integer managerID,
+      boolean projectFinalised,
+      Date completionDate) {
+    Projects project =
+        new Projects(
+            0,
+            projectName,
+            buildingType,
+            projectAddress,
+            ERFNumber,
+            totalFee,
+            amountPaidToDate,
+            projectDeadline,
+            architectID != null ? architectID : 0,
+            contractorID != null ? contractorID : 0,
+            customerID,
+            engineerID != null ? engineerID : 0,
+            managerID != null ? managerID : 0,
+            projectFinalised,
+            completionDate);
+    return store.write(editor -> insert(editor, project));
+  }
+
+  /** Creates every valid project in a single store write, so readers see all of them at once. */
+  @Override
+  public int[] createProjectsData(List<Projects> projects) {
+    return store.write(
+        editor -> {
+          int[] newProjectIDs = new int[projects.size()];
+          for (int i = 0; i < newProjectIDs.length; i++) {
+            newProjectIDs[i] = insert(editor, projects.get(i));
+          }
+          return newProjectIDs;
+        });
+  }
+
+  /** There is nothing faster than the batch path in memory, so imports use it directly. */
+  @Override
+  public int[] importProjectsData(List<Projects> projects) {
+    return createProjectsData(projects);
+  }
+
+  // stores a copy of the project under the next ID, or returns 0 if its team doesn't exist
+  private static int insert(InMemoryStore.Editor editor, Projects project) {
+    if (!teamExists(
+        editor,
+        project.getArchitectID(),
+        project.getContractorID(),
+        project.getCustomerID(),
+        project.getEngineerID(),
+        project.getManagerID())) {
+      return 0;
+    }
+    Projects stored = new Projects(project);
+    stored.setProjectID(editor.nextProjectID());
+    stored.setArchitectID(Math.max(stored.getArchitectID(), 0));
+    stored.setContractorID(Math.max(stored.getContractorID(), 0));
+    stored.setEngineerID(Math.max(stored.getEngineerID(), 0));
+    stored.setManagerID(Math.max(stored.getManagerID(), 0));
+    editor.putProject(stored);
+    return stored.getProjectID();
+  }
+
+  @Override
+  public boolean deleteProjectData(int project_id) {
+    return store.write(
+        editor -> {
+          if (editor.project(project_id) == null) {
+            return false;
+          }
+          editor.removeProject(project_id);
+          return true;
+        });
+  }
+
+  @Override
+  public Optional<String> finaliseProjectData(
+      int projectID, Date finalisedDate, Integer expectedVersion) {
+    return store.write(
+        editor -> {
+          Projects project = editor.project(projectID);
+          if (project == null
+              || project.getIsProjectFinalised()
+              || (expectedVersion != null && project.getVersion() != expectedVersion)) {
+            return Optional.empty();
+          }
+          Projects finalised = new Projects(project);
+          finalised.setProjectFinalised(true);
+          finalised.setCompletionDate(finalisedDate);
+          finalised.setVersion(project.getVersion() + 1);
+          editor.putProject(finalised);
+          return Optional.of(finalised.getProjectName());
+        });
+  }
+
+  @Override
+  public List<Projects> getIncompleteProjects() {
+    List<Projects> projectsList = new ArrayList<>();
+    store.snapshot().openProjects.forEachValue(project -> projectsList.add(summary(project)));
+    return projectsList;
+  }
+
+  @Override
+  public KeysetPage<Projects> getIncompleteProjectsPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    return summaryPage(store.snapshot().openProjects, project -> true, afterID, beforeID, pageSize);
+  }
+
+  /** Open projects due before today, found through the deadline index. */
+  @Override
+  public List<Projects> getOverdueProjects() {
+    InMemoryStore.Snapshot snapshot = store.snapshot();
+    int today = InMemoryStore.deadlineKey(LocalDate.now());
+    int[] overdueIDs = new int[0];
+    int count = 0;
+    for (int day = snapshot.openProjectsByDeadline.ceilingKey(0);
+        day >= 0 && day < today;
+        day = snapshot.openProjectsByDeadline.ceilingKey(day + 1)) {
+      int[] due = snapshot.openProjectsByDeadline.get(day);
+      if (count + due.length > overdueIDs.length) {
+        overdueIDs = Arrays.copyOf(overdueIDs, Math.max(count + due.length, overdueIDs.length * 2));
+      }
+      System.arraycopy(due, 0, overdueIDs, count, due.length);
+      count += due.length;
+    }
+    Arrays.sort(overdueIDs, 0, count);
+
+    List<Projects> projectsList = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      projectsList.add(summary(snapshot.projects.get(overdueIDs[i])));
+    }
+    return projectsList;
+  }
+
+  @Override
+  public KeysetPage<Projects> getOverdueProjectsPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    Date today = Date.valueOf(LocalDate.now());
+    return summaryPage(
+        store.snapshot().openProjects,
+        project ->
+            project.getProjectDeadline() != null && project.getProjectDeadline().before(today),
+        afterID,
+        beforeID,
+        pageSize);
+  }
+
+  @Override
+  public List<Projects> getOpenProjectDeadlines() {
+    List<Projects> projectsList = new ArrayList<>();
+    store
+        .snapshot()
+        .openProjects
+        .forEachValue(
+            project -> {
+              if (project.getProjectDeadline() != null) {
+                Projects summary = summary(project);
+                summary.setProjectDeadline(project.getProjectDeadline());
+                projectsList.add(summary);
+              }
+            });
+    return projectsList;
+  }
+
+  /** Groups the projects in memory, the same way the summary table groups them in the database. */
+  @Override
+  public List<FinancialSummary> getFinancialSummary(FinancialDimension dimension) {
+    InMemoryStore.Snapshot snapshot = store.snapshot();
+    Map<String, BigDecimal[]> totals = new HashMap<>();
+    Map<String, Long> counts = new HashMap<>();
+    snapshot.projects.forEachValue(
+        project -> {
+          String groupKey =
+              switch (dimension) {
+                case CUSTOMER -> String.valueOf(project.getCustomerID());
+                case BUILDING_TYPE -> project.getBuildingType();
+                case MANAGER -> String.valueOf(project.getManagerID());
+              };
+          BigDecimal[] sums =
+              totals.computeIfAbsent(groupKey, key -> new BigDecimal[] {Money.ZERO, Money.ZERO});
+          sums[0] = sums[0].add(project.getTotalFee());
+          sums[1] = sums[1].add(project.getAmountPaidToDate());
+          counts.merge(groupKey, 1L, Long::sum);
+        });
+
+    List<FinancialSummary> summaries = new ArrayList<>(totals.size());
+    totals.forEach(
+        (groupKey, sums) -> {
+          People person =
+              dimension == FinancialDimension.BUILDING_TYPE
+                  ? null
+                  : snapshot.people.get(Integer.parseInt(groupKey));
+          summaries.add(
+              new FinancialSummary(
+                  groupKey,
+                  person != null ? person.getPersonName() : dimension.defaultGroupName(groupKey),
+                  counts.get(groupKey),
+                  sums[0],
+                  sums[1]));
+        });
+    summaries.sort(
+        Comparator.comparing(FinancialSummary::getOutstanding)
+            .reversed()
+            .thenComparing(FinancialSummary::getGroupKey));
+    return summaries;
+  }
+
+  // walks the table in ID order from the cursor, the same way the SQL keyset query seeks the index
+  private static KeysetPage<Projects> summaryPage(
+      PersistentIntMap<Projects> table,
+      Predicate<Projects> filter,
+      Integer afterID,
+      Integer beforeID,
+      int pageSize) {
+    boolean backward = afterID == null && beforeID != null;
+    List<Projects> rows = new ArrayList<>(pageSize + 1);
+    boolean pastTheEnd =
+        backward ? beforeID == Integer.MIN_VALUE : afterID != null && afterID == Integer.MAX_VALUE;
+    if (pastTheEnd) {
+      // nothing lies beyond either end of the int range, and seeking past it would wrap around
+      return KeysetPage.fromRows(rows, pageSize, backward, true, Projects::getProjectID);
+    }
+    if (backward) {
+      for (int id = table.floorKey(beforeID - 1);
+          id >= 0 && rows.size() <= pageSize;
+          id = table.floorKey(id - 1)) {
+        Projects project = table.get(id);
+        if (filter.test(project)) {
+          rows.add(summary(project));
+        }
+      }
+    } else {
+      int start = afterID != null ? afterID + 1 : 0;
+      for (int id = table.ceilingKey(start);
+          id >= 0 && rows.size() <= pageSize;
+          id = table.ceilingKey(id + 1)) {
+        Projects project = table.get(id);
+        if (filter.test(project)) {
+          rows.add(summary(project));
+        }
+      }
+    }
+    return KeysetPage.fromRows(
+        rows, pageSize, backward, afterID != null || beforeID != null, Projects::getProjectID);
+  }
+
+  private static Projects summary(Projects project) {
+    return new Projects(
+        project.getProjectID(), project.getProjectName(), project.getIsProjectFinalised());
+  }
+
+  private static People teamMember(InMemoryStore.Snapshot snapshot, int personID) {
+    People person = snapshot.people.get(personID);
+    return person != null ? new People(person) : null;
+  }
+
+  // the customer is required; other members may be unassigned (0) but must exist if set
+  private static boolean teamExists(
+      InMemoryStore.Editor editor,
+      int architectID,
+      int contractorID,
+      int customerID,
+      int engineerID,
+      int managerID) {
+    return editor.person(customerID) != null
+        && memberExists(editor, architectID)
+        && memberExists(editor, contractorID)
+        && memberExists(editor, engineerID)
+        && memberExists(editor, managerID);
+  }
+
+  private static boolean memberExists(InMemoryStore.Editor editor, int personID) {
+    return personID <= 0 || editor.person(personID) != null;
+  }
+}
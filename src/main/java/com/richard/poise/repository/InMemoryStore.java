@@ -0,0 +1,449 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory storage engine shared by {@link InMemoryProjectRepository} and {@link
+ * InMemoryPersonRepository}. Both tables and their secondary indexes live in one immutable {@link
+ * Snapshot}: readers take the current snapshot without locking, and writers build a new one
+ * (sharing everything they didn't touch) and publish it atomically. A reader therefore always sees
+ * the people and projects tables at the same point in time.
+ *
+ * <p>Foreign keys follow schema.sql: a project's customer must exist and can't be deleted while
+ * assigned (ON DELETE RESTRICT), while deleting any other team member unassigns them (ON DELETE SET
+ * NULL). Team member IDs of 0 mean "unassigned", matching what the JDBC repositories return for
+ * NULL columns.
+ */
+public class InMemoryStore {
+
+  // index of each *_id column in Snapshot.projectsByMember, in PersonRepository.PROJECT_ROLES order
+  static final int ARCHITECT = 0;
+  static final int CONTRACTOR = 1;
+  static final int CUSTOMER = 2;
+  static final int ENGINEER = 3;
+  static final int MANAGER = 4;
+
+  // deadlines are indexed by days since 0000-01-01 so the keys are never negative
+  private static final long DEADLINE_EPOCH_DAY_OFFSET = LocalDate.of(0, 1, 1).toEpochDay();
+
+  private static final int[] NO_IDS = new int[0];
+
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  /** The current point-in-time view of both tables. Never blocks. */
+  Snapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Applies a change to a private copy of the current snapshot and publishes the result. Writers
+   * are serialised; readers keep using the previous snapshot until the new one is published.
+   */
+  synchronized <T> T write(Function<Editor, T> change) {
+    Editor editor = new Editor(snapshot);
+    T result = change.apply(editor);
+    snapshot = editor.toSnapshot();
+    return result;
+  }
+
+  /**
+   * Replaces the contents of the store, e.g. to warm it from the database. Builds every table and
+   * index in one pass instead of one copy-on-write step per row.
+   *
+   * @param people every person to load
+   * @param projects every project to load
+   */
+  public synchronized void replaceAll(Iterable<People> people, Iterable<Projects> projects) {
+    PersistentIntMap.Builder<People> peopleBuilder = new PersistentIntMap.Builder<>();
+    Map<String, PersistentIntMap.Builder<People>> roleBuilders = new HashMap<>();
+    int maxPersonID = 0;
+    for (People person : people) {
+      People stored = new People(person);
+      peopleBuilder.put(stored.getPersonID(), stored);
+      roleBuilders
+          .computeIfAbsent(roleKey(stored.getRole()), role -> new PersistentIntMap.Builder<>())
+          .put(stored.getPersonID(), stored);
+      maxPersonID = Math.max(maxPersonID, stored.getPersonID());
+    }
+
+    PersistentIntMap.Builder<Projects> projectBuilder = new PersistentIntMap.Builder<>();
+    PersistentIntMap.Builder<Projects> openBuilder = new PersistentIntMap.Builder<>();
+    IndexBuilder deadlineIndex = new IndexBuilder();
+    List<IndexBuilder> memberIndexes = new ArrayList<>();
+    for (int i = 0; i < PersonRepository.PROJECT_ROLES.size(); i++) {
+      memberIndexes.add(new IndexBuilder());
+    }
+    int maxProjectID = 0;
+    for (Projects project : projects) {
+      Projects stored = new Projects(project);
+      int projectID = stored.getProjectID();
+      projectBuilder.put(projectID, stored);
+      if (!stored.getIsProjectFinalised()) {
+        openBuilder.put(projectID, stored);
+        if (stored.getProjectDeadline() != null) {
+          deadlineIndex.add(deadlineKey(stored), projectID);
+        }
+      }
+      for (int role = 0; role < memberIndexes.size(); role++) {
+        int memberID = memberID(stored, role);
+        if (memberID > 0) {
+          memberIndexes.get(role).add(memberID, projectID);
+        }
+      }
+      maxProjectID = Math.max(maxProjectID, projectID);
+    }
+
+    Map<String, PersistentIntMap<People>> peopleByRole = new HashMap<>();
+    roleBuilders.forEach((role, builder) -> peopleByRole.put(role, builder.build()));
+    List<PersistentIntMap<int[]>> projectsByMember = new ArrayList<>();
+    for (IndexBuilder memberIndex : memberIndexes) {
+      projectsByMember.add(memberIndex.build());
+    }
+    snapshot =
+        new Snapshot(
+            peopleBuilder.build(),
+            Collections.unmodifiableMap(peopleByRole),
+            projectBuilder.build(),
+            openBuilder.build(),
+            deadlineIndex.build(),
+            Collections.unmodifiableList(projectsByMember),
+            maxPersonID + 1,
+            maxProjectID + 1);
+  }
+
+  /**
+   * Loads the store from other repositories (typically the database ones), streaming both tables.
+   *
+   * @return true if both tables were read successfully
+   */
+  public boolean loadFrom(PersonRepository personSource, ProjectRepository projectSource) {
+    List<People> people = new ArrayList<>();
+    List<Projects> projects = new ArrayList<>();
+    if (personSource.forEachPerson(people::add) < 0
+        || projectSource.forEachProject(projects::add) < 0) {
+      return false;
+    }
+    replaceAll(people, projects);
+    return true;
+  }
+
+  static String roleKey(String role) {
+    return role == null ? "" : role.toLowerCase(Locale.ROOT);
+  }
+
+  static int deadlineKey(LocalDate date) {
+    return (int) (date.toEpochDay() - DEADLINE_EPOCH_DAY_OFFSET);
+  }
+
+  private static int deadlineKey(Projects project) {
+    return deadlineKey(project.getProjectDeadline().toLocalDate());
+  }
+
+  static int memberID(Projects project, int role) {
+    switch (role) {
+      case ARCHITECT:
+        return project.getArchitectID();
+      case CONTRACTOR:
+        return project.getContractorID();
+      case CUSTOMER:
+        return project.getCustomerID();
+      case ENGINEER:
+        return project.getEngineerID();
+      default:
+        return project.getManagerID();
+    }
+  }
+
+  // sorted int[] sets used as index values; both return a new array and never modify the input
+
+  static int[] insertSorted(int[] ids, int id) {
+    int position = Arrays.binarySearch(ids, id);
+    if (position >= 0) {
+      return ids;
+    }
+    int insertAt = -position - 1;
+    int[] result = new int[ids.length + 1];
+    System.arraycopy(ids, 0, result, 0, insertAt);
+    result[insertAt] = id;
+    System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+    return result;
+  }
+
+  static int[] removeSorted(int[] ids, int id) {
+    int position = Arrays.binarySearch(ids, id);
+    if (position < 0) {
+      return ids;
+    }
+    if (ids.length == 1) {
+      return NO_IDS;
+    }
+    int[] result = new int[ids.length - 1];
+    System.arraycopy(ids, 0, result, 0, position);
+    System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+    return result;
+  }
+
+  /**
+   * Collects (key, ID) pairs for a bulk load and turns them into an index of sorted ID arrays.
+   * Pairs are packed into a long[] and sorted once, so no boxed keys or per-key lists are created.
+   */
+  private static final class IndexBuilder {
+    private long[] pairs = new long[64];
+    private int count;
+
+    void add(int key, int id) {
+      if (count == pairs.length) {
+        pairs = Arrays.copyOf(pairs, count * 2);
+      }
+      pairs[count++] = ((long) key << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    PersistentIntMap<int[]> build() {
+      Arrays.sort(pairs, 0, count);
+      PersistentIntMap.Builder<int[]> builder = new PersistentIntMap.Builder<>();
+      int start = 0;
+      while (start < count) {
+        int key = (int) (pairs[start] >>> 32);
+        int end = start;
+        while (end < count && (int) (pairs[end] >>> 32) == key) {
+          end++;
+        }
+        int[] ids = new int[end - start];
+        for (int i = start; i < end; i++) {
+          ids[i - start] = (int) pairs[i];
+        }
+        builder.put(key, ids);
+        start = end;
+      }
+      return builder.build();
+    }
+  }
+
+  /**
+   * Immutable view of both tables and their secondary indexes. Stored People and Projects are
+   * private copies that are never modified; repositories hand out further copies.
+   */
+  static final class Snapshot {
+    static final Snapshot EMPTY =
+        new Snapshot(
+            PersistentIntMap.empty(),
+            Collections.emptyMap(),
+            PersistentIntMap.empty(),
+            PersistentIntMap.empty(),
+            PersistentIntMap.empty(),
+            Collections.nCopies(PersonRepository.PROJECT_ROLES.size(), PersistentIntMap.empty()),
+            1,
+            1);
+
+    final PersistentIntMap<People> people;
+    // lower-case role -> people holding it
+    final Map<String, PersistentIntMap<People>> peopleByRole;
+    final PersistentIntMap<Projects> projects;
+    // projects that are not finalised
+    final PersistentIntMap<Projects> openProjects;
+    // deadlineKey -> sorted IDs of open projects due that day
+    final PersistentIntMap<int[]> openProjectsByDeadline;
+    // one index per team role column: person ID -> sorted IDs of projects they hold that role on
+    final List<PersistentIntMap<int[]>> projectsByMember;
+    final int nextPersonID;
+    final int nextProjectID;
+
+    Snapshot(
+        PersistentIntMap<People> people,
+        Map<String, PersistentIntMap<People>> peopleByRole,
+        PersistentIntMap<Projects> projects,
+        PersistentIntMap<Projects> openProjects,
+        PersistentIntMap<int[]> openProjectsByDeadline,
+        List<PersistentIntMap<int[]>> projectsByMember,
+        int nextPersonID,
+        int nextProjectID) {
+      this.people = people;
+      this.peopleByRole = peopleByRole;
+      this.projects = projects;
+      this.openProjects = openProjects;
+      this.openProjectsByDeadline = openProjectsByDeadline;
+      this.projectsByMember = projectsByMember;
+      this.nextPersonID = nextPersonID;
+      this.nextProjectID = nextProjectID;
+    }
+
+    PersistentIntMap<People> peopleWithRole(String role) {
+      return peopleByRole.getOrDefault(roleKey(role), PersistentIntMap.empty());
+    }
+
+    int[] projectIDsForMember(int role, int personID) {
+      int[] ids = projectsByMember.get(role).get(personID);
+      return ids != null ? ids : NO_IDS;
+    }
+  }
+
+  /**
+   * Mutable working copy of a snapshot used by a single writer. Every change keeps the secondary
+   * indexes in step with the tables.
+   */
+  static final class Editor {
+    private PersistentIntMap<People> people;
+    private final Map<String, PersistentIntMap<People>> peopleByRole;
+    private PersistentIntMap<Projects> projects;
+    private PersistentIntMap<Projects> openProjects;
+    private PersistentIntMap<int[]> openProjectsByDeadline;
+    private final List<PersistentIntMap<int[]>> projectsByMember;
+    private int nextPersonID;
+    private int nextProjectID;
+
+    private Editor(Snapshot base) {
+      this.people = base.people;
+      this.peopleByRole = new HashMap<>(base.peopleByRole);
+      this.projects = base.projects;
+      this.openProjects = base.openProjects;
+      this.openProjectsByDeadline = base.openProjectsByDeadline;
+      this.projectsByMember = new ArrayList<>(base.projectsByMember);
+      this.nextPersonID = base.nextPersonID;
+      this.nextProjectID = base.nextProjectID;
+    }
+
+    People person(int personID) {
+      return people.get(personID);
+    }
+
+    Projects project(int projectID) {
+      return projects.get(projectID);
+    }
+
+    int[] projectIDsForMember(int role, int personID) {
+      int[] ids = projectsByMember.get(role).get(personID);
+      return ids != null ? ids : NO_IDS;
+    }
+
+    int nextPersonID() {
+      return nextPersonID++;
+    }
+
+    int nextProjectID() {
+      return nextProjectID++;
+    }
+
+    /** Inserts or replaces a person. The person must not be modified afterwards. */
+    void putPerson(People person) {
+      People previous = people.get(person.getPersonID());
+      if (previous != null) {
+        removeFromRole(previous);
+      }
+      people = people.with(person.getPersonID(), person);
+      String role = roleKey(person.getRole());
+      peopleByRole.put(
+          role,
+          peopleByRole
+              .getOrDefault(role, PersistentIntMap.empty())
+              .with(person.getPersonID(), person));
+      nextPersonID = Math.max(nextPersonID, person.getPersonID() + 1);
+    }
+
+    void removePerson(int personID) {
+      People previous = people.get(personID);
+      if (previous != null) {
+        removeFromRole(previous);
+        people = people.without(personID);
+      }
+    }
+
+    /** Inserts or replaces a project. The project must not be modified afterwards. */
+    void putProject(Projects project) {
+      int projectID = project.getProjectID();
+      Projects previous = projects.get(projectID);
+      if (previous != null) {
+        unindex(previous);
+      }
+      projects = projects.with(projectID, project);
+      if (!project.getIsProjectFinalised()) {
+        openProjects = openProjects.with(projectID, project);
+        if (project.getProjectDeadline() != null) {
+          int day = deadlineKey(project);
+          int[] due = openProjectsByDeadline.get(day);
+          openProjectsByDeadline =
+              openProjectsByDeadline.with(day, insertSorted(due != null ? due : NO_IDS, projectID));
+        }
+      }
+      for (int role = 0; role < projectsByMember.size(); role++) {
+        int memberID = memberID(project, role);
+        if (memberID > 0) {
+          PersistentIntMap<int[]> index = projectsByMember.get(role);
+          int[] ids = index.get(memberID);
+          projectsByMember.set(
+              role, index.with(memberID, insertSorted(ids != null ? ids : NO_IDS, projectID)));
+        }
+      }
+      nextProjectID = Math.max(nextProjectID, projectID + 1);
+    }
+
+    void removeProject(int projectID) {
+      Projects previous = projects.get(projectID);
+      if (previous != null) {
+        unindex(previous);
+        projects = projects.without(projectID);
+      }
+    }
+
+    private void removeFromRole(People person) {
+      String role = roleKey(person.getRole());
+      PersistentIntMap<People> holders =
+          peopleByRole.getOrDefault(role, PersistentIntMap.empty()).without(person.getPersonID());
+      if (holders.isEmpty()) {
+        peopleByRole.remove(role);
+      } else {
+        peopleByRole.put(role, holders);
+      }
+    }
+
+    // removes a project from every secondary index (but not from the projects table)
+    private void unindex(Projects project) {
+      int projectID = project.getProjectID();
+      openProjects = openProjects.without(projectID);
+      if (!project.getIsProjectFinalised() && project.getProjectDeadline() != null) {
+        int day = deadlineKey(project);
+        int[] due = openProjectsByDeadline.get(day);
+        if (due != null) {
+          int[] remaining = removeSorted(due, projectID);
+          openProjectsByDeadline =
+              remaining.length == 0
+                  ? openProjectsByDeadline.without(day)
+                  : openProjectsByDeadline.with(day, remaining);
+        }
+      }
+      for (int role = 0; role < projectsByMember.size(); role++) {
+        int memberID = memberID(project, role);
+        PersistentIntMap<int[]> index = projectsByMember.get(role);
+        int[] ids = index.get(memberID);
+        if (memberID > 0 && ids != null) {
+          int[] remaining = removeSorted(ids, projectID);
+          projectsByMember.set(
+              role,
+              remaining.length == 0 ? index.without(memberID) : index.with(memberID, remaining));
+        }
+      }
+    }
+
+    private Snapshot toSnapshot() {
+      return new Snapshot(
+          people,
+          Collections.unmodifiableMap(new HashMap<>(peopleByRole)),
+          projects,
+          openProjects,
+          openProjectsByDeadline,
+          Collections.unmodifiableList(new ArrayList<>(projectsByMember)),
+          nextPersonID,
+          nextProjectID);
+    }
+  }
+}
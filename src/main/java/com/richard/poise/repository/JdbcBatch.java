@@ -0,0 +1,111 @@
+package com.richard.poise.repository;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Runs one INSERT or UPDATE statement for many rows as a single JDBC batch on a caller-managed
+ * transaction. PostgreSQL aborts the whole batch if any row fails, so in that case the batch is
+ * rolled back and replayed row by row, each under its own savepoint: valid rows are still written
+ * and each failed row is reported individually. The caller commits.
+ */
+final class JdbcBatch {
+
+  /** Sets the statement parameters for one row. */
+  interface RowBinder<T> {
+    void bind(PreparedStatement statement, T row) throws SQLException;
+  }
+
+  private JdbcBatch() {}
+
+  /**
+   * Inserts every row and returns the generated keys.
+   *
+   * @return the generated ID for each row, in input order, or 0 for rows that failed
+   */
+  static <T> int[] insertAll(
+      Connection connection, String insertSQL, List<T> rows, RowBinder<T> binder)
+      throws SQLException {
+    int[] generatedIDs = new int[rows.size()];
+    try (PreparedStatement statement =
+        connection.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)) {
+      for (T row : rows) {
+        binder.bind(statement, row);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+      try (ResultSet keys = statement.getGeneratedKeys()) {
+        for (int i = 0; i < generatedIDs.length && keys.next(); i++) {
+          generatedIDs[i] = keys.getInt(1);
+        }
+      }
+      return generatedIDs;
+    } catch (BatchUpdateException e) {
+      connection.rollback();
+    }
+
+    try (PreparedStatement statement =
+        connection.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)) {
+      for (int i = 0; i < rows.size(); i++) {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+          binder.bind(statement, rows.get(i));
+          statement.executeUpdate();
+          try (ResultSet keys = statement.getGeneratedKeys()) {
+            generatedIDs[i] = keys.next() ? keys.getInt(1) : 0;
+          }
+          connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+          connection.rollback(savepoint);
+          generatedIDs[i] = 0;
+        }
+      }
+    }
+    return generatedIDs;
+  }
+
+  /**
+   * Runs the update for every row.
+   *
+   * @return for each row, in input order, true if it updated at least one record
+   */
+  static <T> boolean[] updateAll(
+      Connection connection, String updateSQL, List<T> rows, RowBinder<T> binder)
+      throws SQLException {
+    boolean[] updated = new boolean[rows.size()];
+    try (PreparedStatement statement = connection.prepareStatement(updateSQL)) {
+      for (T row : rows) {
+        binder.bind(statement, row);
+        statement.addBatch();
+      }
+      int[] counts = statement.executeBatch();
+      for (int i = 0; i < updated.length && i < counts.length; i++) {
+        updated[i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+      }
+      return updated;
+    } catch (BatchUpdateException e) {
+      connection.rollback();
+    }
+
+    try (PreparedStatement statement = connection.prepareStatement(updateSQL)) {
+      for (int i = 0; i < rows.size(); i++) {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+          binder.bind(statement, rows.get(i));
+          updated[i] = statement.executeUpdate() > 0;
+          connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+          connection.rollback(savepoint);
+          updated[i] = false;
+        }
+      }
+    }
+    return updated;
+  }
+}
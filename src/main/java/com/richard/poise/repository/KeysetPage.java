@@ -0,0 +1,110 @@
+package com.richard.poise.repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * One page of a keyset (seek) paginated listing. Pages are addressed by the ID of the last row of
+ * the previous page (after) or the first row of the following page (before), so each page costs an
+ * index range scan rather than an OFFSET over every earlier row.
+ *
+ * @param <T> the row type
+ */
+public class KeysetPage<T> {
+  /** Page size used when the caller doesn't ask for one. */
+  public static final int DEFAULT_PAGE_SIZE = 50;
+
+  /** Largest page a caller may request. */
+  public static final int MAX_PAGE_SIZE = 200;
+
+  private final List<T> items;
+  private final int pageSize;
+  private final Integer nextCursor;
+  private final Integer previousCursor;
+
+  public KeysetPage(List<T> items, int pageSize, Integer nextCursor, Integer previousCursor) {
+    this.items = items;
+    this.pageSize = pageSize;
+    this.nextCursor = nextCursor;
+    this.previousCursor = previousCursor;
+  }
+
+  /**
+   * Limits a requested page size to the range 1 to MAX_PAGE_SIZE.
+   *
+   * @param requested the requested size, or null for the default
+   * @return a page size that is safe to pass to the repository
+   */
+  public static int clampPageSize(Integer requested) {
+    if (requested == null || requested <= 0) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    return Math.min(requested, MAX_PAGE_SIZE);
+  }
+
+  /**
+   * Builds a page from rows fetched with LIMIT pageSize + 1. The extra row, if present, only tells
+   * us there is more data in the direction of travel and is dropped.
+   *
+   * @param rows rows in query order (descending ID when paging backwards)
+   * @param pageSize the requested page size
+   * @param backward true if the rows were fetched with "before" (ID descending)
+   * @param hasCursor true if the request had an after/before cursor
+   * @param idOf extracts the keyset ID from a row
+   * @return the page in ascending ID order with its cursors
+   */
+  public static <T> KeysetPage<T> fromRows(
+      List<T> rows, int pageSize, boolean backward, boolean hasCursor, ToIntFunction<T> idOf) {
+    boolean hasMore = rows.size() > pageSize;
+    List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+    if (backward) {
+      Collections.reverse(items);
+    }
+    if (items.isEmpty()) {
+      return new KeysetPage<>(items, pageSize, null, null);
+    }
+    int firstID = idOf.applyAsInt(items.get(0));
+    int lastID = idOf.applyAsInt(items.get(items.size() - 1));
+    // the direction we travelled has more rows only if the extra row came back; the direction
+    // we came from has rows whenever a cursor was supplied
+    boolean hasNext = backward ? hasCursor : hasMore;
+    boolean hasPrevious = backward ? hasMore : hasCursor;
+    return new KeysetPage<>(
+        items, pageSize, hasNext ? lastID : null, hasPrevious ? firstID : null);
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * ID to pass as "after" to fetch the next page.
+   *
+   * @return the cursor, or null if this is the last page
+   */
+  public Integer getNextCursor() {
+    return nextCursor;
+  }
+
+  /**
+   * ID to pass as "before" to fetch the previous page.
+   *
+   * @return the cursor, or null if this is the first page
+   */
+  public Integer getPreviousCursor() {
+    return previousCursor;
+  }
+
+  public boolean getHasNext() {
+    return nextCursor != null;
+  }
+
+  public boolean getHasPrevious() {
+    return previousCursor != null;
+  }
+}
@@ -0,0 +1,165 @@
+package com.richard.poise.repository;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Small bounded cache used by the caching repository decorators. Entries are evicted in
+ * least-recently-used order once the cache is full and expire after a fixed time-to-live.
+ *
+ * <p>Every invalidation bumps a generation counter. Callers read {@link #generation()} before
+ * loading from the database and pass it to {@link #put}; if a write invalidated the cache while the
+ * load was in flight, the (possibly stale) value is not cached.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LruCache<K, V> {
+
+  private final int maxSize;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long generation;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public LruCache(int maxSize, long ttl, TimeUnit ttlUnit) {
+    this(maxSize, ttl, ttlUnit, System::nanoTime);
+  }
+
+  LruCache(int maxSize, long ttl, TimeUnit ttlUnit, LongSupplier nanoClock) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    this.maxSize = maxSize;
+    this.ttlNanos = ttlUnit.toNanos(ttl);
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Looks up a value, counting a hit or a miss.
+   *
+   * @param key the key
+   * @return the cached value, or null if absent or expired
+   */
+  public synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (nanoClock.getAsLong() - entry.loadedAtNanos >= ttlNanos) {
+      entries.remove(key);
+      expirations.increment();
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.value;
+  }
+
+  /**
+   * Current generation, to be read before loading a value that will be passed to put.
+   *
+   * @return the invalidation generation
+   */
+  public synchronized long generation() {
+    return generation;
+  }
+
+  /**
+   * Caches a value loaded from the database, unless an invalidation happened since the load
+   * started. Evicts the least recently used entries if the cache is over its size limit.
+   *
+   * @param key the key
+   * @param value the loaded value
+   * @param loadGeneration the value of generation() read before the load
+   */
+  public synchronized void put(K key, V value, long loadGeneration) {
+    if (loadGeneration != generation) {
+      return;
+    }
+    entries.put(key, new Entry<>(value, nanoClock.getAsLong()));
+    Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+    while (entries.size() > maxSize && eldest.hasNext()) {
+      eldest.next();
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  /**
+   * Removes one key and stops in-flight loads from caching stale data.
+   *
+   * @param key the key to invalidate
+   */
+  public synchronized void invalidate(K key) {
+    generation++;
+    entries.remove(key);
+    invalidations.increment();
+  }
+
+  /** Removes every entry and stops in-flight loads from caching stale data. */
+  public synchronized void invalidateAll() {
+    generation++;
+    entries.clear();
+    invalidations.increment();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Builds a snapshot of the cache counters for reporting.
+   *
+   * @return ordered map of counter names to values
+   */
+  public Map<String, Object> stats() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    stats.put("size", size());
+    stats.put("maxSize", maxSize);
+    stats.put("hits", hitCount);
+    stats.put("misses", missCount);
+    stats.put(
+        "hitRatio",
+        hitCount + missCount == 0 ? 0.0 : hitCount / (double) (hitCount + missCount));
+    stats.put("evictions", evictions.sum());
+    stats.put("expirations", expirations.sum());
+    stats.put("invalidations", invalidations.sum());
+    return stats;
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long loadedAtNanos;
+
+    private Entry(V value, long loadedAtNanos) {
+      this.value = value;
+      this.loadedAtNanos = loadedAtNanos;
+    }
+  }
+}
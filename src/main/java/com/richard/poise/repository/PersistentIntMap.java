@@ -0,0 +1,212 @@
+package com.richard.poise.repository;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Immutable map from non-negative int keys to values, without boxing the keys. Keys are split into
+ * fixed-size chunks (key / 256 picks the chunk, key % 256 the slot), so {@link #with} and {@link
+ * #without} copy only the chunk directory and the one chunk that changed, and every other chunk is
+ * shared with the previous version. Iteration is in ascending key order, which suits the
+ * sequential IDs handed out by the database.
+ *
+ * @param <V> the value type
+ */
+final class PersistentIntMap<V> {
+  private static final int CHUNK_BITS = 8;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int SLOT_MASK = CHUNK_SIZE - 1;
+
+  private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(new Object[0][], 0);
+
+  private final Object[][] chunks;
+  private final int size;
+
+  private PersistentIntMap(Object[][] chunks, int size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <V> PersistentIntMap<V> empty() {
+    return (PersistentIntMap<V>) EMPTY;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(int key) {
+    if (key < 0) {
+      return null;
+    }
+    int chunkIndex = key >>> CHUNK_BITS;
+    if (chunkIndex >= chunks.length || chunks[chunkIndex] == null) {
+      return null;
+    }
+    return (V) chunks[chunkIndex][key & SLOT_MASK];
+  }
+
+  boolean containsKey(int key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Returns a map with the key set to the given value. This map is left unchanged.
+   *
+   * @throws IllegalArgumentException if the key is negative
+   */
+  PersistentIntMap<V> with(int key, V value) {
+    Objects.requireNonNull(value, "value");
+    if (key < 0) {
+      throw new IllegalArgumentException("Negative key: " + key);
+    }
+    int chunkIndex = key >>> CHUNK_BITS;
+    Object[][] newChunks = Arrays.copyOf(chunks, Math.max(chunks.length, chunkIndex + 1));
+    Object[] chunk =
+        chunkIndex < chunks.length && chunks[chunkIndex] != null
+            ? chunks[chunkIndex].clone()
+            : new Object[CHUNK_SIZE];
+    boolean added = chunk[key & SLOT_MASK] == null;
+    chunk[key & SLOT_MASK] = value;
+    newChunks[chunkIndex] = chunk;
+    return new PersistentIntMap<>(newChunks, added ? size + 1 : size);
+  }
+
+  /** Returns a map without the given key, or this map if the key isn't present. */
+  PersistentIntMap<V> without(int key) {
+    if (!containsKey(key)) {
+      return this;
+    }
+    int chunkIndex = key >>> CHUNK_BITS;
+    Object[][] newChunks = chunks.clone();
+    Object[] chunk = chunks[chunkIndex].clone();
+    chunk[key & SLOT_MASK] = null;
+    newChunks[chunkIndex] = isEmptyChunk(chunk) ? null : chunk;
+    return new PersistentIntMap<>(newChunks, size - 1);
+  }
+
+  /**
+   * Smallest key greater than or equal to the given key.
+   *
+   * @return the key, or -1 if there is none
+   */
+  int ceilingKey(int key) {
+    for (int k = Math.max(key, 0); (k >>> CHUNK_BITS) < chunks.length; ) {
+      Object[] chunk = chunks[k >>> CHUNK_BITS];
+      if (chunk == null) {
+        k = ((k >>> CHUNK_BITS) + 1) << CHUNK_BITS;
+        continue;
+      }
+      if (chunk[k & SLOT_MASK] != null) {
+        return k;
+      }
+      k++;
+    }
+    return -1;
+  }
+
+  /**
+   * Largest key less than or equal to the given key.
+   *
+   * @return the key, or -1 if there is none
+   */
+  int floorKey(int key) {
+    if (key < 0) {
+      return -1;
+    }
+    int k = Math.min(key, chunks.length * CHUNK_SIZE - 1);
+    while (k >= 0) {
+      Object[] chunk = chunks[k >>> CHUNK_BITS];
+      if (chunk == null) {
+        k = ((k >>> CHUNK_BITS) << CHUNK_BITS) - 1;
+        continue;
+      }
+      if (chunk[k & SLOT_MASK] != null) {
+        return k;
+      }
+      k--;
+    }
+    return -1;
+  }
+
+  /** Largest key in the map, or -1 if it is empty. */
+  int lastKey() {
+    return floorKey(Integer.MAX_VALUE);
+  }
+
+  /** Calls the action for every value in ascending key order. */
+  @SuppressWarnings("unchecked")
+  void forEachValue(Consumer<? super V> action) {
+    for (Object[] chunk : chunks) {
+      if (chunk == null) {
+        continue;
+      }
+      for (Object value : chunk) {
+        if (value != null) {
+          action.accept((V) value);
+        }
+      }
+    }
+  }
+
+  private static boolean isEmptyChunk(Object[] chunk) {
+    for (Object value : chunk) {
+      if (value != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Builds a map in place, without the per-write copying of {@link #with}. Used for bulk loads; the
+   * builder must not be used after {@link #build()}.
+   */
+  static final class Builder<V> {
+    private Object[][] chunks = new Object[0][];
+    private int size;
+
+    Builder<V> put(int key, V value) {
+      Objects.requireNonNull(value, "value");
+      if (key < 0) {
+        throw new IllegalArgumentException("Negative key: " + key);
+      }
+      int chunkIndex = key >>> CHUNK_BITS;
+      if (chunkIndex >= chunks.length) {
+        chunks = Arrays.copyOf(chunks, Math.max(chunkIndex + 1, chunks.length * 2));
+      }
+      if (chunks[chunkIndex] == null) {
+        chunks[chunkIndex] = new Object[CHUNK_SIZE];
+      }
+      if (chunks[chunkIndex][key & SLOT_MASK] == null) {
+        size++;
+      }
+      chunks[chunkIndex][key & SLOT_MASK] = value;
+      return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+      int chunkIndex = key >>> CHUNK_BITS;
+      if (key < 0 || chunkIndex >= chunks.length || chunks[chunkIndex] == null) {
+        return null;
+      }
+      return (V) chunks[chunkIndex][key & SLOT_MASK];
+    }
+
+    PersistentIntMap<V> build() {
+      int used = chunks.length;
+      while (used > 0 && chunks[used - 1] == null) {
+        used--;
+      }
+      return new PersistentIntMap<>(Arrays.copyOf(chunks, used), size);
+    }
+  }
+}
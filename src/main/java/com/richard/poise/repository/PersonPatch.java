@@ -0,0 +1,90 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.People;
+
+/** The columns to change in a partial person update. Fields left null are not changed. */
+public class PersonPatch {
+  private String personName;
+  private String phone;
+  private String email;
+  private String address;
+  private String role;
+  // compare-and-set: apply only if the row still has this version; null applies unconditionally
+  private Integer expectedVersion;
+
+  /** True if the patch changes nothing. The expected version is a condition, not a change. */
+  public boolean isEmpty() {
+    return personName == null && phone == null && email == null && address == null && role == null;
+  }
+
+  /**
+   * Applies the set fields to a person in place.
+   *
+   * @param person the person to change
+   */
+  public void applyTo(People person) {
+    if (personName != null) {
+      person.setPersonName(personName);
+    }
+    if (phone != null) {
+      person.setPhone(phone);
+    }
+    if (email != null) {
+      person.setEmail(email);
+    }
+    if (address != null) {
+      person.setAddress(address);
+    }
+    if (role != null) {
+      person.setRole(role);
+    }
+  }
+
+  public String getPersonName() {
+    return personName;
+  }
+
+  public String getPhone() {
+    return phone;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public String getAddress() {
+    return address;
+  }
+
+  public String getRole() {
+    return role;
+  }
+
+  public void setPersonName(String personName) {
+    this.personName = personName;
+  }
+
+  public void setPhone(String phone) {
+    this.phone = phone;
+  }
+
+  public void setEmail(String email) {
+    this.email = email;
+  }
+
+  public void setAddress(String address) {
+    this.address = address;
+  }
+
+  public void setRole(String role) {
+    this.role = role;
+  }
+
+  public Integer getExpectedVersion() {
+    return expectedVersion;
+  }
+
+  public void setExpectedVersion(Integer expectedVersion) {
+    this.expectedVersion = expectedVersion;
+  }
+}
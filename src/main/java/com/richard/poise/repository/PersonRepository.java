@@ -1,15 +1,22 @@
 package com.richard.poise.repository;
 
 import com.richard.poise.model.People;
+import com.richard.poise.model.ProjectAssignment;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Person data access operations. Defines the contract for all
  * person-related database operations. Implemented by DatabasePersonRepository for PostgreSQL.
  */
 public interface PersonRepository {
+  /** Roles that can be assigned to a project, as used by the create and edit forms. */
+  List<String> PROJECT_ROLES = List.of("architect", "contractor", "customer", "engineer", "manager");
+
   /**
    * Retrieves all people from the database.
    *
@@ -17,6 +24,26 @@ public interface PersonRepository {
    */
   List<People> findAll();
 
+  /**
+   * Retrieves one keyset-paginated page of people, ordered by person ID. Pass afterID to page
+   * forwards or beforeID to page backwards; with neither the first page is returned.
+   *
+   * @param afterID return people with an ID greater than this, or null
+   * @param beforeID return people with an ID less than this (used when afterID is null), or null
+   * @param pageSize maximum number of people to return
+   * @return the page of people with next/previous cursors
+   */
+  KeysetPage<People> findPage(Integer afterID, Integer beforeID, int pageSize);
+
+  /**
+   * Streams every person to the given action in person ID order. Rows are read through a
+   * forward-only cursor so memory use doesn't grow with the table size.
+   *
+   * @param action called once per person
+   * @return the number of people streamed, or -1 if the query failed
+   */
+  int forEachPerson(Consumer<People> action);
+
   /**
    * Finds a person by their unique ID.
    *
@@ -25,6 +52,25 @@ public interface PersonRepository {
    */
   Optional<People> findByID(int personID); // Changed
 
+  /**
+   * Finds several people by ID in a single query.
+   *
+   * @param personIDs the IDs to look up; IDs of 0 or less are ignored
+   * @return map of person ID to person for every ID that was found
+   */
+  Map<Integer, People> findAllByIDs(Collection<Integer> personIDs);
+
+  /**
+   * Ranked partial and fuzzy search over names, email addresses and phone numbers. Exact and
+   * prefix matches come first, then people whose details contain the search or every word of it,
+   * then near misses such as misspellings.
+   *
+   * @param query what the user typed; case and extra whitespace are ignored
+   * @param limit maximum number of results (at most 100)
+   * @return the best matches first; empty if nothing matched
+   */
+  List<People> searchPeople(String query, int limit);
+
   /**
    * Finds a person by their exact name.
    *
@@ -42,7 +88,15 @@ public interface PersonRepository {
   List<People> findByRole(String role);
 
   /**
-   * Updates an existing person's details.
+   * Retrieves everyone holding one of the project roles, grouped by lower-case role name. Every
+   * role in PROJECT_ROLES is present as a key, with an empty list if nobody holds it.
+   *
+   * @return map of role name to the people with that role
+   */
+  Map<String, List<People>> findAllGroupedByRole();
+
+  /**
+   * Updates an existing person's details unconditionally (last writer wins).
    *
    * @return true if update successful, false otherwise
    */
@@ -54,6 +108,18 @@ public interface PersonRepository {
       String personAddress,
       String role);
 
+  /**
+   * Updates only the fields set in the patch, without reading the person first. If the patch has
+   * an expected version the update is compare-and-set: it only applies while the stored person
+   * still has that version.
+   *
+   * @param personID the ID of the person to update
+   * @param patch the fields to change
+   * @return the person as stored after the update, or empty if not found, changed since the
+   *     expected version, or the update failed
+   */
+  Optional<People> patchPersonData(int personID, PersonPatch patch);
+
   /**
    * Creates a new person in the database.
    *
@@ -62,6 +128,34 @@ public interface PersonRepository {
   int createPersonData(
       String personName, String phone, String email, String personAddress, String role);
 
+  /**
+   * Creates several people in one transaction, sending the inserts as a single batch. The people's
+   * own IDs are ignored.
+   *
+   * @param people the people to create
+   * @return the generated ID for each person, in input order, or 0 for people that failed
+   */
+  int[] createPeopleData(List<People> people);
+
+  /**
+   * Loads people for a bulk import in one transaction, using the fastest path the storage offers.
+   * The people's own IDs are ignored, and people that can't be stored are skipped.
+   *
+   * @param people the people to load
+   * @return the generated ID for each person, in input order, or 0 for people that were skipped
+   */
+  int[] importPeopleData(List<People> people);
+
+  /**
+   * Updates several people in one transaction, sending the updates as a single batch. Every field
+   * of each person is written, but only while the stored person still has the version the given
+   * one was read with.
+   *
+   * @param people the people to update, identified by their person ID
+   * @return for each person, in input order, true if their update succeeded
+   */
+  boolean[] updatePeopleData(List<People> people);
+
   /**
    * Deletes a person from the database.
    *
@@ -71,12 +165,13 @@ public interface PersonRepository {
   boolean deletePersonData(int person_id);
 
   /**
-   * Finds all projects where this person is assigned.
+   * Finds every project this person is assigned to, with the role they hold on each. A person
+   * assigned to one project in two roles appears once per role.
    *
    * @param personID the person's ID
-   * @return List of project names they're assigned to
+   * @return assignments ordered by project ID, then role
    */
-  List<String> getProjectsLinkedToPerson(int personID);
+  List<ProjectAssignment> findProjectAssignments(int personID);
 
   /**
    * Checks if a person is assigned as a customer to any project.
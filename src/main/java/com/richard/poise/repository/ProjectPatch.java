@@ -0,0 +1,217 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.Projects;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+/**
+ * The columns to change in a partial project update. Fields left null are not changed; team member
+ * IDs of 0 or less unassign the role.
+ */
+public class ProjectPatch {
+  private String projectName;
+  private String buildingType;
+  private String projectAddress;
+  private Integer ERFNumber;
+  private BigDecimal totalFee;
+  private BigDecimal amountPaidToDate;
+  private Date projectDeadline;
+  private Integer architectID;
+  private Integer contractorID;
+  private Integer customerID;
+  private Integer engineerID;
+  private Integer managerID;
+  private Boolean projectFinalised;
+  private Date completionDate;
+  // compare-and-set: apply only if the row still has this version; null applies unconditionally
+  private Integer expectedVersion;
+
+  /** True if the patch changes nothing. The expected version is a condition, not a change. */
+  public boolean isEmpty() {
+    return projectName == null
+        && buildingType == null
+        && projectAddress == null
+        && ERFNumber == null
+        && totalFee == null
+        && amountPaidToDate == null
+        && projectDeadline == null
+        && architectID == null
+        && contractorID == null
+        && customerID == null
+        && engineerID == null
+        && managerID == null
+        && projectFinalised == null
+        && completionDate == null;
+  }
+
+  /**
+   * Applies the set fields to a project in place, storing unassigned team members as 0.
+   *
+   * @param project the project to change
+   */
+  public void applyTo(Projects project) {
+    if (projectName != null) {
+      project.setProjectName(projectName);
+    }
+    if (buildingType != null) {
+      project.setBuildingType(buildingType);
+    }
+    if (projectAddress != null) {
+      project.setProjectAddress(projectAddress);
+    }
+    if (ERFNumber != null) {
+      project.setERFNumber(ERFNumber);
+    }
+    if (totalFee != null) {
+      project.setTotalFee(totalFee);
+    }
+    if (amountPaidToDate != null) {
+      project.setAmountPaidToDate(amountPaidToDate);
+    }
+    if (projectDeadline != null) {
+      project.setProjectDeadline(projectDeadline);
+    }
+    if (architectID != null) {
+      project.setArchitectID(Math.max(architectID, 0));
+    }
+    if (contractorID != null) {
+      project.setContractorID(Math.max(contractorID, 0));
+    }
+    if (customerID != null) {
+      project.setCustomerID(customerID);
+    }
+    if (engineerID != null) {
+      project.setEngineerID(Math.max(engineerID, 0));
+    }
+    if (managerID != null) {
+      project.setManagerID(Math.max(managerID, 0));
+    }
+    if (projectFinalised != null) {
+      project.setProjectFinalised(projectFinalised);
+    }
+    if (completionDate != null) {
+      project.setCompletionDate(completionDate);
+    }
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public String getBuildingType() {
+    return buildingType;
+  }
+
+  public String getProjectAddress() {
+    return projectAddress;
+  }
+
+  public Integer getERFNumber() {
+    return ERFNumber;
+  }
+
+  public BigDecimal getTotalFee() {
+    return totalFee;
+  }
+
+  public BigDecimal getAmountPaidToDate() {
+    return amountPaidToDate;
+  }
+
+  public Date getProjectDeadline() {
+    return projectDeadline;
+  }
+
+  public Integer getArchitectID() {
+    return architectID;
+  }
+
+  public Integer getContractorID() {
+    return contractorID;
+  }
+
+  public Integer getCustomerID() {
+    return customerID;
+  }
+
+  public Integer getEngineerID() {
+    return engineerID;
+  }
+
+  public Integer getManagerID() {
+    return managerID;
+  }
+
+  public Boolean isProjectFinalised() {
+    return projectFinalised;
+  }
+
+  public Date getCompletionDate() {
+    return completionDate;
+  }
+
+  public void setProjectName(String projectName) {
+    this.projectName = projectName;
+  }
+
+  public void setBuildingType(String buildingType) {
+    this.buildingType = buildingType;
+  }
+
+  public void setProjectAddress(String projectAddress) {
+    this.projectAddress = projectAddress;
+  }
+
+  public void setERFNumber(Integer ERFNumber) {
+    this.ERFNumber = ERFNumber;
+  }
+
+  public void setTotalFee(BigDecimal totalFee) {
+    this.totalFee = totalFee;
+  }
+
+  public void setAmountPaidToDate(BigDecimal amountPaidToDate) {
+    this.amountPaidToDate = amountPaidToDate;
+  }
+
+  public void setProjectDeadline(Date projectDeadline) {
+    this.projectDeadline = projectDeadline;
+  }
+
+  public void setArchitectID(Integer architectID) {
+    this.architectID = architectID;
+  }
+
+  public void setContractorID(Integer contractorID) {
+    this.contractorID = contractorID;
+  }
+
+  public void setCustomerID(Integer customerID) {
+    this.customerID = customerID;
+  }
+
+  public void setEngineerID(Integer engineerID) {
+    this.engineerID = engineerID;
+  }
+
+  public void setManagerID(Integer managerID) {
+    this.managerID = managerID;
+  }
+
+  public void setProjectFinalised(Boolean projectFinalised) {
+    this.projectFinalised = projectFinalised;
+  }
+
+  public void setCompletionDate(Date completionDate) {
+    this.completionDate = completionDate;
+  }
+
+  public Integer getExpectedVersion() {
+    return expectedVersion;
+  }
+
+  public void setExpectedVersion(Integer expectedVersion) {
+    this.expectedVersion = expectedVersion;
+  }
+}
@@ -1,10 +1,15 @@
 package com.richard.poise.repository;
 
+import com.richard.poise.model.FinancialDimension;
+import com.richard.poise.model.FinancialSummary;
+import com.richard.poise.model.ProjectDetails;
 import com.richard.poise.model.Projects;
 
+import java.math.BigDecimal;
 import java.sql.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Project data access operations. Defines the contract for all
@@ -19,6 +24,17 @@ public interface ProjectRepository {
    */
   List<Projects> getAllProjectsSummary();
 
+  /**
+   * Retrieves one keyset-paginated page of the project summary list, ordered by project ID. Pass
+   * afterID to page forwards or beforeID to page backwards; with neither the first page is returned.
+   *
+   * @param afterID return projects with an ID greater than this, or null
+   * @param beforeID return projects with an ID less than this (used when afterID is null), or null
+   * @param pageSize maximum number of projects to return
+   * @return the page of projects with next/previous cursors
+   */
+  KeysetPage<Projects> getProjectsSummaryPage(Integer afterID, Integer beforeID, int pageSize);
+
   /**
    * Finds a project by its unique ID. Returns complete project details including all relationships.
    *
@@ -27,6 +43,35 @@ public interface ProjectRepository {
    */
   Optional<Projects> findByID(int projectID);
 
+  /**
+   * Streams every project, with full details, to the given action in project ID order. Rows are
+   * read through a forward-only cursor so memory use doesn't grow with the table size.
+   *
+   * @param action called once per project
+   * @return the number of projects streamed, or -1 if the query failed
+   */
+  int forEachProject(Consumer<Projects> action);
+
+  /**
+   * Finds a project by its unique ID together with its team members (architect, contractor,
+   * customer, engineer and manager) in a single query.
+   *
+   * @param projectID the project's database ID
+   * @return Optional containing the project and its resolved team if found, empty otherwise
+   */
+  Optional<ProjectDetails> findDetailsByID(int projectID);
+
+  /**
+   * Ranked partial and fuzzy search over project names and addresses. Exact and prefix matches
+   * come first, then projects containing the search or every word of it, then near misses such
+   * as misspellings.
+   *
+   * @param query what the user typed; case and extra whitespace are ignored
+   * @param limit maximum number of results (at most 100)
+   * @return the best matches first; empty if nothing matched
+   */
+  List<Projects> searchProjects(String query, int limit);
+
   /**
    * Finds a project by its exact name.
    *
@@ -36,26 +81,16 @@ public interface ProjectRepository {
   Optional<Projects> findByName(String projectName);
 
   /**
-   * Updates all fields of an existing project.
+   * Updates only the fields set in the patch, without reading the project first. Team member IDs
+   * of 0 or less unassign the role. If the patch has an expected version the update is
+   * compare-and-set: it only applies while the stored project still has that version.
    *
-   * @return true if update successful, false otherwise
+   * @param projectID the ID of the project to update
+   * @param patch the fields to change
+   * @return the project as stored after the update, or empty if not found, changed since the
+   *     expected version, or the update failed
    */
-  boolean updateProjectData(
-      int projectID,
-      String projectName,
-      String buildingType,
-      String projectAddress,
-      int ERFNumber,
-      double totalFee,
-      double amountPaidToDate,
-      java.sql.Date projectDeadline,
-      int architectID,
-      int contractorID,
-      int customerID,
-      int engineerID,
-      int managerID,
-      boolean projectFinalised,
-      java.sql.Date completionDate);
+  Optional<Projects> patchProjectData(int projectID, ProjectPatch patch);
 
   /**
    * Creates a new project in the database.
@@ -67,8 +102,8 @@ public interface ProjectRepository {
       String buildingType,
       String projectAddress,
       int ERFNumber,
-      double totalFee,
-      double amountPaidToDate,
+      BigDecimal totalFee,
+      BigDecimal amountPaidToDate,
       java.sql.Date projectDeadline,
       Integer architectID,
       Integer contractorID,
@@ -78,6 +113,25 @@ public interface ProjectRepository {
       boolean projectFinalised,
       java.sql.Date completionDate);
 
+  /**
+   * Creates several projects in one transaction, sending the inserts as a single batch. Team member
+   * IDs of 0 or less are stored as unassigned, and the projects' own IDs are ignored.
+   *
+   * @param projects the projects to create
+   * @return the generated ID for each project, in input order, or 0 for projects that failed
+   */
+  int[] createProjectsData(List<Projects> projects);
+
+  /**
+   * Loads projects for a bulk import in one transaction, using the fastest path the storage
+   * offers. Team member IDs of 0 or less are stored as unassigned, and the projects' own IDs are
+   * ignored. Projects that can't be stored, e.g. because a team member doesn't exist, are skipped.
+   *
+   * @param projects the projects to load
+   * @return the generated ID for each project, in input order, or 0 for projects that were skipped
+   */
+  int[] importProjectsData(List<Projects> projects);
+
   /**
    * Deletes a project from the database.
    *
@@ -87,13 +141,16 @@ public interface ProjectRepository {
   boolean deleteProjectData(int project_id);
 
   /**
-   * Marks a project as finalised and sets its completion date.
+   * Marks a project as finalised and sets its completion date in one conditional update, so of two
+   * concurrent finalisations only one succeeds.
    *
    * @param projectID the project to finalise
    * @param finalisedDate the date the project was completed
-   * @return true if finalisation successful, false otherwise
+   * @param expectedVersion the version the project was shown with, or null to skip that check
+   * @return the finalised project's name, or empty if not found, already finalised, changed since
+   *     the expected version, or the update failed
    */
-  boolean finaliseProjectData(int projectID, Date finalisedDate);
+  Optional<String> finaliseProjectData(int projectID, Date finalisedDate, Integer expectedVersion);
 
   /**
    * Retrieves all projects that are not yet finalised.
@@ -102,10 +159,48 @@ public interface ProjectRepository {
    */
   List<Projects> getIncompleteProjects();
 
+  /**
+   * Retrieves one keyset-paginated page of projects that are not yet finalised.
+   *
+   * @param afterID return projects with an ID greater than this, or null
+   * @param beforeID return projects with an ID less than this (used when afterID is null), or null
+   * @param pageSize maximum number of projects to return
+   * @return the page of incomplete projects with next/previous cursors
+   */
+  KeysetPage<Projects> getIncompleteProjectsPage(Integer afterID, Integer beforeID, int pageSize);
+
   /**
    * Retrieves all incomplete projects with deadlines in the past.
    *
    * @return List of overdue projects
    */
   List<Projects> getOverdueProjects();
+
+  /**
+   * Retrieves one keyset-paginated page of incomplete projects with deadlines in the past.
+   *
+   * @param afterID return projects with an ID greater than this, or null
+   * @param beforeID return projects with an ID less than this (used when afterID is null), or null
+   * @param pageSize maximum number of projects to return
+   * @return the page of overdue projects with next/previous cursors
+   */
+  KeysetPage<Projects> getOverdueProjectsPage(Integer afterID, Integer beforeID, int pageSize);
+
+  /**
+   * Retrieves the ID, name and deadline of every project that is not finalised and has a deadline,
+   * due or not. Used to build the in-memory overdue tracking.
+   *
+   * @return List of open projects with deadlines, in project ID order
+   * @throws RepositoryException if the projects could not be read, rather than returning an empty
+   *     list that looks like no open projects
+   */
+  List<Projects> getOpenProjectDeadlines();
+
+  /**
+   * Retrieves fee totals for every group of projects in the given grouping, e.g. per customer.
+   *
+   * @param dimension what to group the projects by
+   * @return one summary per group that has projects, largest outstanding balance first
+   */
+  List<FinancialSummary> getFinancialSummary(FinancialDimension dimension);
 }
@@ -0,0 +1,18 @@
+package com.richard.poise.repository;
+
+import java.sql.SQLException;
+
+/**
+ * A repository read that failed, where the caller must tell that apart from an empty result: the
+ * reloads of in-memory views would otherwise replace good state with nothing.
+ */
+public class RepositoryException extends RuntimeException {
+
+  public RepositoryException(String message) {
+    super(message);
+  }
+
+  public RepositoryException(String message, SQLException cause) {
+    super(message, cause);
+  }
+}
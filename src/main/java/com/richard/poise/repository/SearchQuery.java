@@ -0,0 +1,253 @@
+package com.richard.poise.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A normalised search term, with the forms the SQL search queries bind and the ranking the
+ * in-memory repositories use in their place. The in-memory ranking follows the SQL: 4 for an
+ * exact match, 3 for a prefix match, plus the best pg_trgm-style trigram similarity to the field.
+ */
+final class SearchQuery {
+
+  /** Upper bound on the results of one search, whatever the caller asks for. */
+  static final int MAX_RESULTS = 100;
+
+  /** Default latency budget of one database search. */
+  static final int DEFAULT_TIMEOUT_MS = 300;
+
+  // pg_trgm's defaults for the % and %> operators
+  static final double SIMILARITY_THRESHOLD = 0.3;
+  static final double WORD_SIMILARITY_THRESHOLD = 0.6;
+
+  // SQL state PostgreSQL reports for a statement cancelled by statement_timeout
+  private static final String QUERY_CANCELED = "57014";
+
+  /**
+   * The search parameters as a one-row CTE, so a query can refer to them by name however often
+   * it uses them. Bound by {@link #bind}; the query ends with a LIMIT parameter.
+   */
+  static final String PARAMETERS_CTE =
+      "WITH q AS (SELECT ?::text AS term, ?::text AS prefix, ?::text AS pattern,"
+          + " to_tsquery('simple', ?) AS words)";
+
+  private final String term;
+  private final List<String> words;
+  private final Set<String> trigrams;
+
+  private SearchQuery(String term) {
+    this.term = term;
+    this.words = words(term);
+    this.trigrams = trigrams(words);
+  }
+
+  /**
+   * Normalises a search: lower case, trimmed, runs of whitespace as one space.
+   *
+   * @param query what the user typed, or null
+   * @return the search, or null if there is nothing to search for
+   */
+  static SearchQuery of(String query) {
+    if (query == null) {
+      return null;
+    }
+    String term = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    return term.isEmpty() ? null : new SearchQuery(term);
+  }
+
+  static int clampLimit(int limit) {
+    return Math.max(1, Math.min(limit, MAX_RESULTS));
+  }
+
+  /** LIKE pattern for a match at the start of the field. */
+  String prefixPattern() {
+    return escapeLike(term) + "%";
+  }
+
+  /** LIKE pattern for a match anywhere in the field; served by the trigram indexes. */
+  String containsPattern() {
+    return "%" + escapeLike(term) + "%";
+  }
+
+  /**
+   * to_tsquery text matching fields that contain every word of the search as a word or word
+   * prefix, in any order: {@code "main str"} becomes {@code "main:* & str:*"}.
+   *
+   * @return the query text, or null if the search has no letters or digits
+   */
+  String prefixTsQuery() {
+    if (words.isEmpty()) {
+      return null;
+    }
+    return String.join(" & ", words.stream().map(word -> word + ":*").toList());
+  }
+
+  /**
+   * SQL condition matching a LOWER(...) column the way {@link #matches} does, written so the
+   * trigram index on that expression can serve it: substring, similarity (%) and word
+   * similarity (%&gt;) matches.
+   */
+  static String matchSQL(String column) {
+    return column + " LIKE q.pattern OR " + column + " % q.term OR " + column + " %> q.term";
+  }
+
+  /** SQL expression ranking a LOWER(...) column the way {@link #rank} does. */
+  static String rankSQL(String column) {
+    String value = "COALESCE(" + column + ", '')";
+    return "(CASE WHEN "
+        + value
+        + " = q.term THEN 4 WHEN "
+        + value
+        + " LIKE q.prefix THEN 3 ELSE 0 END + GREATEST(similarity("
+        + value
+        + ", q.term), word_similarity(q.term, "
+        + value
+        + ")))";
+  }
+
+  /** Binds the parameters of {@link #PARAMETERS_CTE}, then the result limit. */
+  void bind(PreparedStatement statement, int limit) throws SQLException {
+    statement.setString(1, term);
+    statement.setString(2, prefixPattern());
+    statement.setString(3, containsPattern());
+    statement.setString(4, prefixTsQuery());
+    statement.setInt(5, clampLimit(limit));
+  }
+
+  /**
+   * Limits how long the statements of the connection's current transaction may run. A search
+   * that runs past it is cancelled by the server rather than holding up the page.
+   */
+  static void setTimeout(Connection connection, int timeoutMillis) throws SQLException {
+    try (PreparedStatement statement =
+        connection.prepareStatement("SELECT set_config('statement_timeout', ?, true)")) {
+      statement.setString(1, String.valueOf(timeoutMillis));
+      statement.executeQuery().close();
+    }
+  }
+
+  /** Reports a failed search: a line for one cancelled by its timeout, else the stack trace. */
+  static void reportFailure(SQLException e, String query) {
+    if (QUERY_CANCELED.equals(e.getSQLState())) {
+      System.err.println("Search for \"" + query + "\" ran past its time budget");
+    } else {
+      e.printStackTrace();
+    }
+  }
+
+  // LIKE's default escape character is the backslash
+  private static String escapeLike(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  /**
+   * Whether the field matches the way the SQL WHERE clause would: it contains the term, has a
+   * word starting with each word of the term, or is similar enough by trigrams.
+   */
+  boolean matches(String field) {
+    if (field == null) {
+      return false;
+    }
+    String value = field.toLowerCase(Locale.ROOT);
+    return value.contains(term)
+        || matchesWords(value)
+        || similarity(value) >= SIMILARITY_THRESHOLD
+        || wordSimilarity(value) >= WORD_SIMILARITY_THRESHOLD;
+  }
+
+  /**
+   * Ranks a field against the term, the same way the SQL search ranks its matches.
+   *
+   * @param field the field, or null
+   * @return higher for better matches; 0 for a null field
+   */
+  double rank(String field) {
+    if (field == null) {
+      return 0;
+    }
+    String value = field.toLowerCase(Locale.ROOT);
+    double bonus = value.equals(term) ? 4 : value.startsWith(term) ? 3 : 0;
+    return bonus + Math.max(similarity(value), wordSimilarity(value));
+  }
+
+  /**
+   * Whether the text has a word starting with each word of the search, in any order, as the
+   * tsquery from {@link #prefixTsQuery} matches it.
+   */
+  boolean matchesWords(String text) {
+    if (words.isEmpty() || text == null) {
+      return false;
+    }
+    List<String> fieldWords = words(text.toLowerCase(Locale.ROOT));
+    for (String word : words) {
+      if (fieldWords.stream().noneMatch(fieldWord -> fieldWord.startsWith(word))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // pg_trgm similarity(): shared trigrams over all distinct trigrams of both
+  private double similarity(String value) {
+    return similarity(trigrams, trigrams(words(value)));
+  }
+
+  // pg_trgm word_similarity(term, value), approximated by the best-matching run of as many
+  // consecutive words of the value as the term has
+  private double wordSimilarity(String value) {
+    List<String> fieldWords = words(value);
+    if (words.isEmpty() || fieldWords.isEmpty()) {
+      return 0;
+    }
+    int runLength = Math.min(words.size(), fieldWords.size());
+    double best = 0;
+    for (int start = 0; start + runLength <= fieldWords.size(); start++) {
+      best =
+          Math.max(
+              best, similarity(trigrams, trigrams(fieldWords.subList(start, start + runLength))));
+    }
+    return best;
+  }
+
+  private static double similarity(Set<String> a, Set<String> b) {
+    if (a.isEmpty() || b.isEmpty()) {
+      return 0;
+    }
+    int shared = 0;
+    for (String trigram : a) {
+      if (b.contains(trigram)) {
+        shared++;
+      }
+    }
+    return (double) shared / (a.size() + b.size() - shared);
+  }
+
+  // words are runs of letters and digits, like pg_trgm and the 'simple' text search config
+  private static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    return words;
+  }
+
+  // each word is padded with two spaces in front and one behind, as pg_trgm does
+  private static Set<String> trigrams(List<String> words) {
+    Set<String> trigrams = new HashSet<>();
+    for (String word : words) {
+      String padded = "  " + word + " ";
+      for (int i = 0; i + 3 <= padded.length(); i++) {
+        trigrams.add(padded.substring(i, i + 3));
+      }
+    }
+    return trigrams;
+  }
+}
@@ -0,0 +1,41 @@
+package com.richard.poise.service;
+
+/** File formats supported by the bulk export and import endpoints. */
+public enum ExportFormat {
+  JSONL("application/x-ndjson", "jsonl"),
+  CSV("text/csv", "csv");
+
+  private final String contentType;
+  private final String fileExtension;
+
+  ExportFormat(String contentType, String fileExtension) {
+    this.contentType = contentType;
+    this.fileExtension = fileExtension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getFileExtension() {
+    return fileExtension;
+  }
+
+  /**
+   * Parses the format request parameter, e.g. "csv" or "jsonl".
+   *
+   * @param value the parameter value (case-insensitive)
+   * @return the matching format, or null if not recognised
+   */
+  public static ExportFormat fromParameter(String value) {
+    if (value == null) {
+      return null;
+    }
+    for (ExportFormat format : values()) {
+      if (format.fileExtension.equalsIgnoreCase(value.trim())) {
+        return format;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,263 @@
+package com.richard.poise.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.richard.poise.model.Money;
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.PersonRepository;
+import com.richard.poise.repository.ProjectRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Service layer for bulk exports of projects and people. Rows are written to the output as they
+ * are read from the repository's cursor, so memory use stays flat regardless of table size.
+ */
+@Service
+public class ExportService {
+
+  // flush after this many rows so downstream consumers see data while the export is running
+  static final int FLUSH_EVERY_ROWS = 500;
+
+  static final String PROJECT_CSV_HEADER =
+      "project_id,project_name,building_type,project_address,erf_number,total_fee,"
+          + "amount_paid_to_date,project_deadline,architect_id,contractor_id,customer_id,"
+          + "engineer_id,manager_id,project_finalised,completion_date";
+
+  static final String PEOPLE_CSV_HEADER = "person_id,person_name,phone,email,address,role";
+
+  private final ProjectRepository projectRepository;
+  private final PersonRepository personRepository;
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  public ExportService(ProjectRepository projectRepository, PersonRepository personRepository) {
+    this.projectRepository = projectRepository;
+    this.personRepository = personRepository;
+  }
+
+  /**
+   * Writes every project to the output stream in the given format.
+   *
+   * @param outputStream destination, left open for the caller to close
+   * @param format JSON Lines or CSV
+   * @return the number of projects written
+   * @throws IOException if writing fails or the projects could not be read
+   */
+  public int exportProjects(OutputStream outputStream, ExportFormat format) throws IOException {
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    RowWriter rowWriter = new RowWriter(writer);
+    if (format == ExportFormat.CSV) {
+      writer.write(PROJECT_CSV_HEADER);
+      writer.write('\n');
+      writer.flush();
+    }
+    int count;
+    try {
+      count =
+          projectRepository.forEachProject(
+              project -> rowWriter.write(() -> writeProject(writer, project, format)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+    if (count < 0) {
+      throw new IOException("Failed to read projects for export");
+    }
+    return count;
+  }
+
+  /**
+   * Writes every person to the output stream in the given format.
+   *
+   * @param outputStream destination, left open for the caller to close
+   * @param format JSON Lines or CSV
+   * @return the number of people written
+   * @throws IOException if writing fails or the people could not be read
+   */
+  public int exportPeople(OutputStream outputStream, ExportFormat format) throws IOException {
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    RowWriter rowWriter = new RowWriter(writer);
+    if (format == ExportFormat.CSV) {
+      writer.write(PEOPLE_CSV_HEADER);
+      writer.write('\n');
+      writer.flush();
+    }
+    int count;
+    try {
+      count =
+          personRepository.forEachPerson(
+              person -> rowWriter.write(() -> writePerson(writer, person, format)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+    if (count < 0) {
+      throw new IOException("Failed to read people for export");
+    }
+    return count;
+  }
+
+  private void writeProject(Writer writer, Projects project, ExportFormat format)
+      throws IOException {
+    if (format == ExportFormat.CSV) {
+      writer.write(
+          String.join(
+              ",",
+              String.valueOf(project.getProjectID()),
+              csvField(project.getProjectName()),
+              csvField(project.getBuildingType()),
+              csvField(project.getProjectAddress()),
+              String.valueOf(project.getERFNumber()),
+              moneyField(project.getTotalFee()),
+              moneyField(project.getAmountPaidToDate()),
+              dateField(project.getProjectDeadline()),
+              idField(project.getArchitectID()),
+              idField(project.getContractorID()),
+              idField(project.getCustomerID()),
+              idField(project.getEngineerID()),
+              idField(project.getManagerID()),
+              String.valueOf(project.getIsProjectFinalised()),
+              dateField(project.getCompletionDate())));
+      writer.write('\n');
+      return;
+    }
+    JsonGenerator json = jsonFactory.createGenerator(writer);
+    json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    json.writeStartObject();
+    json.writeNumberField("projectID", project.getProjectID());
+    json.writeStringField("projectName", project.getProjectName());
+    json.writeStringField("buildingType", project.getBuildingType());
+    json.writeStringField("projectAddress", project.getProjectAddress());
+    json.writeNumberField("ERFNumber", project.getERFNumber());
+    json.writeFieldName("totalFee");
+    json.writeNumber(moneyField(project.getTotalFee()));
+    json.writeFieldName("amountPaidToDate");
+    json.writeNumber(moneyField(project.getAmountPaidToDate()));
+    writeDateField(json, "projectDeadline", project.getProjectDeadline());
+    writeIdField(json, "architectID", project.getArchitectID());
+    writeIdField(json, "contractorID", project.getContractorID());
+    writeIdField(json, "customerID", project.getCustomerID());
+    writeIdField(json, "engineerID", project.getEngineerID());
+    writeIdField(json, "managerID", project.getManagerID());
+    json.writeBooleanField("projectFinalised", project.getIsProjectFinalised());
+    writeDateField(json, "completionDate", project.getCompletionDate());
+    json.writeEndObject();
+    json.close();
+    writer.write('\n');
+  }
+
+  private void writePerson(Writer writer, People person, ExportFormat format) throws IOException {
+    if (format == ExportFormat.CSV) {
+      writer.write(
+          String.join(
+              ",",
+              String.valueOf(person.getPersonID()),
+              csvField(person.getPersonName()),
+              csvField(person.getPhone()),
+              csvField(person.getEmail()),
+              csvField(person.getAddress()),
+              csvField(person.getRole())));
+      writer.write('\n');
+      return;
+    }
+    JsonGenerator json = jsonFactory.createGenerator(writer);
+    json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    json.writeStartObject();
+    json.writeNumberField("personID", person.getPersonID());
+    json.writeStringField("personName", person.getPersonName());
+    json.writeStringField("phone", person.getPhone());
+    json.writeStringField("email", person.getEmail());
+    json.writeStringField("address", person.getAddress());
+    json.writeStringField("role", person.getRole());
+    json.writeEndObject();
+    json.close();
+    writer.write('\n');
+  }
+
+  // quotes a CSV field when it contains a delimiter, quote or line break (RFC 4180)
+  static String csvField(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  // locale-independent 2dp amount, safe inside both CSV and JSON
+  private static String moneyField(BigDecimal amount) {
+    return Money.format(amount);
+  }
+
+  // person IDs of 0 mean "not assigned" (NULL in the database)
+  private static String idField(int id) {
+    return id > 0 ? String.valueOf(id) : "";
+  }
+
+  private static String dateField(java.sql.Date date) {
+    return date != null ? date.toString() : "";
+  }
+
+  private static void writeIdField(JsonGenerator json, String name, int id) throws IOException {
+    if (id > 0) {
+      json.writeNumberField(name, id);
+    } else {
+      json.writeNullField(name);
+    }
+  }
+
+  private static void writeDateField(JsonGenerator json, String name, java.sql.Date date)
+      throws IOException {
+    if (date != null) {
+      json.writeStringField(name, date.toString());
+    } else {
+      json.writeNullField(name);
+    }
+  }
+
+  /** A row write that may fail with an IOException. */
+  private interface RowWrite {
+    void run() throws IOException;
+  }
+
+  /**
+   * Adapts row writes to the repository's Consumer callback. IOExceptions (e.g. the client
+   * disconnecting) are rethrown unchecked to stop the cursor early, and the output is flushed
+   * every FLUSH_EVERY_ROWS rows.
+   */
+  private static class RowWriter {
+    private final Writer writer;
+    private int rowsSinceFlush;
+
+    RowWriter(Writer writer) {
+      this.writer = writer;
+    }
+
+    void write(RowWrite rowWrite) {
+      try {
+        rowWrite.run();
+        if (++rowsSinceFlush >= FLUSH_EVERY_ROWS) {
+          writer.flush();
+          rowsSinceFlush = 0;
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
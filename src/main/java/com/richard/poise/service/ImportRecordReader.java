@@ -0,0 +1,197 @@
+package com.richard.poise.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads bulk import records one at a time from a CSV stream with a header row, or a JSON Lines
+ * stream. Each record's fields are returned as raw text keyed by a normalised field name (lower
+ * case, underscores removed), so the CSV header "project_name" and the JSON key "projectName" both
+ * become "projectname" and the two formats share one conversion. Only the current record is held
+ * in memory.
+ */
+abstract class ImportRecordReader {
+
+  /** One input record. Structural problems, e.g. a wrong field count, are kept per record. */
+  static final class Record {
+    final int number;
+    final Map<String, String> fields;
+    final String problem;
+
+    Record(int number, Map<String, String> fields, String problem) {
+      this.number = number;
+      this.fields = fields;
+      this.problem = problem;
+    }
+  }
+
+  final BufferedReader reader;
+  private int recordCount;
+
+  ImportRecordReader(BufferedReader reader) {
+    this.reader = reader;
+  }
+
+  static ImportRecordReader open(BufferedReader reader, ExportFormat format) {
+    return format == ExportFormat.CSV ? new CsvReader(reader) : new JsonLinesReader(reader);
+  }
+
+  /**
+   * Reads the next record.
+   *
+   * @return the record, or null at the end of the input
+   * @throws IOException if reading fails or the input can't be split into records
+   */
+  final Record next() throws IOException {
+    return readRecord(recordCount + 1);
+  }
+
+  abstract Record readRecord(int number) throws IOException;
+
+  final Record record(int number, Map<String, String> fields, String problem) {
+    recordCount = number;
+    return new Record(number, fields, problem);
+  }
+
+  static String normalise(String fieldName) {
+    return fieldName.trim().replace("_", "").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * RFC 4180 CSV, as written by the CSV export. An unquoted empty field is null and a quoted one
+   * is an empty string; quoted fields may contain commas, quotes and line breaks.
+   */
+  private static final class CsvReader extends ImportRecordReader {
+    private List<String> header;
+
+    CsvReader(BufferedReader reader) {
+      super(reader);
+    }
+
+    @Override
+    Record readRecord(int number) throws IOException {
+      if (header == null) {
+        List<String> headerFields = readFields(0);
+        if (headerFields == null) {
+          return null;
+        }
+        header = new ArrayList<>(headerFields.size());
+        for (String name : headerFields) {
+          // Excel writes a byte order mark in front of the first header
+          header.add(normalise(name == null ? "" : name.replace("\uFEFF", "")));
+        }
+      }
+      List<String> values = readFields(number);
+      if (values == null) {
+        return null;
+      }
+      Map<String, String> fields = new HashMap<>();
+      for (int i = 0; i < header.size() && i < values.size(); i++) {
+        fields.put(header.get(i), values.get(i));
+      }
+      String problem =
+          values.size() != header.size()
+              ? "Expected " + header.size() + " fields but found " + values.size()
+              : null;
+      return record(number, fields, problem);
+    }
+
+    // one line's fields, skipping blank lines; null at the end of the input
+    private List<String> readFields(int number) throws IOException {
+      int c = reader.read();
+      while (c == '\r' || c == '\n') {
+        c = reader.read();
+      }
+      if (c < 0) {
+        return null;
+      }
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      while (true) {
+        if (c == '"' && field.length() == 0 && !quoted) {
+          quoted = true;
+          c = readQuoted(field, number);
+        }
+        if (c < 0 || c == '\n' || c == '\r' || c == ',') {
+          fields.add(field.length() == 0 && !quoted ? null : field.toString());
+          if (c != ',') {
+            return fields;
+          }
+          field.setLength(0);
+          quoted = false;
+        } else {
+          field.append((char) c);
+        }
+        c = reader.read();
+      }
+    }
+
+    // reads up to the closing quote and returns the character after it
+    private int readQuoted(StringBuilder field, int number) throws IOException {
+      while (true) {
+        int c = reader.read();
+        if (c < 0) {
+          throw new IOException("Unterminated quoted field in row " + number);
+        }
+        if (c == '"') {
+          c = reader.read();
+          if (c != '"') {
+            return c;
+          }
+        }
+        field.append((char) c);
+      }
+    }
+  }
+
+  /** One JSON object per line, as written by the JSON Lines export. */
+  private static final class JsonLinesReader extends ImportRecordReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    JsonLinesReader(BufferedReader reader) {
+      super(reader);
+    }
+
+    @Override
+    Record readRecord(int number) throws IOException {
+      String line = reader.readLine();
+      while (line != null && line.isBlank()) {
+        line = reader.readLine();
+      }
+      if (line == null) {
+        return null;
+      }
+      Map<String, String> fields = new HashMap<>();
+      try (JsonParser json = JSON_FACTORY.createParser(line)) {
+        if (json.nextToken() != JsonToken.START_OBJECT) {
+          return record(number, fields, "Expected a JSON object");
+        }
+        while (json.nextToken() == JsonToken.FIELD_NAME) {
+          String name = normalise(json.currentName());
+          JsonToken value = json.nextToken();
+          if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+            return record(number, fields, "Field " + json.currentName() + " must be a value");
+          }
+          fields.put(name, value == JsonToken.VALUE_NULL ? null : json.getText());
+        }
+        if (json.nextToken() != null) {
+          return record(number, fields, "Expected one JSON object per line");
+        }
+      } catch (JsonProcessingException e) {
+        return record(number, fields, "Invalid JSON: " + e.getOriginalMessage());
+      }
+      return record(number, fields, null);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.richard.poise.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were read and imported, the throughput, and why each
+ * rejected row was rejected. Only the first MAX_REPORTED_ERRORS row errors are kept, so a badly
+ * broken file can't make the report itself unbounded; the rejected count is always exact.
+ */
+public class ImportReport {
+
+  static final int MAX_REPORTED_ERRORS = 1000;
+
+  /** Why one input row was not imported. Rows are numbered from 1, not counting a CSV header. */
+  public static class RowError {
+    private final int row;
+    private final String message;
+
+    RowError(int row, String message) {
+      this.row = row;
+      this.message = message;
+    }
+
+    public int getRow() {
+      return row;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+  }
+
+  private final List<RowError> errors = new ArrayList<>();
+  private int rowsRead;
+  private int rowsImported;
+  private int rowsRejected;
+  private long elapsedMillis;
+  private String failure;
+
+  void rowRead() {
+    rowsRead++;
+  }
+
+  void rowImported() {
+    rowsImported++;
+  }
+
+  void rowRejected(int row, String message) {
+    rowsRejected++;
+    if (errors.size() < MAX_REPORTED_ERRORS) {
+      errors.add(new RowError(row, message));
+    }
+  }
+
+  void finish(long elapsedMillis, String failure) {
+    this.elapsedMillis = elapsedMillis;
+    this.failure = failure;
+  }
+
+  public int getRowsRead() {
+    return rowsRead;
+  }
+
+  public int getRowsImported() {
+    return rowsImported;
+  }
+
+  public int getRowsRejected() {
+    return rowsRejected;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /** Rows read per second over the whole import, including parsing, validation and loading. */
+  public long getRowsPerSecond() {
+    return elapsedMillis > 0 ? rowsRead * 1000L / elapsedMillis : rowsRead;
+  }
+
+  public List<RowError> getErrors() {
+    return Collections.unmodifiableList(errors);
+  }
+
+  /** True if more rows were rejected than are listed in getErrors. */
+  public boolean isErrorsTruncated() {
+    return rowsRejected > errors.size();
+  }
+
+  /**
+   * Why the import stopped before the end of the input, e.g. an unreadable file, or null if the
+   * whole input was read. Rows imported before the failure stay imported.
+   */
+  public String getFailure() {
+    return failure;
+  }
+}
@@ -0,0 +1,408 @@
+package com.richard.poise.service;
+
+import com.richard.poise.model.Money;
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.PersonRepository;
+import com.richard.poise.repository.ProjectRepository;
+import com.richard.poise.repository.RepositoryException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service layer for bulk imports of projects and people from CSV or JSON Lines, in the same
+ * layout the exports write. The input is read as a stream and handled in chunks of CHUNK_ROWS
+ * rows: each chunk's rows are parsed into create requests and validated in parallel, the people
+ * they reference are looked up in one query, and the valid rows are loaded with the repository's
+ * bulk import path in one transaction. Memory use depends on the chunk size, not the file size.
+ * Imported rows raise no project events, so once an import has loaded rows the in-memory views
+ * built from the repositories (overdue tracking, typeahead) are reloaded.
+ */
+@Service
+public class ImportService {
+
+  // rows validated and loaded together; each chunk is one transaction
+  static final int CHUNK_ROWS = 5000;
+
+  private final ProjectRepository projectRepository;
+  private final PersonRepository personRepository;
+  // null where there is none to keep current (the console has no typeahead index)
+  private final OverdueProjectTracker overdueProjectTracker;
+  private final TypeaheadIndex typeaheadIndex;
+
+  public ImportService(ProjectRepository projectRepository, PersonRepository personRepository) {
+    this(projectRepository, personRepository, null, null);
+  }
+
+  @Autowired
+  public ImportService(
+      ProjectRepository projectRepository,
+      PersonRepository personRepository,
+      OverdueProjectTracker overdueProjectTracker,
+      TypeaheadIndex typeaheadIndex) {
+    this.projectRepository = projectRepository;
+    this.personRepository = personRepository;
+    this.overdueProjectTracker = overdueProjectTracker;
+    this.typeaheadIndex = typeaheadIndex;
+  }
+
+  /**
+   * Imports projects. Every team member a project names must already exist.
+   *
+   * @param inputStream the file contents, left open for the caller to close
+   * @param format JSON Lines or CSV
+   * @return the outcome, with the reason for every rejected row
+   */
+  public ImportReport importProjects(InputStream inputStream, ExportFormat format) {
+    ImportReport report = importRows(inputStream, format, this::importProjectChunk);
+    if (report.getRowsImported() > 0) {
+      reloadAfterImport(overdueProjectTracker == null ? null : overdueProjectTracker::reload);
+      reloadAfterImport(typeaheadIndex == null ? null : typeaheadIndex::reloadProjects);
+    }
+    return report;
+  }
+
+  /**
+   * Imports people.
+   *
+   * @param inputStream the file contents, left open for the caller to close
+   * @param format JSON Lines or CSV
+   * @return the outcome, with the reason for every rejected row
+   */
+  public ImportReport importPeople(InputStream inputStream, ExportFormat format) {
+    ImportReport report = importRows(inputStream, format, this::importPeopleChunk);
+    if (report.getRowsImported() > 0) {
+      reloadAfterImport(typeaheadIndex == null ? null : typeaheadIndex::reloadPeople);
+    }
+    return report;
+  }
+
+  // the rows are stored whether or not a view catches up; a failed reload is left to the next
+  // periodic one rather than failing the import
+  private static void reloadAfterImport(Runnable reload) {
+    if (reload == null) {
+      return;
+    }
+    try {
+      reload.run();
+    } catch (RepositoryException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /** Validates and loads one chunk of records, recording each row's outcome in the report. */
+  private interface ChunkImporter {
+    void importChunk(List<ImportRecordReader.Record> chunk, ImportReport report);
+  }
+
+  private ImportReport importRows(
+      InputStream inputStream, ExportFormat format, ChunkImporter importer) {
+    long started = System.nanoTime();
+    ImportReport report = new ImportReport();
+    ImportRecordReader records =
+        ImportRecordReader.open(
+            new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)),
+            format);
+    List<ImportRecordReader.Record> chunk = new ArrayList<>(CHUNK_ROWS);
+    String failure = null;
+    try {
+      for (ImportRecordReader.Record record = records.next();
+          record != null;
+          record = records.next()) {
+        report.rowRead();
+        chunk.add(record);
+        if (chunk.size() == CHUNK_ROWS) {
+          importer.importChunk(chunk, report);
+          chunk.clear();
+        }
+      }
+    } catch (IOException e) {
+      failure = e.getMessage();
+    }
+    // rows read before a failure are still imported, the same as earlier chunks
+    if (!chunk.isEmpty()) {
+      importer.importChunk(chunk, report);
+    }
+    report.finish((System.nanoTime() - started) / 1_000_000, failure);
+    return report;
+  }
+
+  private void importProjectChunk(List<ImportRecordReader.Record> chunk, ImportReport report) {
+    List<Parsed<ProjectCreateRequest>> parsed =
+        chunk.parallelStream().map(ImportService::parseProject).collect(Collectors.toList());
+
+    Set<Integer> personIDs = new HashSet<>();
+    for (Parsed<ProjectCreateRequest> row : parsed) {
+      if (row.value != null) {
+        addIfAssigned(personIDs, row.value.getArchitectID());
+        addIfAssigned(personIDs, row.value.getContractorID());
+        addIfAssigned(personIDs, row.value.getCustomerID());
+        addIfAssigned(personIDs, row.value.getEngineerID());
+        addIfAssigned(personIDs, row.value.getManagerID());
+      }
+    }
+    Map<Integer, People> people =
+        personIDs.isEmpty() ? Map.of() : personRepository.findAllByIDs(personIDs);
+
+    String[] errors = new String[chunk.size()];
+    List<Projects> projects = new ArrayList<>(chunk.size());
+    List<Integer> positions = new ArrayList<>(chunk.size());
+    for (int i = 0; i < parsed.size(); i++) {
+      Parsed<ProjectCreateRequest> row = parsed.get(i);
+      errors[i] = row.value != null ? missingTeamMember(row.value, people) : row.error;
+      if (errors[i] == null) {
+        projects.add(ProjectService.newProject(row.value));
+        positions.add(i);
+      }
+    }
+    load(projectRepository.importProjectsData(projects), positions, errors);
+    report(chunk, errors, report);
+  }
+
+  private void importPeopleChunk(List<ImportRecordReader.Record> chunk, ImportReport report) {
+    List<Parsed<PeopleCreateRequest>> parsed =
+        chunk.parallelStream().map(ImportService::parsePerson).collect(Collectors.toList());
+
+    String[] errors = new String[chunk.size()];
+    List<People> people = new ArrayList<>(chunk.size());
+    List<Integer> positions = new ArrayList<>(chunk.size());
+    for (int i = 0; i < parsed.size(); i++) {
+      Parsed<PeopleCreateRequest> row = parsed.get(i);
+      errors[i] = row.error;
+      if (errors[i] == null) {
+        people.add(PersonService.newPerson(row.value));
+        positions.add(i);
+      }
+    }
+    load(personRepository.importPeopleData(people), positions, errors);
+    report(chunk, errors, report);
+  }
+
+  // marks the rows the repository skipped, given the new IDs of the rows at those positions
+  private static void load(int[] newIDs, List<Integer> positions, String[] errors) {
+    for (int i = 0; i < positions.size(); i++) {
+      if (i >= newIDs.length || newIDs[i] <= 0) {
+        errors[positions.get(i)] = "Rejected by the database";
+      }
+    }
+  }
+
+  private static void report(
+      List<ImportRecordReader.Record> chunk, String[] errors, ImportReport report) {
+    for (int i = 0; i < errors.length; i++) {
+      if (errors[i] == null) {
+        report.rowImported();
+      } else {
+        report.rowRejected(chunk.get(i).number, errors[i]);
+      }
+    }
+  }
+
+  static Parsed<ProjectCreateRequest> parseProject(ImportRecordReader.Record record) {
+    if (record.problem != null) {
+      return Parsed.rejected(record.problem);
+    }
+    FieldReader fields = new FieldReader(record.fields);
+    ProjectCreateRequest request = new ProjectCreateRequest();
+    request.setProjectName(fields.text("projectname", "Project name", 255, true));
+    request.setBuildingType(fields.text("buildingtype", "Building type", 100, true));
+    request.setProjectAddress(fields.text("projectaddress", "Project address", 0, false));
+    Integer erfNumber = fields.integer("erfnumber", "ERF number");
+    request.setERFNumber(erfNumber != null ? erfNumber : 0);
+    request.setTotalFee(fields.amount("totalfee", "Total fee"));
+    request.setAmountPaidToDate(fields.amount("amountpaidtodate", "Amount paid to date"));
+    request.setProjectDeadline(fields.date("projectdeadline", "Project deadline"));
+    request.setArchitectID(fields.personID("architectid", "Architect ID", false));
+    request.setContractorID(fields.personID("contractorid", "Contractor ID", false));
+    Integer customerID = fields.personID("customerid", "Customer ID", true);
+    request.setCustomerID(customerID != null ? customerID : 0);
+    request.setEngineerID(fields.personID("engineerid", "Engineer ID", false));
+    request.setManagerID(fields.personID("managerid", "Manager ID", false));
+    request.setProjectFinalised(fields.bool("projectfinalised", "Project finalised"));
+    request.setCompletionDate(fields.date("completiondate", "Completion date"));
+    return fields.problem != null ? Parsed.rejected(fields.problem) : Parsed.accepted(request);
+  }
+
+  static Parsed<PeopleCreateRequest> parsePerson(ImportRecordReader.Record record) {
+    if (record.problem != null) {
+      return Parsed.rejected(record.problem);
+    }
+    FieldReader fields = new FieldReader(record.fields);
+    PeopleCreateRequest request = new PeopleCreateRequest();
+    request.setPersonName(fields.text("personname", "Person name", 255, true));
+    request.setPhone(fields.text("phone", "Phone", 50, true));
+    request.setEmail(fields.text("email", "Email", 255, false));
+    request.setAddress(fields.text("address", "Address", 0, false));
+    request.setRole(fields.text("role", "Role", 50, true));
+    return fields.problem != null ? Parsed.rejected(fields.problem) : Parsed.accepted(request);
+  }
+
+  // the first team member that doesn't exist, in PROJECT_ROLES order, or null if they all do
+  private static String missingTeamMember(
+      ProjectCreateRequest request, Map<Integer, People> people) {
+    Integer[] teamIDs = {
+      request.getArchitectID(),
+      request.getContractorID(),
+      request.getCustomerID(),
+      request.getEngineerID(),
+      request.getManagerID()
+    };
+    for (int i = 0; i < teamIDs.length; i++) {
+      if (teamIDs[i] != null && teamIDs[i] > 0 && !people.containsKey(teamIDs[i])) {
+        String role = PersonRepository.PROJECT_ROLES.get(i);
+        return Character.toUpperCase(role.charAt(0))
+            + role.substring(1)
+            + " "
+            + teamIDs[i]
+            + " does not exist";
+      }
+    }
+    return null;
+  }
+
+  private static void addIfAssigned(Set<Integer> personIDs, Integer personID) {
+    if (personID != null && personID > 0) {
+      personIDs.add(personID);
+    }
+  }
+
+  /** A parsed row: the request, or why the row can't be imported. */
+  static final class Parsed<T> {
+    final T value;
+    final String error;
+
+    private Parsed(T value, String error) {
+      this.value = value;
+      this.error = error;
+    }
+
+    static <T> Parsed<T> accepted(T value) {
+      return new Parsed<>(value, null);
+    }
+
+    static <T> Parsed<T> rejected(String error) {
+      return new Parsed<>(null, error);
+    }
+  }
+
+  /**
+   * Converts a record's raw field text to typed values. Missing and blank fields are null; the
+   * first problem found is kept and later fields are still read, so parsing never throws.
+   */
+  private static final class FieldReader {
+    private final Map<String, String> fields;
+    private String problem;
+
+    FieldReader(Map<String, String> fields) {
+      this.fields = fields;
+    }
+
+    private String raw(String key) {
+      String value = fields.get(key);
+      return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private void problem(String message) {
+      if (problem == null) {
+        problem = message;
+      }
+    }
+
+    // maxLength 0 means unlimited
+    String text(String key, String label, int maxLength, boolean required) {
+      String value = raw(key);
+      if (value == null && required) {
+        problem(label + " is required");
+      } else if (value != null && maxLength > 0 && value.length() > maxLength) {
+        problem(label + " is longer than " + maxLength + " characters");
+      }
+      return value;
+    }
+
+    Integer integer(String key, String label) {
+      String value = raw(key);
+      if (value == null) {
+        return null;
+      }
+      try {
+        return Integer.valueOf(value);
+      } catch (NumberFormatException e) {
+        problem(label + " is not a whole number: " + value);
+        return null;
+      }
+    }
+
+    Integer personID(String key, String label, boolean required) {
+      Integer personID = integer(key, label);
+      if (personID == null && required) {
+        problem(label + " is required");
+      } else if (personID != null && personID <= 0) {
+        problem(label + " must be positive");
+      }
+      return personID;
+    }
+
+    BigDecimal amount(String key, String label) {
+      String value = raw(key);
+      if (value == null) {
+        return Money.ZERO;
+      }
+      try {
+        BigDecimal amount = Money.parse(value);
+        if (amount.signum() < 0 || amount.compareTo(Money.MAX) > 0) {
+          problem(label + " must be between 0 and " + Money.MAX);
+        }
+        return amount;
+      } catch (NumberFormatException e) {
+        problem(label + " is not a number: " + value);
+        return Money.ZERO;
+      }
+    }
+
+    Date date(String key, String label) {
+      String value = raw(key);
+      if (value == null) {
+        return null;
+      }
+      try {
+        return Date.valueOf(LocalDate.parse(value));
+      } catch (DateTimeParseException e) {
+        problem(label + " is not a yyyy-MM-dd date: " + value);
+        return null;
+      }
+    }
+
+    boolean bool(String key, String label) {
+      String value = raw(key);
+      if (value == null) {
+        return false;
+      }
+      switch (value.toLowerCase(Locale.ROOT)) {
+        case "true":
+          return true;
+        case "false":
+          return false;
+        default:
+          problem(label + " must be true or false: " + value);
+          return false;
+      }
+    }
+  }
+}
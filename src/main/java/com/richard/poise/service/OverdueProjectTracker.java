@@ -0,0 +1,245 @@
+package com.richard.poise.service;
+
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.KeysetPage;
+import com.richard.poise.repository.ProjectRepository;
+import com.richard.poise.repository.RepositoryException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the set of overdue projects in memory, so listing them costs time in proportion to the
+ * result rather than a query. Open projects that are not yet due wait in a deadline-ordered queue
+ * and move into the overdue set once their deadline has passed. The sweep runs every minute and
+ * before every read, so a project is never listed late. Project events from ProjectService keep
+ * both up to date between reloads. Reloads from the repository pick up changes that raise no
+ * event, such as bulk imports, edits made on another instance, or events dropped by a full queue.
+ */
+@Component
+public class OverdueProjectTracker implements ProjectEventListener {
+
+  /** One open project with a deadline. Replaced, never changed, when the project changes. */
+  private static class Entry {
+    final int projectID;
+    final String projectName;
+    final LocalDate deadline;
+
+    Entry(int projectID, String projectName, LocalDate deadline) {
+      this.projectID = projectID;
+      this.projectName = projectName;
+      this.deadline = deadline;
+    }
+  }
+
+  private final ProjectRepository projectRepository;
+  private final Supplier<LocalDate> today;
+
+  // every tracked project; an entry in the queue that isn't the current one here is stale
+  private Map<Integer, Entry> openProjects = new HashMap<>();
+  private PriorityQueue<Entry> notYetDue = newQueue();
+  private TreeMap<Integer, Entry> overdue = new TreeMap<>();
+  private boolean loaded;
+  // events that arrive while a reload is reading the repository, replayed on top of its result
+  private List<ProjectEvent> eventsDuringReload;
+
+  @Autowired
+  public OverdueProjectTracker(ProjectRepository projectRepository) {
+    this(projectRepository, LocalDate::now);
+  }
+
+  OverdueProjectTracker(ProjectRepository projectRepository, Supplier<LocalDate> today) {
+    this.projectRepository = projectRepository;
+    this.today = today;
+  }
+
+  private static PriorityQueue<Entry> newQueue() {
+    return new PriorityQueue<>(Comparator.comparing((Entry entry) -> entry.deadline));
+  }
+
+  /**
+   * Retrieves all overdue projects.
+   *
+   * @return summaries of the overdue projects, in project ID order
+   */
+  public synchronized List<Projects> getOverdueProjects() {
+    prepareRead();
+    List<Projects> projectsList = new ArrayList<>(overdue.size());
+    for (Entry entry : overdue.values()) {
+      projectsList.add(summary(entry));
+    }
+    return projectsList;
+  }
+
+  /**
+   * Retrieves one keyset-paginated page of overdue projects, like
+   * ProjectRepository.getOverdueProjectsPage.
+   *
+   * @param afterID return projects with an ID greater than this, or null
+   * @param beforeID return projects with an ID less than this (used when afterID is null), or null
+   * @param pageSize maximum number of projects to return
+   * @return the page of overdue projects with next/previous cursors
+   */
+  public synchronized KeysetPage<Projects> getOverdueProjectsPage(
+      Integer afterID, Integer beforeID, int pageSize) {
+    prepareRead();
+    boolean backward = afterID == null && beforeID != null;
+    NavigableMap<Integer, Entry> range;
+    if (afterID != null) {
+      range = overdue.tailMap(afterID, false);
+    } else if (backward) {
+      range = overdue.headMap(beforeID, false).descendingMap();
+    } else {
+      range = overdue;
+    }
+    List<Projects> rows = new ArrayList<>(pageSize + 1);
+    for (Entry entry : range.values()) {
+      if (rows.size() > pageSize) {
+        break;
+      }
+      rows.add(summary(entry));
+    }
+    return KeysetPage.fromRows(
+        rows, pageSize, backward, afterID != null || beforeID != null, Projects::getProjectID);
+  }
+
+  @Override
+  public synchronized void onProjectEvents(List<ProjectEvent> events) {
+    if (eventsDuringReload != null) {
+      eventsDuringReload.addAll(events);
+    }
+    for (ProjectEvent event : events) {
+      apply(event);
+    }
+  }
+
+  /** Moves projects whose deadline has passed into the overdue set. */
+  @Scheduled(cron = "${poise.overdue.sweep-cron:0 * * * * *}")
+  public synchronized void sweep() {
+    LocalDate now = today.get();
+    while (!notYetDue.isEmpty() && notYetDue.peek().deadline.isBefore(now)) {
+      Entry entry = notYetDue.poll();
+      if (openProjects.get(entry.projectID) == entry) {
+        overdue.put(entry.projectID, entry);
+      }
+    }
+  }
+
+  /**
+   * Rebuilds the tracking from the repository. The read runs outside the lock, so reads and
+   * events carry on meanwhile; events that arrive during it are applied again afterwards, since
+   * the read may have missed them. If the read fails the tracking stays as it was.
+   */
+  @Scheduled(
+      initialDelayString = "${poise.overdue.reload-initial-delay-ms:0}",
+      fixedDelayString = "${poise.overdue.reload-interval-ms:600000}")
+  public void reload() {
+    synchronized (this) {
+      if (eventsDuringReload != null) {
+        return;
+      }
+      eventsDuringReload = new ArrayList<>();
+    }
+    List<Projects> projects;
+    try {
+      projects = projectRepository.getOpenProjectDeadlines();
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        eventsDuringReload = null;
+      }
+      throw e;
+    }
+    synchronized (this) {
+      rebuild(projects);
+      for (ProjectEvent event : eventsDuringReload) {
+        apply(event);
+      }
+      eventsDuringReload = null;
+      sweep();
+    }
+  }
+
+  // caller holds the lock
+  private void prepareRead() {
+    if (!loaded) {
+      // first read before the scheduled reload has run, or no scheduler at all (the console);
+      // loading under the lock makes other readers wait rather than see an empty list
+      try {
+        rebuild(projectRepository.getOpenProjectDeadlines());
+      } catch (RepositoryException e) {
+        // still not loaded, so the next read tries again
+        e.printStackTrace();
+      }
+    }
+    sweep();
+  }
+
+  private void rebuild(List<Projects> projects) {
+    openProjects = new HashMap<>(projects.size() * 2);
+    notYetDue = newQueue();
+    overdue = new TreeMap<>();
+    for (Projects project : projects) {
+      track(
+          project.getProjectID(),
+          project.getProjectName(),
+          project.getProjectDeadline().toLocalDate());
+    }
+    loaded = true;
+  }
+
+  private void apply(ProjectEvent event) {
+    int projectID = event.getProjectID();
+    switch (event.getType()) {
+      case CREATED, UPDATED -> {
+        if (Boolean.FALSE.equals(event.getProjectFinalised())
+            && event.getProjectDeadline() != null) {
+          track(projectID, event.getProjectName(), event.getProjectDeadline().toLocalDate());
+        } else {
+          untrack(projectID);
+        }
+      }
+      case FINALISED, DELETED -> untrack(projectID);
+    }
+    // stale queue entries are skipped when polled; don't let them pile up between reloads
+    if (notYetDue.size() > 2 * openProjects.size() + 1000) {
+      PriorityQueue<Entry> compacted = newQueue();
+      for (Entry entry : openProjects.values()) {
+        if (!overdue.containsKey(entry.projectID)) {
+          compacted.add(entry);
+        }
+      }
+      notYetDue = compacted;
+    }
+  }
+
+  private void track(int projectID, String projectName, LocalDate deadline) {
+    Entry entry = new Entry(projectID, projectName, deadline);
+    openProjects.put(projectID, entry);
+    overdue.remove(projectID);
+    if (deadline.isBefore(today.get())) {
+      overdue.put(projectID, entry);
+    } else {
+      notYetDue.add(entry);
+    }
+  }
+
+  private void untrack(int projectID) {
+    openProjects.remove(projectID);
+    overdue.remove(projectID);
+  }
+
+  private static Projects summary(Entry entry) {
+    return new Projects(entry.projectID, entry.projectName, false);
+  }
+}
@@ -10,6 +10,8 @@ public class PersonFormData {
   private String email;
   private String address;
   private String role;
+  // row version when the edit form was opened, posted back as a hidden field
+  private Integer version;
 
   // Empty constructor (required for Spring)
   public PersonFormData() {}
@@ -53,4 +55,12 @@ public class PersonFormData {
   public void setRole(String role) {
     this.role = role;
   }
+
+  public Integer getVersion() {
+    return version;
+  }
+
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
 }
@@ -1,66 +1,137 @@
 package com.richard.poise.service;
 
 import com.richard.poise.model.People;
+import com.richard.poise.repository.PersonPatch;
 import com.richard.poise.repository.PersonRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Service layer for person-related business logic. Coordinates between controllers and repository
  * layer. Handles data validation and transformation for person operations.
  */
+@Service
 public class PersonService {
 
-  private PersonRepository personRepository;
+  static final String CONFLICT_MESSAGE =
+      "This person was changed by someone else since it was loaded; reload and try again";
+
+  private final PersonRepository personRepository;
+  // kept current with every stored change; null where nothing serves suggestions (the console)
+  private final TypeaheadIndex typeaheadIndex;
 
   public PersonService(PersonRepository personRepository) {
+    this(personRepository, null);
+  }
 
+  @Autowired
+  public PersonService(PersonRepository personRepository, TypeaheadIndex typeaheadIndex) {
     this.personRepository = personRepository;
+    this.typeaheadIndex = typeaheadIndex;
   }
 
   /**
-   * Updates an existing person's details. Only updates fields that are provided (non-null) in the
-   * request.
+   * Updates an existing person's details. Only the fields that are provided (non-null) in the
+   * request are written, in a single UPDATE, without reading the person first. If the request
+   * carries the version the person was read with, the update is compare-and-set and reports a
+   * conflict when someone else changed the person in the meantime.
    *
    * @param personID the ID of the person to update
    * @param request contains the fields to update
    * @return PersonUpdateResult indicating success/failure with message
    */
   public PersonUpdateResult updatePerson(int personID, PersonUpdateRequest request) {
-    Optional<People> personOptional = personRepository.findByID(personID);
-    if (personOptional.isEmpty()) {
+    PersonPatch patch = new PersonPatch();
+    patch.setPersonName(request.getPersonName());
+    patch.setPhone(request.getPhone());
+    patch.setEmail(request.getEmail());
+    patch.setAddress(request.getAddress());
+    patch.setRole(request.getRole());
+    patch.setExpectedVersion(request.getVersion());
+
+    Optional<People> updated = personRepository.patchPersonData(personID, patch);
+    if (updated.isPresent()) {
+      indexName(personID, updated.get().getPersonName());
+      return new PersonUpdateResult(true, "Person updated successfully");
+    }
+    // only a failed update pays for the read that tells "not found" and conflicts apart
+    Optional<People> current = personRepository.findByID(personID);
+    if (current.isEmpty()) {
       return new PersonUpdateResult(false, "Person not found");
     }
-    // Only update non-null fields
-    People foundPerson = personOptional.get();
+    if (request.getVersion() != null && current.get().getVersion() != request.getVersion()) {
+      return PersonUpdateResult.conflict(CONFLICT_MESSAGE);
+    }
+    return new PersonUpdateResult(false, "Failed to update person");
+  }
+
+  /**
+   * Updates several people in one batch. Each request only changes its non-null fields; the
+   * current details of every person are read in a single lookup and all updates are written in one
+   * transaction. A request whose version no longer matches is reported as a conflict.
+   *
+   * @param requests update requests keyed by person ID
+   * @return a result for every person ID, in the order of the requests
+   */
+  public Map<Integer, PersonUpdateResult> updatePeople(Map<Integer, PersonUpdateRequest> requests) {
+    Map<Integer, People> found = personRepository.findAllByIDs(requests.keySet());
+    Map<Integer, PersonUpdateResult> results = new LinkedHashMap<>();
+    for (Integer personID : requests.keySet()) {
+      results.put(personID, new PersonUpdateResult(false, "Person not found"));
+    }
+    List<People> updatedPeople = new ArrayList<>(requests.size());
+    for (Map.Entry<Integer, PersonUpdateRequest> entry : requests.entrySet()) {
+      People person = found.get(entry.getKey());
+      Integer expectedVersion = entry.getValue().getVersion();
+      if (person == null) {
+        continue;
+      }
+      if (expectedVersion != null && person.getVersion() != expectedVersion) {
+        results.put(entry.getKey(), PersonUpdateResult.conflict(CONFLICT_MESSAGE));
+        continue;
+      }
+      applyUpdate(person, entry.getValue());
+      updatedPeople.add(person);
+    }
+    // written against the versions just read, so a person changed in between isn't overwritten
+    boolean[] updated = personRepository.updatePeopleData(updatedPeople);
+
+    for (int i = 0; i < updatedPeople.size(); i++) {
+      People person = updatedPeople.get(i);
+      if (updated[i]) {
+        indexName(person.getPersonID(), person.getPersonName());
+      }
+      results.put(
+          person.getPersonID(),
+          updated[i]
+              ? new PersonUpdateResult(true, "Person updated successfully")
+              : new PersonUpdateResult(false, "Failed to update person"));
+    }
+    return results;
+  }
+
+  // copies the non-null fields of the request onto the person
+  private static void applyUpdate(People person, PersonUpdateRequest request) {
     if (request.getPersonName() != null) {
-      foundPerson.setPersonName(request.getPersonName());
+      person.setPersonName(request.getPersonName());
     }
     if (request.getPhone() != null) {
-      foundPerson.setPhone(request.getPhone());
+      person.setPhone(request.getPhone());
     }
     if (request.getEmail() != null) {
-      foundPerson.setEmail(request.getEmail());
+      person.setEmail(request.getEmail());
     }
     if (request.getAddress() != null) {
-      foundPerson.setAddress(request.getAddress());
+      person.setAddress(request.getAddress());
     }
     if (request.getRole() != null) {
-      foundPerson.setRole(request.getRole());
-    }
-    boolean success =
-        personRepository.updatePersonData(
-            foundPerson.getPersonID(),
-            foundPerson.getPersonName(),
-            foundPerson.getPhone(),
-            foundPerson.getEmail(),
-            foundPerson.getAddress(),
-            foundPerson.getRole());
-
-    if (success) {
-      return new PersonUpdateResult(true, "Person updated successfully");
-    } else {
-      return new PersonUpdateResult(false, "Failed to update person");
+      person.setRole(request.getRole());
     }
   }
 
@@ -77,6 +148,9 @@ public class PersonService {
     }
     boolean success = personRepository.deletePersonData(personID);
     if (success) {
+      if (typeaheadIndex != null) {
+        typeaheadIndex.personDeleted(personID);
+      }
       return new PersonUpdateResult(true, "Person deleted successfully");
     } else {
       return new PersonUpdateResult(false, "Failed to delete person");
@@ -99,9 +173,54 @@ public class PersonService {
             request.getRole());
 
     if (newPersonID > 0) {
+      indexName(newPersonID, request.getPersonName());
       return new PersonUpdateResult(true, "Person created successfully with ID: " + newPersonID);
     } else {
       return new PersonUpdateResult(false, "Failed to create person");
     }
   }
+
+  /**
+   * Creates several people in one batch, inserted in a single transaction.
+   *
+   * @param requests the people to create
+   * @return a result for each request, in the same order, with the generated ID or an error
+   */
+  public List<PersonUpdateResult> createPeople(List<PeopleCreateRequest> requests) {
+    List<People> people = new ArrayList<>(requests.size());
+    for (PeopleCreateRequest request : requests) {
+      people.add(newPerson(request));
+    }
+    int[] newPersonIDs = personRepository.createPeopleData(people);
+
+    List<PersonUpdateResult> results = new ArrayList<>(newPersonIDs.length);
+    for (int i = 0; i < newPersonIDs.length; i++) {
+      int newPersonID = newPersonIDs[i];
+      if (newPersonID > 0) {
+        indexName(newPersonID, requests.get(i).getPersonName());
+      }
+      results.add(
+          newPersonID > 0
+              ? new PersonUpdateResult(true, "Person created successfully with ID: " + newPersonID)
+              : new PersonUpdateResult(false, "Failed to create person"));
+    }
+    return results;
+  }
+
+  private void indexName(int personID, String personName) {
+    if (typeaheadIndex != null) {
+      typeaheadIndex.personSaved(personID, personName);
+    }
+  }
+
+  // the person a create request describes, before it has an ID
+  static People newPerson(PeopleCreateRequest request) {
+    return new People(
+        0,
+        request.getPersonName(),
+        request.getPhone(),
+        request.getEmail(),
+        request.getAddress(),
+        request.getRole());
+  }
 }
@@ -10,6 +10,8 @@ public class PersonUpdateRequest {
   private String email;
   private String address;
   private String role;
+  // version the person was read with; if set, the update fails with a conflict once it moved on
+  private Integer version;
 
   public String getPersonName() {
     return personName;
@@ -50,4 +52,12 @@ public class PersonUpdateRequest {
   public void setRole(String role) {
     this.role = role;
   }
+
+  public Integer getVersion() {
+    return version;
+  }
+
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
 }
@@ -3,16 +3,26 @@ package com.richard.poise.service;
 /**
  * Response object for person operations (create, update, delete). Encapsulates operation success
  * status and user-friendly messages. Provides a consistent return type for service layer methods.
+ * A conflict is a failure caused by someone else changing the person first; the caller can reload
+ * them and try again.
  */
 public class PersonUpdateResult {
   private boolean success;
   private String message;
+  private boolean conflict;
 
   public PersonUpdateResult(boolean success, String message) {
     this.success = success;
     this.message = message;
   }
 
+  /** A failed result for an update that lost an optimistic concurrency check. */
+  public static PersonUpdateResult conflict(String message) {
+    PersonUpdateResult result = new PersonUpdateResult(false, message);
+    result.conflict = true;
+    return result;
+  }
+
   public boolean getSuccess() {
     return success;
   }
@@ -20,4 +30,8 @@ public class PersonUpdateResult {
   public String getMessage() {
     return message;
   }
+
+  public boolean isConflict() {
+    return conflict;
+  }
 }
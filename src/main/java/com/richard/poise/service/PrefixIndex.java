@@ -0,0 +1,450 @@
+package com.richard.poise.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Names by ID, searchable by prefix of the whole name or of any word in it ("hou" finds "Smith
+ * House"). The keys live in parallel arrays sorted by key, so a lookup is a binary search and a
+ * scan of the matches; a key is a normalised name and the offset of a word in it, so the word
+ * keys of a name share its string. Changes go into a small sorted overlay, which hides the
+ * replaced entries of the base arrays, and are merged into the base once the overlay grows past
+ * {@link #MAX_OVERLAY}. Every change publishes a new snapshot, so lookups take no lock and see
+ * each change whole; changes are serialised on this index.
+ */
+final class PrefixIndex {
+
+  /**
+   * Overlay keys plus hidden IDs past which changes are merged into the base arrays. Each change
+   * copies the overlay and each merge copies the base, so this trades one against the other.
+   */
+  static final int MAX_OVERLAY = 16384;
+
+  // a long name still gets a key for each of its first few words, not for every word
+  static final int MAX_WORD_KEYS = 8;
+
+  /**
+   * A sorted run of keys, with the ID and display name each one came from. The whole-name keys
+   * come first, then the keys of later words, each part in key order.
+   */
+  private static final class Keys {
+    static final Keys EMPTY = new Keys(new String[0], new int[0], new int[0], new String[0]);
+
+    final String[] names; // normalised names; the key of entry i starts at offsets[i]
+    final int[] offsets;
+    final int[] ids;
+    final String[] labels;
+
+    Keys(String[] names, int[] offsets, int[] ids, String[] labels) {
+      this.names = names;
+      this.offsets = offsets;
+      this.ids = ids;
+      this.labels = labels;
+    }
+
+    int size() {
+      return ids.length;
+    }
+
+    // index of the first key of a later word
+    int wordKeysStart() {
+      int low = 0;
+      int high = ids.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (offsets[middle] == 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    // index of the first key in [low, high) not less than the prefix
+    int lowerBound(String prefix, int low, int high) {
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (compareKey(names[middle], offsets[middle], prefix) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    boolean keyStartsWith(int i, String prefix) {
+      return names[i].startsWith(prefix, offsets[i]);
+    }
+  }
+
+  /** One key while a run of keys is being built. */
+  private static final class Entry {
+    final String name;
+    final int offset;
+    final int id;
+    final String label;
+
+    Entry(String name, int offset, int id, String label) {
+      this.name = name;
+      this.offset = offset;
+      this.id = id;
+      this.label = label;
+    }
+  }
+
+  private static final Comparator<Entry> KEY_ORDER =
+      (a, b) -> compareEntries(a.name, a.offset, a.id, b.name, b.offset, b.id);
+
+  /** What lookups see: the base, and the changes made since it was built. Never changed. */
+  private static final class Snapshot {
+    final Keys base;
+    final Keys overlay;
+    // sorted IDs whose base keys are out of date: changed or removed since the base was built
+    final int[] hidden;
+
+    Snapshot(Keys base, Keys overlay, int[] hidden) {
+      this.base = base;
+      this.overlay = overlay;
+      this.hidden = hidden;
+    }
+
+    boolean isHidden(int id) {
+      return Arrays.binarySearch(hidden, id) >= 0;
+    }
+  }
+
+  /** Collects the names for a new base. */
+  static final class Builder implements ObjIntConsumer<String> {
+    private final List<Entry> entries = new ArrayList<>();
+
+    @Override
+    public void accept(String name, int id) {
+      addKeys(entries, id, name);
+    }
+
+    private Keys build() {
+      return toKeys(entries);
+    }
+  }
+
+  /** A put made while a rebuild reads its source. */
+  private static final class Change {
+    final int id;
+    final String name;
+
+    Change(int id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+  }
+
+  private volatile Snapshot snapshot = new Snapshot(Keys.EMPTY, Keys.EMPTY, new int[0]);
+  // changes made while a rebuild reads its source, replayed on top of its result
+  private List<Change> changesDuringRebuild;
+
+  /**
+   * Normalises a name or a search for matching: lower case, with every run of characters other
+   * than letters and digits as one space, trimmed. "O'Brien  House" becomes "o brien house".
+   *
+   * @return the normalised text; empty if it has no letters or digits
+   */
+  static String normalise(String text) {
+    StringBuilder normalised = new StringBuilder(text.length());
+    boolean pendingSpace = false;
+    for (int i = 0; i < text.length(); ) {
+      int codePoint = text.codePointAt(i);
+      i += Character.charCount(codePoint);
+      if (Character.isLetterOrDigit(codePoint)) {
+        if (pendingSpace && normalised.length() > 0) {
+          normalised.append(' ');
+        }
+        pendingSpace = false;
+        normalised.appendCodePoint(codePoint);
+      } else {
+        pendingSpace = true;
+      }
+    }
+    return normalised.toString().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Finds the names with a word starting with the search: first the names that start with it,
+   * then those with a later word that does, each in key order (so shorter before longer).
+   *
+   * @param query what the user has typed so far
+   * @param limit the most IDs to return
+   * @param action called with the display name and ID of each match, at most once per ID
+   * @return the number of matches
+   */
+  int lookup(String query, int limit, ObjIntConsumer<String> action) {
+    String prefix = normalise(query);
+    if (prefix.isEmpty() || limit <= 0) {
+      return 0;
+    }
+    Snapshot current = snapshot;
+    // a name can match on more than one of its words
+    Set<Integer> seen = new HashSet<>();
+    Keys base = current.base;
+    Keys overlay = current.overlay;
+    int baseWords = base.wordKeysStart();
+    int overlayWords = overlay.wordKeysStart();
+    scan(current, prefix, 0, baseWords, 0, overlayWords, limit, seen, action);
+    scan(
+        current, prefix, baseWords, base.size(), overlayWords, overlay.size(), limit, seen, action);
+    return seen.size();
+  }
+
+  // merges the keys starting with the prefix in base[baseFrom, baseTo) and
+  // overlay[overlayFrom, overlayTo), skipping hidden base keys and IDs already seen
+  private static void scan(
+      Snapshot current,
+      String prefix,
+      int baseFrom,
+      int baseTo,
+      int overlayFrom,
+      int overlayTo,
+      int limit,
+      Set<Integer> seen,
+      ObjIntConsumer<String> action) {
+    Keys base = current.base;
+    Keys overlay = current.overlay;
+    int i = base.lowerBound(prefix, baseFrom, baseTo);
+    int j = overlay.lowerBound(prefix, overlayFrom, overlayTo);
+    while (seen.size() < limit) {
+      boolean inBase = i < baseTo && base.keyStartsWith(i, prefix);
+      boolean inOverlay = j < overlayTo && overlay.keyStartsWith(j, prefix);
+      Keys keys;
+      int k;
+      if (inBase && (!inOverlay || compareAt(base, i, overlay, j) <= 0)) {
+        keys = base;
+        k = i++;
+        if (current.isHidden(keys.ids[k])) {
+          continue;
+        }
+      } else if (inOverlay) {
+        keys = overlay;
+        k = j++;
+      } else {
+        break;
+      }
+      if (seen.add(keys.ids[k])) {
+        action.accept(keys.labels[k], keys.ids[k]);
+      }
+    }
+  }
+
+  /**
+   * Indexes an ID under a name, replacing what it was indexed under before.
+   *
+   * @param name the display name; null or a name without letters or digits removes the ID
+   */
+  synchronized void put(int id, String name) {
+    if (changesDuringRebuild != null) {
+      changesDuringRebuild.add(new Change(id, name));
+    }
+    Snapshot current = snapshot;
+    List<Entry> added = new ArrayList<>(MAX_WORD_KEYS);
+    addKeys(added, id, name);
+    Keys overlay = merge(current.overlay, overlayID -> overlayID == id, toKeys(added));
+    int[] hidden = current.hidden;
+    int position = Arrays.binarySearch(hidden, id);
+    if (position < 0) {
+      int insertAt = -position - 1;
+      hidden = new int[current.hidden.length + 1];
+      System.arraycopy(current.hidden, 0, hidden, 0, insertAt);
+      hidden[insertAt] = id;
+      System.arraycopy(
+          current.hidden, insertAt, hidden, insertAt + 1, current.hidden.length - insertAt);
+    }
+    if (overlay.size() + hidden.length > MAX_OVERLAY) {
+      BitSet replaced = new BitSet();
+      for (int hiddenID : hidden) {
+        replaced.set(hiddenID);
+      }
+      Keys base = merge(current.base, replaced::get, overlay);
+      snapshot = new Snapshot(base, Keys.EMPTY, new int[0]);
+    } else {
+      snapshot = new Snapshot(current.base, overlay, hidden);
+    }
+  }
+
+  /** Removes an ID from the index. */
+  void remove(int id) {
+    put(id, null);
+  }
+
+  /**
+   * Rebuilds the index from the names {@code source} passes to the builder, then applies the
+   * changes made while it ran; {@code source} runs outside the lock, so lookups and changes
+   * carry on meanwhile. Callers must not run two rebuilds of the same index at once.
+   *
+   * @param source feeds every current name and ID to the builder
+   */
+  void rebuild(Consumer<Builder> source) {
+    List<Change> changesDuringRebuild = new ArrayList<>();
+    synchronized (this) {
+      this.changesDuringRebuild = changesDuringRebuild;
+    }
+    Builder builder = new Builder();
+    try {
+      source.accept(builder);
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        this.changesDuringRebuild = null;
+      }
+      throw e;
+    }
+    Keys base = builder.build();
+    synchronized (this) {
+      this.changesDuringRebuild = null;
+      snapshot = new Snapshot(base, Keys.EMPTY, new int[0]);
+      for (Change change : changesDuringRebuild) {
+        put(change.id, change.name);
+      }
+    }
+  }
+
+  // the keys of a whose IDs aren't dropped, with the keys of b (a few, or at least far fewer
+  // than a) inserted where they belong, into new arrays
+  private static Keys merge(Keys a, IntPredicate dropped, Keys b) {
+    int kept = 0;
+    for (int id : a.ids) {
+      if (!dropped.test(id)) {
+        kept++;
+      }
+    }
+    int size = kept + b.size();
+    Keys merged = new Keys(new String[size], new int[size], new int[size], new String[size]);
+    int from = 0;
+    int k = 0;
+    for (int j = 0; j < b.size(); j++) {
+      int to = insertionPoint(a, from, b, j);
+      k = copyKept(a, from, to, dropped, merged, k);
+      copy(b, j, merged, k++);
+      from = to;
+    }
+    copyKept(a, from, a.size(), dropped, merged, k);
+    return merged;
+  }
+
+  // index of the first key in keys[low, keys.size()) not less than key j of other
+  private static int insertionPoint(Keys keys, int low, Keys other, int j) {
+    int high = keys.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (compareAt(keys, middle, other, j) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  // copies the runs of keys between the dropped ones
+  private static int copyKept(Keys from, int start, int end, IntPredicate dropped, Keys to, int k) {
+    int runStart = start;
+    for (int i = start; i < end; i++) {
+      if (dropped.test(from.ids[i])) {
+        k = copyRun(from, runStart, i, to, k);
+        runStart = i + 1;
+      }
+    }
+    return copyRun(from, runStart, end, to, k);
+  }
+
+  private static int copyRun(Keys from, int start, int end, Keys to, int k) {
+    int length = end - start;
+    System.arraycopy(from.names, start, to.names, k, length);
+    System.arraycopy(from.offsets, start, to.offsets, k, length);
+    System.arraycopy(from.ids, start, to.ids, k, length);
+    System.arraycopy(from.labels, start, to.labels, k, length);
+    return k + length;
+  }
+
+  private static void copy(Keys from, int i, Keys to, int k) {
+    to.names[k] = from.names[i];
+    to.offsets[k] = from.offsets[i];
+    to.ids[k] = from.ids[i];
+    to.labels[k] = from.labels[i];
+  }
+
+  private static int compareAt(Keys a, int i, Keys b, int j) {
+    return compareEntries(a.names[i], a.offsets[i], a.ids[i], b.names[j], b.offsets[j], b.ids[j]);
+  }
+
+  // whole-name keys before word keys, then by key, then by ID
+  private static int compareEntries(
+      String aName, int aOffset, int aID, String bName, int bOffset, int bID) {
+    int byKind = Boolean.compare(aOffset > 0, bOffset > 0);
+    if (byKind != 0) {
+      return byKind;
+    }
+    int byKey = compareKeys(aName, aOffset, bName, bOffset);
+    return byKey != 0 ? byKey : Integer.compare(aID, bID);
+  }
+
+  // one key for the whole name and one for each later word, up to MAX_WORD_KEYS in all
+  private static void addKeys(List<Entry> entries, int id, String label) {
+    if (label == null) {
+      return;
+    }
+    String name = normalise(label);
+    if (name.isEmpty()) {
+      return;
+    }
+    entries.add(new Entry(name, 0, id, label));
+    int keys = 1;
+    for (int space = name.indexOf(' ');
+        space >= 0 && keys < MAX_WORD_KEYS;
+        space = name.indexOf(' ', space + 1)) {
+      entries.add(new Entry(name, space + 1, id, label));
+      keys++;
+    }
+  }
+
+  // sorts the entries and packs them into arrays
+  private static Keys toKeys(List<Entry> entries) {
+    entries.sort(KEY_ORDER);
+    int size = entries.size();
+    Keys keys = new Keys(new String[size], new int[size], new int[size], new String[size]);
+    for (int i = 0; i < size; i++) {
+      Entry entry = entries.get(i);
+      keys.names[i] = entry.name;
+      keys.offsets[i] = entry.offset;
+      keys.ids[i] = entry.id;
+      keys.labels[i] = entry.label;
+    }
+    return keys;
+  }
+
+  // compares name.substring(offset) with other, without making the substring
+  private static int compareKey(String name, int offset, String other) {
+    return compareKeys(name, offset, other, 0);
+  }
+
+  private static int compareKeys(String a, int aOffset, String b, int bOffset) {
+    int aLength = a.length() - aOffset;
+    int bLength = b.length() - bOffset;
+    int length = Math.min(aLength, bLength);
+    for (int i = 0; i < length; i++) {
+      char x = a.charAt(aOffset + i);
+      char y = b.charAt(bOffset + i);
+      if (x != y) {
+        return x - y;
+      }
+    }
+    return aLength - bLength;
+  }
+}
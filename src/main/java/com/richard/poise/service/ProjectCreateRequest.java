@@ -1,5 +1,8 @@
 package com.richard.poise.service;
 
+import com.richard.poise.model.Money;
+
+import java.math.BigDecimal;
 import java.sql.Date;
 
 /**
@@ -12,8 +15,8 @@ public class ProjectCreateRequest {
   private String buildingType;
   private String projectAddress;
   private int ERFNumber;
-  private double totalFee;
-  private double amountPaidToDate;
+  private BigDecimal totalFee = Money.ZERO;
+  private BigDecimal amountPaidToDate = Money.ZERO;
   private java.sql.Date projectDeadline;
   private Integer architectID;
   private Integer contractorID;
@@ -39,11 +42,11 @@ public class ProjectCreateRequest {
     return ERFNumber;
   }
 
-  public double getTotalFee() {
+  public BigDecimal getTotalFee() {
     return totalFee;
   }
 
-  public double getAmountPaidToDate() {
+  public BigDecimal getAmountPaidToDate() {
     return amountPaidToDate;
   }
 
@@ -95,11 +98,11 @@ public class ProjectCreateRequest {
     this.ERFNumber = ERFNumber;
   }
 
-  public void setTotalFee(double totalFee) {
+  public void setTotalFee(BigDecimal totalFee) {
     this.totalFee = totalFee;
   }
 
-  public void setAmountPaidToDate(double amountPaidToDate) {
+  public void setAmountPaidToDate(BigDecimal amountPaidToDate) {
     this.amountPaidToDate = amountPaidToDate;
   }
 
@@ -0,0 +1,69 @@
+package com.richard.poise.service;
+
+import java.sql.Date;
+import java.time.LocalDateTime;
+
+/**
+ * Something that happened to a project, published by ProjectService after the change is stored.
+ * Carries just enough for notifications and for patching project lists in place: the name, and
+ * the finalised flag and deadline where the change knows them (null otherwise). Listeners that
+ * need more read the project themselves.
+ */
+public class ProjectEvent {
+
+  public enum Type {
+    CREATED,
+    UPDATED,
+    FINALISED,
+    DELETED
+  }
+
+  private final Type type;
+  private final int projectID;
+  private final String projectName;
+  private final Boolean projectFinalised;
+  private final Date projectDeadline;
+  private final LocalDateTime timestamp;
+
+  public ProjectEvent(Type type, int projectID, String projectName) {
+    this(type, projectID, projectName, null, null);
+  }
+
+  public ProjectEvent(
+      Type type,
+      int projectID,
+      String projectName,
+      Boolean projectFinalised,
+      Date projectDeadline) {
+    this.type = type;
+    this.projectID = projectID;
+    this.projectName = projectName;
+    this.projectFinalised = projectFinalised;
+    this.projectDeadline = projectDeadline;
+    this.timestamp = LocalDateTime.now();
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public int getProjectID() {
+    return projectID;
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public Boolean getProjectFinalised() {
+    return projectFinalised;
+  }
+
+  public Date getProjectDeadline() {
+    return projectDeadline;
+  }
+
+  public LocalDateTime getTimestamp() {
+    return timestamp;
+  }
+}
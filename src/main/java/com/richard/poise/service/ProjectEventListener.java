@@ -0,0 +1,19 @@
+package com.richard.poise.service;
+
+import java.util.List;
+
+/**
+ * Receives project events from the ProjectEventPublisher. Called on the publisher's delivery
+ * thread, never on the thread that changed the project, so an implementation may be slow (e.g.
+ * network fan-out) without delaying requests; it only delays later batches.
+ */
+public interface ProjectEventListener {
+
+  /**
+   * Handles one batch of events, in the order they were published, with repeats of the same
+   * event type for the same project coalesced into the latest one.
+   *
+   * @param events the batch, never empty
+   */
+  void onProjectEvents(List<ProjectEvent> events);
+}
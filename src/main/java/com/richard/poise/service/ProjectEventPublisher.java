@@ -0,0 +1,126 @@
+package com.richard.poise.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands project events to the listeners on one dedicated thread, so slow listeners never add
+ * latency to the request that changed the project. Published events wait in a bounded queue and
+ * are delivered in batches of whatever has queued up, up to the maximum batch size; within a batch
+ * a burst of the same event for the same project is coalesced into the latest one. Events are
+ * notifications rather than data, so when the queue is full new events are dropped (and counted)
+ * instead of blocking the publisher.
+ */
+@Component
+public class ProjectEventPublisher {
+
+  static final int DEFAULT_QUEUE_CAPACITY = 10000;
+  static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+  private final List<ProjectEventListener> listeners;
+  private final BlockingQueue<ProjectEvent> queue;
+  private final int maxBatchSize;
+  // null when there are no listeners, e.g. in the console, so publishing costs nothing
+  private final ExecutorService executor;
+  private final AtomicLong droppedEvents = new AtomicLong();
+
+  @Autowired
+  public ProjectEventPublisher(List<ProjectEventListener> listeners) {
+    this(listeners, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  public ProjectEventPublisher(
+      List<ProjectEventListener> listeners, int queueCapacity, int maxBatchSize) {
+    this.listeners = List.copyOf(listeners);
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.maxBatchSize = maxBatchSize;
+    if (this.listeners.isEmpty()) {
+      this.executor = null;
+    } else {
+      this.executor =
+          Executors.newSingleThreadExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "project-events");
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.executor.execute(this::deliverEvents);
+    }
+  }
+
+  /**
+   * Queues an event for delivery and returns immediately.
+   *
+   * @param event the event to deliver
+   */
+  public void publish(ProjectEvent event) {
+    if (executor != null && !queue.offer(event)) {
+      droppedEvents.incrementAndGet();
+    }
+  }
+
+  /** Number of events dropped because the queue was full. */
+  public long getDroppedEvents() {
+    return droppedEvents.get();
+  }
+
+  /** Stops the delivery thread. Events still queued are discarded. */
+  @PreDestroy
+  public void shutdown() {
+    if (executor == null) {
+      return;
+    }
+    executor.shutdownNow();
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void deliverEvents() {
+    List<ProjectEvent> batch = new ArrayList<>(maxBatchSize);
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        // wait for one event, then take whatever else queued up behind it
+        batch.add(queue.take());
+        queue.drainTo(batch, maxBatchSize - 1);
+        List<ProjectEvent> events = coalesce(batch);
+        batch.clear();
+        for (ProjectEventListener listener : listeners) {
+          try {
+            listener.onProjectEvents(events);
+          } catch (RuntimeException e) {
+            // one failing listener mustn't stop delivery to the others or kill the thread
+            e.printStackTrace();
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // keeps the latest event per project and type, at the position of that latest event
+  static List<ProjectEvent> coalesce(List<ProjectEvent> batch) {
+    Map<String, ProjectEvent> latest = new LinkedHashMap<>();
+    for (ProjectEvent event : batch) {
+      String key = event.getType() + ":" + event.getProjectID();
+      latest.remove(key);
+      latest.put(key, event);
+    }
+    return new ArrayList<>(latest.values());
+  }
+}
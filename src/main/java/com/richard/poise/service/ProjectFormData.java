@@ -1,4 +1,7 @@
 package com.richard.poise.service;
+
+import java.math.BigDecimal;
+
 /**
  * Form backing object for project data in web forms.
  * Used by Thymeleaf to bind HTML form inputs to Java objects.
@@ -9,12 +12,14 @@ public class ProjectFormData {
     private String buildingType;
     private String projectAddress;
     private int ERFNumber;
-    private double totalFee;
+    private BigDecimal totalFee;
     private Integer customerID;
     private Integer architectID;
     private Integer contractorID;
     private Integer engineerID;
     private Integer managerID;
+    // row version when the edit form was opened, posted back as a hidden field
+    private Integer version;
 
     // Empty constructor (required for Spring)
     public ProjectFormData() {
@@ -53,11 +58,11 @@ public class ProjectFormData {
         this.ERFNumber = ERFNumber;
     }
 
-    public double getTotalFee() {
+    public BigDecimal getTotalFee() {
         return totalFee;
     }
 
-    public void setTotalFee(double totalFee) {
+    public void setTotalFee(BigDecimal totalFee) {
         this.totalFee = totalFee;
     }
     public Integer getCustomerID() {
@@ -95,4 +100,12 @@ public class ProjectFormData {
     public void setManagerID(Integer managerID) {
         this.managerID = managerID;
     }
-}
\ No newline at end of file
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
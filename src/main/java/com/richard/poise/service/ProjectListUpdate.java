@@ -0,0 +1,67 @@
+package com.richard.poise.service;
+
+/**
+ * WebSocket message describing one change to a row of the project lists (all, incomplete and
+ * overdue). List pages apply these in place instead of being reloaded. Fields that the change
+ * doesn't know are null, e.g. the deadline of a finalised project.
+ */
+public class ProjectListUpdate {
+  private String type;
+  private int projectId;
+  private String projectName;
+  private Boolean projectFinalised;
+  // yyyy-MM-dd, so clients can compare it with today's date as a string
+  private String projectDeadline;
+
+  // Empty constructor required for JSON deserialization
+  public ProjectListUpdate() {}
+
+  public ProjectListUpdate(ProjectEvent event) {
+    this.type = event.getType().name();
+    this.projectId = event.getProjectID();
+    this.projectName = event.getProjectName();
+    this.projectFinalised = event.getProjectFinalised();
+    this.projectDeadline =
+        event.getProjectDeadline() != null ? event.getProjectDeadline().toString() : null;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public int getProjectId() {
+    return projectId;
+  }
+
+  public void setProjectId(int projectId) {
+    this.projectId = projectId;
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public void setProjectName(String projectName) {
+    this.projectName = projectName;
+  }
+
+  public Boolean getProjectFinalised() {
+    return projectFinalised;
+  }
+
+  public void setProjectFinalised(Boolean projectFinalised) {
+    this.projectFinalised = projectFinalised;
+  }
+
+  public String getProjectDeadline() {
+    return projectDeadline;
+  }
+
+  public void setProjectDeadline(String projectDeadline) {
+    this.projectDeadline = projectDeadline;
+  }
+}
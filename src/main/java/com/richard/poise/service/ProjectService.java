@@ -2,102 +2,86 @@ package com.richard.poise.service;
 
 import com.richard.poise.model.Projects;
 import com.richard.poise.repository.PersonRepository;
+import com.richard.poise.repository.ProjectPatch;
 import com.richard.poise.repository.ProjectRepository;
+import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Service layer for project-related business logic. Coordinates between controllers and repository
  * layer. Handles data validation, transformation, and business rules for project operations.
+ * Successful changes are published as ProjectEvents, which are delivered asynchronously.
  */
+@Service
 public class ProjectService {
-  private ProjectRepository projectRepository;
-  private PersonRepository personRepository;
+  static final String CONFLICT_MESSAGE =
+      "This project was changed by someone else since it was loaded; reload and try again";
 
-  public ProjectService(ProjectRepository projectRepository, PersonRepository personRepository) {
+  private final ProjectRepository projectRepository;
+  private final PersonRepository personRepository;
+  private final ProjectEventPublisher eventPublisher;
+
+  public ProjectService(
+      ProjectRepository projectRepository,
+      PersonRepository personRepository,
+      ProjectEventPublisher eventPublisher) {
     this.projectRepository = projectRepository;
     this.personRepository = personRepository;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
-   * Updates an existing project's details. Only updates fields that are provided (non-null) in the
-   * request.
+   * Updates an existing project's details. Only the fields that are provided (non-null) in the
+   * request are written, in a single UPDATE, without reading the project first. If the request
+   * carries the version the project was read with, the update is compare-and-set and reports a
+   * conflict when someone else changed the project in the meantime.
    *
    * @param projectID the ID of the project to update
    * @param request contains the fields to update
    * @return ProjectUpdateResult indicating success/failure with message
    */
   public ProjectUpdateResult updateProject(int projectID, ProjectUpdateRequest request) {
-    Optional<Projects> projectOptional = projectRepository.findByID(projectID);
-    if (projectOptional.isEmpty()) {
-      return new ProjectUpdateResult(false, "Project not found");
-    }
-    Projects foundProject = projectOptional.get();
-    if (request.getProjectName() != null) {
-      foundProject.setProjectName(request.getProjectName());
-    }
-    if (request.getBuildingType() != null) {
-      foundProject.setBuildingType(request.getBuildingType());
-    }
-    if (request.getProjectAddress() != null) {
-      foundProject.setProjectAddress(request.getProjectAddress());
-    }
-    if (request.getERFNumber() != null) {
-      foundProject.setERFNumber(request.getERFNumber());
-    }
-    if (request.getTotalFee() != null) {
-      foundProject.setTotalFee(request.getTotalFee());
-    }
-    if (request.getAmountPaidToDate() != null) {
-      foundProject.setAmountPaidToDate(request.getAmountPaidToDate());
-    }
-    if (request.getProjectDeadline() != null) {
-      foundProject.setProjectDeadline(request.getProjectDeadline());
-    }
-    if (request.getArchitectID() != null) {
-      foundProject.setArchitectID(request.getArchitectID());
-    }
-    if (request.getContractorID() != null) {
-      foundProject.setContractorID(request.getContractorID());
-    }
-    if (request.getCustomerID() != null) {
-      foundProject.setCustomerID(request.getCustomerID());
-    }
-    if (request.getEngineerID() != null) {
-      foundProject.setEngineerID(request.getEngineerID());
-    }
-    if (request.getManagerID() != null) {
-      foundProject.setManagerID(request.getManagerID());
-    }
-    if (request.isProjectFinalised() != null) {
-      foundProject.setProjectFinalised(request.isProjectFinalised());
-    }
-    if (request.getCompletionDate() != null) {
-      foundProject.setCompletionDate(request.getCompletionDate());
-    }
-    boolean success =
-        projectRepository.updateProjectData(
-            foundProject.getProjectID(),
-            foundProject.getProjectName(),
-            foundProject.getBuildingType(),
-            foundProject.getProjectAddress(),
-            foundProject.getERFNumber(),
-            foundProject.getTotalFee(),
-            foundProject.getAmountPaidToDate(),
-            foundProject.getProjectDeadline(),
-            foundProject.getArchitectID(),
-            foundProject.getContractorID(),
-            foundProject.getCustomerID(),
-            foundProject.getEngineerID(),
-            foundProject.getManagerID(),
-            foundProject.getIsProjectFinalised(),
-            foundProject.getCompletionDate());
+    ProjectPatch patch = new ProjectPatch();
+    patch.setProjectName(request.getProjectName());
+    patch.setBuildingType(request.getBuildingType());
+    patch.setProjectAddress(request.getProjectAddress());
+    patch.setERFNumber(request.getERFNumber());
+    patch.setTotalFee(request.getTotalFee());
+    patch.setAmountPaidToDate(request.getAmountPaidToDate());
+    patch.setProjectDeadline(request.getProjectDeadline());
+    patch.setArchitectID(request.getArchitectID());
+    patch.setContractorID(request.getContractorID());
+    patch.setCustomerID(request.getCustomerID());
+    patch.setEngineerID(request.getEngineerID());
+    patch.setManagerID(request.getManagerID());
+    patch.setProjectFinalised(request.isProjectFinalised());
+    patch.setCompletionDate(request.getCompletionDate());
+    patch.setExpectedVersion(request.getVersion());
 
-    if (success) {
+    Optional<Projects> updated = projectRepository.patchProjectData(projectID, patch);
+    if (updated.isPresent()) {
+      Projects project = updated.get();
+      eventPublisher.publish(
+          new ProjectEvent(
+              ProjectEvent.Type.UPDATED,
+              projectID,
+              project.getProjectName(),
+              project.getIsProjectFinalised(),
+              project.getProjectDeadline()));
       return new ProjectUpdateResult(true, "Project updated successfully");
-    } else {
-      return new ProjectUpdateResult(false, "Failed to update project");
     }
+    // only a failed update pays for the read that tells "not found" and conflicts apart
+    Optional<Projects> current = projectRepository.findByID(projectID);
+    if (current.isEmpty()) {
+      return new ProjectUpdateResult(false, "Project not found");
+    }
+    if (request.getVersion() != null && current.get().getVersion() != request.getVersion()) {
+      return ProjectUpdateResult.conflict(CONFLICT_MESSAGE);
+    }
+    return new ProjectUpdateResult(false, "Failed to update project");
   }
 
   /**
@@ -113,6 +97,9 @@ public class ProjectService {
     }
     boolean success = projectRepository.deleteProjectData(projectID);
     if (success) {
+      eventPublisher.publish(
+          new ProjectEvent(
+              ProjectEvent.Type.DELETED, projectID, projectOptional.get().getProjectName()));
       return new ProjectUpdateResult(true, "Project deleted successfully");
     } else {
       return new ProjectUpdateResult(false, "Failed to delete project");
@@ -120,29 +107,38 @@ public class ProjectService {
   }
 
   /**
-   * Marks a project as finalised with a completion date. Prevents finalising already completed
-   * projects.
+   * Marks a project as finalised with a completion date, in a single conditional update that
+   * prevents finalising already completed projects even when two requests race.
    *
    * @param projectID the ID of the project to finalise
    * @param finalisedDate the date the project was completed
-   * @return ProjectUpdateResult indicating success/failure with message
+   * @param expectedVersion the version the project was shown with, or null to finalise whatever
+   *     its current state
+   * @return ProjectUpdateResult indicating success/failure with message, and the project name on
+   *     success
    */
-  public ProjectUpdateResult finaliseProject(int projectID, java.sql.Date finalisedDate) {
-    Optional<Projects> projectOptional = projectRepository.findByID(projectID);
-    if (projectOptional.isEmpty()) {
+  public ProjectUpdateResult finaliseProject(
+      int projectID, java.sql.Date finalisedDate, Integer expectedVersion) {
+    Optional<String> finalisedName =
+        projectRepository.finaliseProjectData(projectID, finalisedDate, expectedVersion);
+    if (finalisedName.isPresent()) {
+      eventPublisher.publish(
+          new ProjectEvent(
+              ProjectEvent.Type.FINALISED, projectID, finalisedName.get(), true, null));
+      return new ProjectUpdateResult(true, "Project finalised successfully", finalisedName.get());
+    }
+    // only a failed finalisation reads the project, to say why it failed
+    Optional<Projects> current = projectRepository.findByID(projectID);
+    if (current.isEmpty()) {
       return new ProjectUpdateResult(false, "Project not found");
     }
-    Projects foundProject = projectOptional.get();
-    if (foundProject.getIsProjectFinalised()) {
+    if (current.get().getIsProjectFinalised()) {
       return new ProjectUpdateResult(false, "This project is already finalised");
     }
-
-    boolean success = projectRepository.finaliseProjectData(projectID, finalisedDate);
-    if (success) {
-      return new ProjectUpdateResult(true, "Project finalised successfully");
-    } else {
-      return new ProjectUpdateResult(false, "Failed to finalise project");
+    if (expectedVersion != null && current.get().getVersion() != expectedVersion) {
+      return ProjectUpdateResult.conflict(CONFLICT_MESSAGE);
     }
+    return new ProjectUpdateResult(false, "Failed to finalise project");
   }
 
   /**
@@ -170,9 +166,71 @@ public class ProjectService {
             request.getCompletionDate());
 
     if (newProjectID > 0) {
+      eventPublisher.publish(createdEvent(newProjectID, request));
       return new ProjectUpdateResult(true, "Project created successfully with ID: " + newProjectID);
     } else {
       return new ProjectUpdateResult(false, "Failed to create project");
     }
   }
+
+  /**
+   * Creates several projects in one batch, inserted in a single transaction. Used when onboarding
+   * a whole portfolio at once.
+   *
+   * @param requests the projects to create
+   * @return a result for each request, in the same order, with the generated ID or an error
+   */
+  public List<ProjectUpdateResult> createProjects(List<ProjectCreateRequest> requests) {
+    List<Projects> projects = new ArrayList<>(requests.size());
+    for (ProjectCreateRequest request : requests) {
+      projects.add(newProject(request));
+    }
+    int[] newProjectIDs = projectRepository.createProjectsData(projects);
+
+    List<ProjectUpdateResult> results = new ArrayList<>(newProjectIDs.length);
+    for (int i = 0; i < newProjectIDs.length; i++) {
+      int newProjectID = newProjectIDs[i];
+      if (newProjectID > 0) {
+        eventPublisher.publish(createdEvent(newProjectID, requests.get(i)));
+        results.add(
+            new ProjectUpdateResult(true, "Project created successfully with ID: " + newProjectID));
+      } else {
+        results.add(new ProjectUpdateResult(false, "Failed to create project"));
+      }
+    }
+    return results;
+  }
+
+  private static ProjectEvent createdEvent(int projectID, ProjectCreateRequest request) {
+    return new ProjectEvent(
+        ProjectEvent.Type.CREATED,
+        projectID,
+        request.getProjectName(),
+        request.isProjectFinalised(),
+        request.getProjectDeadline());
+  }
+
+  // the project a create request describes, before it has an ID; unassigned roles become 0
+  static Projects newProject(ProjectCreateRequest request) {
+    return new Projects(
+        0,
+        request.getProjectName(),
+        request.getBuildingType(),
+        request.getProjectAddress(),
+        request.getERFNumber(),
+        request.getTotalFee(),
+        request.getAmountPaidToDate(),
+        request.getProjectDeadline(),
+        orUnassigned(request.getArchitectID()),
+        orUnassigned(request.getContractorID()),
+        request.getCustomerID(),
+        orUnassigned(request.getEngineerID()),
+        orUnassigned(request.getManagerID()),
+        request.isProjectFinalised(),
+        request.getCompletionDate());
+  }
+
+  private static int orUnassigned(Integer personID) {
+    return personID != null ? personID : 0;
+  }
 }
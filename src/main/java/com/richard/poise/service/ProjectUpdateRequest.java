@@ -1,5 +1,6 @@
 package com.richard.poise.service;
 
+import java.math.BigDecimal;
 import java.sql.Date;
 
 /**
@@ -11,8 +12,8 @@ public class ProjectUpdateRequest {
   private String buildingType;
   private String projectAddress;
   private Integer ERFNumber;
-  private Double totalFee;
-  private Double amountPaidToDate;
+  private BigDecimal totalFee;
+  private BigDecimal amountPaidToDate;
   private java.sql.Date projectDeadline;
   private Integer architectID;
   private Integer contractorID;
@@ -21,6 +22,8 @@ public class ProjectUpdateRequest {
   private Integer managerID;
   private Boolean projectFinalised; // Note: Boolean not boolean
   private java.sql.Date completionDate;
+  // version the project was read with; if set, the update fails with a conflict once it moved on
+  private Integer version;
 
   public String getProjectName() {
     return projectName;
@@ -38,11 +41,11 @@ public class ProjectUpdateRequest {
     return ERFNumber;
   }
 
-  public Double getTotalFee() {
+  public BigDecimal getTotalFee() {
     return totalFee;
   }
 
-  public Double getAmountPaidToDate() {
+  public BigDecimal getAmountPaidToDate() {
     return amountPaidToDate;
   }
 
@@ -94,11 +97,11 @@ public class ProjectUpdateRequest {
     this.ERFNumber = ERFNumber;
   }
 
-  public void setTotalFee(Double totalFee) {
+  public void setTotalFee(BigDecimal totalFee) {
     this.totalFee = totalFee;
   }
 
-  public void setAmountPaidToDate(Double amountPaidToDate) {
+  public void setAmountPaidToDate(BigDecimal amountPaidToDate) {
     this.amountPaidToDate = amountPaidToDate;
   }
 
@@ -133,4 +136,12 @@ public class ProjectUpdateRequest {
   public void setCompletionDate(Date completionDate) {
     this.completionDate = completionDate;
   }
+
+  public Integer getVersion() {
+    return version;
+  }
+
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
 }
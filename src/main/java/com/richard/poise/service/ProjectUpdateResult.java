@@ -3,17 +3,32 @@ package com.richard.poise.service;
 /**
  * Response object for project operations (create, update, delete, finalise). Encapsulates operation
  * success status and user-friendly messages. Provides a consistent return type for service layer
- * methods.
+ * methods. A conflict is a failure caused by someone else changing the project first; the caller
+ * can reload it and try again.
  */
 public class ProjectUpdateResult {
   private boolean success;
   private String message;
+  private boolean conflict;
+  private String projectName;
 
   public ProjectUpdateResult(boolean success, String message) {
     this.success = success;
     this.message = message;
   }
 
+  public ProjectUpdateResult(boolean success, String message, String projectName) {
+    this(success, message);
+    this.projectName = projectName;
+  }
+
+  /** A failed result for an update that lost an optimistic concurrency check. */
+  public static ProjectUpdateResult conflict(String message) {
+    ProjectUpdateResult result = new ProjectUpdateResult(false, message);
+    result.conflict = true;
+    return result;
+  }
+
   public boolean getSuccess() {
     return success;
   }
@@ -21,4 +36,13 @@ public class ProjectUpdateResult {
   public String getMessage() {
     return message;
   }
+
+  public boolean isConflict() {
+    return conflict;
+  }
+
+  /** Name of the project the operation applied to, if the operation returns it (finalise does). */
+  public String getProjectName() {
+    return projectName;
+  }
 }
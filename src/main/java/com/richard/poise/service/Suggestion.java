@@ -0,0 +1,20 @@
+package com.richard.poise.service;
+
+/** One search-as-you-type suggestion: a project or person ID and the name to show for it. */
+public class Suggestion {
+  private final int id;
+  private final String name;
+
+  public Suggestion(int id, String name) {
+    this.id = id;
+    this.name = name;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,172 @@
+package com.richard.poise.service;
+
+import com.richard.poise.repository.PersonRepository;
+import com.richard.poise.repository.ProjectRepository;
+import com.richard.poise.repository.RepositoryException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Project and person names in memory for search-as-you-type, so a suggestion costs a binary
+ * search rather than a database round trip per keystroke. Loaded from the repositories on first
+ * use and reloaded periodically; between reloads, project events from ProjectService and
+ * PersonService's writes keep it current. Reloads pick up changes that go round the services,
+ * such as bulk imports, edits made on another instance, or events dropped by a full queue.
+ */
+@Component
+public class TypeaheadIndex implements ProjectEventListener {
+
+  /** Upper bound on the suggestions of one lookup, whatever the caller asks for. */
+  public static final int MAX_SUGGESTIONS = 50;
+
+  private final ProjectRepository projectRepository;
+  private final PersonRepository personRepository;
+  private final PrefixIndex projects = new PrefixIndex();
+  private final PrefixIndex people = new PrefixIndex();
+  // one reload at a time, and a first lookup waits for the load rather than finding nothing
+  private final Object reloadLock = new Object();
+  private volatile boolean loaded;
+
+  public TypeaheadIndex(ProjectRepository projectRepository, PersonRepository personRepository) {
+    this.projectRepository = projectRepository;
+    this.personRepository = personRepository;
+  }
+
+  /**
+   * Suggests projects whose name, or a word in it, starts with what was typed.
+   *
+   * @param query what the user has typed so far
+   * @param limit the most suggestions to return, up to {@link #MAX_SUGGESTIONS}
+   * @return the suggestions, names that start with the query first; empty for a blank query
+   */
+  public List<Suggestion> suggestProjects(String query, int limit) {
+    return suggest(projects, query, limit);
+  }
+
+  /**
+   * Suggests people whose name, or a word in it, starts with what was typed.
+   *
+   * @param query what the user has typed so far
+   * @param limit the most suggestions to return, up to {@link #MAX_SUGGESTIONS}
+   * @return the suggestions, names that start with the query first; empty for a blank query
+   */
+  public List<Suggestion> suggestPeople(String query, int limit) {
+    return suggest(people, query, limit);
+  }
+
+  private List<Suggestion> suggest(PrefixIndex index, String query, int limit) {
+    if (query == null) {
+      return List.of();
+    }
+    if (!loaded) {
+      // first lookup before the scheduled reload has run, or no scheduler at all
+      synchronized (reloadLock) {
+        if (!loaded) {
+          try {
+            reloadNow();
+          } catch (RepositoryException e) {
+            // still not loaded, so the next lookup tries again
+            e.printStackTrace();
+          }
+        }
+      }
+    }
+    int clamped = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+    List<Suggestion> suggestions = new ArrayList<>(clamped);
+    index.lookup(query, clamped, (name, id) -> suggestions.add(new Suggestion(id, name)));
+    return suggestions;
+  }
+
+  @Override
+  public void onProjectEvents(List<ProjectEvent> events) {
+    for (ProjectEvent event : events) {
+      if (event.getType() == ProjectEvent.Type.DELETED) {
+        projects.remove(event.getProjectID());
+      } else {
+        projects.put(event.getProjectID(), event.getProjectName());
+      }
+    }
+  }
+
+  /** Indexes a person under their current name, after PersonService has stored it. */
+  public void personSaved(int personID, String personName) {
+    people.put(personID, personName);
+  }
+
+  /** Drops a person from the index, after PersonService has deleted them. */
+  public void personDeleted(int personID) {
+    people.remove(personID);
+  }
+
+  /**
+   * Rebuilds both indexes from the repositories. Lookups and writes carry on meanwhile; writes
+   * made during the reload are applied again on top of it, since the read may have missed them.
+   * An index whose read fails stays as it was.
+   *
+   * @throws RepositoryException if the names could not be read
+   */
+  @Scheduled(
+      initialDelayString = "${poise.typeahead.reload-initial-delay-ms:0}",
+      fixedDelayString = "${poise.typeahead.reload-interval-ms:600000}")
+  public void reload() {
+    synchronized (reloadLock) {
+      reloadNow();
+    }
+  }
+
+  /**
+   * Rebuilds the project index alone, e.g. after a bulk import of projects.
+   *
+   * @throws RepositoryException if the names could not be read
+   */
+  public void reloadProjects() {
+    synchronized (reloadLock) {
+      rebuildProjects();
+    }
+  }
+
+  /**
+   * Rebuilds the person index alone, e.g. after a bulk import of people.
+   *
+   * @throws RepositoryException if the names could not be read
+   */
+  public void reloadPeople() {
+    synchronized (reloadLock) {
+      rebuildPeople();
+    }
+  }
+
+  // caller holds reloadLock
+  private void reloadNow() {
+    rebuildProjects();
+    rebuildPeople();
+    loaded = true;
+  }
+
+  private void rebuildProjects() {
+    projects.rebuild(
+        builder -> {
+          int count =
+              projectRepository.forEachProject(
+                  project -> builder.accept(project.getProjectName(), project.getProjectID()));
+          if (count < 0) {
+            throw new RepositoryException("Could not read project names");
+          }
+        });
+  }
+
+  private void rebuildPeople() {
+    people.rebuild(
+        builder -> {
+          int count =
+              personRepository.forEachPerson(
+                  person -> builder.accept(person.getPersonName(), person.getPersonID()));
+          if (count < 0) {
+            throw new RepositoryException("Could not read person names");
+          }
+        });
+  }
+}
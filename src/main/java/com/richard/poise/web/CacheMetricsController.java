@@ -0,0 +1,33 @@
+package com.richard.poise.web;
+
+import com.richard.poise.repository.CachingPersonRepository;
+import com.richard.poise.repository.CachingProjectRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Exposes hit, miss and eviction counters for the repository caches. */
+@RestController
+public class CacheMetricsController {
+
+  private final CachingProjectRepository projectRepository;
+
+  private final CachingPersonRepository personRepository;
+
+  public CacheMetricsController(
+      CachingProjectRepository projectRepository, CachingPersonRepository personRepository) {
+    this.projectRepository = projectRepository;
+    this.personRepository = personRepository;
+  }
+
+  @GetMapping("/api/metrics/cache")
+  public ResponseEntity<Map<String, Object>> cacheMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("projects", projectRepository.getCacheStats());
+    metrics.put("people", personRepository.getCacheStats());
+    return ResponseEntity.ok(metrics);
+  }
+}
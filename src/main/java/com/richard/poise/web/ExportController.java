@@ -0,0 +1,74 @@
+package com.richard.poise.web;
+
+import com.richard.poise.service.ExportFormat;
+import com.richard.poise.service.ExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST endpoints for bulk exports used by downstream finance tools. Responses are streamed
+ * straight from a database cursor in JSON Lines (default) or CSV, so the first rows arrive
+ * immediately and memory use doesn't depend on the number of rows.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+  private final ExportService exportService;
+
+  public ExportController(ExportService exportService) {
+    this.exportService = exportService;
+  }
+
+  /**
+   * Streams all projects.
+   *
+   * @param format "jsonl" or "csv"
+   * @return streaming response, or 400 if the format is not supported
+   */
+  @GetMapping("/projects")
+  public ResponseEntity<StreamingResponseBody> exportProjects(
+      @RequestParam(defaultValue = "jsonl") String format) {
+    ExportFormat exportFormat = ExportFormat.fromParameter(format);
+    if (exportFormat == null) {
+      return ResponseEntity.badRequest().build();
+    }
+    StreamingResponseBody body =
+        outputStream -> exportService.exportProjects(outputStream, exportFormat);
+    return streamingResponse(body, exportFormat, "projects");
+  }
+
+  /**
+   * Streams all people.
+   *
+   * @param format "jsonl" or "csv"
+   * @return streaming response, or 400 if the format is not supported
+   */
+  @GetMapping("/people")
+  public ResponseEntity<StreamingResponseBody> exportPeople(
+      @RequestParam(defaultValue = "jsonl") String format) {
+    ExportFormat exportFormat = ExportFormat.fromParameter(format);
+    if (exportFormat == null) {
+      return ResponseEntity.badRequest().build();
+    }
+    StreamingResponseBody body =
+        outputStream -> exportService.exportPeople(outputStream, exportFormat);
+    return streamingResponse(body, exportFormat, "people");
+  }
+
+  private ResponseEntity<StreamingResponseBody> streamingResponse(
+      StreamingResponseBody body, ExportFormat format, String fileName) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + fileName + "." + format.getFileExtension() + "\"")
+        .body(body);
+  }
+}
@@ -0,0 +1,42 @@
+package com.richard.poise.web;
+
+import com.richard.poise.model.FinancialDimension;
+import com.richard.poise.model.FinancialSummary;
+import com.richard.poise.repository.ProjectRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST endpoint for the finance dashboards: fee totals, payments and outstanding balances per
+ * customer, building type or manager. Served from the summary table the database keeps up to
+ * date, so the response time doesn't grow with the number of projects.
+ */
+@RestController
+public class FinancialSummaryController {
+
+  private final ProjectRepository projectRepository;
+
+  public FinancialSummaryController(ProjectRepository projectRepository) {
+    this.projectRepository = projectRepository;
+  }
+
+  /**
+   * Returns the totals for each group, largest outstanding balance first.
+   *
+   * @param by customer (default), building_type or manager
+   * @return the group totals, or 400 if the grouping is not supported
+   */
+  @GetMapping("/api/projects/financials")
+  public ResponseEntity<List<FinancialSummary>> financialSummary(
+      @RequestParam(defaultValue = "customer") String by) {
+    FinancialDimension dimension = FinancialDimension.fromParameter(by);
+    if (dimension == null) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(projectRepository.getFinancialSummary(dimension));
+  }
+}
@@ -0,0 +1,69 @@
+package com.richard.poise.web;
+
+import com.richard.poise.service.ExportFormat;
+import com.richard.poise.service.ImportReport;
+import com.richard.poise.service.ImportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+/**
+ * REST endpoints for bulk imports, e.g. migrating projects and people from a legacy system. The
+ * request body is the file itself, in JSON Lines (default) or CSV as written by the export
+ * endpoints, and is read as a stream rather than buffered. The response reports how many rows
+ * were imported, the throughput, and why each rejected row was rejected.
+ */
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+  private final ImportService importService;
+
+  public ImportController(ImportService importService) {
+    this.importService = importService;
+  }
+
+  /**
+   * Imports projects from the request body.
+   *
+   * @param format "jsonl" or "csv"
+   * @return the import report, or 400 if the format is not supported or the body couldn't be read
+   *     to the end (the report then says how far the import got)
+   */
+  @PostMapping("/projects")
+  public ResponseEntity<ImportReport> importProjects(
+      @RequestParam(defaultValue = "jsonl") String format, InputStream body) {
+    ExportFormat importFormat = ExportFormat.fromParameter(format);
+    if (importFormat == null) {
+      return ResponseEntity.badRequest().build();
+    }
+    return reportResponse(importService.importProjects(body, importFormat));
+  }
+
+  /**
+   * Imports people from the request body.
+   *
+   * @param format "jsonl" or "csv"
+   * @return the import report, or 400 if the format is not supported or the body couldn't be read
+   *     to the end (the report then says how far the import got)
+   */
+  @PostMapping("/people")
+  public ResponseEntity<ImportReport> importPeople(
+      @RequestParam(defaultValue = "jsonl") String format, InputStream body) {
+    ExportFormat importFormat = ExportFormat.fromParameter(format);
+    if (importFormat == null) {
+      return ResponseEntity.badRequest().build();
+    }
+    return reportResponse(importService.importPeople(body, importFormat));
+  }
+
+  private ResponseEntity<ImportReport> reportResponse(ImportReport report) {
+    return report.getFailure() != null
+        ? ResponseEntity.badRequest().body(report)
+        : ResponseEntity.ok(report);
+  }
+}
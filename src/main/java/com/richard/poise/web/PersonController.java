@@ -1,7 +1,7 @@
 package com.richard.poise.web;
 
 import com.richard.poise.model.People;
-import com.richard.poise.repository.DatabasePersonRepository;
+import com.richard.poise.repository.KeysetPage;
 import com.richard.poise.repository.PersonRepository;
 import com.richard.poise.service.*;
 import org.springframework.stereotype.Controller;
@@ -20,22 +20,38 @@ import java.util.Optional;
 @RequestMapping("/people")
 public class PersonController {
 
+  // matches listed on the search page
+  static final int SEARCH_RESULTS = 20;
+
   private final PersonRepository personRepository;
 
-  public PersonController() {
-    this.personRepository = new DatabasePersonRepository();
+  private final PersonService personService;
+
+  public PersonController(PersonRepository personRepository, PersonService personService) {
+    this.personRepository = personRepository;
+    this.personService = personService;
   }
 
   /**
-   * Displays list of all people or filtered by role.
+   * Displays one page of all people. Uses keyset pagination on person ID.
    *
+   * @param after show people with an ID greater than this (next page)
+   * @param before show people with an ID less than this (previous page)
+   * @param size number of people per page, capped at KeysetPage.MAX_PAGE_SIZE
    * @param model Spring Model for passing data to view
    * @return list.html template
    */
   @GetMapping
-  public String listPeople(Model model) { // Changed method name
-    List<People> people = personRepository.findAll();
-    model.addAttribute("people", people);
+  public String listPeople(
+      @RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer before,
+      @RequestParam(required = false) Integer size,
+      Model model) {
+    KeysetPage<People> page =
+        personRepository.findPage(after, before, KeysetPage.clampPageSize(size));
+    model.addAttribute("people", page.getItems());
+    model.addAttribute("page", page);
+    model.addAttribute("pagePath", "/people");
     return "people/list";
   }
 
@@ -97,8 +113,7 @@ public class PersonController {
     request.setAddress(formData.getAddress());
     request.setRole(formData.getRole());
 
-    PersonService peopleService = new PersonService(new DatabasePersonRepository());
-    PersonUpdateResult result = peopleService.createPerson(request);
+    PersonUpdateResult result = personService.createPerson(request);
 
     if (result.getSuccess()) {
       return "redirect:/people";
@@ -133,6 +148,7 @@ public class PersonController {
     formData.setEmail(people.getEmail());
     formData.setAddress(people.getAddress());
     formData.setRole(people.getRole());
+    formData.setVersion(people.getVersion());
 
     model.addAttribute("person", formData);
     model.addAttribute("personId", id);
@@ -140,7 +156,8 @@ public class PersonController {
   }
 
   /**
-   * Processes person edit form submission. Validates email format before updating.
+   * Processes person edit form submission. Validates email format before updating. A conflict
+   * with someone else's save reloads the form with the stored details.
    *
    * @param id the person's ID
    * @param formData updated form data
@@ -166,13 +183,16 @@ public class PersonController {
     request.setEmail(formData.getEmail());
     request.setAddress(formData.getAddress());
     request.setRole(formData.getRole());
-
-    PersonService personService = new PersonService(new DatabasePersonRepository());
+    request.setVersion(formData.getVersion());
 
     PersonUpdateResult result = personService.updatePerson(id, request);
 
     if (result.getSuccess()) {
       return "redirect:/people/" + id;
+    } else if (result.isConflict()) {
+      // show what the other user saved, with the new version, rather than the stale form
+      model.addAttribute("errorMessage", result.getMessage());
+      return showEditForm(id, model);
     } else {
       model.addAttribute("errorMessage", result.getMessage());
       model.addAttribute("person", formData);
@@ -189,8 +209,6 @@ public class PersonController {
    */
   @PostMapping("/{id}/delete")
   public String deletePerson(@PathVariable int id) {
-    PersonService personService = new PersonService(new DatabasePersonRepository());
-
     PersonUpdateResult result = personService.deletePerson(id);
 
     return "redirect:/people";
@@ -227,23 +245,29 @@ public class PersonController {
   }
 
   /**
-   * Searches for a person by name.
+   * Searches for people by part of their name, email address or phone number, allowing for
+   * misspellings.
    *
-   * @param name the person's name to search for
-   * @param model Spring Model for error messages
-   * @return redirects to person detail if found, or back to search with error
+   * @param name what to search for
+   * @param model Spring Model for the matches or error messages
+   * @return redirects to person detail if exactly one person matches, otherwise the search page
+   *     listing the best matches
    */
   @GetMapping("/search/by-name")
   public String searchByName(@RequestParam String name, Model model) {
-    Optional<People> peopleOptional = personRepository.findByName(name);
+    List<People> matches = personRepository.searchPeople(name, SEARCH_RESULTS);
 
-    if (peopleOptional.isEmpty()) {
-      model.addAttribute("errorMessage", "Person not found with name: " + name);
+    if (matches.isEmpty()) {
+      model.addAttribute("errorMessage", "No people match: " + name);
       return "people/search";
     }
+    if (matches.size() == 1) {
+      return "redirect:/people/" + matches.get(0).getPersonID();
+    }
 
-    People people = peopleOptional.get();
-    return "redirect:/people/" + people.getPersonID();
+    model.addAttribute("query", name);
+    model.addAttribute("results", matches);
+    return "people/search";
   }
 
   /**
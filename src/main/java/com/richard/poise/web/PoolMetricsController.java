@@ -0,0 +1,18 @@
+package com.richard.poise.web;
+
+import com.richard.poise.repository.DatabaseConnection;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/** Exposes database connection pool metrics (active, idle, waiters, acquire-time histogram). */
+@RestController
+public class PoolMetricsController {
+
+  @GetMapping("/api/metrics/pool")
+  public ResponseEntity<Map<String, Object>> poolMetrics() {
+    return ResponseEntity.ok(DatabaseConnection.getPoolMetrics().snapshot());
+  }
+}
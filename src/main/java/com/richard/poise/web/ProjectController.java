@@ -1,18 +1,20 @@
 package com.richard.poise.web;
 
+import com.richard.poise.model.FinancialDimension;
+import com.richard.poise.model.Money;
 import com.richard.poise.model.People;
+import com.richard.poise.model.ProjectDetails;
 import com.richard.poise.model.Projects;
-import com.richard.poise.repository.DatabasePersonRepository;
-import com.richard.poise.repository.DatabaseProjectRepository;
+import com.richard.poise.repository.KeysetPage;
 import com.richard.poise.repository.PersonRepository;
 import com.richard.poise.repository.ProjectRepository;
 import com.richard.poise.service.*;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -24,32 +26,53 @@ import java.util.Optional;
 @RequestMapping("/projects")
 public class ProjectController {
 
+  // matches listed on the search page
+  static final int SEARCH_RESULTS = 20;
+
   private final ProjectRepository projectRepository;
 
-  private final SimpMessagingTemplate messagingTemplate;
+  private final PersonRepository personRepository;
+
+  private final ProjectService projectService;
+
+  private final OverdueProjectTracker overdueProjectTracker;
 
-  public ProjectController(SimpMessagingTemplate messagingTemplate) {
-    this.messagingTemplate = messagingTemplate;
-    this.projectRepository = new DatabaseProjectRepository();
+  public ProjectController(
+      ProjectRepository projectRepository,
+      PersonRepository personRepository,
+      ProjectService projectService,
+      OverdueProjectTracker overdueProjectTracker) {
+    this.projectRepository = projectRepository;
+    this.personRepository = personRepository;
+    this.projectService = projectService;
+    this.overdueProjectTracker = overdueProjectTracker;
   }
 
   /**
-   * Displays list of all projects with summary information.
+   * Displays one page of all projects with summary information. Uses keyset pagination, so the
+   * page is addressed by the after/before project ID cursors rather than an offset.
    *
+   * @param after show projects with an ID greater than this (next page)
+   * @param before show projects with an ID less than this (previous page)
+   * @param size number of projects per page, capped at KeysetPage.MAX_PAGE_SIZE
    * @param model Spring Model for passing data to view
    * @return list.html template
    */
   @GetMapping
-  public String listProjects(Model model) {
-    List<Projects> projects = projectRepository.getAllProjectsSummary();
-    model.addAttribute("projects", projects);
-    model.addAttribute("pageTitle", "All Projects");
+  public String listProjects(
+      @RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer before,
+      @RequestParam(required = false) Integer size,
+      Model model) {
+    KeysetPage<Projects> page =
+        projectRepository.getProjectsSummaryPage(after, before, KeysetPage.clampPageSize(size));
+    addProjectPage(model, page, "All Projects", "/projects");
     return "projects/list";
   }
 
   /**
-   * Displays details for a specific project including team members. Fetches related person data for
-   * architect, contractor, customer, engineer, and manager.
+   * Displays details for a specific project including team members. The project and its architect,
+   * contractor, customer, engineer and manager are loaded in a single query.
    *
    * @param id the project's ID
    * @param model Spring Model for passing data to view
@@ -57,51 +80,30 @@ public class ProjectController {
    */
   @GetMapping("/{id}")
   public String projectDetail(@PathVariable int id, Model model) {
-    Optional<Projects> projectOptional = projectRepository.findByID(id);
+    Optional<ProjectDetails> detailsOptional = projectRepository.findDetailsByID(id);
 
-    if (projectOptional.isEmpty()) {
+    if (detailsOptional.isEmpty()) {
       return "redirect:/projects";
     }
 
-    Projects project = projectOptional.get();
-
-    model.addAttribute("project", project);
+    ProjectDetails details = detailsOptional.get();
 
-    // Fetch people objects by their IDs
-    PersonRepository personRepository = new DatabasePersonRepository();
-
-    if (project.getArchitectID() > 0) {
-      personRepository
-          .findByID(project.getArchitectID())
-          .ifPresent(architect -> model.addAttribute("architect", architect));
+    model.addAttribute("project", details.getProject());
+    // unassigned team members are left out of the model so the view shows "Not assigned"
+    if (details.getArchitect() != null) {
+      model.addAttribute("architect", details.getArchitect());
     }
-
-    if (project.getContractorID() > 0) {
-      personRepository
-          .findByID(project.getContractorID())
-          .ifPresent(contractor -> model.addAttribute("contractor", contractor));
+    if (details.getContractor() != null) {
+      model.addAttribute("contractor", details.getContractor());
     }
-
-    if (project.getCustomerID() > 0) {
-      Optional<People> customerOptional = personRepository.findByID(project.getCustomerID());
-      System.out.println("Customer found: " + customerOptional.isPresent()); // Debug line
-      customerOptional.ifPresent(
-          customer -> {
-            System.out.println("Customer name: " + customer.getPersonName()); // Debug line
-            model.addAttribute("customer", customer);
-          });
+    if (details.getCustomer() != null) {
+      model.addAttribute("customer", details.getCustomer());
     }
-
-    if (project.getEngineerID() > 0) {
-      personRepository
-          .findByID(project.getEngineerID())
-          .ifPresent(engineer -> model.addAttribute("engineer", engineer));
+    if (details.getEngineer() != null) {
+      model.addAttribute("engineer", details.getEngineer());
     }
-
-    if (project.getManagerID() > 0) {
-      personRepository
-          .findByID(project.getManagerID())
-          .ifPresent(manager -> model.addAttribute("manager", manager));
+    if (details.getManager() != null) {
+      model.addAttribute("manager", details.getManager());
     }
 
     return "projects/detail";
@@ -119,12 +121,7 @@ public class ProjectController {
     model.addAttribute("project", new ProjectFormData());
 
     // Load people by role for dropdowns
-    PersonRepository personRepository = new DatabasePersonRepository();
-    model.addAttribute("architects", personRepository.findByRole("architect"));
-    model.addAttribute("contractors", personRepository.findByRole("contractor"));
-    model.addAttribute("engineers", personRepository.findByRole("engineer"));
-    model.addAttribute("managers", personRepository.findByRole("manager"));
-    model.addAttribute("customers", personRepository.findByRole("customer"));
+    addRoleDropdowns(model);
 
     return "projects/create";
   }
@@ -159,12 +156,9 @@ public class ProjectController {
     request.setEngineerID(formData.getEngineerID());
     request.setManagerID(formData.getManagerID());
 
-    request.setAmountPaidToDate(0.0);
+    request.setAmountPaidToDate(Money.ZERO);
     request.setProjectFinalised(false);
 
-    ProjectService projectService =
-        new ProjectService(new DatabaseProjectRepository(), new DatabasePersonRepository());
-
     ProjectUpdateResult result = projectService.createProject(request);
 
     return "redirect:/projects";
@@ -202,14 +196,10 @@ public class ProjectController {
     formData.setContractorID(project.getContractorID());
     formData.setEngineerID(project.getEngineerID());
     formData.setManagerID(project.getManagerID());
+    formData.setVersion(project.getVersion());
 
     // Load people by role for dropdowns (same as create form)
-    PersonRepository personRepository = new DatabasePersonRepository();
-    model.addAttribute("architects", personRepository.findByRole("architect"));
-    model.addAttribute("contractors", personRepository.findByRole("contractor"));
-    model.addAttribute("engineers", personRepository.findByRole("engineer"));
-    model.addAttribute("managers", personRepository.findByRole("manager"));
-    model.addAttribute("customers", personRepository.findByRole("customer"));
+    addRoleDropdowns(model);
 
     model.addAttribute("project", formData);
     model.addAttribute("projectId", id);
@@ -217,14 +207,17 @@ public class ProjectController {
   }
 
   /**
-   * Processes project edit form submission.
+   * Processes project edit form submission. If someone else saved the project after the form was
+   * loaded, the form is shown again with their changes and a message instead of overwriting them.
    *
    * @param id the project's ID
    * @param formData updated form data
-   * @return redirects to project detail on success
+   * @param model Spring Model for error handling
+   * @return redirects to project detail on success, or back to the reloaded form on a conflict
    */
   @PostMapping("/{id}/edit")
-  public String updateProject(@PathVariable int id, @ModelAttribute ProjectFormData formData) {
+  public String updateProject(
+      @PathVariable int id, @ModelAttribute ProjectFormData formData, Model model) {
     ProjectUpdateRequest request = new ProjectUpdateRequest();
     request.setProjectName(formData.getProjectName());
     request.setBuildingType(formData.getBuildingType());
@@ -238,12 +231,14 @@ public class ProjectController {
     request.setContractorID(formData.getContractorID());
     request.setEngineerID(formData.getEngineerID());
     request.setManagerID(formData.getManagerID());
-
-    ProjectService projectService =
-        new ProjectService(new DatabaseProjectRepository(), new DatabasePersonRepository());
+    request.setVersion(formData.getVersion());
 
     ProjectUpdateResult result = projectService.updateProject(id, request);
 
+    if (result.isConflict()) {
+      model.addAttribute("errorMessage", result.getMessage());
+      return showEditForm(id, model);
+    }
     return "redirect:/projects/" + id;
   }
 
@@ -255,42 +250,73 @@ public class ProjectController {
    */
   @PostMapping("/{id}/delete")
   public String deleteProject(@PathVariable int id) {
-    ProjectService projectService =
-        new ProjectService(new DatabaseProjectRepository(), new DatabasePersonRepository());
-
     ProjectUpdateResult result = projectService.deleteProject(id);
 
     return "redirect:/projects";
   }
 
   /**
-   * Displays list of incomplete projects.
+   * Displays one page of incomplete projects.
    *
+   * @param after show projects with an ID greater than this (next page)
+   * @param before show projects with an ID less than this (previous page)
+   * @param size number of projects per page
    * @param model Spring Model for passing data to view
    * @return list.html template with filtered results
    */
   @GetMapping("/incomplete")
-  public String incompleteProjects(Model model) {
-    List<Projects> projects = projectRepository.getIncompleteProjects();
-    model.addAttribute("projects", projects);
-    model.addAttribute("pageTitle", "Incomplete Projects");
+  public String incompleteProjects(
+      @RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer before,
+      @RequestParam(required = false) Integer size,
+      Model model) {
+    KeysetPage<Projects> page =
+        projectRepository.getIncompleteProjectsPage(after, before, KeysetPage.clampPageSize(size));
+    addProjectPage(model, page, "Incomplete Projects", "/projects/incomplete");
     return "projects/list"; // Reuses existing template
   }
 
   /**
-   * Displays list of overdue projects.
+   * Displays one page of overdue projects, served from the in-memory overdue tracking.
    *
+   * @param after show projects with an ID greater than this (next page)
+   * @param before show projects with an ID less than this (previous page)
+   * @param size number of projects per page
    * @param model Spring Model for passing data to view
    * @return list.html template with filtered results
    */
   @GetMapping("/overdue")
-  public String overdueProjects(Model model) {
-    List<Projects> projects = projectRepository.getOverdueProjects();
-    model.addAttribute("projects", projects);
-    model.addAttribute("pageTitle", "Overdue Projects");
+  public String overdueProjects(
+      @RequestParam(required = false) Integer after,
+      @RequestParam(required = false) Integer before,
+      @RequestParam(required = false) Integer size,
+      Model model) {
+    KeysetPage<Projects> page =
+        overdueProjectTracker.getOverdueProjectsPage(
+            after, before, KeysetPage.clampPageSize(size));
+    addProjectPage(model, page, "Overdue Projects", "/projects/overdue");
     return "projects/list"; // Reuses existing template
   }
 
+  /**
+   * Displays fee totals and outstanding balances grouped by customer, building type or manager.
+   *
+   * @param by the grouping: customer (default), building_type or manager
+   * @param model Spring Model for passing data to view
+   * @return financials.html template
+   */
+  @GetMapping("/financials")
+  public String financials(@RequestParam(required = false) String by, Model model) {
+    FinancialDimension dimension = FinancialDimension.fromParameter(by);
+    if (dimension == null) {
+      dimension = FinancialDimension.CUSTOMER;
+    }
+    model.addAttribute("dimension", dimension);
+    model.addAttribute("dimensions", FinancialDimension.values());
+    model.addAttribute("summaries", projectRepository.getFinancialSummary(dimension));
+    return "projects/financials";
+  }
+
   /**
    * Displays the project search page.
    *
@@ -322,23 +348,28 @@ public class ProjectController {
   }
 
   /**
-   * Searches for a project by name.
+   * Searches for projects by part of their name or address, allowing for misspellings.
    *
-   * @param name the project's name to search for
-   * @param model Spring Model for error messages
-   * @return redirects to project detail if found, or back to search with error
+   * @param name what to search for
+   * @param model Spring Model for the matches or error messages
+   * @return redirects to project detail if exactly one project matches, otherwise the search page
+   *     listing the best matches
    */
   @GetMapping("/search/by-name")
   public String searchByName(@RequestParam String name, Model model) {
-    Optional<Projects> projectOptional = projectRepository.findByName(name);
+    List<Projects> matches = projectRepository.searchProjects(name, SEARCH_RESULTS);
 
-    if (projectOptional.isEmpty()) {
-      model.addAttribute("errorMessage", "Project not found with name: " + name);
+    if (matches.isEmpty()) {
+      model.addAttribute("errorMessage", "No projects match: " + name);
       return "projects/search";
     }
+    if (matches.size() == 1) {
+      return "redirect:/projects/" + matches.get(0).getProjectID();
+    }
 
-    Projects project = projectOptional.get();
-    return "redirect:/projects/" + project.getProjectID();
+    model.addAttribute("query", name);
+    model.addAttribute("results", matches);
+    return "projects/search";
   }
 
   /**
@@ -370,42 +401,61 @@ public class ProjectController {
 
   /**
    * Processes project finalisation form submission. Marks project as complete with the provided
-   * completion date.
+   * completion date. The WebSocket notification is published by the service and sent on the
+   * project event thread, after this request has been answered.
    *
    * @param id the project's ID
    * @param completionDate the date the project was completed
+   * @param version the version the form was shown with, if posted
    * @param model Spring Model for error handling
    * @return redirects to project detail on success, or back to form on error
    */
   @PostMapping("/{id}/finalise")
   public String finaliseProject(
-      @PathVariable int id, @RequestParam String completionDate, Model model) {
+      @PathVariable int id,
+      @RequestParam String completionDate,
+      @RequestParam(required = false) Integer version,
+      Model model) {
+    String errorMessage;
     try {
       java.sql.Date sqlDate = java.sql.Date.valueOf(completionDate);
 
-      ProjectService projectService =
-          new ProjectService(new DatabaseProjectRepository(), new DatabasePersonRepository());
-
-      ProjectUpdateResult result = projectService.finaliseProject(id, sqlDate);
+      ProjectUpdateResult result = projectService.finaliseProject(id, sqlDate, version);
 
       if (result.getSuccess()) {
-        Optional<Projects> projectOptional = projectRepository.findByID(id);
-        if (projectOptional.isPresent()) {
-          Projects project = projectOptional.get();
-          ProjectFinalisationMessage message =
-              new ProjectFinalisationMessage(project.projectID, project.projectName, "User");
-          messagingTemplate.convertAndSend(
-              "/topic/project/" + project.projectID + "/finalized", message);
-        }
         return "redirect:/projects/" + id;
-      } else {
-        model.addAttribute("errorMessage", result.getMessage());
-        return "projects/finalise";
       }
+      errorMessage = result.getMessage();
 
     } catch (IllegalArgumentException e) {
-      model.addAttribute("errorMessage", "Invalid date format");
-      return "projects/finalise";
+      errorMessage = "Invalid date format";
+    }
+    // the form needs the project again; only the failure path pays for this read
+    Optional<Projects> projectOptional = projectRepository.findByID(id);
+    if (projectOptional.isEmpty()) {
+      return "redirect:/projects";
     }
+    model.addAttribute("errorMessage", errorMessage);
+    model.addAttribute("project", projectOptional.get());
+    return "projects/finalise";
+  }
+
+  // adds the people for each role dropdown from one grouped lookup
+  private void addRoleDropdowns(Model model) {
+    Map<String, List<People>> peopleByRole = personRepository.findAllGroupedByRole();
+    model.addAttribute("architects", peopleByRole.get("architect"));
+    model.addAttribute("contractors", peopleByRole.get("contractor"));
+    model.addAttribute("engineers", peopleByRole.get("engineer"));
+    model.addAttribute("managers", peopleByRole.get("manager"));
+    model.addAttribute("customers", peopleByRole.get("customer"));
+  }
+
+  // model attributes shared by the paginated project list views
+  private void addProjectPage(
+      Model model, KeysetPage<Projects> page, String pageTitle, String pagePath) {
+    model.addAttribute("projects", page.getItems());
+    model.addAttribute("page", page);
+    model.addAttribute("pagePath", pagePath);
+    model.addAttribute("pageTitle", pageTitle);
   }
 }
@@ -0,0 +1,46 @@
+package com.richard.poise.web;
+
+import com.richard.poise.service.ProjectEvent;
+import com.richard.poise.service.ProjectEventListener;
+import com.richard.poise.service.ProjectFinalisationMessage;
+import com.richard.poise.service.ProjectListUpdate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forwards project events to WebSocket subscribers over STOMP. Runs on the project event thread,
+ * so the fan-out to connected clients happens after the HTTP response rather than before it.
+ * Each batch of events goes to the project list pages as one message on LIST_TOPIC, so a burst
+ * of changes costs every open list one frame rather than one per change.
+ */
+@Component
+public class ProjectEventBroadcaster implements ProjectEventListener {
+
+  static final String LIST_TOPIC = "/topic/projects";
+
+  private final SimpMessagingTemplate messagingTemplate;
+
+  public ProjectEventBroadcaster(SimpMessagingTemplate messagingTemplate) {
+    this.messagingTemplate = messagingTemplate;
+  }
+
+  @Override
+  public void onProjectEvents(List<ProjectEvent> events) {
+    List<ProjectListUpdate> listUpdates = new ArrayList<>(events.size());
+    for (ProjectEvent event : events) {
+      listUpdates.add(new ProjectListUpdate(event));
+      if (event.getType() == ProjectEvent.Type.FINALISED) {
+        ProjectFinalisationMessage message =
+            new ProjectFinalisationMessage(event.getProjectID(), event.getProjectName(), "User");
+        // when it was finalised, not when the message got through the queue
+        message.setTimestamp(event.getTimestamp());
+        messagingTemplate.convertAndSend(
+            "/topic/project/" + event.getProjectID() + "/finalized", message);
+      }
+    }
+    messagingTemplate.convertAndSend(LIST_TOPIC, listUpdates);
+  }
+}
@@ -0,0 +1,49 @@
+package com.richard.poise.web;
+
+import com.richard.poise.service.Suggestion;
+import com.richard.poise.service.TypeaheadIndex;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST endpoints for search-as-you-type in the project and people search boxes. Answered from the
+ * in-memory typeahead index, so a keystroke never waits on the database.
+ */
+@RestController
+public class SuggestionController {
+
+  private final TypeaheadIndex typeaheadIndex;
+
+  public SuggestionController(TypeaheadIndex typeaheadIndex) {
+    this.typeaheadIndex = typeaheadIndex;
+  }
+
+  /**
+   * Suggests projects for what has been typed so far.
+   *
+   * @param q the start of the project name or of a word in it
+   * @param limit the most suggestions to return, up to 50
+   * @return the suggestions as id/name pairs; empty for a blank query
+   */
+  @GetMapping("/api/projects/suggest")
+  public List<Suggestion> suggestProjects(
+      @RequestParam(defaultValue = "") String q, @RequestParam(defaultValue = "10") int limit) {
+    return typeaheadIndex.suggestProjects(q, limit);
+  }
+
+  /**
+   * Suggests people for what has been typed so far.
+   *
+   * @param q the start of the person's name or of a word in it
+   * @param limit the most suggestions to return, up to 50
+   * @return the suggestions as id/name pairs; empty for a blank query
+   */
+  @GetMapping("/api/people/suggest")
+  public List<Suggestion> suggestPeople(
+      @RequestParam(defaultValue = "") String q, @RequestParam(defaultValue = "10") int limit) {
+    return typeaheadIndex.suggestPeople(q, limit);
+  }
+}
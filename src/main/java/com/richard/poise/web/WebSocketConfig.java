@@ -1,18 +1,97 @@
 package com.richard.poise.web;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.tcp.TcpOperations;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+/**
+ * STOMP over WebSocket configuration. With poise.websocket.broker=simple (the default)
+ * subscriptions live in this instance's in-memory broker, which is enough for a single node. With
+ * poise.websocket.broker=relay every /topic message goes through an external STOMP broker, so a
+ * project finalised on one instance reaches viewers connected to any other.
+ *
+ * <p>The channel thread pools are bounded, and a client that stops reading is disconnected once its
+ * send buffer or send time limit is exceeded, so one slow browser can't hold up the others.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    static final String SIMPLE_BROKER = "simple";
+    static final String RELAY_BROKER = "relay";
+
+    @Value("${poise.websocket.broker:simple}")
+    private String broker;
+
+    @Value("${poise.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${poise.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${poise.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${poise.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${poise.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${poise.websocket.inbound.threads:4}")
+    private int inboundThreads;
+
+    @Value("${poise.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${poise.websocket.outbound.threads:8}")
+    private int outboundThreads;
+
+    @Value("${poise.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${poise.websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimit;
+
+    @Value("${poise.websocket.send-buffer-size-limit:262144}")
+    private int sendBufferSizeLimit;
+
+    // replaces the relay's TCP connection to the broker, e.g. with an in-process broker in tests
+    private final ObjectProvider<TcpOperations<byte[]>> relayTcpClient;
+
+    public WebSocketConfig(ObjectProvider<TcpOperations<byte[]>> relayTcpClient) {
+        this.relayTcpClient = relayTcpClient;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if (RELAY_BROKER.equals(broker)) {
+            StompBrokerRelayRegistration relay =
+                    config.enableStompBrokerRelay("/topic")
+                            .setRelayHost(relayHost)
+                            .setRelayPort(relayPort)
+                            .setClientLogin(relayLogin)
+                            .setClientPasscode(relayPasscode)
+                            .setSystemLogin(relayLogin)
+                            .setSystemPasscode(relayPasscode);
+            if (!relayVirtualHost.isEmpty()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            relayTcpClient.ifAvailable(relay::setTcpClient);
+        } else if (SIMPLE_BROKER.equals(broker)) {
+            config.enableSimpleBroker("/topic");
+        } else {
+            throw new IllegalStateException(
+                    "poise.websocket.broker must be simple or relay, not " + broker);
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -20,4 +99,27 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").withSockJS();
     }
-}
\ No newline at end of file
+
+    /** Frames received from browsers; fixed size, since these are only subscribes and pings. */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundThreads)
+                .maxPoolSize(inboundThreads)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    /** Messages fanned out to browsers, e.g. one list update per open project list. */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimit).setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+}
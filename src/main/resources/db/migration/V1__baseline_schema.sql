@@ -23,4 +23,4 @@ CREATE TABLE IF NOT EXISTS projects (
     manager_id INTEGER REFERENCES people(person_id),
     project_finalised BOOLEAN DEFAULT FALSE,
     completion_date DATE
-);
\ No newline at end of file
+);
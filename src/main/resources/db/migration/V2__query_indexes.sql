@@ -0,0 +1,17 @@
+-- Open projects by deadline (overdue page); the incomplete list filters on the same predicate
+CREATE INDEX IF NOT EXISTS idx_projects_open_deadline
+    ON projects (project_deadline) WHERE NOT project_finalised;
+CREATE INDEX IF NOT EXISTS idx_projects_open_id
+    ON projects (project_id) WHERE NOT project_finalised;
+
+-- Case-insensitive name and role lookups
+CREATE INDEX IF NOT EXISTS idx_projects_lower_name ON projects (LOWER(project_name));
+CREATE INDEX IF NOT EXISTS idx_people_lower_name ON people (LOWER(person_name));
+CREATE INDEX IF NOT EXISTS idx_people_lower_role ON people (LOWER(role));
+
+-- Foreign keys: linked-project lookups, customer checks and person deletes
+CREATE INDEX IF NOT EXISTS idx_projects_architect_id ON projects (architect_id);
+CREATE INDEX IF NOT EXISTS idx_projects_contractor_id ON projects (contractor_id);
+CREATE INDEX IF NOT EXISTS idx_projects_customer_id ON projects (customer_id);
+CREATE INDEX IF NOT EXISTS idx_projects_engineer_id ON projects (engineer_id);
+CREATE INDEX IF NOT EXISTS idx_projects_manager_id ON projects (manager_id);
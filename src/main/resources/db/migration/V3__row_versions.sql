@@ -0,0 +1,4 @@
+-- Row versions for optimistic concurrency: every update bumps the version, and edits made from
+-- a version that has since moved on are rejected instead of overwriting the newer row
+ALTER TABLE people ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- Fees are exact fixed-point amounts (BigDecimal in the application). Widen them to the
+-- DECIMAL(15, 2) the documented schema has always declared, and the summary sums to match.
+ALTER TABLE projects ALTER COLUMN total_fee TYPE DECIMAL(15, 2);
+ALTER TABLE projects ALTER COLUMN amount_paid_to_date TYPE DECIMAL(15, 2);
+
+ALTER TABLE project_financial_summary ALTER COLUMN total_fee TYPE NUMERIC(20, 2);
+ALTER TABLE project_financial_summary ALTER COLUMN amount_paid TYPE NUMERIC(20, 2);
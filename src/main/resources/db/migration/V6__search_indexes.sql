@@ -0,0 +1,22 @@
+-- Ranked partial and fuzzy search over projects and people. The trigram (pg_trgm) indexes serve
+-- substring matches (LIKE '%term%') and similarity matches (% and %>); the tsvector indexes
+-- serve word-prefix matches in any order. The indexed expressions must stay identical to the
+-- ones in the repositories' search queries. pg_trgm ships with PostgreSQL; creating the
+-- extension needs a role allowed to do so (or an administrator to create it first).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_projects_name_trgm
+    ON projects USING GIN (LOWER(project_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_projects_address_trgm
+    ON projects USING GIN (LOWER(project_address) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_projects_search_tsv
+    ON projects USING GIN (to_tsvector('simple', COALESCE(project_name, '') || ' ' || COALESCE(project_address, '')));
+
+CREATE INDEX IF NOT EXISTS idx_people_name_trgm
+    ON people USING GIN (LOWER(person_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_people_email_trgm
+    ON people USING GIN (LOWER(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_people_phone_trgm
+    ON people USING GIN (LOWER(phone) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_people_search_tsv
+    ON people USING GIN (to_tsvector('simple', COALESCE(person_name, '')));
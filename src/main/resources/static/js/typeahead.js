@@ -0,0 +1,34 @@
+// Search-as-you-type: fills the datalist of each input with a data-suggest URL from that
+// endpoint as the user types. Waits for a short pause in typing, and drops answers to anything
+// but the latest request so a slow answer can't replace a newer one.
+document.querySelectorAll('input[data-suggest]').forEach(function (input) {
+    const list = document.getElementById(input.getAttribute('list'));
+    let timer;
+    let latest = 0;
+
+    input.addEventListener('input', function () {
+        clearTimeout(timer);
+        const query = input.value.trim();
+        if (!query) {
+            list.replaceChildren();
+            return;
+        }
+        timer = setTimeout(function () {
+            const request = ++latest;
+            fetch(input.dataset.suggest + '?q=' + encodeURIComponent(query))
+                .then(function (response) {
+                    return response.ok ? response.json() : [];
+                })
+                .then(function (suggestions) {
+                    if (request !== latest) {
+                        return;
+                    }
+                    list.replaceChildren(...suggestions.map(function (suggestion) {
+                        const option = document.createElement('option');
+                        option.value = suggestion.name;
+                        return option;
+                    }));
+                });
+        }, 50);
+    });
+});
@@ -0,0 +1,96 @@
+package com.richard.poise.config;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DatabaseInitialiserTest {
+
+  private Resource script(String fileName) {
+    return new ByteArrayResource(new byte[0]) {
+      @Override
+      public String getFilename() {
+        return fileName;
+      }
+    };
+  }
+
+  @Test
+  void findMigrations_returnsBundledScriptsInVersionOrder() throws Exception {
+    List<DatabaseInitialiser.Migration> migrations = DatabaseInitialiser.findMigrations();
+
+    assertTrue(migrations.size() >= 2);
+    assertEquals(1, migrations.get(0).version);
+    assertEquals("baseline schema", migrations.get(0).description);
+    assertEquals(2, migrations.get(1).version);
+    for (int i = 1; i < migrations.size(); i++) {
+      assertTrue(migrations.get(i).version > migrations.get(i - 1).version);
+    }
+  }
+
+  @Test
+  void financialSummaryMigration_keepsTheTriggerFunctionInOneStatement() throws Exception {
+    DatabaseInitialiser.Migration migration =
+        DatabaseInitialiser.findMigrations().stream()
+            .filter(candidate -> candidate.version == 4)
+            .findFirst()
+            .get();
+    Connection connection = mock(Connection.class);
+    Statement statement = mock(Statement.class);
+    when(connection.createStatement()).thenReturn(statement);
+
+    // runs the script the way DatabaseInitialiser does and records what reaches the database
+    ScriptUtils.executeSqlScript(connection, migration.script);
+
+    ArgumentCaptor<String> executed = ArgumentCaptor.forClass(String.class);
+    verify(statement, atLeastOnce()).execute(executed.capture());
+    List<String> statements = executed.getAllValues();
+    String function =
+        statements.stream()
+            .filter(sql -> sql.startsWith("CREATE OR REPLACE FUNCTION"))
+            .findFirst()
+            .get();
+    assertTrue(function.contains("END IF"), function);
+    assertEquals(9, statements.size());
+  }
+
+  @Test
+  void migrationFrom_ignoresFilesOutsideTheNamingScheme() {
+    assertNull(DatabaseInitialiser.Migration.from(script("schema.sql")));
+    assertNull(DatabaseInitialiser.Migration.from(script("V2_missing_separator.sql")));
+  }
+
+  @Test
+  void sorted_ordersNumericallyNotAlphabetically() {
+    List<DatabaseInitialiser.Migration> migrations =
+        DatabaseInitialiser.sorted(
+            List.of(
+                DatabaseInitialiser.Migration.from(script("V10__later.sql")),
+                DatabaseInitialiser.Migration.from(script("V9__earlier.sql"))));
+
+    assertEquals(9, migrations.get(0).version);
+    assertEquals(10, migrations.get(1).version);
+  }
+
+  @Test
+  void sorted_rejectsDuplicateVersions() {
+    List<DatabaseInitialiser.Migration> migrations =
+        List.of(
+            DatabaseInitialiser.Migration.from(script("V3__one.sql")),
+            DatabaseInitialiser.Migration.from(script("V3__other.sql")));
+
+    assertThrows(IllegalStateException.class, () -> DatabaseInitialiser.sorted(migrations));
+  }
+}
@@ -3,13 +3,15 @@ package com.richard.poise.model;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.math.BigDecimal;
+
 public class ProjectsTest {
 
   @Test
   void testFormattedTotalFee() {
     // Arrange - set up test data
     Projects project = new Projects(1, "Test Project", false);
-    project.setTotalFee(1234.56);
+    project.setTotalFee(new BigDecimal("1234.56"));
 
     // Act - run the method we're testing
     String formatted = project.getFormattedTotalFee();
@@ -22,7 +24,7 @@ public class ProjectsTest {
   void testFormattedAmountPaidToDate() {
     // Arrange - set up test data
     Projects project = new Projects(1, "Test Project", false);
-    project.setAmountPaidToDate(999.99);
+    project.setAmountPaidToDate(new BigDecimal("999.99"));
 
     // Act - run the method we're testing
     String formatted = project.getFormattedAmountPaidToDate();
@@ -31,6 +33,36 @@ public class ProjectsTest {
     assertEquals("999.99", formatted);
   }
 
+  @Test
+  void testFeesAreStoredTo2dp() {
+    Projects project = new Projects(1, "Test Project", false);
+
+    project.setTotalFee(new BigDecimal("1234.5"));
+    project.setAmountPaidToDate(new BigDecimal("0.125"));
+
+    assertEquals(new BigDecimal("1234.50"), project.getTotalFee());
+    assertEquals("1234.50", project.getFormattedTotalFee());
+    assertEquals("0.13", project.getFormattedAmountPaidToDate());
+  }
+
+  @Test
+  void testFeesDefaultToZero() {
+    Projects project = new Projects(1, "Test Project", false);
+
+    assertEquals("0.00", project.getFormattedTotalFee());
+    assertEquals(Money.ZERO, project.getAmountPaidToDate());
+  }
+
+  @Test
+  void testFormattedFeeNeverUsesExponentNotation() {
+    Projects project = new Projects(1, "Test Project", false);
+    project.setTotalFee(new BigDecimal("1E+7"));
+    project.setAmountPaidToDate(new BigDecimal("1E-9"));
+
+    assertEquals("10000000.00", project.getFormattedTotalFee());
+    assertEquals("0.00", project.getFormattedAmountPaidToDate());
+  }
+
   @Test
   void testProjectFinalisedFalse() {
     Projects project = new Projects(1, "Test Project", false);
@@ -48,4 +80,13 @@ public class ProjectsTest {
 
     assertTrue(finalised);
   }
+
+  @Test
+  void testSetEngineerID() {
+    Projects project = new Projects(1, "Test Project", false);
+
+    project.setEngineerID(7);
+
+    assertEquals(7, project.getEngineerID());
+  }
 }
@@ -0,0 +1,134 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.People;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingPersonRepositoryTest {
+
+  @Mock private PersonRepository delegateMockRepository;
+
+  private CachingPersonRepository cachingRepository;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    cachingRepository =
+        new CachingPersonRepository(delegateMockRepository, 100, 5, TimeUnit.MINUTES);
+  }
+
+  private People person(int personID, String name) {
+    return new People(
+        personID, name, "0123456789", "person@example.com", "1 Main Street", "architect");
+  }
+
+  @Test
+  void findByID_secondCall_isServedFromCache() {
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(person(1, "Alice")));
+
+    cachingRepository.findByID(1);
+    Optional<People> second = cachingRepository.findByID(1);
+
+    assertEquals("Alice", second.get().getPersonName());
+    verify(delegateMockRepository, times(1)).findByID(1);
+  }
+
+  @Test
+  void findByID_returnsCopies_soCallerChangesDontLeakIntoCache() {
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(person(1, "Alice")));
+
+    cachingRepository.findByID(1).get().setPersonName("Changed by caller");
+
+    assertEquals("Alice", cachingRepository.findByID(1).get().getPersonName());
+  }
+
+  @Test
+  void findAllByIDs_onlyQueriesCacheMisses() {
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(person(1, "Alice")));
+    when(delegateMockRepository.findAllByIDs(List.of(2, 3)))
+        .thenReturn(Map.of(2, person(2, "Bob"), 3, person(3, "Carol")));
+
+    cachingRepository.findByID(1);
+    Map<Integer, People> found = cachingRepository.findAllByIDs(List.of(1, 2, 3, 2));
+
+    assertEquals(3, found.size());
+    assertEquals("Alice", found.get(1).getPersonName());
+    verify(delegateMockRepository).findAllByIDs(List.of(2, 3));
+  }
+
+  @Test
+  void findAllByIDs_allCached_doesNotQueryDelegate() {
+    when(delegateMockRepository.findAllByIDs(List.of(1, 2)))
+        .thenReturn(Map.of(1, person(1, "Alice"), 2, person(2, "Bob")));
+
+    cachingRepository.findAllByIDs(List.of(1, 2));
+    Map<Integer, People> found = cachingRepository.findAllByIDs(List.of(2, 1));
+
+    assertEquals("Bob", found.get(2).getPersonName());
+    verify(delegateMockRepository, times(1)).findAllByIDs(anyCollection());
+    verify(delegateMockRepository, never()).findByID(anyInt());
+  }
+
+  @Test
+  void updatePersonData_invalidatesCachedPerson() {
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(person(1, "Alice")));
+    when(delegateMockRepository.updatePersonData(1, "Alicia", "1", "a@b.c", "Addr", "engineer"))
+        .thenReturn(true);
+
+    cachingRepository.findByID(1);
+    cachingRepository.updatePersonData(1, "Alicia", "1", "a@b.c", "Addr", "engineer");
+    cachingRepository.findByID(1);
+
+    verify(delegateMockRepository, times(2)).findByID(1);
+  }
+
+  @Test
+  void deletePersonData_invalidatesCachedPerson() {
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(person(1, "Alice")));
+    when(delegateMockRepository.deletePersonData(1)).thenReturn(true);
+
+    cachingRepository.findByID(1);
+    cachingRepository.deletePersonData(1);
+    cachingRepository.findByID(1);
+
+    verify(delegateMockRepository, times(2)).findByID(1);
+  }
+
+  @Test
+  void findAllGroupedByRole_isCachedUntilAPersonIsWritten() {
+    when(delegateMockRepository.findAllGroupedByRole())
+        .thenReturn(Map.of("architect", List.of(person(1, "Alice"))));
+    when(delegateMockRepository.deletePersonData(2)).thenReturn(true);
+
+    cachingRepository.findAllGroupedByRole();
+    cachingRepository.findAllGroupedByRole();
+    verify(delegateMockRepository, times(1)).findAllGroupedByRole();
+
+    cachingRepository.deletePersonData(2);
+    cachingRepository.findAllGroupedByRole();
+    verify(delegateMockRepository, times(2)).findAllGroupedByRole();
+  }
+
+  @Test
+  void findAllGroupedByRole_expiresWithTheOtherEntries() {
+    CachingPersonRepository expiring =
+        new CachingPersonRepository(delegateMockRepository, 100, 0, TimeUnit.MINUTES);
+    when(delegateMockRepository.findAllGroupedByRole())
+        .thenReturn(Map.of("architect", List.of(person(1, "Alice"))));
+
+    expiring.findAllGroupedByRole();
+    expiring.findAllGroupedByRole();
+
+    verify(delegateMockRepository, times(2)).findAllGroupedByRole();
+  }
+}
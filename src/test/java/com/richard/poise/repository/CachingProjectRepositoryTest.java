@@ -0,0 +1,93 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.Projects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingProjectRepositoryTest {
+
+  @Mock private ProjectRepository delegateMockRepository;
+
+  private CachingProjectRepository cachingRepository;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    cachingRepository =
+        new CachingProjectRepository(delegateMockRepository, 100, 5, TimeUnit.MINUTES);
+  }
+
+  private Projects project(String name) {
+    return new Projects(
+        1,
+        name,
+        "House",
+        "1 Main Street",
+        2,
+        new BigDecimal("1000.00"),
+        new BigDecimal("100.00"),
+        java.sql.Date.valueOf("2025-12-31"),
+        1,
+        2,
+        3,
+        4,
+        5,
+        false,
+        null);
+  }
+
+  @Test
+  void findByID_secondCall_isServedFromCache() {
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(project("House")));
+
+    cachingRepository.findByID(1);
+    Optional<Projects> second = cachingRepository.findByID(1);
+
+    assertEquals("House", second.get().getProjectName());
+    verify(delegateMockRepository, times(1)).findByID(1);
+  }
+
+  @Test
+  void findByID_returnsCopies_soCallerChangesDontLeakIntoCache() {
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(project("House")));
+
+    cachingRepository.findByID(1).get().setProjectName("Changed by caller");
+
+    assertEquals("House", cachingRepository.findByID(1).get().getProjectName());
+  }
+
+  @Test
+  void finaliseProjectData_invalidatesCachedProject() {
+    java.sql.Date finalisedDate = java.sql.Date.valueOf("2025-10-01");
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(project("House")));
+    when(delegateMockRepository.finaliseProjectData(1, finalisedDate, null))
+        .thenReturn(Optional.of("House"));
+
+    cachingRepository.findByID(1);
+    cachingRepository.finaliseProjectData(1, finalisedDate, null);
+    cachingRepository.findByID(1);
+
+    verify(delegateMockRepository, times(2)).findByID(1);
+  }
+
+  @Test
+  void deleteProjectData_invalidatesCachedProject() {
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.of(project("House")));
+    when(delegateMockRepository.deleteProjectData(1)).thenReturn(true);
+
+    cachingRepository.findByID(1);
+    cachingRepository.deleteProjectData(1);
+    when(delegateMockRepository.findByID(1)).thenReturn(Optional.empty());
+
+    assertTrue(cachingRepository.findByID(1).isEmpty());
+  }
+}
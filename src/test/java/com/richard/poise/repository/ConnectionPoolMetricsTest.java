@@ -0,0 +1,36 @@
+package com.richard.poise.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolMetricsTest {
+
+  @Test
+  void recordAcquire_placesTimesInCorrectBuckets() {
+    ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+
+    metrics.recordAcquire(TimeUnit.MICROSECONDS.toNanos(200)); // < 1ms
+    metrics.recordAcquire(TimeUnit.MILLISECONDS.toNanos(7)); // < 10ms
+    metrics.recordAcquire(TimeUnit.SECONDS.toNanos(3)); // open-ended bucket
+
+    long[] histogram = metrics.getAcquireHistogram();
+    assertEquals(1, histogram[0]);
+    assertEquals(1, histogram[3]);
+    assertEquals(1, histogram[histogram.length - 1]);
+  }
+
+  @Test
+  void snapshot_withoutPool_reportsZeroConnections() {
+    ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+
+    Map<String, Object> snapshot = metrics.snapshot();
+
+    assertEquals(0, snapshot.get("active"));
+    assertEquals(0, snapshot.get("waiters"));
+    assertEquals(0L, snapshot.get("acquireCount"));
+  }
+}
@@ -0,0 +1,23 @@
+package com.richard.poise.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabasePersonRepositoryTest {
+
+  @Test
+  void projectAssignmentsSQL_hasOneIndexedBranchPerRole() {
+    String sql = DatabasePersonRepository.PROJECT_ASSIGNMENTS_SQL;
+
+    assertEquals(
+        PersonRepository.PROJECT_ROLES.size() - 1, sql.split(" UNION ALL ", -1).length - 1);
+    for (String role : PersonRepository.PROJECT_ROLES) {
+      assertTrue(
+          sql.contains(
+              "'" + role + "' AS role_on_project FROM projects WHERE " + role + "_id = ?"));
+    }
+    assertFalse(sql.contains(" OR "));
+    assertTrue(sql.endsWith("ORDER BY project_id, role_on_project"));
+  }
+}
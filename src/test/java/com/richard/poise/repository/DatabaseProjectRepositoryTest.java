@@ -0,0 +1,116 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.Money;
+import com.richard.poise.model.Projects;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseProjectRepositoryTest {
+
+  @Test
+  void importColumns_leaveUnassignedMembersAndMissingDatesNull() {
+    Projects project =
+        new Projects(
+            0,
+            "House",
+            "Home",
+            null,
+            3,
+            new BigDecimal("10000000"),
+            new BigDecimal("0.5"),
+            Date.valueOf("2025-12-31"),
+            1,
+            0,
+            2,
+            -1,
+            0,
+            false,
+            null);
+
+    String[] columns = DatabaseProjectRepository.importColumns(project);
+
+    assertArrayEquals(
+        new String[] {
+          "House", "Home", null, "3", "10000000.00", "0.50", "2025-12-31", "1", null, "2", null,
+          null, "false", null
+        },
+        columns);
+  }
+
+  @Test
+  void mergeImportSQL_checksEveryTeamMemberAndNumbersRowsInFileOrder() {
+    String sql = DatabaseProjectRepository.MERGE_IMPORT_SQL;
+
+    for (String role : PersonRepository.PROJECT_ROLES) {
+      assertTrue(
+          sql.contains("EXISTS (SELECT 1 FROM people p WHERE p.person_id = s." + role + "_id)"));
+    }
+    assertFalse(sql.contains("(s.customer_id IS NULL"));
+    assertTrue(sql.contains("FROM (SELECT * FROM import_projects ORDER BY row_no) s"));
+    assertTrue(sql.endsWith("SELECT row_no, new_project_id FROM valid"));
+  }
+
+  @Test
+  void importStaging_holdsEveryFeeTheProjectsTableDoes() throws IOException {
+    String migration;
+    try (InputStream in =
+        getClass().getResourceAsStream("/db/migration/V5__money_precision.sql")) {
+      migration = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    String staging = DatabaseProjectRepository.CREATE_IMPORT_STAGING_SQL;
+
+    for (String column : List.of("total_fee", "amount_paid_to_date")) {
+      assertTrue(migration.contains("ALTER COLUMN " + column + " TYPE DECIMAL(15, 2)"));
+      assertTrue(staging.contains(" " + column + " DECIMAL(15, 2)"), column);
+    }
+    // the largest fee import validation accepts
+    assertEquals(13, Money.MAX.precision() - Money.MAX.scale());
+  }
+
+  @Test
+  void csvValue_isAlwaysQuotedSoEmptyStringsArentNull() {
+    assertEquals("\"\"", CopyImport.csvValue(""));
+    assertEquals("\"a \"\"b\"\", c\"", CopyImport.csvValue("a \"b\", c"));
+  }
+
+  @Test
+  void patchSQL_setsOnlyTheChangedColumns() {
+    ProjectPatch patch = new ProjectPatch();
+    patch.setAmountPaidToDate(new BigDecimal("2500.00"));
+    patch.setEngineerID(0);
+    List<String> columns = new ArrayList<>();
+    List<Object> values = new ArrayList<>();
+
+    DatabaseProjectRepository.patchColumns(patch, columns, values);
+
+    assertEquals(List.of("amount_paid_to_date", "engineer_id"), columns);
+    assertEquals(Arrays.asList(new BigDecimal("2500.00"), null), values);
+    assertEquals(
+        "UPDATE projects SET amount_paid_to_date = ?, engineer_id = ?, version = version + 1"
+            + " WHERE project_id = ? RETURNING *",
+        DatabaseProjectRepository.patchSQL(columns, false));
+    assertEquals(
+        "UPDATE projects SET amount_paid_to_date = ?, engineer_id = ?, version = version + 1"
+            + " WHERE project_id = ? AND version = ? RETURNING *",
+        DatabaseProjectRepository.patchSQL(columns, true));
+  }
+
+  @Test
+  void finaliseSQL_onlyMatchesOpenProjectsAndReturnsTheName() {
+    assertEquals(
+        "UPDATE projects SET project_finalised = TRUE, completion_date = ?,"
+            + " version = version + 1 WHERE project_id = ? AND NOT project_finalised"
+            + " AND version = ? RETURNING project_name",
+        DatabaseProjectRepository.finaliseSQL(true));
+  }
+}
@@ -0,0 +1,168 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.Money;
+import com.richard.poise.model.People;
+import com.richard.poise.model.ProjectAssignment;
+import com.richard.poise.model.Projects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryPersonRepositoryTest {
+
+  private static final BigDecimal FEE = new BigDecimal("1000.00");
+
+  private InMemoryPersonRepository personRepository;
+  private InMemoryProjectRepository projectRepository;
+
+  @BeforeEach
+  void setUp() {
+    InMemoryStore store = new InMemoryStore();
+    store.replaceAll(
+        List.of(
+            new People(1, "Alice", "1", "a@example.com", "1 Street", "Architect"),
+            new People(2, "Bob", "2", "b@example.com", "2 Street", "customer"),
+            new People(3, "Carol", "3", "c@example.com", "3 Street", "engineer")),
+        List.of(
+            new Projects(
+                1, "House", "House", "Site", 1, FEE, Money.ZERO, null, 1, 0, 2, 3, 1, false, null),
+            new Projects(
+                2, "Office", "Office", "Site", 2, FEE, Money.ZERO, null, 0, 0, 2, 3, 0, false,
+                null)));
+    personRepository = new InMemoryPersonRepository(store);
+    projectRepository = new InMemoryProjectRepository(store);
+  }
+
+  @Test
+  void searchPeople_matchesPartialNamesEmailsAndPhones() {
+    assertEquals(List.of(1), ids(personRepository.searchPeople("ali", 10)));
+    // other addresses at the same domain are near misses, ranked below the substring match
+    assertEquals(3, personRepository.searchPeople("C@EXAMPLE", 10).get(0).getPersonID());
+    assertEquals(List.of(2), ids(personRepository.searchPeople("bobb", 10)));
+    assertEquals(List.of(1, 2), ids(personRepository.searchPeople("example.com", 2)));
+    assertTrue(personRepository.searchPeople("zebra", 10).isEmpty());
+  }
+
+  private static List<Integer> ids(List<People> people) {
+    return people.stream().map(People::getPersonID).collect(Collectors.toList());
+  }
+
+  @Test
+  void findPage_pagesByIDAndIsEmptyPastTheEndsOfTheRange() {
+    KeysetPage<People> first = personRepository.findPage(null, null, 2);
+    KeysetPage<People> second = personRepository.findPage(first.getNextCursor(), null, 2);
+
+    assertEquals(List.of(1, 2), ids(first.getItems()));
+    assertEquals(List.of(3), ids(second.getItems()));
+    assertTrue(personRepository.findPage(Integer.MAX_VALUE, null, 2).getItems().isEmpty());
+    assertTrue(personRepository.findPage(null, Integer.MIN_VALUE, 2).getItems().isEmpty());
+  }
+
+  @Test
+  void findByRole_isCaseInsensitive() {
+    List<People> architects = personRepository.findByRole("ARCHITECT");
+
+    assertEquals(1, architects.size());
+    assertEquals("Alice", architects.get(0).getPersonName());
+  }
+
+  @Test
+  void updatePersonData_movesPersonBetweenRoleIndexes() {
+    personRepository.updatePersonData(3, "Carol", "3", "c@example.com", "3 Street", "manager");
+
+    Map<String, List<People>> grouped = personRepository.findAllGroupedByRole();
+    assertTrue(grouped.get("engineer").isEmpty());
+    assertEquals(3, grouped.get("manager").get(0).getPersonID());
+    assertEquals(PersonRepository.PROJECT_ROLES, List.copyOf(grouped.keySet()));
+  }
+
+  @Test
+  void findProjectAssignments_listsEveryRoleOnEveryProject() {
+    List<ProjectAssignment> assignments = personRepository.findProjectAssignments(1);
+
+    assertEquals(2, assignments.size());
+    assertEquals("architect", assignments.get(0).getRoleOnProject());
+    assertEquals("manager", assignments.get(1).getRoleOnProject());
+    assertEquals(1, assignments.get(1).getProjectID());
+  }
+
+  @Test
+  void deletePersonData_refusesCustomersOnProjects() {
+    assertTrue(personRepository.isCustomerInProjects(2));
+    assertFalse(personRepository.deletePersonData(2));
+    assertTrue(personRepository.findByID(2).isPresent());
+  }
+
+  @Test
+  void deletePersonData_unassignsOtherTeamMembers() {
+    assertTrue(personRepository.deletePersonData(3));
+
+    assertTrue(personRepository.findByID(3).isEmpty());
+    assertEquals(0, projectRepository.findByID(1).get().getEngineerID());
+    assertEquals(0, projectRepository.findByID(2).get().getEngineerID());
+    assertTrue(personRepository.findProjectAssignments(3).isEmpty());
+  }
+
+  @Test
+  void findAllByIDs_ignoresMissingAndInvalidIDs() {
+    Map<Integer, People> found = personRepository.findAllByIDs(List.of(1, 3, 42, 0));
+
+    assertEquals(2, found.size());
+    assertEquals("Carol", found.get(3).getPersonName());
+  }
+
+  @Test
+  void createPersonData_assignsNextID() {
+    int personID =
+        personRepository.createPersonData("Dan", "4", "d@example.com", "4 St", "manager");
+
+    assertEquals(4, personID);
+    assertEquals("Dan", personRepository.findByName("dan").get().getPersonName());
+  }
+
+  @Test
+  void updatePeopleData_reportsMissingPeople() {
+    People renamed = personRepository.findByID(1).get();
+    renamed.setPersonName("Alicia");
+    People missing = new People(42, "Nobody", "0", "n@example.com", "0 St", "manager");
+
+    boolean[] updated = personRepository.updatePeopleData(List.of(renamed, missing));
+
+    assertArrayEquals(new boolean[] {true, false}, updated);
+    assertEquals("Alicia", personRepository.findByID(1).get().getPersonName());
+    assertTrue(personRepository.findByID(42).isEmpty());
+  }
+
+  @Test
+  void patchPersonData_movesPersonBetweenRoleIndexes() {
+    PersonPatch patch = new PersonPatch();
+    patch.setRole("manager");
+
+    People updated = personRepository.patchPersonData(3, patch).get();
+
+    assertEquals("Carol", updated.getPersonName());
+    assertTrue(personRepository.findByRole("manager").stream().anyMatch(p -> p.getPersonID() == 3));
+    assertTrue(personRepository.patchPersonData(42, patch).isEmpty());
+  }
+
+  @Test
+  void updatePeopleData_skipsPeopleChangedSinceTheyWereRead() {
+    People stale = personRepository.findByID(1).get();
+    PersonPatch patch = new PersonPatch();
+    patch.setPhone("999");
+    personRepository.patchPersonData(1, patch);
+    stale.setPersonName("Alicia");
+
+    assertArrayEquals(new boolean[] {false}, personRepository.updatePeopleData(List.of(stale)));
+    People stored = personRepository.findByID(1).get();
+    assertEquals("999", stored.getPhone());
+    assertEquals("Alice", stored.getPersonName());
+    assertEquals(1, stored.getVersion());
+  }
+}
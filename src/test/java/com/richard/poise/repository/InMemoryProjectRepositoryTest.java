@@ -0,0 +1,275 @@
+package com.richard.poise.repository;
+
+import com.richard.poise.model.FinancialDimension;
+import com.richard.poise.model.FinancialSummary;
+import com.richard.poise.model.Money;
+import com.richard.poise.model.People;
+import com.richard.poise.model.ProjectDetails;
+import com.richard.poise.model.Projects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryProjectRepositoryTest {
+
+  private InMemoryStore store;
+  private InMemoryProjectRepository projectRepository;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryStore();
+    store.replaceAll(
+        List.of(
+            new People(1, "Alice", "1", "a@example.com", "1 Street", "Architect"),
+            new People(2, "Bob", "2", "b@example.com", "2 Street", "customer")),
+        List.of(
+            project(1, "House", Date.valueOf(LocalDate.now().minusDays(5)), false),
+            project(2, "Office", Date.valueOf(LocalDate.now().plusDays(5)), false),
+            project(3, "Shop", Date.valueOf(LocalDate.now().minusDays(30)), true)));
+    projectRepository = new InMemoryProjectRepository(store);
+  }
+
+  private Projects project(int projectID, String name, Date deadline, boolean finalised) {
+    return new Projects(
+        projectID, name, "House", "Site", 1, new BigDecimal("1000.00"), Money.ZERO, deadline, 1,
+        0, 2, 0, 0, finalised, null);
+  }
+
+  private List<Integer> ids(List<Projects> projects) {
+    return projects.stream().map(Projects::getProjectID).collect(Collectors.toList());
+  }
+
+  @Test
+  void findByID_returnsCopy() {
+    projectRepository.findByID(1).get().setProjectName("Changed by caller");
+
+    assertEquals("House", projectRepository.findByID(1).get().getProjectName());
+  }
+
+  @Test
+  void searchProjects_ranksExactThenPrefixThenPartialAndFuzzyMatches() {
+    Projects shop = project(3, "Shop House", null, false);
+    shop.setProjectAddress("12 Harbour Road");
+    store.replaceAll(
+        List.of(
+            new People(1, "Alice", "1", "a@example.com", "1 Street", "Architect"),
+            new People(2, "Bob", "2", "b@example.com", "2 Street", "customer")),
+        List.of(project(1, "House", null, false), project(2, "House Office", null, false), shop));
+
+    assertEquals(List.of(1, 2, 3), ids(projectRepository.searchProjects("house", 10)));
+    assertEquals(List.of(1), ids(projectRepository.searchProjects("HOUSE ", 1)));
+    assertEquals(List.of(3), ids(projectRepository.searchProjects("harbor road", 10)));
+    assertEquals(3, projectRepository.searchProjects("house shop", 10).get(0).getProjectID());
+    assertTrue(projectRepository.searchProjects("garden", 10).isEmpty());
+    assertTrue(projectRepository.searchProjects(" ", 10).isEmpty());
+  }
+
+  @Test
+  void searchProjects_treatsAMissingAddressAsEmpty() {
+    Projects noAddress = project(4, "Barn", null, false);
+    noAddress.setProjectAddress(null);
+    store.replaceAll(List.of(), List.of(noAddress));
+
+    assertEquals(List.of(4), ids(projectRepository.searchProjects("barn", 10)));
+    assertTrue(projectRepository.searchProjects("null", 10).isEmpty());
+    assertTrue(projectRepository.searchProjects("nul", 10).isEmpty());
+  }
+
+  @Test
+  void findByName_isCaseInsensitive() {
+    assertEquals(2, projectRepository.findByName("oFFICE").get().getProjectID());
+    assertTrue(projectRepository.findByName("Missing").isEmpty());
+  }
+
+  @Test
+  void incompleteAndOverdue_useFinalisedFlagAndDeadline() {
+    assertEquals(List.of(1, 2), ids(projectRepository.getIncompleteProjects()));
+    assertEquals(List.of(1), ids(projectRepository.getOverdueProjects()));
+    assertEquals(
+        List.of(1), ids(projectRepository.getOverdueProjectsPage(null, null, 10).getItems()));
+    assertEquals(List.of(1, 2), ids(projectRepository.getOpenProjectDeadlines()));
+    assertNotNull(projectRepository.getOpenProjectDeadlines().get(0).getProjectDeadline());
+  }
+
+  @Test
+  void getFinancialSummary_groupsFeesAndNamesPeople() {
+    Projects paid = project(4, "Barn", null, false);
+    paid.setBuildingType("Barn");
+    paid.setAmountPaidToDate(new BigDecimal("1000.00"));
+    paid.setManagerID(1);
+    store.write(
+        editor -> {
+          editor.putProject(paid);
+          return null;
+        });
+
+    List<FinancialSummary> byCustomer =
+        projectRepository.getFinancialSummary(FinancialDimension.CUSTOMER);
+    assertEquals(1, byCustomer.size());
+    assertEquals("Bob", byCustomer.get(0).getGroupName());
+    assertEquals(4, byCustomer.get(0).getProjectCount());
+    assertEquals(new BigDecimal("3000.00"), byCustomer.get(0).getOutstanding());
+
+    List<FinancialSummary> byType =
+        projectRepository.getFinancialSummary(FinancialDimension.BUILDING_TYPE);
+    assertEquals(List.of("House", "Barn"), groupNames(byType));
+    assertEquals(new BigDecimal("0.00"), byType.get(1).getOutstanding());
+
+    List<FinancialSummary> byManager =
+        projectRepository.getFinancialSummary(FinancialDimension.MANAGER);
+    assertEquals(List.of("Unassigned", "Alice"), groupNames(byManager));
+  }
+
+  private List<String> groupNames(List<FinancialSummary> summaries) {
+    return summaries.stream().map(FinancialSummary::getGroupName).collect(Collectors.toList());
+  }
+
+  @Test
+  void finaliseProjectData_removesProjectFromOpenIndexes() {
+    assertEquals(
+        "House", projectRepository.finaliseProjectData(1, Date.valueOf("2025-01-01"), null).get());
+    assertTrue(
+        projectRepository.finaliseProjectData(1, Date.valueOf("2025-01-02"), null).isEmpty());
+
+    assertEquals(List.of(2), ids(projectRepository.getIncompleteProjects()));
+    assertTrue(projectRepository.getOverdueProjects().isEmpty());
+    assertTrue(projectRepository.findByID(1).get().getIsProjectFinalised());
+  }
+
+  @Test
+  void summaryPage_pagesForwardAndBackwardByID() {
+    KeysetPage<Projects> first = projectRepository.getProjectsSummaryPage(null, null, 2);
+    KeysetPage<Projects> second =
+        projectRepository.getProjectsSummaryPage(first.getNextCursor(), null, 2);
+    KeysetPage<Projects> back =
+        projectRepository.getProjectsSummaryPage(null, second.getPreviousCursor(), 2);
+
+    assertEquals(List.of(1, 2), ids(first.getItems()));
+    assertEquals(List.of(3), ids(second.getItems()));
+    assertFalse(second.getHasNext());
+    assertEquals(List.of(1, 2), ids(back.getItems()));
+  }
+
+  @Test
+  void summaryPage_isEmptyPastTheEndsOfTheIDRange() {
+    KeysetPage<Projects> afterLast =
+        projectRepository.getProjectsSummaryPage(Integer.MAX_VALUE, null, 2);
+    KeysetPage<Projects> beforeFirst =
+        projectRepository.getProjectsSummaryPage(null, Integer.MIN_VALUE, 2);
+
+    assertTrue(afterLast.getItems().isEmpty());
+    assertFalse(afterLast.getHasNext());
+    assertTrue(beforeFirst.getItems().isEmpty());
+  }
+
+  @Test
+  void createProjectData_requiresExistingCustomerAndAssignsNextID() {
+    Date deadline = Date.valueOf("2030-01-01");
+
+    assertEquals(
+        0,
+        projectRepository.createProjectData(
+            "Bad", "House", "Site", 1, BigDecimal.ONE, Money.ZERO, deadline, null, null, 99, null,
+            null, false, null));
+    int projectID =
+        projectRepository.createProjectData(
+            "Barn", "Barn", "Farm", 7, BigDecimal.ONE, Money.ZERO, deadline, 1, null, 2, null, null,
+            false, null);
+
+    assertEquals(4, projectID);
+    assertEquals("Barn", projectRepository.findByID(4).get().getProjectName());
+  }
+
+  @Test
+  void findDetailsByID_resolvesAssignedTeamOnly() {
+    ProjectDetails details = projectRepository.findDetailsByID(1).get();
+
+    assertEquals("Alice", details.getArchitect().getPersonName());
+    assertEquals("Bob", details.getCustomer().getPersonName());
+    assertNull(details.getEngineer());
+  }
+
+  @Test
+  void readersKeepTheirSnapshotDuringWrites() {
+    InMemoryStore.Snapshot before = store.snapshot();
+
+    projectRepository.deleteProjectData(2);
+
+    assertNotNull(before.projects.get(2));
+    assertTrue(projectRepository.findByID(2).isEmpty());
+  }
+
+  @Test
+  void createProjectsData_skipsProjectsWithUnknownTeam() {
+    Projects unknownCustomer =
+        new Projects(
+            0, "Barn", "Barn", "Site", 1, BigDecimal.ONE, Money.ZERO, null, 0, 0, 42, 0, 0, false,
+            null);
+
+    int[] newProjectIDs =
+        projectRepository.createProjectsData(
+            List.of(project(0, "Flat", null, false), unknownCustomer));
+
+    assertArrayEquals(new int[] {4, 0}, newProjectIDs);
+    assertEquals("Flat", projectRepository.findByID(4).get().getProjectName());
+    assertTrue(projectRepository.findByID(5).isEmpty());
+  }
+
+  @Test
+  void patchProjectData_changesOnlyTheGivenFields() {
+    ProjectPatch patch = new ProjectPatch();
+    patch.setAmountPaidToDate(new BigDecimal("250.00"));
+    patch.setArchitectID(0);
+
+    Projects updated = projectRepository.patchProjectData(1, patch).get();
+
+    assertEquals(new BigDecimal("250.00"), updated.getAmountPaidToDate());
+    assertEquals(0, updated.getArchitectID());
+    assertEquals("House", updated.getProjectName());
+    assertEquals(
+        new BigDecimal("250.00"), projectRepository.findByID(1).get().getAmountPaidToDate());
+  }
+
+  @Test
+  void patchProjectData_whenTeamMemberMissing_leavesProjectUnchanged() {
+    ProjectPatch patch = new ProjectPatch();
+    patch.setProjectName("Renamed");
+    patch.setCustomerID(42);
+
+    assertTrue(projectRepository.patchProjectData(1, patch).isEmpty());
+    assertTrue(projectRepository.patchProjectData(99, new ProjectPatch()).isEmpty());
+    assertEquals("House", projectRepository.findByID(1).get().getProjectName());
+  }
+
+  @Test
+  void patchProjectData_withStaleVersion_leavesTheNewerEditInPlace() {
+    ProjectPatch first = new ProjectPatch();
+    first.setProjectName("First edit");
+    first.setExpectedVersion(0);
+    ProjectPatch second = new ProjectPatch();
+    second.setProjectName("Second edit");
+    second.setExpectedVersion(0);
+
+    assertEquals(1, projectRepository.patchProjectData(1, first).get().getVersion());
+    assertTrue(projectRepository.patchProjectData(1, second).isEmpty());
+    assertEquals("First edit", projectRepository.findByID(1).get().getProjectName());
+  }
+
+  @Test
+  void finaliseProjectData_withStaleVersion_doesNotFinalise() {
+    ProjectPatch patch = new ProjectPatch();
+    patch.setTotalFee(new BigDecimal("2000.00"));
+    projectRepository.patchProjectData(1, patch);
+
+    assertTrue(projectRepository.finaliseProjectData(1, Date.valueOf("2025-01-01"), 0).isEmpty());
+    assertTrue(projectRepository.finaliseProjectData(1, Date.valueOf("2025-01-01"), 1).isPresent());
+    assertEquals(2, projectRepository.findByID(1).get().getVersion());
+  }
+}
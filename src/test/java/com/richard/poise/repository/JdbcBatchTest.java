@@ -0,0 +1,75 @@
+package com.richard.poise.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JdbcBatchTest {
+
+  private static final String SQL = "UPDATE people SET person_name = ? WHERE person_id = ?";
+
+  @Test
+  void updateAll_sendsOneBatch() throws SQLException {
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement(SQL)).thenReturn(statement);
+    when(statement.executeBatch()).thenReturn(new int[] {1, 0, Statement.SUCCESS_NO_INFO});
+
+    boolean[] updated =
+        JdbcBatch.updateAll(
+            connection, SQL, List.of("a", "b", "c"), (s, row) -> s.setString(1, row));
+
+    assertArrayEquals(new boolean[] {true, false, true}, updated);
+    verify(statement, times(3)).addBatch();
+    verify(statement, never()).executeUpdate();
+    verify(connection, never()).rollback();
+  }
+
+  @Test
+  void updateAll_whenBatchFails_retriesEachRowUnderASavepoint() throws SQLException {
+    Connection connection = mock(Connection.class);
+    PreparedStatement batch = mock(PreparedStatement.class);
+    PreparedStatement single = mock(PreparedStatement.class);
+    Savepoint savepoint = mock(Savepoint.class);
+    when(connection.prepareStatement(SQL)).thenReturn(batch, single);
+    when(connection.setSavepoint()).thenReturn(savepoint);
+    when(batch.executeBatch()).thenThrow(new BatchUpdateException());
+    when(single.executeUpdate()).thenReturn(1).thenThrow(new SQLException("bad row")).thenReturn(1);
+
+    boolean[] updated =
+        JdbcBatch.updateAll(
+            connection, SQL, List.of("a", "b", "c"), (s, row) -> s.setString(1, row));
+
+    assertArrayEquals(new boolean[] {true, false, true}, updated);
+    verify(connection).rollback();
+    verify(connection).rollback(savepoint);
+    verify(connection, times(2)).releaseSavepoint(savepoint);
+  }
+
+  @Test
+  void insertAll_returnsGeneratedKeysInOrder() throws SQLException {
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet keys = mock(ResultSet.class);
+    when(connection.prepareStatement(SQL, Statement.RETURN_GENERATED_KEYS)).thenReturn(statement);
+    when(statement.getGeneratedKeys()).thenReturn(keys);
+    when(keys.next()).thenReturn(true, true, false);
+    when(keys.getInt(1)).thenReturn(10, 11);
+
+    int[] generatedIDs =
+        JdbcBatch.insertAll(connection, SQL, List.of("a", "b"), (s, row) -> s.setString(1, row));
+
+    assertArrayEquals(new int[] {10, 11}, generatedIDs);
+    verify(statement).executeBatch();
+  }
+}
@@ -0,0 +1,56 @@
+package com.richard.poise.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPageTest {
+
+  private static final ToIntFunction<Integer> ID = Integer::intValue;
+
+  @Test
+  void fromRows_firstPageWithMoreRows_hasNextOnly() {
+    List<Integer> rows = new ArrayList<>(List.of(1, 2, 3, 4));
+
+    KeysetPage<Integer> page = KeysetPage.fromRows(rows, 3, false, false, ID);
+
+    assertEquals(List.of(1, 2, 3), page.getItems());
+    assertEquals(3, page.getNextCursor());
+    assertNull(page.getPreviousCursor());
+  }
+
+  @Test
+  void fromRows_lastForwardPage_hasPreviousOnly() {
+    List<Integer> rows = new ArrayList<>(List.of(7, 8));
+
+    KeysetPage<Integer> page = KeysetPage.fromRows(rows, 3, false, true, ID);
+
+    assertEquals(List.of(7, 8), page.getItems());
+    assertNull(page.getNextCursor());
+    assertEquals(7, page.getPreviousCursor());
+  }
+
+  @Test
+  void fromRows_backwardPage_reversesRowsAndSetsCursors() {
+    // fetched with "before = 10" in descending order, one extra row means more pages behind
+    List<Integer> rows = new ArrayList<>(List.of(9, 8, 7, 6));
+
+    KeysetPage<Integer> page = KeysetPage.fromRows(rows, 3, true, true, ID);
+
+    assertEquals(List.of(7, 8, 9), page.getItems());
+    assertEquals(9, page.getNextCursor());
+    assertEquals(7, page.getPreviousCursor());
+  }
+
+  @Test
+  void clampPageSize_appliesDefaultAndMaximum() {
+    assertEquals(KeysetPage.DEFAULT_PAGE_SIZE, KeysetPage.clampPageSize(null));
+    assertEquals(KeysetPage.DEFAULT_PAGE_SIZE, KeysetPage.clampPageSize(-5));
+    assertEquals(KeysetPage.MAX_PAGE_SIZE, KeysetPage.clampPageSize(10_000));
+    assertEquals(25, KeysetPage.clampPageSize(25));
+  }
+}
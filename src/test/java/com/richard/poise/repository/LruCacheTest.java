@@ -0,0 +1,61 @@
+package com.richard.poise.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void put_whenFull_evictsLeastRecentlyUsed() {
+    LruCache<Integer, String> cache = new LruCache<>(2, 1, TimeUnit.MINUTES, clock::get);
+    cache.put(1, "one", cache.generation());
+    cache.put(2, "two", cache.generation());
+    cache.get(1); // 2 is now least recently used
+
+    cache.put(3, "three", cache.generation());
+
+    assertEquals("one", cache.get(1));
+    assertNull(cache.get(2));
+    assertEquals("three", cache.get(3));
+    assertEquals(1, cache.getEvictions());
+  }
+
+  @Test
+  void get_afterTtl_returnsNull() {
+    LruCache<Integer, String> cache = new LruCache<>(10, 5, TimeUnit.SECONDS, clock::get);
+    cache.put(1, "one", cache.generation());
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+    assertNull(cache.get(1));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void put_afterInvalidationDuringLoad_isIgnored() {
+    LruCache<Integer, String> cache = new LruCache<>(10, 1, TimeUnit.MINUTES, clock::get);
+    long generation = cache.generation();
+
+    cache.invalidate(1); // a write happened while the value was being loaded
+    cache.put(1, "stale", generation);
+
+    assertNull(cache.get(1));
+  }
+
+  @Test
+  void get_countsHitsAndMisses() {
+    LruCache<Integer, String> cache = new LruCache<>(10, 1, TimeUnit.MINUTES, clock::get);
+    cache.get(1);
+    cache.put(1, "one", cache.generation());
+    cache.get(1);
+
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+}
@@ -0,0 +1,68 @@
+package com.richard.poise.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentIntMapTest {
+
+  @Test
+  void with_leavesPreviousVersionUnchanged() {
+    PersistentIntMap<String> first = PersistentIntMap.<String>empty().with(1, "one");
+    PersistentIntMap<String> second = first.with(1, "uno").with(2, "two");
+
+    assertEquals("one", first.get(1));
+    assertNull(first.get(2));
+    assertEquals(1, first.size());
+    assertEquals("uno", second.get(1));
+    assertEquals(2, second.size());
+  }
+
+  @Test
+  void without_removesKeyAndKeepsOthers() {
+    PersistentIntMap<String> map = PersistentIntMap.<String>empty().with(5, "five").with(700, "x");
+
+    PersistentIntMap<String> removed = map.without(5);
+
+    assertNull(removed.get(5));
+    assertEquals("x", removed.get(700));
+    assertEquals(1, removed.size());
+    assertSame(removed, removed.without(5));
+  }
+
+  @Test
+  void ceilingAndFloorKey_skipEmptyChunks() {
+    PersistentIntMap<String> map =
+        PersistentIntMap.<String>empty().with(3, "a").with(1000, "b").with(70000, "c");
+
+    assertEquals(3, map.ceilingKey(0));
+    assertEquals(1000, map.ceilingKey(4));
+    assertEquals(70000, map.ceilingKey(1001));
+    assertEquals(-1, map.ceilingKey(70001));
+    assertEquals(1000, map.floorKey(69999));
+    assertEquals(3, map.floorKey(999));
+    assertEquals(-1, map.floorKey(2));
+    assertEquals(70000, map.lastKey());
+  }
+
+  @Test
+  void forEachValue_visitsInKeyOrder() {
+    PersistentIntMap.Builder<Integer> builder = new PersistentIntMap.Builder<>();
+    builder.put(900, 900).put(2, 2).put(300, 300);
+    List<Integer> values = new ArrayList<>();
+
+    builder.build().forEachValue(values::add);
+
+    assertEquals(List.of(2, 300, 900), values);
+  }
+
+  @Test
+  void with_rejectsNegativeKeys() {
+    assertThrows(
+        IllegalArgumentException.class, () -> PersistentIntMap.<String>empty().with(-1, "x"));
+    assertNull(PersistentIntMap.<String>empty().get(-1));
+  }
+}
@@ -0,0 +1,82 @@
+package com.richard.poise.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryTest {
+
+  @Test
+  void of_normalisesCaseAndWhitespace() {
+    SearchQuery search = SearchQuery.of("  Main   STREET ");
+
+    assertEquals("main street%", search.prefixPattern());
+    assertEquals("%main street%", search.containsPattern());
+    assertEquals("main:* & street:*", search.prefixTsQuery());
+    assertNull(SearchQuery.of("   "));
+    assertNull(SearchQuery.of(null));
+  }
+
+  @Test
+  void patterns_escapeLikeWildcards() {
+    SearchQuery search = SearchQuery.of("50%_off\\");
+
+    assertEquals("%50\\%\\_off\\\\%", search.containsPattern());
+    assertEquals("50:* & off:*", search.prefixTsQuery());
+    assertNull(SearchQuery.of("%%").prefixTsQuery());
+  }
+
+  @Test
+  void matches_partialWordsAndMisspellings() {
+    assertTrue(SearchQuery.of("hous").matches("Smith House"));
+    assertTrue(SearchQuery.of("house smith").matches("Smith House"));
+    assertTrue(SearchQuery.of("housse").matches("Smith House"));
+    assertTrue(SearchQuery.of("555 12").matchesWords("082 555 1234"));
+    assertFalse(SearchQuery.of("office").matches("Smith House"));
+    assertFalse(SearchQuery.of("house").matches(null));
+  }
+
+  @Test
+  void rank_putsExactThenPrefixThenOtherMatchesFirst() {
+    SearchQuery search = SearchQuery.of("house");
+
+    double exact = search.rank("House");
+    double prefix = search.rank("House Extension");
+    double contains = search.rank("Smith House");
+    double fuzzy = search.rank("Hose");
+
+    assertTrue(exact > prefix, exact + " > " + prefix);
+    assertTrue(prefix > contains, prefix + " > " + contains);
+    assertTrue(contains > fuzzy, contains + " > " + fuzzy);
+    assertEquals(0, search.rank(null));
+  }
+
+  @Test
+  void clampLimit_staysWithinOneAndTheMaximum() {
+    assertEquals(1, SearchQuery.clampLimit(0));
+    assertEquals(20, SearchQuery.clampLimit(20));
+    assertEquals(SearchQuery.MAX_RESULTS, SearchQuery.clampLimit(10_000));
+  }
+
+  @Test
+  void searchVectors_matchTheIndexedExpressions() throws IOException {
+    String migration;
+    try (InputStream in =
+        getClass().getResourceAsStream("/db/migration/V6__search_indexes.sql")) {
+      migration = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertTrue(migration.contains("(" + DatabaseProjectRepository.SEARCH_VECTOR + ")"));
+    assertTrue(migration.contains("(" + DatabasePersonRepository.SEARCH_VECTOR + ")"));
+    assertTrue(
+        DatabaseProjectRepository.SEARCH_PROJECTS_SQL.contains(
+            DatabaseProjectRepository.SEARCH_VECTOR + " @@ q.words"));
+    assertTrue(
+        DatabasePersonRepository.SEARCH_PEOPLE_SQL.contains(
+            DatabasePersonRepository.SEARCH_VECTOR + " @@ q.words"));
+  }
+}
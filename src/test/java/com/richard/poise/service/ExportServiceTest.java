@@ -0,0 +1,113 @@
+package com.richard.poise.service;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.PersonRepository;
+import com.richard.poise.repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+  @Mock private ProjectRepository projectMockRepository;
+  @Mock private PersonRepository personMockRepository;
+
+  private ExportService exportService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    exportService = new ExportService(projectMockRepository, personMockRepository);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void exportProjects_asCsv_writesHeaderAndQuotedRows() throws IOException {
+    Projects project =
+        new Projects(
+            7,
+            "Smith, House",
+            "House",
+            "1 Main Street",
+            12,
+            new BigDecimal("50000.00"),
+            new BigDecimal("1234.50"),
+            java.sql.Date.valueOf("2025-12-31"),
+            0, // no architect assigned
+            2,
+            3,
+            4,
+            5,
+            false,
+            null);
+    when(projectMockRepository.forEachProject(any()))
+        .thenAnswer(
+            invocation -> {
+              ((Consumer<Projects>) invocation.getArgument(0)).accept(project);
+              return 1;
+            });
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    int count = exportService.exportProjects(output, ExportFormat.CSV);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(1, count);
+    assertEquals(ExportService.PROJECT_CSV_HEADER, lines[0]);
+    assertEquals(
+        "7,\"Smith, House\",House,1 Main Street,12,50000.00,1234.50,2025-12-31,,2,3,4,5,false,",
+        lines[1]);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void exportPeople_asJsonLines_writesOneObjectPerLine() throws IOException {
+    when(personMockRepository.forEachPerson(any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<People> action = invocation.getArgument(0);
+              action.accept(new People(1, "Ann", "123", "ann@example.com", "1 Road", "architect"));
+              action.accept(new People(2, "Bob \"B\"", "456", null, null, "customer"));
+              return 2;
+            });
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    int count = exportService.exportPeople(output, ExportFormat.JSONL);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, count);
+    assertEquals(2, lines.length);
+    assertEquals(
+        "{\"personID\":1,\"personName\":\"Ann\",\"phone\":\"123\",\"email\":\"ann@example.com\","
+            + "\"address\":\"1 Road\",\"role\":\"architect\"}",
+        lines[0]);
+    assertTrue(lines[1].contains("\"personName\":\"Bob \\\"B\\\"\""));
+  }
+
+  @Test
+  void exportProjects_whenRepositoryFails_throwsIOException() {
+    when(projectMockRepository.forEachProject(any())).thenReturn(-1);
+
+    assertThrows(
+        IOException.class,
+        () -> exportService.exportProjects(new ByteArrayOutputStream(), ExportFormat.JSONL));
+  }
+
+  @Test
+  void fromParameter_isCaseInsensitive() {
+    assertEquals(ExportFormat.CSV, ExportFormat.fromParameter("CSV"));
+    assertEquals(ExportFormat.JSONL, ExportFormat.fromParameter("jsonl"));
+    assertNull(ExportFormat.fromParameter("xml"));
+  }
+}
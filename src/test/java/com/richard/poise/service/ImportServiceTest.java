@@ -0,0 +1,187 @@
+package com.richard.poise.service;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.InMemoryPersonRepository;
+import com.richard.poise.repository.InMemoryProjectRepository;
+import com.richard.poise.repository.InMemoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportServiceTest {
+
+  private InMemoryProjectRepository projectRepository;
+  private InMemoryPersonRepository personRepository;
+  private ImportService importService;
+
+  @BeforeEach
+  void setUp() {
+    InMemoryStore store = new InMemoryStore();
+    store.replaceAll(
+        List.of(
+            new People(1, "Alice", "1", "a@example.com", "1 Street", "architect"),
+            new People(2, "Bob", "2", "b@example.com", "2 Street", "customer")),
+        List.of());
+    projectRepository = new InMemoryProjectRepository(store);
+    personRepository = new InMemoryPersonRepository(store);
+    importService = new ImportService(projectRepository, personRepository);
+  }
+
+  private static InputStream input(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void importProjects_readsWhatTheExportWrites() throws IOException {
+    Projects project =
+        new Projects(
+            7,
+            "Smith, \"Big\" House",
+            "House",
+            "1 Main Street\nTown",
+            42,
+            new BigDecimal("50000.50"),
+            new BigDecimal("1000.00"),
+            Date.valueOf("2025-12-31"),
+            1,
+            0,
+            2,
+            0,
+            0,
+            false,
+            null);
+    InMemoryStore source = new InMemoryStore();
+    source.replaceAll(personRepository.findAll(), List.of(project));
+    ExportService exportService =
+        new ExportService(new InMemoryProjectRepository(source), personRepository);
+
+    for (ExportFormat format : ExportFormat.values()) {
+      ByteArrayOutputStream exported = new ByteArrayOutputStream();
+      exportService.exportProjects(exported, format);
+
+      ImportReport report =
+          importService.importProjects(new ByteArrayInputStream(exported.toByteArray()), format);
+
+      assertEquals(1, report.getRowsImported(), format + ": " + report.getErrors());
+      assertNull(report.getFailure());
+    }
+    for (int projectID : new int[] {1, 2}) {
+      Projects imported = projectRepository.findByID(projectID).get();
+      assertEquals("Smith, \"Big\" House", imported.getProjectName());
+      assertEquals("1 Main Street\nTown", imported.getProjectAddress());
+      assertEquals(42, imported.getERFNumber());
+      assertEquals(new BigDecimal("50000.50"), imported.getTotalFee());
+      assertEquals(Date.valueOf("2025-12-31"), imported.getProjectDeadline());
+      assertEquals(1, imported.getArchitectID());
+      assertEquals(0, imported.getContractorID());
+      assertEquals(2, imported.getCustomerID());
+    }
+  }
+
+  @Test
+  void importProjects_reportsEachRejectedRowAndImportsTheRest() {
+    String csv =
+        "project_name,building_type,customer_id,total_fee,project_deadline,manager_id\n"
+            + "Good,House,2,100,2025-01-01,\n"
+            + ",House,2,100,,\n"
+            + "Unknown customer,House,99,100,,\n"
+            + "Bad fee,House,2,lots,,\n"
+            + "Bad date,House,2,100,31/12/2025,\n"
+            + "Short row,House\n"
+            + "Unknown manager,House,2,,,77\n";
+
+    ImportReport report = importService.importProjects(input(csv), ExportFormat.CSV);
+
+    assertEquals(7, report.getRowsRead());
+    assertEquals(1, report.getRowsImported());
+    assertEquals(6, report.getRowsRejected());
+    List<ImportReport.RowError> errors = report.getErrors();
+    assertEquals(2, errors.get(0).getRow());
+    assertEquals("Project name is required", errors.get(0).getMessage());
+    assertEquals("Customer 99 does not exist", errors.get(1).getMessage());
+    assertEquals("Total fee is not a number: lots", errors.get(2).getMessage());
+    assertEquals(
+        "Project deadline is not a yyyy-MM-dd date: 31/12/2025", errors.get(3).getMessage());
+    assertEquals("Expected 6 fields but found 2", errors.get(4).getMessage());
+    assertEquals("Manager 77 does not exist", errors.get(5).getMessage());
+    assertEquals("Good", projectRepository.findByID(1).get().getProjectName());
+  }
+
+  @Test
+  void imports_reloadTheViewsThatNoEventReaches() {
+    OverdueProjectTracker tracker =
+        new OverdueProjectTracker(projectRepository, () -> LocalDate.of(2025, 6, 1));
+    TypeaheadIndex typeaheadIndex = new TypeaheadIndex(projectRepository, personRepository);
+    importService =
+        new ImportService(projectRepository, personRepository, tracker, typeaheadIndex);
+    assertTrue(tracker.getOverdueProjects().isEmpty());
+    assertTrue(typeaheadIndex.suggestProjects("late", 10).isEmpty());
+
+    String projects =
+        "project_name,building_type,customer_id,project_deadline\nLate,House,2,2025-01-01\n";
+    importService.importProjects(input(projects), ExportFormat.CSV);
+    String people = "person_name,phone,role\nCarol,3,engineer\n";
+    importService.importPeople(input(people), ExportFormat.CSV);
+
+    assertEquals(1, tracker.getOverdueProjects().size());
+    assertEquals(1, typeaheadIndex.suggestProjects("late", 10).size());
+    assertEquals(1, typeaheadIndex.suggestPeople("carol", 10).size());
+  }
+
+  @Test
+  void importPeople_fromJsonLines_rejectsInvalidLinesAndKeepsGoing() {
+    String jsonl =
+        "{\"personName\":\"Carol\",\"phone\":\"3\",\"email\":null,\"role\":\"engineer\"}\n"
+            + "{\"personName\":\"Dan\",\"phone\":\n"
+            + "\n"
+            + "{\"personName\":\"Eve\",\"role\":\"manager\"}\n"
+            + "{\"person_name\":\"Frank\",\"phone\":4,\"role\":\"manager\"}\n";
+
+    ImportReport report = importService.importPeople(input(jsonl), ExportFormat.JSONL);
+
+    assertEquals(4, report.getRowsRead());
+    assertEquals(2, report.getRowsImported());
+    assertTrue(report.getErrors().get(0).getMessage().startsWith("Invalid JSON"));
+    assertEquals("Phone is required", report.getErrors().get(1).getMessage());
+    assertEquals("Carol", personRepository.findByID(3).get().getPersonName());
+    assertEquals("4", personRepository.findByID(4).get().getPhone());
+  }
+
+  @Test
+  void importPeople_whenCsvIsTruncated_importsRowsBeforeTheFailure() {
+    String csv = "person_name,phone,role\nCarol,3,engineer\n\"Dan,4,manager\n";
+
+    ImportReport report = importService.importPeople(input(csv), ExportFormat.CSV);
+
+    assertEquals("Unterminated quoted field in row 2", report.getFailure());
+    assertEquals(1, report.getRowsImported());
+    assertEquals("Carol", personRepository.findByID(3).get().getPersonName());
+  }
+
+  @Test
+  void importPeople_loadsLargeFilesInChunks() {
+    StringBuilder csv = new StringBuilder("person_name,phone,role\n");
+    int rows = ImportService.CHUNK_ROWS * 2 + 10;
+    for (int i = 0; i < rows; i++) {
+      csv.append("Person ").append(i).append(",").append(i).append(",engineer\n");
+    }
+
+    ImportReport report = importService.importPeople(input(csv.toString()), ExportFormat.CSV);
+
+    assertEquals(rows, report.getRowsImported());
+    assertEquals(rows + 2, personRepository.findAll().size());
+    assertEquals("Person 0", personRepository.findByID(3).get().getPersonName());
+  }
+}
@@ -0,0 +1,176 @@
+package com.richard.poise.service;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.InMemoryProjectRepository;
+import com.richard.poise.repository.InMemoryStore;
+import com.richard.poise.repository.KeysetPage;
+import com.richard.poise.repository.ProjectRepository;
+import com.richard.poise.repository.RepositoryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OverdueProjectTrackerTest {
+
+  private final AtomicReference<LocalDate> today = new AtomicReference<>(LocalDate.of(2025, 6, 1));
+  private InMemoryStore store;
+  private OverdueProjectTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryStore();
+    store.replaceAll(
+        List.of(new People(1, "Alice", "1", "a@example.com", "1 Street", "customer")),
+        List.of(
+            project(1, "House", "2025-05-01", false),
+            project(2, "Office", "2025-06-10", false),
+            project(3, "Shop", "2025-04-01", true),
+            project(4, "Barn", null, false),
+            project(5, "Garage", "2025-05-31", false)));
+    tracker = new OverdueProjectTracker(new InMemoryProjectRepository(store), today::get);
+  }
+
+  private static Projects project(int projectID, String name, String deadline, boolean finalised) {
+    return new Projects(
+        projectID,
+        name,
+        "House",
+        "Site",
+        1,
+        new BigDecimal("1000.00"),
+        new BigDecimal("0.00"),
+        deadline != null ? Date.valueOf(deadline) : null,
+        0,
+        0,
+        1,
+        0,
+        0,
+        finalised,
+        null);
+  }
+
+  private static List<Integer> ids(List<Projects> projects) {
+    return projects.stream().map(Projects::getProjectID).collect(Collectors.toList());
+  }
+
+  @Test
+  void getOverdueProjects_loadsOpenProjectsDueBeforeToday() {
+    List<Projects> overdue = tracker.getOverdueProjects();
+
+    assertEquals(List.of(1, 5), ids(overdue));
+    assertEquals("House", overdue.get(0).getProjectName());
+    assertFalse(overdue.get(0).getIsProjectFinalised());
+  }
+
+  @Test
+  void sweep_movesProjectsInOnceTheirDeadlinePasses() {
+    tracker.getOverdueProjects();
+
+    today.set(LocalDate.of(2025, 6, 10));
+    assertEquals(List.of(1, 5), ids(tracker.getOverdueProjects()));
+    today.set(LocalDate.of(2025, 6, 11));
+    assertEquals(List.of(1, 2, 5), ids(tracker.getOverdueProjects()));
+  }
+
+  @Test
+  void onProjectEvents_tracksChangesWithoutReloading() {
+    tracker.getOverdueProjects();
+    // events must be applied from memory; an emptied repository would show up on a reload
+    store.replaceAll(List.of(), List.of());
+
+    tracker.onProjectEvents(
+        List.of(
+            new ProjectEvent(ProjectEvent.Type.FINALISED, 1, "House", true, null),
+            new ProjectEvent(
+                ProjectEvent.Type.UPDATED, 2, "New office", false, Date.valueOf("2025-05-20")),
+            new ProjectEvent(
+                ProjectEvent.Type.UPDATED, 5, "Garage", false, Date.valueOf("2025-07-01")),
+            new ProjectEvent(
+                ProjectEvent.Type.CREATED, 6, "Shed", false, Date.valueOf("2025-01-01")),
+            new ProjectEvent(
+                ProjectEvent.Type.CREATED, 7, "Done", true, Date.valueOf("2025-01-01"))));
+
+    List<Projects> overdue = tracker.getOverdueProjects();
+    assertEquals(List.of(2, 6), ids(overdue));
+    assertEquals("New office", overdue.get(0).getProjectName());
+
+    tracker.onProjectEvents(List.of(new ProjectEvent(ProjectEvent.Type.DELETED, 6, "Shed")));
+    today.set(LocalDate.of(2025, 7, 2));
+    assertEquals(List.of(2, 5), ids(tracker.getOverdueProjects()));
+  }
+
+  @Test
+  void reload_picksUpChangesThatRaisedNoEvent() {
+    tracker.getOverdueProjects();
+    store.replaceAll(
+        List.of(new People(1, "Alice", "1", "a@example.com", "1 Street", "customer")),
+        List.of(project(8, "Imported", "2025-02-01", false)));
+
+    tracker.reload();
+
+    assertEquals(List.of(8), ids(tracker.getOverdueProjects()));
+  }
+
+  @Test
+  void reload_keepsTheTrackingWhenTheRepositoryFails() {
+    ProjectRepository failing = mock(ProjectRepository.class);
+    when(failing.getOpenProjectDeadlines())
+        .thenReturn(List.of(project(1, "House", "2025-05-01", false)))
+        .thenThrow(new RepositoryException("down", new SQLException("connection refused")));
+    OverdueProjectTracker failingTracker = new OverdueProjectTracker(failing, today::get);
+    assertEquals(List.of(1), ids(failingTracker.getOverdueProjects()));
+
+    assertThrows(RepositoryException.class, failingTracker::reload);
+
+    assertEquals(List.of(1), ids(failingTracker.getOverdueProjects()));
+  }
+
+  @Test
+  void getOverdueProjects_retriesALoadThatFailed() {
+    ProjectRepository failing = mock(ProjectRepository.class);
+    when(failing.getOpenProjectDeadlines())
+        .thenThrow(new RepositoryException("down", new SQLException("connection refused")))
+        .thenReturn(List.of(project(1, "House", "2025-05-01", false)));
+    OverdueProjectTracker failingTracker = new OverdueProjectTracker(failing, today::get);
+
+    assertTrue(failingTracker.getOverdueProjects().isEmpty());
+    assertEquals(List.of(1), ids(failingTracker.getOverdueProjects()));
+  }
+
+  @Test
+  void getOverdueProjectsPage_pagesByID() {
+    tracker.getOverdueProjects();
+    for (int projectID = 10; projectID < 15; projectID++) {
+      tracker.onProjectEvents(
+          List.of(
+              new ProjectEvent(
+                  ProjectEvent.Type.CREATED,
+                  projectID,
+                  "Late " + projectID,
+                  false,
+                  Date.valueOf("2025-01-01"))));
+    }
+
+    KeysetPage<Projects> first = tracker.getOverdueProjectsPage(null, null, 3);
+    KeysetPage<Projects> second = tracker.getOverdueProjectsPage(first.getNextCursor(), null, 3);
+    KeysetPage<Projects> back = tracker.getOverdueProjectsPage(null, second.getPreviousCursor(), 3);
+
+    assertEquals(List.of(1, 5, 10), ids(first.getItems()));
+    assertNull(first.getPreviousCursor());
+    assertEquals(List.of(11, 12, 13), ids(second.getItems()));
+    assertEquals(List.of(1, 5, 10), ids(back.getItems()));
+    assertEquals(List.of(14), ids(tracker.getOverdueProjectsPage(13, null, 3).getItems()));
+    assertNull(tracker.getOverdueProjectsPage(13, null, 3).getNextCursor());
+  }
+}
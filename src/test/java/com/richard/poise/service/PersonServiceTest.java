@@ -7,6 +7,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,7 +34,8 @@ class PersonServiceTest {
     PersonUpdateRequest request = new PersonUpdateRequest();
     request.setPersonName("New Name");
 
-    // Tell the mock: "when someone calls findByID(999), return empty"
+    // Tell the mock: the update matches no row, and findByID(999) finds nothing either
+    when(mockRepository.patchPersonData(eq(nonExistentId), any())).thenReturn(Optional.empty());
     when(mockRepository.findByID(nonExistentId)).thenReturn(Optional.empty());
 
     // Act - run the method being tested
@@ -40,43 +44,42 @@ class PersonServiceTest {
     // Assert - check it behaved as expected
     assertFalse(result.getSuccess());
     assertEquals("Person not found", result.getMessage());
+  }
 
-    // Verify the repository was called correctly
-    verify(mockRepository).findByID(nonExistentId);
-    // Verify update was NEVER called (since person wasn't found)
-    verify(mockRepository, never())
-        .updatePersonData(
-            anyInt(), // personID
-            anyString(), // personName
-            anyString(), // phone
-            anyString(), // email
-            anyString(), // address
-            anyString() // role
-            );
+  @Test
+  void updatePerson_whenChangedSinceRead_returnsConflict() {
+    PersonUpdateRequest request = new PersonUpdateRequest();
+    request.setPhone("07700900001");
+    request.setVersion(0);
+    People changedBySomeoneElse =
+        new People(1, "Name", "07700900002", "a@example.com", "Address", "architect");
+    changedBySomeoneElse.setVersion(1);
+
+    when(mockRepository.patchPersonData(eq(1), any())).thenReturn(Optional.empty());
+    when(mockRepository.findByID(1)).thenReturn(Optional.of(changedBySomeoneElse));
+    PersonUpdateResult result = service.updatePerson(1, request);
+
+    assertFalse(result.getSuccess());
+    assertTrue(result.isConflict());
+    assertEquals(PersonService.CONFLICT_MESSAGE, result.getMessage());
   }
 
   @Test
-  void updatePerson_whenPersonExists_updatesSuccessfully() {
+  void updatePerson_whenPersonExists_writesOnlyTheChangedFieldsWithoutReading() {
     // Arrange
     int existingPersonId = 1;
 
-    // Create the existing person that will be "found" in the database
-    People existingPerson =
-        new People(1, "Old Name", "07700900000", "old@example.com", "Old Address", "architect");
-
     // Create the update request
     PersonUpdateRequest request = new PersonUpdateRequest();
     request.setPersonName("New Name");
     request.setEmail("new@example.com");
     // Note: we're not setting phone, address, or role - testing partial updates
 
-    // Tell mock: "when findByID(1) is called, return the existing person"
-    when(mockRepository.findByID(existingPersonId)).thenReturn(Optional.of(existingPerson));
-
-    // Tell mock: "when updatePersonData is called, return true (success)"
-    when(mockRepository.updatePersonData(
-            anyInt(), anyString(), anyString(), anyString(), anyString(), anyString()))
-        .thenReturn(true);
+    // Tell mock: the update returns the person as stored afterwards
+    People updatedPerson =
+        new People(1, "New Name", "07700900000", "new@example.com", "Old Address", "architect");
+    when(mockRepository.patchPersonData(eq(existingPersonId), any()))
+        .thenReturn(Optional.of(updatedPerson));
 
     // Act
     PersonUpdateResult result = service.updatePerson(existingPersonId, request);
@@ -85,17 +88,18 @@ class PersonServiceTest {
     assertTrue(result.getSuccess());
     assertEquals("Person updated successfully", result.getMessage());
 
-    // Verify the repository methods were called
-    verify(mockRepository).findByID(existingPersonId);
+    // Verify only the changed fields were sent, and nothing was read first
     verify(mockRepository)
-        .updatePersonData(
-            1, // personID should be 1
-            "New Name", // name was updated
-            "07700900000", // phone unchanged (from original person)
-            "new@example.com", // email was updated
-            "Old Address", // address unchanged
-            "architect" // role unchanged
-            );
+        .patchPersonData(
+            eq(existingPersonId),
+            argThat(
+                patch ->
+                    "New Name".equals(patch.getPersonName())
+                        && "new@example.com".equals(patch.getEmail())
+                        && patch.getPhone() == null
+                        && patch.getAddress() == null
+                        && patch.getRole() == null));
+    verify(mockRepository, never()).findByID(anyInt());
   }
 
   @Test
@@ -194,4 +198,94 @@ class PersonServiceTest {
             "John Smith", "07700900000", "john@example.com", "123 Main St", "customer");
   }
 
+
+  @Test
+  void updatePeople_readsOnceAndReportsEachPerson() {
+    PersonUpdateRequest rename = new PersonUpdateRequest();
+    rename.setPersonName("New Name");
+    PersonUpdateRequest missing = new PersonUpdateRequest();
+    missing.setPhone("07700900001");
+    Map<Integer, PersonUpdateRequest> requests = new LinkedHashMap<>();
+    requests.put(1, rename);
+    requests.put(2, missing);
+
+    People existingPerson =
+        new People(1, "Old Name", "07700900000", "old@example.com", "Old Address", "architect");
+    when(mockRepository.findAllByIDs(requests.keySet())).thenReturn(Map.of(1, existingPerson));
+    when(mockRepository.updatePeopleData(anyList())).thenReturn(new boolean[] {true});
+
+    Map<Integer, PersonUpdateResult> results = service.updatePeople(requests);
+
+    assertEquals(List.of(1, 2), List.copyOf(results.keySet()));
+    assertTrue(results.get(1).getSuccess());
+    assertFalse(results.get(2).getSuccess());
+    assertEquals("Person not found", results.get(2).getMessage());
+    verify(mockRepository)
+        .updatePeopleData(
+            argThat(
+                people ->
+                    people.size() == 1
+                        && people.get(0).getPersonName().equals("New Name")
+                        && people.get(0).getPhone().equals("07700900000")));
+    verify(mockRepository, never()).findByID(anyInt());
+  }
+
+  @Test
+  void updatePeople_whenVersionIsStale_reportsConflictWithoutWriting() {
+    PersonUpdateRequest stale = new PersonUpdateRequest();
+    stale.setPersonName("New Name");
+    stale.setVersion(2);
+    Map<Integer, PersonUpdateRequest> requests = Map.of(1, stale);
+    People existingPerson =
+        new People(1, "Old Name", "07700900000", "old@example.com", "Old Address", "architect");
+    existingPerson.setVersion(3);
+
+    when(mockRepository.findAllByIDs(requests.keySet())).thenReturn(Map.of(1, existingPerson));
+    when(mockRepository.updatePeopleData(anyList())).thenReturn(new boolean[0]);
+    Map<Integer, PersonUpdateResult> results = service.updatePeople(requests);
+
+    assertTrue(results.get(1).isConflict());
+    verify(mockRepository).updatePeopleData(List.of());
+  }
+
+  @Test
+  void createPeople_reportsEachRow() {
+    PeopleCreateRequest first = new PeopleCreateRequest();
+    first.setPersonName("First");
+    PeopleCreateRequest second = new PeopleCreateRequest();
+    second.setPersonName("Second");
+    when(mockRepository.createPeopleData(anyList())).thenReturn(new int[] {7, 0});
+
+    List<PersonUpdateResult> results = service.createPeople(List.of(first, second));
+
+    assertEquals("Person created successfully with ID: 7", results.get(0).getMessage());
+    assertFalse(results.get(1).getSuccess());
+    assertEquals("Failed to create person", results.get(1).getMessage());
+  }
+
+  @Test
+  void writes_keepTheTypeaheadIndexCurrent() {
+    TypeaheadIndex typeaheadIndex = mock(TypeaheadIndex.class);
+    service = new PersonService(mockRepository, typeaheadIndex);
+    PersonUpdateRequest rename = new PersonUpdateRequest();
+    rename.setPersonName("New Name");
+    PeopleCreateRequest first = new PeopleCreateRequest();
+    first.setPersonName("First");
+    PeopleCreateRequest second = new PeopleCreateRequest();
+    second.setPersonName("Second");
+    People renamed = new People(1, "New Name", "1", "a@example.com", "1 Street", "architect");
+
+    when(mockRepository.patchPersonData(eq(1), any())).thenReturn(Optional.of(renamed));
+    when(mockRepository.createPeopleData(anyList())).thenReturn(new int[] {7, 0});
+    when(mockRepository.findByID(2)).thenReturn(Optional.of(renamed));
+    when(mockRepository.deletePersonData(2)).thenReturn(true);
+    service.updatePerson(1, rename);
+    service.createPeople(List.of(first, second));
+    service.deletePerson(2);
+
+    verify(typeaheadIndex).personSaved(1, "New Name");
+    verify(typeaheadIndex).personSaved(7, "First");
+    verify(typeaheadIndex).personDeleted(2);
+    verifyNoMoreInteractions(typeaheadIndex);
+  }
 }
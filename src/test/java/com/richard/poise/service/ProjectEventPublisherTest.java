@@ -0,0 +1,112 @@
+package com.richard.poise.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectEventPublisherTest {
+
+  private ProjectEventPublisher publisher;
+
+  @AfterEach
+  void tearDown() {
+    if (publisher != null) {
+      publisher.shutdown();
+    }
+  }
+
+  private static ProjectEvent event(ProjectEvent.Type type, int projectID, String name) {
+    return new ProjectEvent(type, projectID, name);
+  }
+
+  @Test
+  void coalesce_keepsTheLatestEventPerProjectAndType() {
+    List<ProjectEvent> batch =
+        List.of(
+            event(ProjectEvent.Type.UPDATED, 1, "First"),
+            event(ProjectEvent.Type.CREATED, 2, "Other"),
+            event(ProjectEvent.Type.UPDATED, 1, "Second"),
+            event(ProjectEvent.Type.FINALISED, 1, "Second"));
+
+    List<ProjectEvent> coalesced = ProjectEventPublisher.coalesce(batch);
+
+    assertEquals(
+        List.of("CREATED 2 Other", "UPDATED 1 Second", "FINALISED 1 Second"),
+        coalesced.stream()
+            .map(e -> e.getType() + " " + e.getProjectID() + " " + e.getProjectName())
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  void publish_deliversOnTheEventThreadWithoutWaitingForTheListener() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch delivered = new CountDownLatch(3);
+    List<String> threads = new ArrayList<>();
+    publisher =
+        new ProjectEventPublisher(
+            List.of(
+                events -> {
+                  awaitQuietly(release);
+                  threads.add(Thread.currentThread().getName());
+                  events.forEach(event -> delivered.countDown());
+                }),
+            100,
+            10);
+
+    publisher.publish(event(ProjectEvent.Type.CREATED, 1, "A"));
+    publisher.publish(event(ProjectEvent.Type.CREATED, 2, "B"));
+    publisher.publish(event(ProjectEvent.Type.CREATED, 3, "C"));
+    release.countDown();
+
+    assertTrue(delivered.await(5, TimeUnit.SECONDS));
+    assertEquals("project-events", threads.get(0));
+  }
+
+  @Test
+  void publish_whenQueueIsFull_dropsInsteadOfBlocking() throws Exception {
+    CountDownLatch listenerStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    publisher =
+        new ProjectEventPublisher(
+            List.of(
+                events -> {
+                  listenerStarted.countDown();
+                  awaitQuietly(release);
+                }),
+            2,
+            10);
+
+    publisher.publish(event(ProjectEvent.Type.UPDATED, 1, "In the listener"));
+    assertTrue(listenerStarted.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 5; i++) {
+      publisher.publish(event(ProjectEvent.Type.UPDATED, 2, "Queued or dropped"));
+    }
+    release.countDown();
+
+    assertEquals(3, publisher.getDroppedEvents());
+  }
+
+  @Test
+  void publish_withoutListeners_doesNothing() {
+    publisher = new ProjectEventPublisher(List.of());
+
+    publisher.publish(event(ProjectEvent.Type.DELETED, 1, "Gone"));
+
+    assertEquals(0, publisher.getDroppedEvents());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
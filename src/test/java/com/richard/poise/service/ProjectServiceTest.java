@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,13 +20,15 @@ class ProjectServiceTest {
 
   @Mock private PersonRepository personMockRepository;
   @Mock private ProjectRepository projectMockRepository;
+  @Mock private ProjectEventPublisher eventMockPublisher;
 
   private ProjectService projectService;
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    projectService = new ProjectService(projectMockRepository, personMockRepository);
+    projectService =
+        new ProjectService(projectMockRepository, personMockRepository, eventMockPublisher);
   }
 
   @Test
@@ -56,8 +60,8 @@ class ProjectServiceTest {
             "House",
             "1 Main Street",
             2,
-            123,
-            12,
+            new BigDecimal("123.00"),
+            new BigDecimal("12.00"),
             java.sql.Date.valueOf("2025-10-16"),
             1,
             2,
@@ -86,106 +90,76 @@ class ProjectServiceTest {
     ProjectUpdateRequest request = new ProjectUpdateRequest();
     request.setProjectName("New Name");
 
+    when(projectMockRepository.patchProjectData(eq(nonExistentID), any()))
+        .thenReturn(Optional.empty());
     when(projectMockRepository.findByID(nonExistentID)).thenReturn(Optional.empty());
     ProjectUpdateResult result = projectService.updateProject(nonExistentID, request);
 
     assertFalse(result.getSuccess());
     assertEquals("Project not found", result.getMessage());
-    verify(projectMockRepository).findByID(nonExistentID);
-    // Verify update was NEVER called (since person wasn't found)
-    verify(projectMockRepository, never())
-        .updateProjectData(
-            anyInt(), // projectID
-            anyString(), // projectName
-            anyString(), // buildingType
-            anyString(), // projectAddress
-            anyInt(), // ERF number
-            anyDouble(), // totalFee
-            anyDouble(), // amount paid to date
-            any(), // no anyDate method in Mockito. any() accepts any object
-            anyInt(), // architect ID
-            anyInt(), // contractor ID
-            anyInt(), // customer ID
-            anyInt(), // engineer ID
-            anyInt(), // manager ID
-            anyBoolean(), // project finalised
-            any());
   }
 
   @Test
-  void updateProject_whenProjectExists_updatesSuccessfully() {
-    // Arrange
-    int existingProjectId = 1;
+  void updateProject_whenUpdateFails_returnsFailure() {
+    ProjectUpdateRequest request = new ProjectUpdateRequest();
+    request.setCustomerID(99);
 
-    Projects existingProject =
-        new Projects(
-            1,
-            "Old Name",
-            "House",
-            "Old Address",
-            100,
-            50000.0,
-            10000.0,
-            java.sql.Date.valueOf("2025-12-31"),
-            1, // architectID
-            2, // contractorID
-            3, // customerID
-            4, // engineerID
-            5, // managerID
-            false,
-            null);
+    when(projectMockRepository.patchProjectData(eq(1), any())).thenReturn(Optional.empty());
+    when(projectMockRepository.findByID(1)).thenReturn(Optional.of(new Projects(1, "P", false)));
+    ProjectUpdateResult result = projectService.updateProject(1, request);
+
+    assertFalse(result.getSuccess());
+    assertEquals("Failed to update project", result.getMessage());
+  }
+
+  @Test
+  void updateProject_whenChangedSinceRead_returnsConflict() {
+    ProjectUpdateRequest request = new ProjectUpdateRequest();
+    request.setProjectName("My Edit");
+    request.setVersion(3);
+    Projects changedBySomeoneElse = new Projects(1, "Their Edit", false);
+    changedBySomeoneElse.setVersion(4);
+
+    when(projectMockRepository.patchProjectData(eq(1), any())).thenReturn(Optional.empty());
+    when(projectMockRepository.findByID(1)).thenReturn(Optional.of(changedBySomeoneElse));
+    ProjectUpdateResult result = projectService.updateProject(1, request);
+
+    assertFalse(result.getSuccess());
+    assertTrue(result.isConflict());
+    assertEquals(ProjectService.CONFLICT_MESSAGE, result.getMessage());
+    verify(projectMockRepository)
+        .patchProjectData(eq(1), argThat(patch -> patch.getExpectedVersion() == 3));
+  }
+
+  @Test
+  void updateProject_whenProjectExists_writesOnlyTheChangedFieldsWithoutReading() {
+    int existingProjectId = 1;
 
     ProjectUpdateRequest request = new ProjectUpdateRequest();
     request.setProjectName("New Name"); // Change this
-    request.setTotalFee(60000.0); // Change this
+    request.setTotalFee(new BigDecimal("60000.00")); // Change this
     // Note: NOT setting buildingType, projectAddress, etc. - testing partial update!
 
-    when(projectMockRepository.findByID(existingProjectId))
-        .thenReturn(Optional.of(existingProject));
-
-    // Tell mock: "when updatePersonData is called, return true (success)"
-    when(projectMockRepository.updateProjectData(
-            anyInt(),
-            anyString(),
-            anyString(),
-            anyString(),
-            anyInt(),
-            anyDouble(),
-            anyDouble(),
-            any(),
-            anyInt(),
-            anyInt(),
-            anyInt(),
-            anyInt(),
-            anyInt(),
-            anyBoolean(),
-            any()))
-        .thenReturn(true);
+    Projects updatedProject = new Projects(1, "New Name", false);
+    when(projectMockRepository.patchProjectData(eq(existingProjectId), any()))
+        .thenReturn(Optional.of(updatedProject));
 
     ProjectUpdateResult result = projectService.updateProject(existingProjectId, request);
 
     assertTrue(result.getSuccess());
     assertEquals("Project updated successfully", result.getMessage());
 
-    // Verify the repository methods were called
-    verify(projectMockRepository).findByID(existingProjectId);
     verify(projectMockRepository)
-        .updateProjectData(
-            1,
-            "New Name", // updated name
-            "House",
-            "Old Address",
-            100,
-            60000.0, // updated total fee
-            10000.0,
-            java.sql.Date.valueOf("2025-12-31"),
-            1, // architectID
-            2, // contractorID
-            3, // customerID
-            4, // engineerID
-            5, // managerID
-            false,
-            null);
+        .patchProjectData(
+            eq(existingProjectId),
+            argThat(
+                patch ->
+                    "New Name".equals(patch.getProjectName())
+                        && new BigDecimal("60000.00").equals(patch.getTotalFee())
+                        && patch.getBuildingType() == null
+                        && patch.getArchitectID() == null
+                        && patch.isProjectFinalised() == null));
+    verify(projectMockRepository, never()).findByID(anyInt());
   }
 
   @Test
@@ -196,8 +170,8 @@ class ProjectServiceTest {
     request.setBuildingType("House");
     request.setProjectAddress("1 Main Street");
     request.setERFNumber(3);
-    request.setTotalFee(50000.0);
-    request.setAmountPaidToDate(10000.0);
+    request.setTotalFee(new BigDecimal("50000.00"));
+    request.setAmountPaidToDate(new BigDecimal("10000.00"));
     request.setProjectDeadline(java.sql.Date.valueOf("2025-12-31"));
     request.setArchitectID(1);
     request.setContractorID(2);
@@ -213,8 +187,8 @@ class ProjectServiceTest {
             "House",
             "1 Main Street",
             3,
-            50000.0,
-            10000.0,
+            new BigDecimal("50000.00"),
+            new BigDecimal("10000.00"),
             java.sql.Date.valueOf("2025-12-31"),
             1,
             2,
@@ -240,8 +214,8 @@ class ProjectServiceTest {
             "House",
             "1 Main Street",
             3,
-            50000.0,
-            10000.0,
+            new BigDecimal("50000.00"),
+            new BigDecimal("10000.00"),
             java.sql.Date.valueOf("2025-12-31"),
             1,
             2,
@@ -259,8 +233,8 @@ class ProjectServiceTest {
     request.setBuildingType("House");
     request.setProjectAddress("1 Main Street");
     request.setERFNumber(3);
-    request.setTotalFee(50000.0);
-    request.setAmountPaidToDate(10000.0);
+    request.setTotalFee(new BigDecimal("50000.00"));
+    request.setAmountPaidToDate(new BigDecimal("10000.00"));
     request.setProjectDeadline(java.sql.Date.valueOf("2025-12-31"));
     request.setArchitectID(1);
     request.setContractorID(2);
@@ -276,8 +250,8 @@ class ProjectServiceTest {
             "House",
             "1 Main Street",
             3,
-            50000.0,
-            10000.0,
+            new BigDecimal("50000.00"),
+            new BigDecimal("10000.00"),
             java.sql.Date.valueOf("2025-12-31"),
             1,
             2,
@@ -296,8 +270,8 @@ class ProjectServiceTest {
             "House",
             "1 Main Street",
             3,
-            50000.0,
-            10000.0,
+            new BigDecimal("50000.00"),
+            new BigDecimal("10000.00"),
             java.sql.Date.valueOf("2025-12-31"),
             1,
             2,
@@ -314,19 +288,17 @@ class ProjectServiceTest {
     int nonExistentId = 999;
     java.sql.Date finalisedDate = java.sql.Date.valueOf("2025-10-16");
 
-    // Mock: project doesn't exist
+    // Mock: the conditional update matches no row, and the project doesn't exist
+    when(projectMockRepository.finaliseProjectData(nonExistentId, finalisedDate, null))
+        .thenReturn(Optional.empty());
     when(projectMockRepository.findByID(nonExistentId)).thenReturn(Optional.empty());
 
     // Act
-    ProjectUpdateResult result = projectService.finaliseProject(nonExistentId, finalisedDate);
+    ProjectUpdateResult result = projectService.finaliseProject(nonExistentId, finalisedDate, null);
 
     // Assert
     assertFalse(result.getSuccess());
     assertEquals("Project not found", result.getMessage());
-
-    // Verify
-    verify(projectMockRepository).findByID(nonExistentId);
-    verify(projectMockRepository, never()).finaliseProjectData(anyInt(), any());
   }
 
   @Test
@@ -343,8 +315,8 @@ class ProjectServiceTest {
             "House",
             "123 Main St",
             100,
-            50000.0,
-            50000.0,
+            new BigDecimal("50000.00"),
+            new BigDecimal("50000.00"),
             java.sql.Date.valueOf("2025-12-31"),
             1,
             2,
@@ -354,65 +326,91 @@ class ProjectServiceTest {
             true,
             java.sql.Date.valueOf("2025-10-01"));
 
-    // Mock: findByID returns the already-finalised project
+    // Mock: the update skips the finalised row, which findByID then explains
+    when(projectMockRepository.finaliseProjectData(existingProjectId, finalisedDate, null))
+        .thenReturn(Optional.empty());
     when(projectMockRepository.findByID(existingProjectId))
         .thenReturn(Optional.of(alreadyFinalisedProject));
 
     // Act
-    ProjectUpdateResult result = projectService.finaliseProject(existingProjectId, finalisedDate);
+    ProjectUpdateResult result =
+        projectService.finaliseProject(existingProjectId, finalisedDate, null);
 
     // Assert - should be rejected - can't finalise a project that is already finalised!
     assertFalse(result.getSuccess());
     assertEquals("This project is already finalised", result.getMessage());
-
-    // Verify
-    verify(projectMockRepository).findByID(existingProjectId);
-    verify(projectMockRepository, never()).finaliseProjectData(anyInt(), any());
   }
 
   @Test
-  void finaliseProject_whenNotFinalised_finalisesSuccessfully() {
+  void finaliseProject_whenNotFinalised_finalisesInOneUpdateWithoutReading() {
     // Arrange
     int existingProjectId = 1;
     java.sql.Date finalisedDate = java.sql.Date.valueOf("2025-10-01");
 
-    // Create a project that's not finalised
-    Projects notFinalisedProject =
-        new Projects(
-            1,
-            "In Progress Project",
-            "House",
-            "123 Main St",
-            100,
-            50000.0,
-            50000.0,
-            java.sql.Date.valueOf("2025-12-31"),
-            1,
-            2,
-            3,
-            4,
-            5,
-            false,
-            null
-            );
-
-    // Mock: findByID returns the not yet finalised project
-    when(projectMockRepository.findByID(existingProjectId))
-        .thenReturn(Optional.of(notFinalisedProject));
-
-    // Mock: finaliseProjectData succeeds
-    when(projectMockRepository.finaliseProjectData(existingProjectId, finalisedDate))
-        .thenReturn(true);
+    // Mock: the conditional update finalises the project and returns its name
+    when(projectMockRepository.finaliseProjectData(existingProjectId, finalisedDate, 4))
+        .thenReturn(Optional.of("In Progress Project"));
 
     // Act
-    ProjectUpdateResult result = projectService.finaliseProject(existingProjectId, finalisedDate);
+    ProjectUpdateResult result =
+        projectService.finaliseProject(existingProjectId, finalisedDate, 4);
 
     // Assert
     assertTrue(result.getSuccess());
     assertEquals("Project finalised successfully", result.getMessage());
+    assertEquals("In Progress Project", result.getProjectName());
 
     // Verify
-    verify(projectMockRepository).findByID(existingProjectId);
-    verify(projectMockRepository).finaliseProjectData(existingProjectId, finalisedDate);
+    verify(projectMockRepository).finaliseProjectData(existingProjectId, finalisedDate, 4);
+    verify(projectMockRepository, never()).findByID(anyInt());
+    verify(eventMockPublisher)
+        .publish(
+            argThat(
+                event ->
+                    event.getType() == ProjectEvent.Type.FINALISED
+                        && event.getProjectID() == existingProjectId
+                        && "In Progress Project".equals(event.getProjectName())));
+  }
+
+  @Test
+  void finaliseProject_whenChangedSinceShown_returnsConflict() {
+    java.sql.Date finalisedDate = java.sql.Date.valueOf("2025-10-01");
+    Projects changed = new Projects(1, "Project", false);
+    changed.setVersion(1);
+
+    when(projectMockRepository.finaliseProjectData(1, finalisedDate, 0))
+        .thenReturn(Optional.empty());
+    when(projectMockRepository.findByID(1)).thenReturn(Optional.of(changed));
+    ProjectUpdateResult result = projectService.finaliseProject(1, finalisedDate, 0);
+
+    assertFalse(result.getSuccess());
+    assertTrue(result.isConflict());
+    verify(eventMockPublisher, never()).publish(any());
+  }
+
+  @Test
+  void createProjects_sendsOneBatchAndReportsEachRow() {
+    ProjectCreateRequest first = new ProjectCreateRequest();
+    first.setProjectName("First House");
+    first.setCustomerID(3);
+    first.setArchitectID(1);
+    ProjectCreateRequest second = new ProjectCreateRequest();
+    second.setProjectName("Second House");
+    second.setCustomerID(99);
+    when(projectMockRepository.createProjectsData(anyList())).thenReturn(new int[] {8, 0});
+
+    List<ProjectUpdateResult> results = projectService.createProjects(List.of(first, second));
+
+    assertTrue(results.get(0).getSuccess());
+    assertEquals("Project created successfully with ID: 8", results.get(0).getMessage());
+    assertFalse(results.get(1).getSuccess());
+    assertEquals("Failed to create project", results.get(1).getMessage());
+    verify(projectMockRepository)
+        .createProjectsData(
+            argThat(
+                projects ->
+                    projects.size() == 2
+                        && projects.get(0).getArchitectID() == 1
+                        && projects.get(1).getArchitectID() == 0));
   }
 }
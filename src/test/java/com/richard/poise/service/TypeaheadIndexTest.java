@@ -0,0 +1,158 @@
+package com.richard.poise.service;
+
+import com.richard.poise.model.People;
+import com.richard.poise.model.Projects;
+import com.richard.poise.repository.InMemoryPersonRepository;
+import com.richard.poise.repository.InMemoryProjectRepository;
+import com.richard.poise.repository.InMemoryStore;
+import com.richard.poise.repository.ProjectRepository;
+import com.richard.poise.repository.RepositoryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TypeaheadIndexTest {
+
+  private InMemoryStore store;
+  private TypeaheadIndex index;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryStore();
+    store.replaceAll(
+        List.of(
+            new People(1, "Alice Smith", "1", "a@example.com", "1 Street", "customer"),
+            new People(2, "Bob O'Brien", "2", "b@example.com", "2 Street", "architect")),
+        List.of(
+            project(1, "Smith House"),
+            project(2, "House Extension"),
+            project(3, "House"),
+            project(4, "Office Park")));
+    index =
+        new TypeaheadIndex(
+            new InMemoryProjectRepository(store), new InMemoryPersonRepository(store));
+  }
+
+  private static Projects project(int projectID, String name) {
+    return new Projects(
+        projectID,
+        name,
+        "house",
+        projectID + " Road",
+        projectID,
+        BigDecimal.ONE,
+        BigDecimal.ZERO,
+        Date.valueOf("2025-01-01"),
+        1,
+        1,
+        1,
+        1,
+        1,
+        false,
+        null);
+  }
+
+  private static List<Integer> ids(List<Suggestion> suggestions) {
+    return suggestions.stream().map(Suggestion::getId).collect(Collectors.toList());
+  }
+
+  @Test
+  void suggestProjects_matchesNamesThenLaterWords() {
+    List<Suggestion> suggestions = index.suggestProjects("  HOU", 10);
+
+    assertEquals(List.of(3, 2, 1), ids(suggestions));
+    assertEquals("House", suggestions.get(0).getName());
+    assertEquals(List.of(3, 2), ids(index.suggestProjects("house", 2)));
+    assertTrue(index.suggestProjects("", 10).isEmpty());
+    assertTrue(index.suggestProjects("garage", 10).isEmpty());
+  }
+
+  @Test
+  void suggestPeople_ignoresCaseAndPunctuation() {
+    assertEquals(List.of(2), ids(index.suggestPeople("BRIEN", 10)));
+    assertEquals(List.of(2), ids(index.suggestPeople("o'b", 10)));
+    assertEquals(List.of(1), ids(index.suggestPeople("smi", 10)));
+  }
+
+  @Test
+  void projectEvents_keepTheIndexCurrent() {
+    index.suggestProjects("house", 10);
+
+    index.onProjectEvents(
+        List.of(
+            new ProjectEvent(ProjectEvent.Type.CREATED, 5, "Harbour House"),
+            new ProjectEvent(ProjectEvent.Type.UPDATED, 3, "Garden Shed"),
+            new ProjectEvent(ProjectEvent.Type.DELETED, 2, "House Extension")));
+
+    // both match on a later word, so the tie goes by ID
+    assertEquals(List.of(1, 5), ids(index.suggestProjects("house", 10)));
+    assertEquals(List.of(3), ids(index.suggestProjects("gar", 10)));
+  }
+
+  @Test
+  void personWrites_keepTheIndexCurrent() {
+    index.suggestPeople("a", 10);
+
+    index.personSaved(3, "Carol Smith");
+    index.personSaved(1, "Alicia Jones");
+    index.personDeleted(2);
+
+    assertEquals(List.of(3), ids(index.suggestPeople("smith", 10)));
+    assertEquals(List.of(1), ids(index.suggestPeople("alicia", 10)));
+    assertTrue(index.suggestPeople("bob", 10).isEmpty());
+  }
+
+  @Test
+  void reload_picksUpChangesMadeAroundTheServices() {
+    index.suggestProjects("house", 10);
+    store.replaceAll(List.of(), List.of(project(7, "Warehouse"), project(8, "Houseboat")));
+
+    assertEquals(List.of(3, 2, 1), ids(index.suggestProjects("house", 10)));
+    index.reload();
+    assertEquals(List.of(8), ids(index.suggestProjects("house", 10)));
+  }
+
+  @Test
+  void reload_keepsTheIndexWhenTheRepositoryFails() {
+    ProjectRepository projectRepository = mock(ProjectRepository.class);
+    when(projectRepository.forEachProject(any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<Projects> action = invocation.getArgument(0);
+              action.accept(project(1, "Smith House"));
+              return 1;
+            })
+        .thenReturn(-1);
+    TypeaheadIndex failingIndex =
+        new TypeaheadIndex(projectRepository, new InMemoryPersonRepository(store));
+    assertEquals(List.of(1), ids(failingIndex.suggestProjects("smith", 10)));
+
+    assertThrows(RepositoryException.class, failingIndex::reload);
+
+    assertEquals(List.of(1), ids(failingIndex.suggestProjects("smith", 10)));
+  }
+
+  @Test
+  void manyChanges_mergeIntoTheBaseWithoutLosingAny() {
+    index.suggestPeople("a", 10);
+    // two keys and a hidden ID each, so this passes the limit
+    for (int id = 100; id < 100 + PrefixIndex.MAX_OVERLAY / 2; id++) {
+      index.personSaved(id, "Person " + id);
+    }
+    index.personSaved(1, "Zed");
+
+    assertEquals(List.of(1), ids(index.suggestPeople("zed", 10)));
+    assertTrue(index.suggestPeople("alice", 10).isEmpty());
+    assertEquals(List.of(100), ids(index.suggestPeople("person 100", 1)));
+    assertEquals(TypeaheadIndex.MAX_SUGGESTIONS, index.suggestPeople("person", 1000).size());
+  }
+}
@@ -0,0 +1,100 @@
+package com.richard.poise.web;
+
+import com.richard.poise.service.ProjectEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Two application instances relaying through one broker, as behind a load balancer. */
+class BrokerRelayTest {
+
+  private final InProcessStompBroker broker = new InProcessStompBroker();
+  private final List<Node> nodes = new ArrayList<>();
+
+  /** One instance: its relay, the channel the application sends on, and what reached browsers. */
+  private class Node {
+    final ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+    final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+    final List<Message<?>> sentToClients = new CopyOnWriteArrayList<>();
+    final StompBrokerRelayMessageHandler relay =
+        new StompBrokerRelayMessageHandler(
+            clientInbound,
+            (message, timeout) -> sentToClients.add(message),
+            brokerChannel,
+            List.of("/topic"));
+    final SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+
+    Node() {
+      relay.setTcpClient(broker);
+      relay.start();
+      // what Spring Boot configures: its ObjectMapper, which can write the message timestamps
+      MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+      converter.setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+      messagingTemplate.setMessageConverter(converter);
+      nodes.add(this);
+    }
+
+    void subscribe(String sessionID, String destination) {
+      StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+      connect.setSessionId(sessionID);
+      connect.setAcceptVersion("1.2");
+      clientInbound.send(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+      StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+      subscribe.setSessionId(sessionID);
+      subscribe.setSubscriptionId("sub-0");
+      subscribe.setDestination(destination);
+      clientInbound.send(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+    }
+
+    List<String> payloadsSentTo(String destination) {
+      List<String> payloads = new ArrayList<>();
+      for (Message<?> message : sentToClients) {
+        if (destination.equals(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))) {
+          payloads.add(new String((byte[]) message.getPayload(), StandardCharsets.UTF_8));
+        }
+      }
+      return payloads;
+    }
+  }
+
+  @AfterEach
+  void stopRelays() {
+    nodes.forEach(node -> node.relay.stop());
+  }
+
+  @Test
+  void finalisationOnOneInstanceReachesViewersOnAnother() {
+    Node nodeA = new Node();
+    Node nodeB = new Node();
+    nodeB.subscribe("viewer", "/topic/project/7/finalized");
+    nodeB.subscribe("dashboard", ProjectEventBroadcaster.LIST_TOPIC);
+
+    new ProjectEventBroadcaster(nodeA.messagingTemplate)
+        .onProjectEvents(
+            List.of(new ProjectEvent(ProjectEvent.Type.FINALISED, 7, "House", true, null)));
+
+    List<String> finalised = nodeB.payloadsSentTo("/topic/project/7/finalized");
+    assertEquals(1, finalised.size());
+    assertTrue(finalised.get(0).contains("\"projectName\":\"House\""), finalised.get(0));
+    List<String> listUpdates = nodeB.payloadsSentTo(ProjectEventBroadcaster.LIST_TOPIC);
+    assertEquals(1, listUpdates.size());
+    assertTrue(listUpdates.get(0).contains("\"type\":\"FINALISED\""), listUpdates.get(0));
+    assertTrue(nodeA.sentToClients.isEmpty());
+  }
+}
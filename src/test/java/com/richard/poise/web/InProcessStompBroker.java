@@ -0,0 +1,113 @@
+package com.richard.poise.web;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.tcp.ReconnectStrategy;
+import org.springframework.messaging.tcp.TcpConnection;
+import org.springframework.messaging.tcp.TcpConnectionHandler;
+import org.springframework.messaging.tcp.TcpOperations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for an external STOMP broker, used as the broker relay's TCP client so several relays
+ * (one per simulated instance) can share one broker without a network. Frames are passed as
+ * messages, not bytes. It understands just enough STOMP for the relay: CONNECT, SUBSCRIBE,
+ * UNSUBSCRIBE, SEND to exact destinations, and DISCONNECT, and never sends heartbeats.
+ */
+class InProcessStompBroker implements TcpOperations<byte[]> {
+
+  private final List<Connection> connections = new CopyOnWriteArrayList<>();
+  private final AtomicLong messageIDs = new AtomicLong();
+
+  @Override
+  public CompletableFuture<Void> connectAsync(TcpConnectionHandler<byte[]> handler) {
+    Connection connection = new Connection(handler);
+    connections.add(connection);
+    handler.afterConnected(connection);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public CompletableFuture<Void> connectAsync(
+      TcpConnectionHandler<byte[]> handler, ReconnectStrategy reconnectStrategy) {
+    return connectAsync(handler);
+  }
+
+  @Override
+  public CompletableFuture<Void> shutdownAsync() {
+    connections.forEach(Connection::close);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private void deliver(String destination, Message<byte[]> send) {
+    for (Connection connection : connections) {
+      String subscriptionID = connection.subscriptions.get(destination);
+      if (subscriptionID != null) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId(subscriptionID);
+        accessor.setMessageId(String.valueOf(messageIDs.incrementAndGet()));
+        accessor.setContentType(StompHeaderAccessor.wrap(send).getContentType());
+        connection.reply(send.getPayload(), accessor);
+      }
+    }
+  }
+
+  private class Connection implements TcpConnection<byte[]> {
+
+    private final TcpConnectionHandler<byte[]> handler;
+    // destination -> subscription ID; a relay subscribes each destination once per session
+    private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+
+    Connection(TcpConnectionHandler<byte[]> handler) {
+      this.handler = handler;
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(Message<byte[]> message) {
+      StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+      StompCommand command = accessor.getCommand();
+      if (command == StompCommand.CONNECT || command == StompCommand.STOMP) {
+        StompHeaderAccessor connected = StompHeaderAccessor.create(StompCommand.CONNECTED);
+        connected.setVersion("1.2");
+        connected.setHeartbeat(0, 0);
+        reply(new byte[0], connected);
+      } else if (command == StompCommand.SUBSCRIBE) {
+        subscriptions.put(accessor.getDestination(), accessor.getSubscriptionId());
+      } else if (command == StompCommand.UNSUBSCRIBE) {
+        subscriptions.values().remove(accessor.getSubscriptionId());
+      } else if (command == StompCommand.SEND) {
+        deliver(accessor.getDestination(), message);
+      } else if (command == StompCommand.DISCONNECT) {
+        close();
+      }
+      return CompletableFuture.completedFuture(null);
+    }
+
+    void reply(byte[] payload, StompHeaderAccessor accessor) {
+      accessor.setLeaveMutable(true);
+      handler.handleMessage(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    @Override
+    public void onReadInactivity(Runnable runnable, long duration) {}
+
+    @Override
+    public void onWriteInactivity(Runnable runnable, long duration) {}
+
+    @Override
+    public void close() {
+      if (connections.remove(this)) {
+        handler.afterConnectionClosed();
+      }
+    }
+  }
+}
@@ -1,13 +1,21 @@
 package com.richard.poise.web;
 
+import com.richard.poise.repository.PersonRepository;
+import com.richard.poise.service.PersonService;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 public class PersonControllerTest {
 
+  // email validation doesn't touch the repository or service, so mocks are enough
+  private PersonController createController() {
+    return new PersonController(mock(PersonRepository.class), mock(PersonService.class));
+  }
+
   @Test
   public void testValidEmailFormat() {
-    PersonController controller = new PersonController();
+    PersonController controller = createController();
 
     boolean result = controller.isValidEmail("test@example.com");
 
@@ -16,7 +24,7 @@ public class PersonControllerTest {
 
   @Test
   public void testInvalidEmailFormat() {
-    PersonController controller = new PersonController();
+    PersonController controller = createController();
 
     boolean result = controller.isValidEmail("notanemail");
 
@@ -25,7 +33,7 @@ public class PersonControllerTest {
 
   @Test
   public void testInvalidEmailAtSign() {
-    PersonController controller = new PersonController();
+    PersonController controller = createController();
 
     boolean result = controller.isValidEmail("testatexample.com");
 
@@ -34,7 +42,7 @@ public class PersonControllerTest {
 
   @Test
   public void testEmptyEmailIsValid() {
-    PersonController controller = new PersonController();
+    PersonController controller = createController();
 
     boolean result = controller.isValidEmail("");
 
@@ -0,0 +1,50 @@
+package com.richard.poise.web;
+
+import com.richard.poise.service.ProjectEvent;
+import com.richard.poise.service.ProjectFinalisationMessage;
+import com.richard.poise.service.ProjectListUpdate;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ProjectEventBroadcasterTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void onProjectEvents_sendsOneListMessagePerBatch() {
+    SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    ProjectEventBroadcaster broadcaster = new ProjectEventBroadcaster(messagingTemplate);
+
+    broadcaster.onProjectEvents(
+        List.of(
+            new ProjectEvent(
+                ProjectEvent.Type.UPDATED, 1, "House", false, Date.valueOf("2025-12-31")),
+            new ProjectEvent(ProjectEvent.Type.FINALISED, 2, "Shop", true, null),
+            new ProjectEvent(ProjectEvent.Type.DELETED, 3, "Barn")));
+
+    ArgumentCaptor<Object> listMessage = ArgumentCaptor.forClass(Object.class);
+    verify(messagingTemplate)
+        .convertAndSend(eq(ProjectEventBroadcaster.LIST_TOPIC), listMessage.capture());
+    List<ProjectListUpdate> updates = (List<ProjectListUpdate>) listMessage.getValue();
+    assertEquals(3, updates.size());
+    assertEquals("UPDATED", updates.get(0).getType());
+    assertEquals("2025-12-31", updates.get(0).getProjectDeadline());
+    assertEquals(Boolean.TRUE, updates.get(1).getProjectFinalised());
+    assertNull(updates.get(2).getProjectFinalised());
+
+    verify(messagingTemplate)
+        .convertAndSend(eq("/topic/project/2/finalized"), any(ProjectFinalisationMessage.class));
+    verify(messagingTemplate, times(2)).convertAndSend(anyString(), any(Object.class));
+  }
+}